@@ -1,6 +1,7 @@
 package com.virtuslab.gitmachete.backend.api;
 
 import io.vavr.collection.List;
+import io.vavr.control.Option;
 
 public interface IForkPointCommitOfManagedBranch extends ICommitOfManagedBranch {
   List<IBranchReference> getBranchesContainingInReflog();
@@ -15,4 +16,12 @@ public interface IForkPointCommitOfManagedBranch extends ICommitOfManagedBranch
   List<IBranchReference> getUniqueBranchesContainingInReflog();
 
   boolean isOverridden();
+
+  /**
+   * @return {@link Option.Some} with the number of ancestor commits searched, if no fork point could be found
+   *         within the limits of the fork point search (as set in {@code machete.forkPoint.maxDepth}
+   *         and {@code machete.forkPoint.maxAgeDays} git config keys) and hence this commit is just a fallback
+   *         to the commit pointed by the parent branch; {@link Option.None} otherwise
+   */
+  Option<Integer> getNotFoundWithinCommitCount();
 }
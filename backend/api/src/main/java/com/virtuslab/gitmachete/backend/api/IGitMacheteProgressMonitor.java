@@ -0,0 +1,15 @@
+package com.virtuslab.gitmachete.backend.api;
+
+/**
+ * Lets the long-running operations of {@link IGitMacheteRepository} report their progress,
+ * and find out whether they should stop early (in which case they throw {@link GitMacheteException}).
+ * All the methods might be called from any thread, also concurrently.
+ */
+public interface IGitMacheteProgressMonitor {
+  boolean isCancelled();
+
+  /**
+   * @param fraction the part of the operation already done, from 0.0 to 1.0
+   */
+  void setFraction(double fraction);
+}
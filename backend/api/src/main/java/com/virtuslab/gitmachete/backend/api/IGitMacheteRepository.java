@@ -6,15 +6,71 @@ import io.vavr.control.Option;
 import com.virtuslab.branchlayout.api.IBranchLayout;
 import com.virtuslab.qual.guieffect.UIThreadUnsafe;
 
+/**
+ * Each of the operations comes in two variants: with and without an {@link IGitMacheteProgressMonitor}.
+ * The former checks the monitor for cancellation before each branch and each commit of a walk over the history,
+ * and reports the fraction of the branches already done.
+ */
 public interface IGitMacheteRepository {
   @UIThreadUnsafe
-  IGitMacheteRepositorySnapshot createSnapshotForLayout(IBranchLayout branchLayout) throws GitMacheteException;
+  default IGitMacheteRepositorySnapshot createSnapshotForLayout(IBranchLayout branchLayout) throws GitMacheteException {
+    return createSnapshotForLayout(branchLayout, NullGitMacheteProgressMonitor.getInstance());
+  }
+
+  @UIThreadUnsafe
+  IGitMacheteRepositorySnapshot createSnapshotForLayout(IBranchLayout branchLayout,
+      IGitMacheteProgressMonitor progressMonitor) throws GitMacheteException;
+
+  /**
+   * Works like {@link #createSnapshotForLayout(IBranchLayout)}, but reuses the data derived for those managed branches
+   * of {@code previousSnapshot} whose own pointed commit, parent commit, remote tracking commit and reflog head
+   * have not changed since {@code previousSnapshot} has been created.
+   * If nothing in the repository (refs, reflogs, config, ongoing operation, machete file) nor in the layout has changed
+   * in the meantime, {@code previousSnapshot} itself is returned.
+   *
+   * @param previousSnapshot a snapshot previously created by this repository;
+   *                         snapshots of any other origin are ignored
+   */
+  @UIThreadUnsafe
+  default IGitMacheteRepositorySnapshot createSnapshotForLayout(IBranchLayout branchLayout,
+      IGitMacheteRepositorySnapshot previousSnapshot) throws GitMacheteException {
+    return createSnapshotForLayout(branchLayout, previousSnapshot, NullGitMacheteProgressMonitor.getInstance());
+  }
+
+  @UIThreadUnsafe
+  IGitMacheteRepositorySnapshot createSnapshotForLayout(IBranchLayout branchLayout,
+      IGitMacheteRepositorySnapshot previousSnapshot,
+      IGitMacheteProgressMonitor progressMonitor) throws GitMacheteException;
+
+  /**
+   * Creates a snapshot out of the data that can be read straight from the refs and the repository state,
+   * i.e. the branches with their pointed commits, the current branch and the ongoing operation,
+   * with nothing derived from walking the history or the reflogs.
+   * Intended to be displayed (see {@link IGitMacheteRepositorySnapshot#isSkeleton}) while the actual snapshot,
+   * as created by {@link #createSnapshotForLayout(IBranchLayout)}, is still in progress.
+   */
+  @UIThreadUnsafe
+  IGitMacheteRepositorySnapshot createSkeletonSnapshotForLayout(IBranchLayout branchLayout) throws GitMacheteException;
+
+  @UIThreadUnsafe
+  default Option<ILocalBranchReference> inferParentForLocalBranch(
+      Set<String> eligibleLocalBranchNames,
+      String localBranchName) throws GitMacheteException {
+    return inferParentForLocalBranch(eligibleLocalBranchNames, localBranchName, NullGitMacheteProgressMonitor.getInstance());
+  }
 
   @UIThreadUnsafe
   Option<ILocalBranchReference> inferParentForLocalBranch(
       Set<String> eligibleLocalBranchNames,
-      String localBranchName) throws GitMacheteException;
+      String localBranchName,
+      IGitMacheteProgressMonitor progressMonitor) throws GitMacheteException;
+
+  @UIThreadUnsafe
+  default IGitMacheteRepositorySnapshot discoverLayoutAndCreateSnapshot() throws GitMacheteException {
+    return discoverLayoutAndCreateSnapshot(NullGitMacheteProgressMonitor.getInstance());
+  }
 
   @UIThreadUnsafe
-  IGitMacheteRepositorySnapshot discoverLayoutAndCreateSnapshot() throws GitMacheteException;
+  IGitMacheteRepositorySnapshot discoverLayoutAndCreateSnapshot(IGitMacheteProgressMonitor progressMonitor)
+      throws GitMacheteException;
 }
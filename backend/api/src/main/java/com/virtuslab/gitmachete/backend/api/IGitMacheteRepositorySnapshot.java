@@ -32,4 +32,13 @@ public interface IGitMacheteRepositorySnapshot {
   OngoingRepositoryOperation getOngoingRepositoryOperation();
 
   Option<String> getRebasedBranchName();
+
+  /**
+   * @return true if this snapshot has been created by {@link IGitMacheteRepository#createSkeletonSnapshotForLayout};
+   *         if so, the statuses of its branches (both to the parent and to the remote), their commits, fork points
+   *         and status hook outputs are just placeholders (all in sync, no commits, no fork points, no outputs)
+   */
+  default boolean isSkeleton() {
+    return false;
+  }
 }
@@ -1,5 +1,8 @@
 package com.virtuslab.gitmachete.backend.api;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
 import io.vavr.collection.List;
 import io.vavr.control.Option;
 import org.checkerframework.framework.qual.EnsuresQualifierIf;
@@ -42,5 +45,17 @@ public interface IManagedBranchSnapshot extends ILocalBranchReference {
 
   Option<String> getCustomAnnotation();
 
+  /**
+   * @return the output of machete-status-branch hook, or {@link Option.None} if there's no output
+   *         or the hook hasn't completed yet; never waits for the hook to complete
+   */
   Option<String> getStatusHookOutput();
+
+  /**
+   * @return a stage completed with the output of machete-status-branch hook once the hook completes
+   *         (possibly already completed), see {@link #getStatusHookOutput}
+   */
+  default CompletionStage<Option<String>> getStatusHookOutputAsync() {
+    return CompletableFuture.completedStage(getStatusHookOutput());
+  }
 }
@@ -4,6 +4,8 @@ import io.vavr.NotImplementedError;
 import io.vavr.collection.List;
 import io.vavr.control.Option;
 
+import com.virtuslab.qual.guieffect.UIThreadUnsafe;
+
 public interface INonRootManagedBranchSnapshot extends IManagedBranchSnapshot {
 
   @Override
@@ -21,13 +23,43 @@ public interface INonRootManagedBranchSnapshot extends IManagedBranchSnapshot {
     return this;
   }
 
+  /**
+   * @return the first page of the commits of the branch (from the most recent one), which is all of them
+   *         unless {@link #hasMoreCommits}; see {@link #getCommitCount} and {@link #loadCommits}
+   */
   List<ICommitOfManagedBranch> getCommits();
 
+  /**
+   * @return the number of all the commits of the branch, including the ones past the page returned by {@link #getCommits}
+   */
+  int getCommitCount();
+
+  default boolean hasMoreCommits() {
+    return getCommitCount() > getCommits().size();
+  }
+
+  /**
+   * Loads (at most) {@code maxCount} commits of the branch, starting from the {@code skipCount}-th one (0-based,
+   * from the most recent one). Doesn't change the snapshot, so it's up to the caller to hold on to the loaded commits.
+   * Safe to be called concurrently.
+   */
+  @UIThreadUnsafe
+  List<ICommitOfManagedBranch> loadCommits(int skipCount, int maxCount) throws GitMacheteException;
+
   IManagedBranchSnapshot getParent();
 
   SyncToParentStatus getSyncToParentStatus();
 
   Option<IForkPointCommitOfManagedBranch> getForkPoint();
 
+  /**
+   * @return {@link Option.Some} with the number of ancestor commits searched, if no fork point could be found
+   *         within the limits of the fork point search; be it when {@link #getForkPoint} is just a fallback
+   *         to the commit pointed by the parent branch
+   *         (see {@link IForkPointCommitOfManagedBranch#getNotFoundWithinCommitCount}) or when it's empty,
+   *         as the parent branch isn't an ancestor of this branch; {@link Option.None} otherwise
+   */
+  Option<Integer> getForkPointNotFoundWithinCommitCount();
+
   IGitRebaseParameters getParametersForRebaseOntoParent() throws GitMacheteMissingForkPointException;
 }
@@ -1,6 +1,7 @@
 package com.virtuslab.gitmachete.backend.api;
 
 import io.vavr.collection.List;
+import io.vavr.collection.Set;
 import io.vavr.control.Option;
 
 import com.virtuslab.branchlayout.api.IBranchLayout;
@@ -34,4 +35,9 @@ public final class NullBranchLayout implements IBranchLayout {
   public IBranchLayout slideOut(String branchName) {
     return this;
   }
+
+  @Override
+  public IBranchLayout slideOut(Set<String> branchNames) {
+    return this;
+  }
 }
@@ -0,0 +1,19 @@
+package com.virtuslab.gitmachete.backend.api;
+
+public final class NullGitMacheteProgressMonitor implements IGitMacheteProgressMonitor {
+  private static final IGitMacheteProgressMonitor instance = new NullGitMacheteProgressMonitor();
+
+  public static IGitMacheteProgressMonitor getInstance() {
+    return instance;
+  }
+
+  private NullGitMacheteProgressMonitor() {}
+
+  @Override
+  public boolean isCancelled() {
+    return false;
+  }
+
+  @Override
+  public void setFraction(double fraction) {}
+}
@@ -14,6 +14,7 @@ dependencies {
 
 commonsIO()
 jcabiAspects()
+jmh()
 junit()
 lombok()
 powerMock()
@@ -23,6 +24,15 @@ vavr()
 
 applySubtypingChecker()
 
+// The configurations of `jmh` source set only exist once `jmh()` has been applied.
+dependencies {
+  "jmhImplementation"(project(":binding"))
+  "jmhImplementation"(project(":gitCore:api"))
+  "jmhImplementation"(testFixtures(project(":testCommon")))
+  "jmhRuntimeOnly"(project(":branchLayout:impl"))
+  "jmhRuntimeOnly"(project(":gitCore:jGit"))
+}
+
 tasks.register<JavaExec>("regenerateCliOutputs") {
   group = "Execution"
   description = "Regenerate CLI outputs used for comparison in tests"
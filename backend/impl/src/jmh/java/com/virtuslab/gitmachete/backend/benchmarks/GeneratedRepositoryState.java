@@ -0,0 +1,92 @@
+package com.virtuslab.gitmachete.backend.benchmarks;
+
+import static com.virtuslab.gitmachete.testcommon.TestFileUtils.cleanUpDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import io.vavr.CheckedFunction1;
+import io.vavr.collection.HashSet;
+import io.vavr.collection.List;
+import io.vavr.collection.Set;
+import lombok.val;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.virtuslab.binding.RuntimeBinding;
+import com.virtuslab.branchlayout.api.IBranchLayout;
+import com.virtuslab.branchlayout.api.readwrite.IBranchLayoutReader;
+import com.virtuslab.gitcore.api.IGitCoreLocalBranchSnapshot;
+import com.virtuslab.gitcore.api.IGitCoreRepository;
+import com.virtuslab.gitcore.api.IGitCoreRepositoryFactory;
+import com.virtuslab.gitmachete.backend.api.IGitMacheteRepository;
+import com.virtuslab.gitmachete.backend.api.IGitMacheteRepositorySnapshot;
+import com.virtuslab.gitmachete.backend.api.RelationToRemote;
+import com.virtuslab.gitmachete.backend.impl.GitMacheteRepositoryBenchmarkHooks;
+import com.virtuslab.gitmachete.backend.impl.GitMacheteRepositoryCache;
+import com.virtuslab.gitmachete.testcommon.LargeRepositoryGenerator;
+
+/**
+ * A repository generated once per each combination of the parameters (and then shared by all the benchmark iterations),
+ * together with everything that the benchmarks need besides the operation being measured.
+ */
+@State(Scope.Benchmark)
+@SuppressWarnings("nullness:initialization.fields.uninitialized") // JMH runs the @Setup method before any benchmark
+public class GeneratedRepositoryState {
+
+  @Param({"100", "1000"})
+  public int branchCount;
+
+  @Param({"10"})
+  public int commitsPerBranch;
+
+  @Param({"50"})
+  public int reflogDepth;
+
+  @Param({"1", "3"})
+  public int remoteCount;
+
+  Path rootDirectoryPath;
+  IGitMacheteRepository gitMacheteRepository;
+  IBranchLayout branchLayout;
+  IGitMacheteRepositorySnapshot previousSnapshot;
+
+  Set<String> eligibleParentNames;
+  String branchNameToInferParentFor;
+
+  // For the benchmarks of the private methods of GitMacheteRepository (see GitMacheteRepositoryBenchmarkHooks).
+  CheckedFunction1<IGitCoreLocalBranchSnapshot, RelationToRemote> relationToRemoteDerivation;
+  List<IGitCoreLocalBranchSnapshot> localBranches;
+
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    rootDirectoryPath = Files.createTempDirectory("machete-benchmark-");
+    val generator = new LargeRepositoryGenerator(branchCount, commitsPerBranch, reflogDepth, remoteCount);
+    generator.generate(rootDirectoryPath);
+    Path gitDirectoryPath = rootDirectoryPath.resolve(".git");
+
+    gitMacheteRepository = new GitMacheteRepositoryCache().getInstance(rootDirectoryPath, gitDirectoryPath,
+        gitDirectoryPath);
+    branchLayout = RuntimeBinding.instantiateSoleImplementingClass(IBranchLayoutReader.class)
+        .read(gitDirectoryPath.resolve("machete"));
+    previousSnapshot = gitMacheteRepository.createSnapshotForLayout(branchLayout);
+
+    val branchNames = List.ofAll(generator.getBranchNames());
+    branchNameToInferParentFor = branchNames.last();
+    eligibleParentNames = HashSet.ofAll(branchNames.init()).add(LargeRepositoryGenerator.MAIN_BRANCH_NAME);
+
+    IGitCoreRepository gitCoreRepository = RuntimeBinding.instantiateSoleImplementingClass(IGitCoreRepositoryFactory.class)
+        .create(rootDirectoryPath, gitDirectoryPath, gitDirectoryPath);
+    relationToRemoteDerivation = GitMacheteRepositoryBenchmarkHooks.relationToRemoteDerivationFor(gitCoreRepository);
+    localBranches = gitCoreRepository.deriveAllLocalBranches();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    cleanUpDir(rootDirectoryPath);
+  }
+}
@@ -0,0 +1,53 @@
+package com.virtuslab.gitmachete.backend.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import io.vavr.control.Option;
+import lombok.val;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.virtuslab.gitmachete.backend.api.IGitMacheteRepositorySnapshot;
+import com.virtuslab.gitmachete.backend.api.ILocalBranchReference;
+
+/**
+ * Run with {@code ./gradlew :backend:impl:jmh}; the results end up in {@code backend/impl/build/reports/jmh/results.json}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class GitMacheteRepositoryBenchmarks {
+
+  @Benchmark
+  public IGitMacheteRepositorySnapshot createSnapshotForLayout(GeneratedRepositoryState state) throws Exception {
+    return state.gitMacheteRepository.createSnapshotForLayout(state.branchLayout);
+  }
+
+  @Benchmark
+  public IGitMacheteRepositorySnapshot createSnapshotForLayoutReusingPreviousSnapshot(GeneratedRepositoryState state)
+      throws Exception {
+    return state.gitMacheteRepository.createSnapshotForLayout(state.branchLayout, state.previousSnapshot);
+  }
+
+  @Benchmark
+  public IGitMacheteRepositorySnapshot discoverLayoutAndCreateSnapshot(GeneratedRepositoryState state) throws Exception {
+    return state.gitMacheteRepository.discoverLayoutAndCreateSnapshot();
+  }
+
+  @Benchmark
+  public Option<ILocalBranchReference> inferParentForLocalBranch(GeneratedRepositoryState state)
+      throws Exception {
+    return state.gitMacheteRepository.inferParentForLocalBranch(state.eligibleParentNames,
+        state.branchNameToInferParentFor);
+  }
+
+  @Benchmark
+  public void deriveRelationToRemoteForAllLocalBranches(GeneratedRepositoryState state, Blackhole blackhole)
+      throws Throwable {
+    for (val localBranch : state.localBranches) {
+      blackhole.consume(state.relationToRemoteDerivation.apply(localBranch));
+    }
+  }
+}
@@ -0,0 +1,20 @@
+package com.virtuslab.gitmachete.backend.impl;
+
+import io.vavr.CheckedFunction1;
+
+import com.virtuslab.gitcore.api.GitCoreException;
+import com.virtuslab.gitcore.api.IGitCoreLocalBranchSnapshot;
+import com.virtuslab.gitcore.api.IGitCoreRepository;
+import com.virtuslab.gitmachete.backend.api.RelationToRemote;
+
+/**
+ * Exposes the package-private hooks of {@link GitMacheteRepository} to the benchmarks, which live in another package.
+ */
+public final class GitMacheteRepositoryBenchmarkHooks {
+  private GitMacheteRepositoryBenchmarkHooks() {}
+
+  public static CheckedFunction1<IGitCoreLocalBranchSnapshot, RelationToRemote> relationToRemoteDerivationFor(
+      IGitCoreRepository gitCoreRepository) throws GitCoreException {
+    return GitMacheteRepository.relationToRemoteDerivationFor(gitCoreRepository);
+  }
+}
@@ -1,5 +1,8 @@
 package com.virtuslab.gitmachete.backend.impl;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
 import io.vavr.collection.List;
 import io.vavr.control.Option;
 import lombok.AccessLevel;
@@ -27,7 +30,10 @@ public abstract class BaseManagedBranchSnapshot implements IManagedBranchSnapsho
   private final @Nullable IRemoteTrackingBranchReference remoteTrackingBranch;
   private final RelationToRemote relationToRemote;
   private final @Nullable String customAnnotation;
-  private final @Nullable String statusHookOutput;
+  // Completed in the background, so that the snapshot doesn't need to wait for the (potentially slow) hook
+  @Getter(AccessLevel.NONE)
+  @ToString.Exclude
+  private final CompletableFuture<Option<String>> statusHookOutput;
 
   @ToString.Include(name = "children") // avoid recursive `toString` calls on child branches
   private List<String> getChildNames() {
@@ -58,6 +64,12 @@ public abstract class BaseManagedBranchSnapshot implements IManagedBranchSnapsho
 
   @Override
   public Option<String> getStatusHookOutput() {
-    return Option.of(statusHookOutput);
+    return statusHookOutput.getNow(Option.none());
+  }
+
+  @Override
+  public CompletionStage<Option<String>> getStatusHookOutputAsync() {
+    // So that the callers can't complete the future on their own
+    return statusHookOutput.minimalCompletionStage();
   }
 }
@@ -1,8 +1,10 @@
 package com.virtuslab.gitmachete.backend.impl;
 
 import io.vavr.collection.List;
+import io.vavr.control.Option;
 import lombok.Getter;
 import lombok.ToString;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import com.virtuslab.gitcore.api.IGitCoreCommit;
 import com.virtuslab.gitmachete.backend.api.IBranchReference;
@@ -17,27 +19,42 @@ public final class ForkPointCommitOfManagedBranch extends CommitOfManagedBranch
   @Getter
   private final boolean isOverridden;
 
+  private final @Nullable Integer notFoundWithinCommitCount;
+
   private ForkPointCommitOfManagedBranch(
       IGitCoreCommit coreCommit,
       List<IBranchReference> branchesContainingInReflog,
-      boolean isOverridden) {
+      boolean isOverridden,
+      @Nullable Integer notFoundWithinCommitCount) {
     super(coreCommit);
     this.branchesContainingInReflog = branchesContainingInReflog;
     this.isOverridden = isOverridden;
+    this.notFoundWithinCommitCount = notFoundWithinCommitCount;
   }
 
   public static ForkPointCommitOfManagedBranch overridden(IGitCoreCommit overrideCoreCommit) {
-    return new ForkPointCommitOfManagedBranch(overrideCoreCommit, List.empty(), true);
+    return new ForkPointCommitOfManagedBranch(overrideCoreCommit, List.empty(), true, null);
   }
 
   public static ForkPointCommitOfManagedBranch inferred(
       IGitCoreCommit coreCommit,
       List<IBranchReference> branchesContainingInReflog) {
-    return new ForkPointCommitOfManagedBranch(coreCommit, branchesContainingInReflog, false);
+    return new ForkPointCommitOfManagedBranch(coreCommit, branchesContainingInReflog, false, null);
   }
 
   public static ForkPointCommitOfManagedBranch fallbackToParent(IGitCoreCommit parentCoreCommit) {
-    return new ForkPointCommitOfManagedBranch(parentCoreCommit, List.empty(), false);
+    return new ForkPointCommitOfManagedBranch(parentCoreCommit, List.empty(), false, null);
+  }
+
+  public static ForkPointCommitOfManagedBranch fallbackToParentAfterSearchCutOff(
+      IGitCoreCommit parentCoreCommit,
+      int searchedCommitCount) {
+    return new ForkPointCommitOfManagedBranch(parentCoreCommit, List.empty(), false, searchedCommitCount);
+  }
+
+  @Override
+  public Option<Integer> getNotFoundWithinCommitCount() {
+    return Option.of(notFoundWithinCommitCount);
   }
 
   @Override
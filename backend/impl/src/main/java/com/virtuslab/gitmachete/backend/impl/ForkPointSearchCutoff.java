@@ -0,0 +1,26 @@
+package com.virtuslab.gitmachete.backend.impl;
+
+import java.time.Duration;
+
+import lombok.Data;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Limits of the search for a fork point (or for an inferred parent) among the ancestors of a branch,
+ * as set in {@code machete.forkPoint.maxDepth} (number of commits)
+ * and {@code machete.forkPoint.maxAgeDays} (relative to the commit pointed by the branch) git config keys.
+ * <p>
+ * Once any limit is set, the ancestors are walked in commit date order rather than in topological order,
+ * so that the search stopping at the first hit (or at the cutoff) doesn't need to load the entire history.
+ */
+@Data(staticConstructor = "of")
+public class ForkPointSearchCutoff {
+  public static final ForkPointSearchCutoff NONE = ForkPointSearchCutoff.of(Integer.MAX_VALUE, null);
+
+  private final int maxDepth;
+  private final @Nullable Duration maxAge;
+
+  public boolean isNone() {
+    return maxDepth == Integer.MAX_VALUE && maxAge == null;
+  }
+}
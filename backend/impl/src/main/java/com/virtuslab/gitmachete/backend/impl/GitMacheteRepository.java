@@ -9,10 +9,17 @@ import static io.vavr.API.$;
 import static io.vavr.API.Case;
 import static io.vavr.API.Match;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
 
 import com.jcabi.aspects.Loggable;
+import io.vavr.CheckedFunction1;
 import io.vavr.Tuple;
 import io.vavr.Tuple2;
 import io.vavr.collection.HashMap;
@@ -21,6 +28,7 @@ import io.vavr.collection.Map;
 import io.vavr.collection.Queue;
 import io.vavr.collection.Seq;
 import io.vavr.collection.Set;
+import io.vavr.collection.Stream;
 import io.vavr.collection.TreeSet;
 import io.vavr.control.Option;
 import io.vavr.control.Try;
@@ -41,9 +49,11 @@ import com.virtuslab.branchlayout.api.BranchLayout;
 import com.virtuslab.branchlayout.api.IBranchLayout;
 import com.virtuslab.branchlayout.api.IBranchLayoutEntry;
 import com.virtuslab.gitcore.api.GitCoreException;
+import com.virtuslab.gitcore.api.GitCoreRefStateFingerprint;
 import com.virtuslab.gitcore.api.GitCoreRelativeCommitCount;
 import com.virtuslab.gitcore.api.GitCoreRepositoryState;
 import com.virtuslab.gitcore.api.IGitCoreBranchSnapshot;
+import com.virtuslab.gitcore.api.IGitCoreCancellationToken;
 import com.virtuslab.gitcore.api.IGitCoreCommit;
 import com.virtuslab.gitcore.api.IGitCoreCommitHash;
 import com.virtuslab.gitcore.api.IGitCoreLocalBranchSnapshot;
@@ -52,11 +62,14 @@ import com.virtuslab.gitcore.api.IGitCoreRemoteBranchSnapshot;
 import com.virtuslab.gitcore.api.IGitCoreRepository;
 import com.virtuslab.gitmachete.backend.api.GitMacheteException;
 import com.virtuslab.gitmachete.backend.api.IBranchReference;
+import com.virtuslab.gitmachete.backend.api.IForkPointCommitOfManagedBranch;
+import com.virtuslab.gitmachete.backend.api.IGitMacheteProgressMonitor;
 import com.virtuslab.gitmachete.backend.api.IGitMacheteRepository;
 import com.virtuslab.gitmachete.backend.api.IGitMacheteRepositorySnapshot;
 import com.virtuslab.gitmachete.backend.api.ILocalBranchReference;
 import com.virtuslab.gitmachete.backend.api.IManagedBranchSnapshot;
 import com.virtuslab.gitmachete.backend.api.IRemoteTrackingBranchReference;
+import com.virtuslab.gitmachete.backend.api.NullGitMacheteProgressMonitor;
 import com.virtuslab.gitmachete.backend.api.OngoingRepositoryOperation;
 import com.virtuslab.gitmachete.backend.api.RelationToRemote;
 import com.virtuslab.gitmachete.backend.api.SyncToParentStatus;
@@ -72,28 +85,87 @@ public class GitMacheteRepository implements IGitMacheteRepository {
   private final StatusBranchHookExecutor statusHookExecutor;
   private final PreRebaseHookExecutor preRebaseHookExecutor;
 
+  // Outlives the snapshots, so that only the reflogs changed since the previous snapshot need to be re-indexed
+  private final ReflogCommitIndex reflogCommitIndex = new ReflogCommitIndex();
+
+  // Outlives the snapshots as well, see SharedForkJoinPool; shut down once the repository is disposed
+  private final SharedForkJoinPool sharedForkJoinPool = new SharedForkJoinPool();
+
   private static final int NUMBER_OF_MOST_RECENTLY_CHECKED_OUT_BRANCHES_FOR_DISCOVER = 10;
 
+  private static final int MAX_DEFAULT_PARALLELISM = 4;
+
+  // Hook executions are mostly waiting for the hook processes (and whatever they call), rather than using up the CPU.
+  private static final int DEFAULT_STATUS_HOOK_PARALLELISM = 8;
+
+  @Override
+  @UIThreadUnsafe
+  @Loggable(value = Loggable.DEBUG, prepend = true, skipArgs = true, skipResult = true)
+  public IGitMacheteRepositorySnapshot createSnapshotForLayout(IBranchLayout branchLayout,
+      IGitMacheteProgressMonitor progressMonitor) throws GitMacheteException {
+    // A single batch session for the entire operation, so that each commit is parsed at most once
+    try (val batchSession = gitCoreRepository.openBatchSession(progressMonitor::isCancelled);
+        val forkJoinPoolLease = sharedForkJoinPool.lease(deriveParallelism(gitCoreRepository))) {
+      val aux = new CreateGitMacheteRepositoryAux(gitCoreRepository, statusHookExecutor, preRebaseHookExecutor);
+      configure(aux, progressMonitor, forkJoinPoolLease, deriveRefStateFingerprint());
+      return aux.createSnapshot(branchLayout);
+    } catch (GitCoreException e) {
+      throw new GitMacheteException(e);
+    }
+  }
+
   @Override
   @UIThreadUnsafe
   @Loggable(value = Loggable.DEBUG, prepend = true, skipArgs = true, skipResult = true)
-  public IGitMacheteRepositorySnapshot createSnapshotForLayout(IBranchLayout branchLayout) throws GitMacheteException {
-    try {
+  public IGitMacheteRepositorySnapshot createSnapshotForLayout(IBranchLayout branchLayout,
+      IGitMacheteRepositorySnapshot previousSnapshot,
+      IGitMacheteProgressMonitor progressMonitor) throws GitMacheteException {
+    val refStateFingerprint = deriveRefStateFingerprint();
+    if (previousSnapshot instanceof GitMacheteRepositorySnapshot) {
+      val previousRefStateFingerprint = ((GitMacheteRepositorySnapshot) previousSnapshot).getRefStateFingerprint();
+      if (refStateFingerprint != null && refStateFingerprint.equals(previousRefStateFingerprint)
+          && areEquivalent(branchLayout.getRootEntries(), previousSnapshot.getBranchLayout().getRootEntries())) {
+        LOG.debug("Neither the refs nor the layout have changed since the previous snapshot was created, reusing it");
+        return previousSnapshot;
+      }
+    }
+
+    try (val batchSession = gitCoreRepository.openBatchSession(progressMonitor::isCancelled);
+        val forkJoinPoolLease = sharedForkJoinPool.lease(deriveParallelism(gitCoreRepository))) {
       val aux = new CreateGitMacheteRepositoryAux(gitCoreRepository, statusHookExecutor, preRebaseHookExecutor);
+      configure(aux, progressMonitor, forkJoinPoolLease, refStateFingerprint);
+      if (previousSnapshot instanceof GitMacheteRepositorySnapshot) {
+        aux.reuseUnchangedBranchesOf((GitMacheteRepositorySnapshot) previousSnapshot);
+      }
       return aux.createSnapshot(branchLayout);
     } catch (GitCoreException e) {
       throw new GitMacheteException(e);
     }
   }
 
+  @Override
+  @UIThreadUnsafe
+  @Loggable(value = Loggable.DEBUG, prepend = true, skipArgs = true, skipResult = true)
+  public IGitMacheteRepositorySnapshot createSkeletonSnapshotForLayout(IBranchLayout branchLayout)
+      throws GitMacheteException {
+    try (val batchSession = gitCoreRepository.openBatchSession()) {
+      val aux = new CreateGitMacheteRepositoryAux(gitCoreRepository, statusHookExecutor, preRebaseHookExecutor);
+      return aux.createSkeletonSnapshot(branchLayout);
+    } catch (GitCoreException e) {
+      throw new GitMacheteException(e);
+    }
+  }
+
   @Override
   @UIThreadUnsafe
   @Loggable(value = Loggable.DEBUG, prepend = true)
   public Option<ILocalBranchReference> inferParentForLocalBranch(
       Set<String> eligibleLocalBranchNames,
-      String localBranchName) throws GitMacheteException {
-    try {
+      String localBranchName,
+      IGitMacheteProgressMonitor progressMonitor) throws GitMacheteException {
+    try (val batchSession = gitCoreRepository.openBatchSession(progressMonitor::isCancelled)) {
       val aux = new Aux(gitCoreRepository);
+      configure(aux, progressMonitor);
       return aux.inferParentForLocalBranch(eligibleLocalBranchNames, localBranchName);
     } catch (GitCoreException e) {
       throw new GitMacheteException(e);
@@ -102,24 +174,129 @@ public class GitMacheteRepository implements IGitMacheteRepository {
 
   @Override
   @UIThreadUnsafe
-  @Loggable(value = Loggable.DEBUG, prepend = true, skipResult = true)
-  public IGitMacheteRepositorySnapshot discoverLayoutAndCreateSnapshot() throws GitMacheteException {
-    try {
+  @Loggable(value = Loggable.DEBUG, prepend = true, skipArgs = true, skipResult = true)
+  public IGitMacheteRepositorySnapshot discoverLayoutAndCreateSnapshot(IGitMacheteProgressMonitor progressMonitor)
+      throws GitMacheteException {
+    try (val batchSession = gitCoreRepository.openBatchSession(progressMonitor::isCancelled);
+        val forkJoinPoolLease = sharedForkJoinPool.lease(deriveParallelism(gitCoreRepository))) {
       val aux = new DiscoverGitMacheteRepositoryAux(gitCoreRepository, statusHookExecutor, preRebaseHookExecutor);
+      // The layout is yet to be discovered (and then saved), so the snapshot isn't going to be reused anyway.
+      configure(aux, progressMonitor, forkJoinPoolLease, /* refStateFingerprint */ null);
       return aux.discoverLayoutAndCreateSnapshot(NUMBER_OF_MOST_RECENTLY_CHECKED_OUT_BRANCHES_FOR_DISCOVER);
     } catch (GitCoreException e) {
       throw new GitMacheteException(e);
     }
   }
 
+  /**
+   * @return the action that releases the resources held by this repository (i.e. shuts down its fork-join pool),
+   *         which doesn't refer to the repository itself, so that it can be run once the repository is unreachable
+   */
+  Runnable getDisposeAction() {
+    return sharedForkJoinPool::shutdown;
+  }
+
+  /**
+   * The git config is read anew for each operation (JGit only re-parses it once it's changed),
+   * so that the changes to {@code machete.*} keys are picked up without re-opening the repository.
+   */
+  private void configure(Aux aux, IGitMacheteProgressMonitor progressMonitor) {
+    aux.setProgressMonitor(progressMonitor);
+    aux.useReflogCommitIndex(reflogCommitIndex);
+    aux.setForkPointSearchCutoff(deriveForkPointSearchCutoff(gitCoreRepository));
+  }
+
+  private void configure(CreateGitMacheteRepositoryAux aux, IGitMacheteProgressMonitor progressMonitor,
+      SharedForkJoinPool.Lease forkJoinPoolLease, @Nullable GitCoreRefStateFingerprint refStateFingerprint) {
+    configure((Aux) aux, progressMonitor);
+    aux.useForkJoinPool(forkJoinPoolLease.getPool());
+    statusHookExecutor.setParallelism(deriveStatusHookParallelism(gitCoreRepository));
+    aux.setRefStateFingerprint(refStateFingerprint);
+  }
+
+  /**
+   * @return the number of threads that the branch subtrees of a snapshot are created in,
+   *         as set in {@code machete.status.parallelism} git config key (1 means sequential),
+   *         or by default, the number of available processors (but no more than {@value MAX_DEFAULT_PARALLELISM})
+   */
+  private static int deriveParallelism(IGitCoreRepository gitCoreRepository) {
+    return derivePositiveIntConfigValue(gitCoreRepository, "status", "parallelism")
+        .getOrElse(() -> Math.min(Runtime.getRuntime().availableProcessors(), MAX_DEFAULT_PARALLELISM));
+  }
+
+  /**
+   * @return the maximum number of machete-status-branch hook processes running at the same time,
+   *         as set in {@code machete.statusBranchHook.parallelism} git config key,
+   *         or {@value DEFAULT_STATUS_HOOK_PARALLELISM} by default
+   */
+  static int deriveStatusHookParallelism(IGitCoreRepository gitCoreRepository) {
+    return derivePositiveIntConfigValue(gitCoreRepository, "statusBranchHook", "parallelism")
+        .getOrElse(DEFAULT_STATUS_HOOK_PARALLELISM);
+  }
+
+  /**
+   * Lets the benchmarks (see {@code GitMacheteRepositoryBenchmarkHooks} in the jmh source set) measure
+   * {@link CreateGitMacheteRepositoryAux#deriveRelationToRemote} in isolation, without reflecting into the aux class.
+   *
+   * @return the derivation of the relation to remote of a local branch, set up once for all the branches of the repository
+   */
+  @UIThreadUnsafe
+  static CheckedFunction1<IGitCoreLocalBranchSnapshot, RelationToRemote> relationToRemoteDerivationFor(
+      IGitCoreRepository gitCoreRepository) throws GitCoreException {
+    val aux = new CreateGitMacheteRepositoryAux(gitCoreRepository,
+        StatusBranchHookExecutor.of(gitCoreRepository, /* parallelism */ 1), PreRebaseHookExecutor.of(gitCoreRepository));
+    return aux::deriveRelationToRemote;
+  }
+
+  /**
+   * @return the limits set in {@code machete.forkPoint.maxDepth} and {@code machete.forkPoint.maxAgeDays} git config keys
+   *         (non-positive or malformed values are ignored), see {@link ForkPointSearchCutoff}
+   */
+  private static ForkPointSearchCutoff deriveForkPointSearchCutoff(IGitCoreRepository gitCoreRepository) {
+    val maxDepth = derivePositiveIntConfigValue(gitCoreRepository, "forkPoint", "maxDepth").getOrElse(Integer.MAX_VALUE);
+    val maxAge = derivePositiveIntConfigValue(gitCoreRepository, "forkPoint", "maxAgeDays").map(Duration::ofDays).getOrNull();
+    return ForkPointSearchCutoff.of(maxDepth, maxAge);
+  }
+
+  private static Option<Integer> derivePositiveIntConfigValue(IGitCoreRepository gitCoreRepository, String subsection,
+      String key) {
+    return gitCoreRepository.deriveConfigValue("machete", subsection, key)
+        .flatMap(value -> Try.of(() -> Integer.parseInt(value.trim())).toOption())
+        .filter(value -> value >= 1);
+  }
+
+  @UIThreadUnsafe
+  private @Nullable GitCoreRefStateFingerprint deriveRefStateFingerprint() {
+    return Try.of(() -> gitCoreRepository.deriveRefStateFingerprint())
+        .onFailure(e -> LOG.warn("Unable to derive the ref state fingerprint, the snapshot is not going to be reused", e))
+        .getOrNull();
+  }
+
+  /**
+   * The layout is read anew for each snapshot, so the entries of the layouts can't just be compared by identity.
+   */
+  private static boolean areEquivalent(List<IBranchLayoutEntry> entries, List<IBranchLayoutEntry> otherEntries) {
+    return entries.size() == otherEntries.size() && entries.zip(otherEntries)
+        .forAll(entryAndOtherEntry -> entryAndOtherEntry._1.getName().equals(entryAndOtherEntry._2.getName())
+            && entryAndOtherEntry._1.getCustomAnnotation().equals(entryAndOtherEntry._2.getCustomAnnotation())
+            && areEquivalent(entryAndOtherEntry._1.getChildren(), entryAndOtherEntry._2.getChildren()));
+  }
+
   @CustomLog
   private static class Aux {
     protected final IGitCoreRepository gitCoreRepository;
     protected final List<IGitCoreLocalBranchSnapshot> localBranches;
     protected final Map<String, IGitCoreLocalBranchSnapshot> localBranchByName;
 
-    private final java.util.Map<IGitCoreBranchSnapshot, List<IGitCoreReflogEntry>> filteredReflogByBranch = new java.util.HashMap<>();
-    private @MonotonicNonNull Map<IGitCoreCommitHash, Seq<IBranchReference>> branchesContainingGivenCommitInReflog;
+    // Concurrent, as the branches might be created in parallel (see CreateGitMacheteRepositoryAux#mapInParallel)
+    protected final java.util.Map<IGitCoreBranchSnapshot, List<IGitCoreReflogEntry>> filteredReflogByBranch =
+        new ConcurrentHashMap<>();
+    private ReflogCommitIndex reflogCommitIndex = new ReflogCommitIndex();
+    protected ForkPointSearchCutoff forkPointSearchCutoff = ForkPointSearchCutoff.NONE;
+    private ReflogCommitIndex.@MonotonicNonNull Postings branchesContainingGivenCommitInReflog;
+    // Both are backed by the same monitor, the token is just the shape that GitCoreRepository expects
+    protected IGitMacheteProgressMonitor progressMonitor = NullGitMacheteProgressMonitor.getInstance();
+    protected IGitCoreCancellationToken cancellationToken = IGitCoreCancellationToken.NONE;
 
     Aux(IGitCoreRepository gitCoreRepository) throws GitCoreException {
       this.gitCoreRepository = gitCoreRepository;
@@ -127,51 +304,77 @@ public class GitMacheteRepository implements IGitMacheteRepository {
       this.localBranchByName = localBranches.toMap(localBranch -> Tuple.of(localBranch.getName(), localBranch));
     }
 
-    protected Map<IGitCoreCommitHash, Seq<IBranchReference>> deriveBranchesContainingGivenCommitInReflog() {
+    void useReflogCommitIndex(ReflogCommitIndex givenReflogCommitIndex) {
+      reflogCommitIndex = givenReflogCommitIndex;
+    }
+
+    void setForkPointSearchCutoff(ForkPointSearchCutoff givenForkPointSearchCutoff) {
+      forkPointSearchCutoff = givenForkPointSearchCutoff;
+    }
+
+    void setProgressMonitor(IGitMacheteProgressMonitor givenProgressMonitor) {
+      progressMonitor = givenProgressMonitor;
+      cancellationToken = givenProgressMonitor::isCancelled;
+    }
+
+    /**
+     * @return the ancestors of the given commit (inclusive) in the order to search for a fork point among them;
+     *         to be limited with {@link #limitForkPointCandidates}
+     */
+    @UIThreadUnsafe
+    protected Stream<IGitCoreCommit> deriveAncestorsToSearchForForkPoint(IGitCoreCommit commit) throws GitCoreException {
+      return forkPointSearchCutoff.isNone()
+          ? gitCoreRepository.ancestorsOf(commit)
+          : gitCoreRepository.ancestorsInCommitDateOrderOf(commit);
+    }
+
+    protected Stream<IGitCoreCommit> limitForkPointCandidates(IGitCoreCommit commit, Stream<IGitCoreCommit> ancestors) {
+      if (forkPointSearchCutoff.isNone()) {
+        return ancestors;
+      }
+      val candidates = ancestors.take(forkPointSearchCutoff.getMaxDepth());
+      val maxAge = forkPointSearchCutoff.getMaxAge();
+      if (maxAge == null) {
+        return candidates;
+      }
+      val notBefore = commit.getCommitTime().minus(maxAge);
+      return candidates.takeWhile(candidate -> !candidate.getCommitTime().isBefore(notBefore));
+    }
+
+    /**
+     * @return whether the search for a fork point among {@code candidates} (as limited from {@code ancestors})
+     *         has been cut off rather than run out of history
+     */
+    protected boolean isForkPointSearchCutOff(Stream<IGitCoreCommit> ancestors, Stream<IGitCoreCommit> candidates) {
+      // Both streams are already evaluated (and memoized) up to the cutoff, so at most one more commit is read here.
+      return !forkPointSearchCutoff.isNone() && ancestors.drop(candidates.size()).nonEmpty();
+    }
+
+    @SuppressWarnings("regexp") // to allow for `synchronized`
+    protected synchronized ReflogCommitIndex.Postings deriveBranchesContainingGivenCommitInReflog() {
       if (branchesContainingGivenCommitInReflog != null) {
         return branchesContainingGivenCommitInReflog;
       }
 
-      LOG.debug("Getting reflogs of local branches");
-
-      Map<IBranchReference, List<IGitCoreReflogEntry>> filteredReflogByLocalBranch = localBranches
+      Map<IBranchReference, IGitCoreBranchSnapshot> localBranchByReference = localBranches
           .toMap(
               /* keyMapper */ LocalBranchReference::toLocalBranchReference,
-              /* valueMapper */ this::deriveFilteredReflog);
-
-      LOG.debug("Getting reflogs of remote branches");
+              /* valueMapper */ localBranch -> localBranch);
 
       List<Tuple2<IGitCoreLocalBranchSnapshot, IGitCoreRemoteBranchSnapshot>> remoteTrackingBranches = localBranches
           .flatMap(localBranch -> localBranch.getRemoteTrackingBranch()
               .map(remoteTrackingBranch -> Tuple.of(localBranch, remoteTrackingBranch)));
 
-      Map<IBranchReference, List<IGitCoreReflogEntry>> filteredReflogByRemoteTrackingBranch = remoteTrackingBranches
+      Map<IBranchReference, IGitCoreBranchSnapshot> remoteTrackingBranchByReference = remoteTrackingBranches
           .toMap(
               /* keyMapper */ localAndRemote -> RemoteTrackingBranchReference.of(localAndRemote._2, localAndRemote._1),
-              /* valueMapper */ localAndRemote -> deriveFilteredReflog(localAndRemote._2));
-
-      LOG.debug("Converting reflogs to mapping of branches containing in reflog by commit");
-
-      Map<IBranchReference, List<IGitCoreReflogEntry>> filteredReflogsByBranch = filteredReflogByLocalBranch
-          .merge(filteredReflogByRemoteTrackingBranch);
-
-      LOG.trace(() -> "Filtered reflogs by branch name:");
-      LOG.trace(() -> filteredReflogsByBranch
-          .map(kv -> kv._1.getName() + " -> " + kv._2.map(e -> e.getNewCommitHash()).mkString(", "))
-          .sorted().mkString(System.lineSeparator()));
-
-      Seq<Tuple2<IGitCoreCommitHash, IBranchReference>> reflogCommitHashAndBranchPairs = filteredReflogsByBranch
-          .flatMap(branchAndReflog -> branchAndReflog._2
-              .map(re -> Tuple.of(re.getNewCommitHash(), branchAndReflog._1)));
+              /* valueMapper */ localAndRemote -> localAndRemote._2);
 
-      val result = reflogCommitHashAndBranchPairs
-          .groupBy(reflogCommitHashAndBranch -> reflogCommitHashAndBranch._1)
-          .mapValues(pairsOfReflogCommitHashAndBranch -> pairsOfReflogCommitHashAndBranch
-              .map(reflogCommitHashAndBranch -> reflogCommitHashAndBranch._2));
+      LOG.debug("Updating the index of branches containing given commit in reflog");
 
-      LOG.debug("Derived the map of branches containing given commit in reflog:");
-      LOG.debug(() -> result.toList().map(kv -> kv._1 + " -> " + kv._2.mkString(", "))
-          .sorted().mkString(System.lineSeparator()));
+      // The order of the branches for each commit follows the iteration order of the merged map
+      val result = reflogCommitIndex.update(localBranchByReference.merge(remoteTrackingBranchByReference),
+          this::deriveFilteredReflog);
       branchesContainingGivenCommitInReflog = result;
       return result;
     }
@@ -181,55 +384,68 @@ public class GitMacheteRepository implements IGitMacheteRepository {
      * ordered from the latest to the oldest
      */
     protected List<IGitCoreReflogEntry> deriveFilteredReflog(IGitCoreBranchSnapshot branch) {
-      if (filteredReflogByBranch.containsKey(branch)) {
-        return filteredReflogByBranch.get(branch);
+      val cachedFilteredReflog = filteredReflogByBranch.get(branch);
+      if (cachedFilteredReflog != null) {
+        return cachedFilteredReflog;
       }
 
+      val result = streamFilteredReflog(branch).toList();
+      LOG.debug(() -> "Filtered reflog of ${branch.getFullName()}:");
+      LOG.debug(() -> result.mkString(System.lineSeparator()));
+      filteredReflogByBranch.put(branch, result);
+      return result;
+    }
+
+    /**
+     * @return a lazy stream of the entries of {@link #deriveFilteredReflog}, so that the callers interested
+     * just in the latest entries don't need to read the entire reflog
+     */
+    protected Stream<IGitCoreReflogEntry> streamFilteredReflog(IGitCoreBranchSnapshot branch) {
       LOG.trace(() -> "Entering: branch = '${branch.getFullName()}'; original list of entries:");
 
-      List<IGitCoreReflogEntry> reflogEntries = branch.getReflogFromMostRecent();
-      reflogEntries.forEach(entry -> LOG.trace(() -> "* ${entry}"));
+      Stream<IGitCoreReflogEntry> reflogEntries = branch.getReflogFromMostRecent();
+      if (LOG.isTraceEnabled()) {
+        reflogEntries.forEach(entry -> LOG.trace(() -> "* ${entry}"));
+      }
 
+      String createdFromPrefix = "branch: Created from";
       IGitCoreCommitHash entryToExcludeNewId;
-      if (reflogEntries.size() > 0) {
-        val firstEntry = reflogEntries.get(reflogEntries.size() - 1);
-        String createdFromPrefix = "branch: Created from";
-        if (firstEntry.getComment().startsWith(createdFromPrefix)) {
-          entryToExcludeNewId = firstEntry.getNewCommitHash();
-          LOG.trace(() -> "All entries with the same hash as first entry (${firstEntry.getNewCommitHash().toString()}) " +
-              "will be excluded because first entry comment starts with '${createdFromPrefix}'");
-        } else {
-          entryToExcludeNewId = null;
-        }
+      val firstEntry = branch.getOldestReflogEntry().getOrNull();
+      if (firstEntry != null && firstEntry.isCommentStartingWith(createdFromPrefix)) {
+        entryToExcludeNewId = firstEntry.getNewCommitHash();
+        LOG.trace(() -> "All entries with the same hash as first entry (${firstEntry.getNewCommitHash().toString()}) " +
+            "will be excluded because first entry comment starts with '${createdFromPrefix}'");
       } else {
         entryToExcludeNewId = null;
       }
 
       String noOpRebaseCommentSuffix = branch.getFullName() + " onto " + branch.getPointedCommit().getHash().getHashString();
+      String resetToBranchComment = "branch: Reset to " + branch.getName();
+      String noOpRebaseFinishedComment = "rebase finished: " + noOpRebaseCommentSuffix;
+      String noOpInteractiveRebaseFinishedComment = "rebase -i (finish): " + noOpRebaseCommentSuffix;
 
       // It's necessary to exclude entry with the same hash as the first entry in reflog (if it still exists)
       // for cases like branch rename just after branch creation.
+      // Comments are only matched against (and not decoded, unless logging at trace level) to keep reading the reflog cheap.
       Predicate<IGitCoreReflogEntry> isEntryExcluded = e -> {
-        String comment = e.getComment();
         if (e.getNewCommitHash().equals(entryToExcludeNewId)) {
           LOG.trace(() -> "Exclude ${e} because it has the same hash as first entry");
         } else if (e.getOldCommitHash().isDefined() && e.getNewCommitHash().equals(e.getOldCommitHash().get())) {
           LOG.trace(() -> "Exclude ${e} because its old and new IDs are the same");
-        } else if (comment.startsWith("branch: Created from")) {
-          LOG.trace(() -> "Exclude ${e} because its comment starts with 'branch: Created from'");
-        } else if (comment.equals("branch: Reset to " + branch.getName())) {
-          LOG.trace(() -> "Exclude ${e} because its comment is '${comment}'");
-        } else if (comment.equals("branch: Reset to HEAD")) {
-          LOG.trace(() -> "Exclude ${e} because its comment is '${comment}'");
-        } else if (comment.startsWith("reset: moving to ")) {
+        } else if (e.isCommentStartingWith(createdFromPrefix)) {
+          LOG.trace(() -> "Exclude ${e} because its comment starts with '${createdFromPrefix}'");
+        } else if (e.isCommentEqualTo(resetToBranchComment)) {
+          LOG.trace(() -> "Exclude ${e} because its comment is '${e.getComment()}'");
+        } else if (e.isCommentEqualTo("branch: Reset to HEAD")) {
+          LOG.trace(() -> "Exclude ${e} because its comment is '${e.getComment()}'");
+        } else if (e.isCommentStartingWith("reset: moving to ")) {
           LOG.trace(() -> "Exclude ${e} because its comment starts with 'reset: moving to '");
-        } else if (comment.startsWith("fetch . ")) {
+        } else if (e.isCommentStartingWith("fetch . ")) {
           LOG.trace(() -> "Exclude ${e} because its comment starts with 'fetch . '");
-        } else if (comment.equals("rebase finished: " + noOpRebaseCommentSuffix)
-            || comment.equals("rebase -i (finish): " + noOpRebaseCommentSuffix)) {
-          LOG.trace(() -> "Exclude ${e} because its comment is '${comment}' which indicates a no-op rebase");
-        } else if (comment.equals("update by push")) {
-          LOG.trace(() -> "Exclude ${e} because its comment is '${comment}'");
+        } else if (e.isCommentEqualTo(noOpRebaseFinishedComment) || e.isCommentEqualTo(noOpInteractiveRebaseFinishedComment)) {
+          LOG.trace(() -> "Exclude ${e} because its comment is '${e.getComment()}' which indicates a no-op rebase");
+        } else if (e.isCommentEqualTo("update by push")) {
+          LOG.trace(() -> "Exclude ${e} because its comment is '${e.getComment()}'");
         } else {
           return false;
         }
@@ -237,17 +453,15 @@ public class GitMacheteRepository implements IGitMacheteRepository {
         return true;
       };
 
-      val result = reflogEntries.reject(isEntryExcluded);
-      LOG.debug(() -> "Filtered reflog of ${branch.getFullName()}:");
-      LOG.debug(() -> result.mkString(System.lineSeparator()));
-      filteredReflogByBranch.put(branch, result);
-      return result;
+      return reflogEntries.reject(isEntryExcluded);
     }
 
     @UIThreadUnsafe
     Option<ILocalBranchReference> inferParentForLocalBranch(
         Set<String> eligibleLocalBranchNames,
         String localBranchName) throws GitCoreException {
+      // The walk over the ancestors is then checked for cancellation before each commit by GitCoreRepository itself.
+      cancellationToken.checkCancelled();
 
       val localBranch = localBranchByName.get(localBranchName).getOrNull();
       if (localBranch == null) {
@@ -257,11 +471,12 @@ public class GitMacheteRepository implements IGitMacheteRepository {
       LOG.debug(() -> "Branch(es) eligible for becoming the parent of ${localBranchName}: " +
           "${eligibleLocalBranchNames.mkString(\", \")}");
 
-      val commitAndContainingBranches = gitCoreRepository
-          .ancestorsOf(localBranch.getPointedCommit())
+      val ancestors = deriveAncestorsToSearchForForkPoint(localBranch.getPointedCommit());
+      val candidates = limitForkPointCandidates(localBranch.getPointedCommit(), ancestors);
+      val commitAndContainingBranches = candidates
           .map(commit -> {
             Seq<ILocalBranchReference> eligibleContainingBranches = deriveBranchesContainingGivenCommitInReflog()
-                .getOrElse(commit.getHash(), List.empty())
+                .getBranchesContaining(commit.getHash())
                 .map(candidateBranch -> candidateBranch.isLocal()
                     ? candidateBranch.asLocal()
                     : candidateBranch.asRemote().getTrackedLocalBranch())
@@ -283,6 +498,10 @@ public class GitMacheteRepository implements IGitMacheteRepository {
             "of managed branch(es) ${containingBranchNames.mkString(\", \")}; " +
             "returning ${firstContainingBranch.getName()} as the inferred parent for branch '${localBranchName}'");
         return Option.some(firstContainingBranch);
+      } else if (isForkPointSearchCutOff(ancestors, candidates)) {
+        LOG.debug(() -> "Could not infer parent for branch '${localBranchName}' " +
+            "within ${candidates.size()} commit(s) searched (${forkPointSearchCutoff})");
+        return Option.none();
       } else {
         LOG.debug(() -> "Could not infer parent for branch '${localBranchName}'");
         return Option.none();
@@ -296,7 +515,23 @@ public class GitMacheteRepository implements IGitMacheteRepository {
     private final StatusBranchHookExecutor statusHookExecutor;
     private final PreRebaseHookExecutor preRebaseHookExecutor;
     private final List<String> remoteNames;
-    private final java.util.Set<String> createdBranches = new java.util.HashSet<>();
+    private final java.util.Map<String, ManagedBranchDerivationInputs> derivationInputsByBranchName = new ConcurrentHashMap<>();
+    private @Nullable GitMacheteRepositorySnapshot previousSnapshot = null;
+    // The pool that the sibling subtrees are created in, if any
+    private @Nullable ForkJoinPool forkJoinPool = null;
+    // See #createSkeletonSnapshot
+    private boolean skeleton = false;
+
+    private @Nullable GitCoreRefStateFingerprint refStateFingerprint = null;
+
+    // Set up at the beginning of `createSnapshot`: entries (compared by identity)
+    // that are the first occurrences of existing local branches in the layout
+    private java.util.Set<IBranchLayoutEntry> firstOccurrenceEntries = java.util.Collections.emptySet();
+
+    // Incremented once each branch is created, possibly from multiple threads (see #reportBranchCreated)
+    private final AtomicInteger createdBranchCount = new AtomicInteger();
+    // The part of the progress that's already been reported before the snapshot creation has started
+    protected double snapshotCreationProgressStart = 0.0;
 
     CreateGitMacheteRepositoryAux(
         IGitCoreRepository gitCoreRepository,
@@ -309,10 +544,46 @@ public class GitMacheteRepository implements IGitMacheteRepository {
       this.remoteNames = gitCoreRepository.deriveAllRemoteNames();
     }
 
+    void reuseUnchangedBranchesOf(GitMacheteRepositorySnapshot givenPreviousSnapshot) {
+      previousSnapshot = givenPreviousSnapshot;
+    }
+
+    void useForkJoinPool(@Nullable ForkJoinPool givenForkJoinPool) {
+      forkJoinPool = givenForkJoinPool;
+    }
+
+    void setRefStateFingerprint(@Nullable GitCoreRefStateFingerprint givenRefStateFingerprint) {
+      refStateFingerprint = givenRefStateFingerprint;
+    }
+
+    /**
+     * Creates the snapshot just like {@link #createSnapshot}, but without deriving anything that requires walking
+     * the history or reading the reflogs, and without executing the status hooks.
+     * This only leaves cheap ref reads, hence the branches are created sequentially.
+     */
+    @UIThreadUnsafe
+    IGitMacheteRepositorySnapshot createSkeletonSnapshot(IBranchLayout branchLayout)
+        throws GitMacheteException, GitCoreException {
+      skeleton = true;
+      forkJoinPool = null;
+      return createSnapshot(branchLayout);
+    }
+
     @UIThreadUnsafe
     IGitMacheteRepositorySnapshot createSnapshot(IBranchLayout branchLayout) throws GitMacheteException, GitCoreException {
-      val rootBranchTries = branchLayout.getRootEntries().map(entry -> Try.of(() -> createGitMacheteRootBranch(entry)));
+      firstOccurrenceEntries = deriveFirstOccurrenceEntries(branchLayout);
+      if (!skeleton) {
+        // The hooks get executed in the background, while the branches are being created and after the snapshot is returned;
+        // each branch only gets a future of its hook output (see IManagedBranchSnapshot#getStatusHookOutputAsync).
+        statusHookExecutor.prefetchHookOutputsFor(List.ofAll(firstOccurrenceEntries)
+            .flatMap(entry -> localBranchByName.get(entry.getName()))
+            .map(coreLocalBranch -> Tuple.of(coreLocalBranch.getName(),
+                coreLocalBranch.getPointedCommit().getHash().getHashString())));
+      }
+      val rootBranchTries = mapInParallel(branchLayout.getRootEntries(), this::createGitMacheteRootBranch);
       val rootBranchCreationResults = Try.sequence(rootBranchTries).getOrElseThrow(GitMacheteException::getOrWrap).toList();
+      // A cancellation that's been swallowed on the way (e.g. by a fallback) must not leave us with a partial snapshot.
+      cancellationToken.checkCancelled();
       val rootBranches = rootBranchCreationResults.flatMap(creationResult -> creationResult.getCreatedBranches());
       val skippedBranchNames = rootBranchCreationResults.flatMap(creationResult -> creationResult.getSkippedBranchNames())
           .toSet();
@@ -346,7 +617,54 @@ public class GitMacheteRepository implements IGitMacheteRepository {
       return new GitMacheteRepositorySnapshot(List.narrow(rootBranches), branchLayout, currentBranchIfManaged,
           managedBranchByName, duplicatedBranchNames, skippedBranchNames, gitCoreRepository.deriveRebasedBranch(),
           preRebaseHookExecutor,
-          ongoingOperation);
+          ongoingOperation,
+          HashMap.ofAll(derivationInputsByBranchName),
+          skeleton,
+          skeleton ? null : refStateFingerprint);
+    }
+
+    /**
+     * Determines up front (rather than while creating the branches) which layout entries are duplicates,
+     * so that the outcome doesn't depend on the order in which the subtrees get created.
+     * Just like in the sequential pre-order traversal, the first occurrence of a branch in the layout wins.
+     */
+    private java.util.Set<IBranchLayoutEntry> deriveFirstOccurrenceEntries(IBranchLayout branchLayout) {
+      java.util.Set<IBranchLayoutEntry> result = java.util.Collections.newSetFromMap(new java.util.IdentityHashMap<>());
+      java.util.Set<String> seenBranchNames = new java.util.HashSet<>();
+      java.util.Deque<IBranchLayoutEntry> stack = new java.util.ArrayDeque<>();
+      branchLayout.getRootEntries().reverse().forEach(stack::push);
+      while (!stack.isEmpty()) {
+        val entry = stack.pop();
+        if (localBranchByName.containsKey(entry.getName()) && seenBranchNames.add(entry.getName())) {
+          result.add(entry);
+        }
+        entry.getChildren().reverse().forEach(stack::push);
+      }
+      return result;
+    }
+
+    /**
+     * Applies {@code fun} to each of the sibling {@code entries}; in parallel if there's a fork-join pool set up.
+     * In either case, the results are in the same order as {@code entries}, so that merging them is deterministic.
+     */
+    @UIThreadUnsafe
+    private <T> List<Try<T>> mapInParallel(List<IBranchLayoutEntry> entries, CheckedFunction1<IBranchLayoutEntry, T> fun) {
+      val pool = forkJoinPool;
+      if (pool == null || entries.size() < 2) {
+        return entries.map(entry -> Try.of(() -> fun.apply(entry)));
+      }
+      val tasks = entries.map(entry -> ForkJoinTask.adapt(() -> {
+        // Batch sessions are bound to a thread, so each task needs its own (or reuses the one of its worker thread).
+        try (val batchSession = gitCoreRepository.openBatchSession(cancellationToken)) {
+          return Try.of(() -> fun.apply(entry));
+        }
+      }));
+      if (pool.equals(ForkJoinTask.getPool())) {
+        ForkJoinTask.invokeAll(tasks.toJavaList());
+      } else {
+        tasks.forEach(pool::execute);
+      }
+      return tasks.map(ForkJoinTask::join);
     }
 
     @UIThreadUnsafe
@@ -358,6 +676,17 @@ public class GitMacheteRepository implements IGitMacheteRepository {
       }
     }
 
+    /**
+     * Reports the fraction of the branches created so far; called once each branch is created, from any thread.
+     */
+    private void reportBranchCreated() {
+      // Non-zero, as only the entries from this set ever get created as branches.
+      int totalBranchCount = firstOccurrenceEntries.size();
+      double snapshotCreationFraction = (double) createdBranchCount.incrementAndGet() / totalBranchCount;
+      progressMonitor.setFraction(
+          snapshotCreationProgressStart + (1.0 - snapshotCreationProgressStart) * snapshotCreationFraction);
+    }
+
     private Map<String, IManagedBranchSnapshot> createManagedBranchByNameMap(List<RootManagedBranchSnapshot> rootBranches) {
       Map<String, IManagedBranchSnapshot> branchByName = HashMap.empty();
       Queue<IManagedBranchSnapshot> queue = Queue.ofAll(rootBranches);
@@ -374,21 +703,20 @@ public class GitMacheteRepository implements IGitMacheteRepository {
     @UIThreadUnsafe
     private CreatedAndDuplicatedAndSkippedBranches<RootManagedBranchSnapshot> createGitMacheteRootBranch(
         IBranchLayoutEntry entry) throws GitCoreException {
+      cancellationToken.checkCancelled();
 
       val branchName = entry.getName();
       IGitCoreLocalBranchSnapshot coreLocalBranch = localBranchByName.get(branchName).getOrNull();
       if (coreLocalBranch == null) {
-        val childBranchTries = entry.getChildren()
-            .map(childEntry -> Try.of(() -> createGitMacheteRootBranch(childEntry)));
+        val childBranchTries = mapInParallel(entry.getChildren(), this::createGitMacheteRootBranch);
         val newRoots = Try.sequence(childBranchTries)
             .getOrElseThrow(GitCoreException::getOrWrap)
             .fold(CreatedAndDuplicatedAndSkippedBranches.empty(), CreatedAndDuplicatedAndSkippedBranches::merge);
         return newRoots.withExtraSkippedBranch(branchName);
       }
 
-      if (!createdBranches.add(branchName)) {
-        val childBranchTries = entry.getChildren()
-            .map(childEntry -> Try.of(() -> createGitMacheteRootBranch(childEntry)));
+      if (!firstOccurrenceEntries.contains(entry)) {
+        val childBranchTries = mapInParallel(entry.getChildren(), this::createGitMacheteRootBranch);
         val newRoots = Try.sequence(childBranchTries)
             .getOrElseThrow(GitCoreException::getOrWrap)
             .fold(CreatedAndDuplicatedAndSkippedBranches.empty(), CreatedAndDuplicatedAndSkippedBranches::merge);
@@ -399,16 +727,32 @@ public class GitMacheteRepository implements IGitMacheteRepository {
 
       IGitCoreCommit corePointedCommit = coreLocalBranch.getPointedCommit();
 
+      val reusableBranch = skeleton
+          ? null
+          : findReusableBranch(branchName, deriveDerivationInputs(coreLocalBranch, /* parentCoreLocalBranch */ null));
+
+      RelationToRemote relationToRemote;
+      if (skeleton) {
+        relationToRemote = RelationToRemote.noRemotes();
+      } else if (reusableBranch != null) {
+        LOG.debug(() -> "Reusing the previously derived data for root branch '${branchName}'");
+        relationToRemote = reusableBranch.getRelationToRemote();
+      } else {
+        relationToRemote = deriveRelationToRemote(coreLocalBranch);
+      }
+
       val pointedCommit = new CommitOfManagedBranch(corePointedCommit);
-      val relationToRemote = deriveRelationToRemote(coreLocalBranch);
       val customAnnotation = entry.getCustomAnnotation().getOrNull();
       val childBranches = deriveChildBranches(coreLocalBranch, entry.getChildren());
       val remoteTrackingBranch = getRemoteTrackingBranchForCoreLocalBranch(coreLocalBranch);
-      val statusHookOutput = statusHookExecutor.deriveHookOutputFor(branchName, pointedCommit).getOrNull();
+      val statusHookOutput = skeleton
+          ? CompletableFuture.completedFuture(Option.<String>none())
+          : statusHookExecutor.deriveHookOutputAsyncFor(branchName, pointedCommit);
 
       val createdRootBranch = new RootManagedBranchSnapshot(branchName, branchFullName,
           childBranches.getCreatedBranches(), pointedCommit, remoteTrackingBranch, relationToRemote, customAnnotation,
           statusHookOutput);
+      reportBranchCreated();
       return CreatedAndDuplicatedAndSkippedBranches.of(List.of(createdRootBranch),
           childBranches.getDuplicatedBranchNames(), childBranches.getSkippedBranchNames());
     }
@@ -417,6 +761,7 @@ public class GitMacheteRepository implements IGitMacheteRepository {
     private CreatedAndDuplicatedAndSkippedBranches<NonRootManagedBranchSnapshot> createGitMacheteNonRootBranch(
         IGitCoreLocalBranchSnapshot parentCoreLocalBranch,
         IBranchLayoutEntry entry) throws GitCoreException {
+      cancellationToken.checkCancelled();
 
       val branchName = entry.getName();
       IGitCoreLocalBranchSnapshot coreLocalBranch = localBranchByName.get(branchName).getOrNull();
@@ -427,7 +772,7 @@ public class GitMacheteRepository implements IGitMacheteRepository {
         return childResult.withExtraSkippedBranch(branchName);
       }
 
-      if (!createdBranches.add(branchName)) {
+      if (!firstOccurrenceEntries.contains(entry)) {
         CreatedAndDuplicatedAndSkippedBranches<NonRootManagedBranchSnapshot> childResult = deriveChildBranches(
             parentCoreLocalBranch,
             entry.getChildren());
@@ -438,39 +783,120 @@ public class GitMacheteRepository implements IGitMacheteRepository {
 
       IGitCoreCommit corePointedCommit = coreLocalBranch.getPointedCommit();
 
-      ForkPointCommitOfManagedBranch forkPoint = deriveParentAwareForkPoint(coreLocalBranch, parentCoreLocalBranch);
-
-      val syncToParentStatus = deriveSyncToParentStatus(coreLocalBranch, parentCoreLocalBranch, forkPoint);
+      val reusableBranch = skeleton
+          ? null
+          : findReusableBranch(branchName, deriveDerivationInputs(coreLocalBranch, parentCoreLocalBranch));
 
-      List<IGitCoreCommit> commits;
-      if (forkPoint == null) {
-        // That's a rare case in practice, mostly happens due to reflog expiry.
-        commits = List.empty();
-      } else if (syncToParentStatus == SyncToParentStatus.MergedToParent) {
-        commits = List.empty();
-      } else if (syncToParentStatus == SyncToParentStatus.InSyncButForkPointOff) {
-        // In case of yellow edge, we include the entire range from the commit pointed by the branch until its parent,
-        // and not until just its fork point. This makes it possible to highlight the fork point candidate on the commit listing.
-        commits = gitCoreRepository.deriveCommitRange(corePointedCommit, parentCoreLocalBranch.getPointedCommit());
+      RelationToRemote relationToRemote;
+      IForkPointCommitOfManagedBranch forkPoint;
+      Integer forkPointNotFoundWithinCommitCount;
+      SyncToParentStatus syncToParentStatus;
+      PagedCommitRange commitRange;
+      if (skeleton) {
+        relationToRemote = RelationToRemote.noRemotes();
+        forkPoint = null;
+        forkPointNotFoundWithinCommitCount = null;
+        syncToParentStatus = SyncToParentStatus.InSync;
+        commitRange = PagedCommitRange.empty();
+      } else if (reusableBranch instanceof NonRootManagedBranchSnapshot) {
+        LOG.debug(() -> "Reusing the previously derived data for non-root branch '${branchName}'");
+        val reusableNonRootBranch = (NonRootManagedBranchSnapshot) reusableBranch;
+        relationToRemote = reusableNonRootBranch.getRelationToRemote();
+        forkPoint = reusableNonRootBranch.getForkPoint().getOrNull();
+        forkPointNotFoundWithinCommitCount = reusableNonRootBranch.getForkPointNotFoundWithinCommitCount().getOrNull();
+        syncToParentStatus = reusableNonRootBranch.getSyncToParentStatus();
+        commitRange = reusableNonRootBranch.getCommitRange();
       } else {
-        // We're handling the cases of green and red edges here.
-        commits = gitCoreRepository.deriveCommitRange(corePointedCommit, forkPoint.getCoreCommit());
+        val forkPointSearchResult = deriveParentAwareForkPoint(coreLocalBranch, parentCoreLocalBranch);
+        ForkPointCommitOfManagedBranch derivedForkPoint = forkPointSearchResult.getForkPoint();
+        syncToParentStatus = deriveSyncToParentStatus(coreLocalBranch, parentCoreLocalBranch, derivedForkPoint);
+
+        if (derivedForkPoint == null) {
+          // That's a rare case in practice, mostly happens due to reflog expiry.
+          commitRange = PagedCommitRange.empty();
+        } else if (syncToParentStatus == SyncToParentStatus.MergedToParent) {
+          commitRange = PagedCommitRange.empty();
+        } else if (syncToParentStatus == SyncToParentStatus.InSyncButForkPointOff) {
+          // In case of yellow edge, we include the entire range from the commit pointed by the branch until its parent,
+          // and not until just its fork point. This makes it possible to highlight the fork point candidate on the commit listing.
+          commitRange = PagedCommitRange.of(gitCoreRepository, corePointedCommit, parentCoreLocalBranch.getPointedCommit());
+        } else {
+          // We're handling the cases of green and red edges here.
+          commitRange = PagedCommitRange.of(gitCoreRepository, corePointedCommit, derivedForkPoint.getCoreCommit());
+        }
+
+        relationToRemote = deriveRelationToRemote(coreLocalBranch);
+        forkPoint = derivedForkPoint;
+        forkPointNotFoundWithinCommitCount = forkPointSearchResult.getNotFoundWithinCommitCount();
       }
 
       val pointedCommit = new CommitOfManagedBranch(corePointedCommit);
-      val relationToRemote = deriveRelationToRemote(coreLocalBranch);
       val customAnnotation = entry.getCustomAnnotation().getOrNull();
       val childBranches = deriveChildBranches(coreLocalBranch, entry.getChildren());
       val remoteTrackingBranch = getRemoteTrackingBranchForCoreLocalBranch(coreLocalBranch);
-      val statusHookOutput = statusHookExecutor.deriveHookOutputFor(branchName, pointedCommit).getOrNull();
+      val statusHookOutput = skeleton
+          ? CompletableFuture.completedFuture(Option.<String>none())
+          : statusHookExecutor.deriveHookOutputAsyncFor(branchName, pointedCommit);
 
       val result = new NonRootManagedBranchSnapshot(branchName, branchFullName, childBranches.getCreatedBranches(),
           pointedCommit, remoteTrackingBranch, relationToRemote, customAnnotation, statusHookOutput, forkPoint,
-          commits.map(CommitOfManagedBranch::new), syncToParentStatus);
+          forkPointNotFoundWithinCommitCount, commitRange, syncToParentStatus);
+      reportBranchCreated();
       return CreatedAndDuplicatedAndSkippedBranches.of(List.of(result),
           childBranches.getDuplicatedBranchNames(), childBranches.getSkippedBranchNames());
     }
 
+    @UIThreadUnsafe
+    private ManagedBranchDerivationInputs deriveDerivationInputs(
+        IGitCoreLocalBranchSnapshot coreLocalBranch,
+        @Nullable IGitCoreLocalBranchSnapshot parentCoreLocalBranch) {
+      String branchName = coreLocalBranch.getName();
+      val reflog = coreLocalBranch.getReflogFromMostRecent();
+
+      // Fork point overrides are only ever relevant for non-root branches.
+      String overriddenForkPointTo = null;
+      String overriddenForkPointWhileDescendantOf = null;
+      if (parentCoreLocalBranch != null) {
+        overriddenForkPointTo = gitCoreRepository
+            .deriveConfigValue("machete", "overrideForkPoint." + branchName, "to").getOrNull();
+        overriddenForkPointWhileDescendantOf = gitCoreRepository
+            .deriveConfigValue("machete", "overrideForkPoint." + branchName, "whileDescendantOf").getOrNull();
+      }
+
+      val derivationInputs = ManagedBranchDerivationInputs.of(
+          coreLocalBranch.getPointedCommit().getHash(),
+          parentCoreLocalBranch != null ? parentCoreLocalBranch.getPointedCommit().getHash() : null,
+          coreLocalBranch.getRemoteTrackingBranch().map(rtb -> rtb.getPointedCommit().getHash()).getOrNull(),
+          reflog.headOption().getOrNull(),
+          coreLocalBranch.getOldestReflogEntry().getOrNull(),
+          overriddenForkPointTo,
+          overriddenForkPointWhileDescendantOf,
+          // Root branches have no fork point, hence no need to index the reflogs just for them
+          // (nor to be recomputed once the fork point search cutoff changes).
+          parentCoreLocalBranch != null ? deriveBranchesContainingGivenCommitInReflog().getVersion() : 0,
+          parentCoreLocalBranch != null ? forkPointSearchCutoff : ForkPointSearchCutoff.NONE);
+      derivationInputsByBranchName.put(branchName, derivationInputs);
+      return derivationInputs;
+    }
+
+    /**
+     * Note that a change to the reflogs of the other branches (which might affect the inferred fork point)
+     * prevents any non-root branch from being reused, unlike a branch that has just been moved without a new reflog entry.
+     */
+    private @Nullable BaseManagedBranchSnapshot findReusableBranch(String branchName,
+        ManagedBranchDerivationInputs derivationInputs) {
+      val snapshot = previousSnapshot;
+      if (snapshot == null) {
+        return null;
+      }
+      val previousDerivationInputs = snapshot.getDerivationInputsByBranchName().get(branchName).getOrNull();
+      if (previousDerivationInputs == null || !previousDerivationInputs.equals(derivationInputs)) {
+        return null;
+      }
+      val previousBranch = snapshot.getManagedBranchByName(branchName).getOrNull();
+      return previousBranch instanceof BaseManagedBranchSnapshot ? (BaseManagedBranchSnapshot) previousBranch : null;
+    }
+
     private @Nullable IRemoteTrackingBranchReference getRemoteTrackingBranchForCoreLocalBranch(
         IGitCoreLocalBranchSnapshot coreLocalBranch) {
       IGitCoreRemoteBranchSnapshot coreRemoteTrackingBranch = coreLocalBranch.getRemoteTrackingBranch().getOrNull();
@@ -481,16 +907,17 @@ public class GitMacheteRepository implements IGitMacheteRepository {
     }
 
     @UIThreadUnsafe
-    private @Nullable ForkPointCommitOfManagedBranch deriveParentAwareForkPoint(
+    private ForkPointSearchResult deriveParentAwareForkPoint(
         IGitCoreLocalBranchSnapshot coreLocalBranch,
         IGitCoreLocalBranchSnapshot parentCoreLocalBranch) throws GitCoreException {
       LOG.debug(() -> "Entering: coreLocalBranch = '${coreLocalBranch.getName()}', " +
           "parentCoreLocalBranch = '${parentCoreLocalBranch.getName()}'");
 
       IGitCoreCommit overriddenForkPointCommit = deriveParentAgnosticOverriddenForkPoint(coreLocalBranch);
-      ForkPointCommitOfManagedBranch parentAgnosticForkPoint = overriddenForkPointCommit != null
-          ? ForkPointCommitOfManagedBranch.overridden(overriddenForkPointCommit)
+      val parentAgnosticForkPointSearchResult = overriddenForkPointCommit != null
+          ? ForkPointSearchResult.found(ForkPointCommitOfManagedBranch.overridden(overriddenForkPointCommit))
           : deriveParentAgnosticInferredForkPoint(coreLocalBranch);
+      ForkPointCommitOfManagedBranch parentAgnosticForkPoint = parentAgnosticForkPointSearchResult.getForkPoint();
 
       val parentAgnosticForkPointString = parentAgnosticForkPoint != null ? parentAgnosticForkPoint.toString() : "empty";
       val parentPointedCommit = parentCoreLocalBranch.getPointedCommit();
@@ -518,7 +945,7 @@ public class GitMacheteRepository implements IGitMacheteRepository {
                 "commit (${pointedCommit.getHash().getHashString()}) but parent branch commit " +
                 "is NOT ancestor of parent-agnostic fork point (${parentAgnosticForkPointString}), " +
                 "so we assume that parent-aware fork point = parent branch commit");
-            return ForkPointCommitOfManagedBranch.fallbackToParent(parentPointedCommit);
+            return ForkPointSearchResult.found(ForkPointCommitOfManagedBranch.fallbackToParent(parentPointedCommit));
           }
 
         } else {
@@ -527,13 +954,20 @@ public class GitMacheteRepository implements IGitMacheteRepository {
           LOG.debug(() -> "Parent branch commit (${parentPointedCommit.getHash().getHashString()}) is ancestor of " +
               "commit (${pointedCommit.getHash().getHashString()}) and parent-agnostic fork point is missing, " +
               "so we assume that parent-aware fork point = parent branch commit");
-          return ForkPointCommitOfManagedBranch.fallbackToParent(parentPointedCommit);
+          val notFoundWithinCommitCount = parentAgnosticForkPointSearchResult.getNotFoundWithinCommitCount();
+          if (notFoundWithinCommitCount != null) {
+            val fallbackForkPoint = ForkPointCommitOfManagedBranch.fallbackToParentAfterSearchCutOff(parentPointedCommit,
+                notFoundWithinCommitCount);
+            return ForkPointSearchResult.fallbackAfterSearchCutOff(fallbackForkPoint, notFoundWithinCommitCount);
+          }
+          return ForkPointSearchResult.found(ForkPointCommitOfManagedBranch.fallbackToParent(parentPointedCommit));
         }
       }
 
       LOG.debug(() -> "Parent-aware fork point for branch ${coreLocalBranch.getName()} is ${parentAgnosticForkPointString}");
 
-      return parentAgnosticForkPoint;
+      // Including whether the search has been cut off, in case no fork point has been found.
+      return parentAgnosticForkPointSearchResult;
     }
 
     @UIThreadUnsafe
@@ -593,15 +1027,16 @@ public class GitMacheteRepository implements IGitMacheteRepository {
     }
 
     @UIThreadUnsafe
-    private @Nullable ForkPointCommitOfManagedBranch deriveParentAgnosticInferredForkPoint(IGitCoreLocalBranchSnapshot branch)
+    private ForkPointSearchResult deriveParentAgnosticInferredForkPoint(IGitCoreLocalBranchSnapshot branch)
         throws GitCoreException {
       LOG.debug(() -> "Entering: branch = '${branch.getFullName()}'");
 
-      val forkPointAndContainingBranches = gitCoreRepository
-          .ancestorsOf(branch.getPointedCommit())
+      val ancestors = deriveAncestorsToSearchForForkPoint(branch.getPointedCommit());
+      val candidates = limitForkPointCandidates(branch.getPointedCommit(), ancestors);
+      val forkPointAndContainingBranches = candidates
           .map(commit -> {
             Seq<IBranchReference> containingBranches = deriveBranchesContainingGivenCommitInReflog()
-                .getOrElse(commit.getHash(), List.empty())
+                .getBranchesContaining(commit.getHash())
                 .reject(candidateBranch -> {
                   ILocalBranchReference correspondingLocalBranch = candidateBranch.isLocal()
                       ? candidateBranch.asLocal()
@@ -618,19 +1053,25 @@ public class GitMacheteRepository implements IGitMacheteRepository {
         val containingBranches = forkPointAndContainingBranches._2.toList();
         LOG.debug(() -> "Commit ${forkPoint} found in filtered reflog(s) of ${containingBranches.mkString(\", \")}; " +
             "returning as fork point for branch '${branch.getFullName()}'");
-        return ForkPointCommitOfManagedBranch.inferred(forkPoint, containingBranches);
+        val inferredForkPoint = ForkPointCommitOfManagedBranch.inferred(forkPoint, containingBranches);
+        return ForkPointSearchResult.found(inferredForkPoint);
+      } else if (isForkPointSearchCutOff(ancestors, candidates)) {
+        int searchedCommitCount = candidates.size();
+        LOG.debug(() -> "Fork for branch '${branch.getFullName()}' not found " +
+            "within ${searchedCommitCount} commit(s) searched (${forkPointSearchCutoff})");
+        return ForkPointSearchResult.notFoundWithin(searchedCommitCount);
       } else {
         LOG.debug(() -> "Fork for branch '${branch.getFullName()}' not found ");
-        return null;
+        return ForkPointSearchResult.notFound();
       }
     }
 
+    @UIThreadUnsafe
     private CreatedAndDuplicatedAndSkippedBranches<NonRootManagedBranchSnapshot> deriveChildBranches(
         IGitCoreLocalBranchSnapshot parentCoreLocalBranch,
         List<IBranchLayoutEntry> entries) throws GitCoreException {
 
-      val childBranchTries = entries.map(entry -> Try.of(
-          () -> createGitMacheteNonRootBranch(parentCoreLocalBranch, entry)));
+      val childBranchTries = mapInParallel(entries, entry -> createGitMacheteNonRootBranch(parentCoreLocalBranch, entry));
       return Try.sequence(childBranchTries)
           .getOrElseThrow(GitCoreException::getOrWrap)
           .fold(CreatedAndDuplicatedAndSkippedBranches.empty(), CreatedAndDuplicatedAndSkippedBranches::merge);
@@ -690,7 +1131,9 @@ public class GitMacheteRepository implements IGitMacheteRepository {
     }
 
     private boolean hasJustBeenCreated(IGitCoreLocalBranchSnapshot branch) {
-      List<IGitCoreReflogEntry> reflog = deriveFilteredReflog(branch);
+      // Only the latest entry is needed, so there's no point in filtering the entire reflog if it hasn't been done yet.
+      val cachedFilteredReflog = filteredReflogByBranch.get(branch);
+      Seq<IGitCoreReflogEntry> reflog = cachedFilteredReflog != null ? cachedFilteredReflog : streamFilteredReflog(branch);
       return reflog.isEmpty() || reflog.head().getOldCommitHash().isEmpty();
     }
 
@@ -787,6 +1230,9 @@ public class GitMacheteRepository implements IGitMacheteRepository {
     private static final String MAIN = "main"; // see https://github.com/github/renaming
     private static final String DEVELOP = "develop";
 
+    // The part of the progress reported for the parent inference, the rest is for the creation of the snapshot
+    private static final double PARENT_INFERENCE_PROGRESS_SHARE = 0.5;
+
     DiscoverGitMacheteRepositoryAux(
         IGitCoreRepository gitCoreRepository,
         StatusBranchHookExecutor statusHookExecutor,
@@ -864,6 +1310,7 @@ public class GitMacheteRepository implements IGitMacheteRepository {
     @UIThreadUnsafe
     private Map<String, Instant> deriveLastCheckoutTimestampByBranchName() throws GitCoreException {
       java.util.Map<String, Instant> result = new java.util.HashMap<>();
+      int remainingLocalBranchCount = localBranchByName.size();
 
       for (val reflogEntry : gitCoreRepository.deriveHead().getReflogFromMostRecent()) {
         val checkoutEntry = reflogEntry.parseCheckout().getOrNull();
@@ -871,8 +1318,15 @@ public class GitMacheteRepository implements IGitMacheteRepository {
           val timestamp = reflogEntry.getTimestamp();
           // `putIfAbsent` since we only care about the most recent occurrence of the given branch being checked out,
           // and we iterate over the reflog starting from the latest entries.
-          result.putIfAbsent(checkoutEntry.getFromBranchName(), timestamp);
-          result.putIfAbsent(checkoutEntry.getToBranchName(), timestamp);
+          for (val branchName : List.of(checkoutEntry.getFromBranchName(), checkoutEntry.getToBranchName())) {
+            if (result.putIfAbsent(branchName, timestamp) == null && localBranchByName.containsKey(branchName)) {
+              remainingLocalBranchCount--;
+            }
+          }
+          // Only the local branches are ever looked up, so once all of them are found, the rest of the reflog is irrelevant.
+          if (remainingLocalBranchCount == 0) {
+            break;
+          }
         }
       }
       return HashMap.ofAll(result);
@@ -927,6 +1381,7 @@ public class GitMacheteRepository implements IGitMacheteRepository {
       List<MyBranchLayoutEntry> roots = entryByFixedRootBranchNames.values().toList();
 
       // Skipping the parent inference for fixed roots and for the stale non-fixed-root branches.
+      int inferredBranchCount = 0;
       for (val branchEntry : entryByFreshNonFixedRootBranch.values()) {
         // Note that stale non-fixed-root branches are never considered as candidates for the parent.
         Seq<String> parentCandidateNames = entryByIncludedBranchName.values()
@@ -951,6 +1406,9 @@ public class GitMacheteRepository implements IGitMacheteRepository {
 
           roots = roots.append(branchEntry);
         }
+        inferredBranchCount++;
+        progressMonitor.setFraction(
+            PARENT_INFERENCE_PROGRESS_SHARE * inferredBranchCount / entryByFreshNonFixedRootBranch.size());
       }
 
       val NL = System.lineSeparator();
@@ -987,11 +1445,38 @@ public class GitMacheteRepository implements IGitMacheteRepository {
           parentEntry.removeChild(branchEntry);
         }
       }
+      snapshotCreationProgressStart = PARENT_INFERENCE_PROGRESS_SHARE;
       return createSnapshot(new BranchLayout(List.narrow(roots)));
     }
 
   }
 
+  @Getter
+  @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+  private static final class ForkPointSearchResult {
+    private final @Nullable ForkPointCommitOfManagedBranch forkPoint;
+    // Only set if the fork point hasn't been found due to the search being cut off (see ForkPointSearchCutoff);
+    // in which case the fork point (if any) is just a fallback to the commit pointed by the parent branch.
+    private final @Nullable Integer notFoundWithinCommitCount;
+
+    static ForkPointSearchResult found(ForkPointCommitOfManagedBranch forkPoint) {
+      return new ForkPointSearchResult(forkPoint, null);
+    }
+
+    static ForkPointSearchResult fallbackAfterSearchCutOff(ForkPointCommitOfManagedBranch forkPoint,
+        int searchedCommitCount) {
+      return new ForkPointSearchResult(forkPoint, searchedCommitCount);
+    }
+
+    static ForkPointSearchResult notFound() {
+      return new ForkPointSearchResult(null, null);
+    }
+
+    static ForkPointSearchResult notFoundWithin(int searchedCommitCount) {
+      return new ForkPointSearchResult(null, searchedCommitCount);
+    }
+  }
+
   @Getter
   @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
   private static final class CreatedAndDuplicatedAndSkippedBranches<T extends BaseManagedBranchSnapshot> {
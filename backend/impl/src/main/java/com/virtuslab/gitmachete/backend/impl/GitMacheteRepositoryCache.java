@@ -1,5 +1,6 @@
 package com.virtuslab.gitmachete.backend.impl;
 
+import java.lang.ref.Cleaner;
 import java.lang.ref.SoftReference;
 import java.nio.file.Path;
 
@@ -25,6 +26,10 @@ public class GitMacheteRepositoryCache implements IGitMacheteRepositoryCache {
 
   private static Map<Tuple2<Path, Path>, SoftReference<GitMacheteRepository>> gitMacheteRepositoryCache = HashMap.empty();
 
+  // The repositories are only softly referenced, so there's no explicit point at which they're no longer used;
+  // instead, each repository is disposed once it's garbage-collected.
+  private static final Cleaner REPOSITORY_CLEANER = Cleaner.create();
+
   public GitMacheteRepositoryCache() {
     gitCoreRepositoryFactory = RuntimeBinding.instantiateSoleImplementingClass(IGitCoreRepositoryFactory.class);
   }
@@ -44,9 +49,12 @@ public class GitMacheteRepositoryCache implements IGitMacheteRepositoryCache {
     }
 
     val gitCoreRepository = createGitCoreRepository(rootDirectoryPath, mainGitDirectoryPath, worktreeGitDirectoryPath);
-    val statusHookExecutor = StatusBranchHookExecutor.of(gitCoreRepository);
+    // The machete.* config keys are (re-)read by the repository for each snapshot, see GitMacheteRepository#configure
+    val statusHookExecutor = StatusBranchHookExecutor.of(gitCoreRepository,
+        GitMacheteRepository.deriveStatusHookParallelism(gitCoreRepository));
     val preRebaseHookExecutor = PreRebaseHookExecutor.of(gitCoreRepository);
     val newValue = new GitMacheteRepository(gitCoreRepository, statusHookExecutor, preRebaseHookExecutor);
+    REPOSITORY_CLEANER.register(newValue, newValue.getDisposeAction());
     gitMacheteRepositoryCache = gitMacheteRepositoryCache.put(key, new SoftReference<>(newValue));
 
     return newValue;
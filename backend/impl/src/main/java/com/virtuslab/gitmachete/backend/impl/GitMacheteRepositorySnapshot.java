@@ -4,11 +4,13 @@ import io.vavr.collection.List;
 import io.vavr.collection.Map;
 import io.vavr.collection.Set;
 import io.vavr.control.Option;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 import com.virtuslab.branchlayout.api.IBranchLayout;
+import com.virtuslab.gitcore.api.GitCoreRefStateFingerprint;
 import com.virtuslab.gitmachete.backend.api.GitMacheteException;
 import com.virtuslab.gitmachete.backend.api.IGitMacheteRepositorySnapshot;
 import com.virtuslab.gitmachete.backend.api.IGitRebaseParameters;
@@ -44,6 +46,18 @@ public class GitMacheteRepositorySnapshot implements IGitMacheteRepositorySnapsh
   @Getter
   private final OngoingRepositoryOperation ongoingRepositoryOperation;
 
+  @Getter(AccessLevel.PACKAGE)
+  private final Map<String, ManagedBranchDerivationInputs> derivationInputsByBranchName;
+
+  // Empty derivation inputs (see above) make sure that no branch of a skeleton snapshot ever gets reused
+  @Getter
+  private final boolean skeleton;
+
+  // Derived before anything else, so that any change made while the snapshot was being created makes the fingerprint outdated;
+  // null if it couldn't be derived (or the snapshot is a skeleton), and then the snapshot is never reused as a whole
+  @Getter(AccessLevel.PACKAGE)
+  private final @Nullable GitCoreRefStateFingerprint refStateFingerprint;
+
   @Override
   public IBranchLayout getBranchLayout() {
     return branchLayout;
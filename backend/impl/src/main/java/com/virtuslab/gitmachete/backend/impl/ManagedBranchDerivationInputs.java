@@ -0,0 +1,33 @@
+package com.virtuslab.gitmachete.backend.impl;
+
+import lombok.Data;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.virtuslab.gitcore.api.IGitCoreCommitHash;
+import com.virtuslab.gitcore.api.IGitCoreReflogEntry;
+
+/**
+ * Everything that the expensive part of a managed branch snapshot (fork point, commits, sync to parent status
+ * and relation to remote) is derived from.
+ * If two consecutive snapshot creations yield equal inputs for a given branch,
+ * the previously derived data can be reused as-is.
+ */
+@Data(staticConstructor = "of")
+public class ManagedBranchDerivationInputs {
+  private final IGitCoreCommitHash pointedCommitHash;
+  private final @Nullable IGitCoreCommitHash parentPointedCommitHash;
+  private final @Nullable IGitCoreCommitHash remoteTrackingCommitHash;
+  // Compared by identity, which is stable (for file-based reflogs) as long as the reflog doesn't change;
+  // new entries change the newest one, expired entries change the oldest one.
+  private final @Nullable IGitCoreReflogEntry newestReflogEntry;
+  private final @Nullable IGitCoreReflogEntry oldestReflogEntry;
+  private final @Nullable String overriddenForkPointTo;
+  private final @Nullable String overriddenForkPointWhileDescendantOf;
+  // The reflogs of the other branches, which the fork point of a non-root branch might be inferred from;
+  // see ReflogCommitIndex.Postings#getVersion
+  private final long reflogCommitIndexVersion;
+  // Decides which of the ancestors are searched for the fork point of a non-root branch at all.
+  // Note that the age limit is relative to the commit pointed by the branch rather than to the current time,
+  // so the same limits over the same pointed commit always yield the same candidates.
+  private final ForkPointSearchCutoff forkPointSearchCutoff;
+}
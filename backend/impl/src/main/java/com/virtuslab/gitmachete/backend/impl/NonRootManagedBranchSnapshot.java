@@ -1,7 +1,10 @@
 package com.virtuslab.gitmachete.backend.impl;
 
+import java.util.concurrent.CompletableFuture;
+
 import io.vavr.collection.List;
 import io.vavr.control.Option;
+import lombok.AccessLevel;
 import lombok.CustomLog;
 import lombok.Getter;
 import lombok.ToString;
@@ -9,6 +12,7 @@ import lombok.val;
 import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
+import com.virtuslab.gitmachete.backend.api.GitMacheteException;
 import com.virtuslab.gitmachete.backend.api.GitMacheteMissingForkPointException;
 import com.virtuslab.gitmachete.backend.api.ICommitOfManagedBranch;
 import com.virtuslab.gitmachete.backend.api.IForkPointCommitOfManagedBranch;
@@ -18,6 +22,7 @@ import com.virtuslab.gitmachete.backend.api.INonRootManagedBranchSnapshot;
 import com.virtuslab.gitmachete.backend.api.IRemoteTrackingBranchReference;
 import com.virtuslab.gitmachete.backend.api.RelationToRemote;
 import com.virtuslab.gitmachete.backend.api.SyncToParentStatus;
+import com.virtuslab.qual.guieffect.UIThreadUnsafe;
 
 @CustomLog
 @Getter
@@ -26,7 +31,11 @@ public final class NonRootManagedBranchSnapshot extends BaseManagedBranchSnapsho
 
   private @MonotonicNonNull IManagedBranchSnapshot parent = null;
   private final @Nullable IForkPointCommitOfManagedBranch forkPoint;
-  private final List<ICommitOfManagedBranch> commits;
+  @Getter(AccessLevel.NONE)
+  private final @Nullable Integer forkPointNotFoundWithinCommitCount;
+  @Getter(AccessLevel.PACKAGE)
+  @ToString.Exclude
+  private final PagedCommitRange commitRange;
   private final SyncToParentStatus syncToParentStatus;
 
   @ToString.Include(name = "parent") // avoid recursive `toString` call on parent branch to avoid stack overflow
@@ -42,14 +51,16 @@ public final class NonRootManagedBranchSnapshot extends BaseManagedBranchSnapsho
       @Nullable IRemoteTrackingBranchReference remoteTrackingBranch,
       RelationToRemote relationToRemote,
       @Nullable String customAnnotation,
-      @Nullable String statusHookOutput,
+      CompletableFuture<Option<String>> statusHookOutput,
       @Nullable IForkPointCommitOfManagedBranch forkPoint,
-      List<ICommitOfManagedBranch> commits,
+      @Nullable Integer forkPointNotFoundWithinCommitCount,
+      PagedCommitRange commitRange,
       SyncToParentStatus syncToParentStatus) {
     super(name, fullName, children, pointedCommit, remoteTrackingBranch, relationToRemote, customAnnotation, statusHookOutput);
 
     this.forkPoint = forkPoint;
-    this.commits = commits;
+    this.forkPointNotFoundWithinCommitCount = forkPointNotFoundWithinCommitCount;
+    this.commitRange = commitRange;
     this.syncToParentStatus = syncToParentStatus;
 
     LOG.debug("Creating ${this}");
@@ -69,11 +80,32 @@ public final class NonRootManagedBranchSnapshot extends BaseManagedBranchSnapsho
     parent = givenParentBranch;
   }
 
+  @Override
+  public List<ICommitOfManagedBranch> getCommits() {
+    return commitRange.getFirstPage();
+  }
+
+  @Override
+  public int getCommitCount() {
+    return commitRange.getCommitCount();
+  }
+
+  @Override
+  @UIThreadUnsafe
+  public List<ICommitOfManagedBranch> loadCommits(int skipCount, int maxCount) throws GitMacheteException {
+    return commitRange.loadCommits(skipCount, maxCount);
+  }
+
   @Override
   public Option<IForkPointCommitOfManagedBranch> getForkPoint() {
     return Option.of(forkPoint);
   }
 
+  @Override
+  public Option<Integer> getForkPointNotFoundWithinCommitCount() {
+    return Option.of(forkPointNotFoundWithinCommitCount);
+  }
+
   @Override
   public IGitRebaseParameters getParametersForRebaseOntoParent() throws GitMacheteMissingForkPointException {
     LOG.debug(() -> "Entering: branch = '${getName()}'");
@@ -0,0 +1,86 @@
+package com.virtuslab.gitmachete.backend.impl;
+
+import io.vavr.collection.List;
+import lombok.CustomLog;
+import lombok.val;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.virtuslab.gitcore.api.GitCoreException;
+import com.virtuslab.gitcore.api.IGitCoreCommit;
+import com.virtuslab.gitcore.api.IGitCoreCommitHash;
+import com.virtuslab.gitcore.api.IGitCoreRepository;
+import com.virtuslab.gitmachete.backend.api.GitMacheteException;
+import com.virtuslab.gitmachete.backend.api.ICommitOfManagedBranch;
+import com.virtuslab.qual.guieffect.UIThreadUnsafe;
+
+/**
+ * The commits of a non-root branch (from the most recent one), of which only the first page is materialized,
+ * so that a branch with thousands of commits over its fork point doesn't need to hold all of them in the snapshot.
+ * <p>
+ * The range is walked just once, when it's created; the hashes of all its commits serve as a cursor,
+ * so that any further page can be materialized without walking the range again.
+ * Immutable, and hence safe to be shared between the subsequent snapshots.
+ */
+@CustomLog
+final class PagedCommitRange {
+
+  static final int FIRST_PAGE_SIZE = 100;
+
+  private static final PagedCommitRange EMPTY = new PagedCommitRange(/* gitCoreRepository */ null, List.empty(),
+      List.empty());
+
+  private final @Nullable IGitCoreRepository gitCoreRepository;
+  private final List<IGitCoreCommitHash> commitHashes;
+  private final List<ICommitOfManagedBranch> firstPage;
+
+  private PagedCommitRange(
+      @Nullable IGitCoreRepository gitCoreRepository,
+      List<IGitCoreCommitHash> commitHashes,
+      List<ICommitOfManagedBranch> firstPage) {
+    this.gitCoreRepository = gitCoreRepository;
+    this.commitHashes = commitHashes;
+    this.firstPage = firstPage;
+  }
+
+  static PagedCommitRange empty() {
+    return EMPTY;
+  }
+
+  /**
+   * @return the range with just the first page of (at most {@link #FIRST_PAGE_SIZE}) commits materialized
+   */
+  @UIThreadUnsafe
+  static PagedCommitRange of(IGitCoreRepository gitCoreRepository, IGitCoreCommit fromInclusive,
+      IGitCoreCommit untilExclusive) throws GitCoreException {
+    val commitHashes = gitCoreRepository.deriveCommitHashRange(fromInclusive, untilExclusive);
+    val firstPage = gitCoreRepository.deriveCommits(commitHashes.take(FIRST_PAGE_SIZE))
+        .map(CommitOfManagedBranch::new);
+    LOG.debug(() -> "Found ${commitHashes.size()} commit(s) in range ${fromInclusive}..${untilExclusive}");
+    return new PagedCommitRange(gitCoreRepository, commitHashes, List.narrow(firstPage));
+  }
+
+  List<ICommitOfManagedBranch> getFirstPage() {
+    return firstPage;
+  }
+
+  int getCommitCount() {
+    return commitHashes.size();
+  }
+
+  @UIThreadUnsafe
+  List<ICommitOfManagedBranch> loadCommits(int skipCount, int maxCount) throws GitMacheteException {
+    val pageHashes = commitHashes.drop(skipCount).take(maxCount);
+    if (pageHashes.isEmpty() || gitCoreRepository == null) {
+      return List.empty();
+    }
+    // The first page is already at hand, no need to materialize its commits again.
+    if (skipCount + pageHashes.size() <= firstPage.size()) {
+      return firstPage.drop(skipCount).take(maxCount);
+    }
+    try {
+      return List.narrow(gitCoreRepository.deriveCommits(pageHashes).map(CommitOfManagedBranch::new));
+    } catch (GitCoreException e) {
+      throw new GitMacheteException("Could not load ${pageHashes.size()} commit(s) starting from ${pageHashes.head()}", e);
+    }
+  }
+}
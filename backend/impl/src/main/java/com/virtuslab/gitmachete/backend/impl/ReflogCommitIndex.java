@@ -0,0 +1,246 @@
+package com.virtuslab.gitmachete.backend.impl;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.vavr.Function1;
+import io.vavr.collection.List;
+import io.vavr.collection.Map;
+import io.vavr.collection.Seq;
+import io.vavr.control.Option;
+import lombok.CustomLog;
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.virtuslab.gitcore.api.IGitCoreBranchSnapshot;
+import com.virtuslab.gitcore.api.IGitCoreCommitHash;
+import com.virtuslab.gitcore.api.IGitCoreReflogEntry;
+import com.virtuslab.gitmachete.backend.api.IBranchReference;
+
+/**
+ * Index from commits to the branches that have the given commit in their filtered reflogs,
+ * kept for the lifetime of a {@link GitMacheteRepository} rather than re-built for every snapshot.
+ * <p>
+ * On each {@link #update}, only the branches whose reflog (or pointed commit) has changed get their reflog re-filtered;
+ * if no branch has changed, the previous {@link Postings} are returned as-is.
+ * The postings carry a {@link Postings#getVersion version}, which only changes along with what the postings consist of
+ * (and not e.g. when a branch gets re-filtered to the same entries), so that whatever has been derived from the postings
+ * can be reused as long as the version stays the same.
+ * Postings are keyed by the first 64 bits of the commit hash in a primitive open-addressing table,
+ * so that a lookup for a commit that isn't in any reflog (by far the most common case during fork point inference)
+ * costs a few array accesses.
+ */
+@CustomLog
+public final class ReflogCommitIndex {
+
+  @RequiredArgsConstructor
+  private static final class IndexedBranch {
+    private final IBranchReference branch;
+    private final String branchFingerprint;
+    private final @Nullable IGitCoreReflogEntry newestReflogEntry;
+    private final @Nullable IGitCoreReflogEntry oldestReflogEntry;
+    private final @Nullable Instant reflogModificationTime;
+    private final IGitCoreCommitHash pointedCommitHash;
+    private final List<IGitCoreReflogEntry> filteredReflog;
+
+    boolean hasSameFilteredReflogAs(IndexedBranch other) {
+      return filteredReflog.map(IGitCoreReflogEntry::getNewCommitHash)
+          .equals(other.filteredReflog.map(IGitCoreReflogEntry::getNewCommitHash));
+    }
+
+    boolean isUpToDateWith(IBranchReference givenBranch, IGitCoreBranchSnapshot coreBranch) {
+      // Reflog entries are compared by identity, which is stable (for file-based reflogs) as long as the reflog doesn't change;
+      // the modification time of the reflog file is compared as well, so as not to rely solely on how the entries are cached.
+      return branchFingerprint.equals(fingerprintOf(givenBranch))
+          && equalsNullable(newestReflogEntry, coreBranch.getReflogFromMostRecent().headOption().getOrNull())
+          && equalsNullable(oldestReflogEntry, coreBranch.getOldestReflogEntry().getOrNull())
+          && equalsNullable(reflogModificationTime, coreBranch.getReflogModificationTime().getOrNull())
+          && pointedCommitHash.equals(coreBranch.getPointedCommit().getHash());
+    }
+  }
+
+  // Shared between all the indices, so that the postings of two different indices never have the same version
+  private static final AtomicLong LAST_VERSION = new AtomicLong();
+
+  private java.util.Map<String, IndexedBranch> indexedBranchByFullName = new java.util.HashMap<>();
+  // Of the branches that have any postings, in the order of the postings
+  private List<String> postedBranchFingerprints = List.empty();
+
+  private Postings postings = Postings.EMPTY;
+
+  private static String fingerprintOf(IBranchReference branch) {
+    // A remote tracking branch reference also carries the local branch that tracks it.
+    return branch.isLocal()
+        ? branch.getFullName()
+        : branch.getFullName() + " <- " + branch.asRemote().getTrackedLocalBranch().getFullName();
+  }
+
+  private static boolean equalsNullable(@Nullable Object a, @Nullable Object b) {
+    return a != null ? a.equals(b) : b == null;
+  }
+
+  /**
+   * @param coreBranchByBranch  all the branches to index, iterated in the order that the postings for each commit
+   *                            should follow
+   * @param filteredReflogOf    derives the filtered reflog of the given branch, only called for new or changed branches
+   */
+  @SuppressWarnings("regexp") // to allow for `synchronized`
+  synchronized Postings update(Map<IBranchReference, IGitCoreBranchSnapshot> coreBranchByBranch,
+      Function1<IGitCoreBranchSnapshot, List<IGitCoreReflogEntry>> filteredReflogOf) {
+    java.util.Map<String, IndexedBranch> newIndexedBranchByFullName = new java.util.HashMap<>();
+    boolean isChanged = coreBranchByBranch.size() != indexedBranchByFullName.size();
+    boolean isContentChanged = false;
+    int reusedCount = 0;
+    for (val branchAndCoreBranch : coreBranchByBranch) {
+      val branch = branchAndCoreBranch._1;
+      val coreBranch = branchAndCoreBranch._2;
+      IndexedBranch indexedBranch = indexedBranchByFullName.get(branch.getFullName());
+      if (indexedBranch != null && indexedBranch.isUpToDateWith(branch, coreBranch)) {
+        reusedCount++;
+      } else {
+        val newIndexedBranch = new IndexedBranch(branch, fingerprintOf(branch),
+            coreBranch.getReflogFromMostRecent().headOption().getOrNull(), coreBranch.getOldestReflogEntry().getOrNull(),
+            coreBranch.getReflogModificationTime().getOrNull(), coreBranch.getPointedCommit().getHash(),
+            filteredReflogOf.apply(coreBranch));
+        if (indexedBranch != null && !newIndexedBranch.hasSameFilteredReflogAs(indexedBranch)) {
+          isContentChanged = true;
+        }
+        indexedBranch = newIndexedBranch;
+        isChanged = true;
+      }
+      newIndexedBranchByFullName.put(branch.getFullName(), indexedBranch);
+    }
+    indexedBranchByFullName = newIndexedBranchByFullName;
+    // Covers the added and removed branches, as well as a change of their order.
+    // Note that the branches with no postings (like the ones with no reflog at all) don't matter.
+    val newPostedBranchFingerprints = coreBranchByBranch.keySet().toList()
+        .flatMap(branch -> Option.of(newIndexedBranchByFullName.get(branch.getFullName())))
+        .filter(indexedBranch -> indexedBranch.filteredReflog.nonEmpty())
+        .map(indexedBranch -> indexedBranch.branchFingerprint);
+    isContentChanged = isContentChanged || !newPostedBranchFingerprints.equals(postedBranchFingerprints);
+    postedBranchFingerprints = newPostedBranchFingerprints;
+
+    val finalReusedCount = reusedCount;
+    if (!isChanged && !isContentChanged) {
+      LOG.debug(() -> "All ${finalReusedCount} branch reflog(s) unchanged, reusing the postings");
+      return postings;
+    }
+    LOG.debug(() -> "${finalReusedCount} out of ${coreBranchByBranch.size()} branch reflog(s) unchanged, " +
+        "rebuilding the postings");
+    // The postings must follow the iteration order of `coreBranchByBranch`, not of the (unordered) index.
+    long version = isContentChanged ? LAST_VERSION.incrementAndGet() : postings.version;
+    postings = Postings.of(coreBranchByBranch.keySet().toList()
+        .map(branch -> newIndexedBranchByFullName.get(branch.getFullName())), version);
+    return postings;
+  }
+
+  /**
+   * Immutable, hence safe to be shared between threads.
+   */
+  @RequiredArgsConstructor
+  public static final class Postings {
+    static final Postings EMPTY = new Postings(new long[1], new int[1], new int[1], new IBranchReference[1],
+        new IGitCoreCommitHash[1], /* version */ 0);
+
+    private final long[] slotKeys;
+    // 1-based index of the first posting for the slot, or 0 if the slot is empty
+    private final int[] slotFirstPostings;
+    // 1-based index of the next posting for the same key, or 0 if there are no more postings
+    private final int[] nextPostings;
+    private final IBranchReference[] postingBranches;
+    private final IGitCoreCommitHash[] postingCommitHashes;
+    private final long version;
+
+    private static long toKey(IGitCoreCommitHash commitHash) {
+      String hashString = commitHash.getHashString();
+      long key = 0;
+      for (int i = 0; i < 16; i++) {
+        key = (key << 4) | Character.digit(hashString.charAt(i), 16);
+      }
+      return key;
+    }
+
+    private static int toSlot(long key, int mask) {
+      // The leading bits of a hash are already uniformly distributed, hence no further mixing is needed.
+      return (int) (key >>> 32) & mask;
+    }
+
+    @SuppressWarnings({"index:array.access.unsafe.high", "index:array.access.unsafe.low"})
+    static Postings of(List<@Nullable IndexedBranch> indexedBranches, long version) {
+      int postingCount = 0;
+      for (val indexedBranch : indexedBranches) {
+        if (indexedBranch != null) {
+          postingCount += indexedBranch.filteredReflog.size();
+        }
+      }
+      int capacity = Integer.highestOneBit(Math.max(postingCount, 1) * 2) * 2;
+      int mask = capacity - 1;
+      val slotKeys = new long[capacity];
+      val slotFirstPostings = new int[capacity];
+      val slotLastPostings = new int[capacity];
+      val nextPostings = new int[postingCount + 1];
+      val postingBranches = new IBranchReference[postingCount + 1];
+      val postingCommitHashes = new IGitCoreCommitHash[postingCount + 1];
+
+      int posting = 0;
+      for (val indexedBranch : indexedBranches) {
+        if (indexedBranch == null) {
+          continue;
+        }
+        for (val reflogEntry : indexedBranch.filteredReflog) {
+          posting++;
+          val commitHash = reflogEntry.getNewCommitHash();
+          postingBranches[posting] = indexedBranch.branch;
+          postingCommitHashes[posting] = commitHash;
+
+          long key = toKey(commitHash);
+          int slot = toSlot(key, mask);
+          while (slotFirstPostings[slot] != 0 && slotKeys[slot] != key) {
+            slot = (slot + 1) & mask;
+          }
+          if (slotFirstPostings[slot] == 0) {
+            slotKeys[slot] = key;
+            slotFirstPostings[slot] = posting;
+          } else {
+            nextPostings[slotLastPostings[slot]] = posting;
+          }
+          slotLastPostings[slot] = posting;
+        }
+      }
+      return new Postings(slotKeys, slotFirstPostings, nextPostings, postingBranches, postingCommitHashes, version);
+    }
+
+    /**
+     * @return the version, equal for two postings only if they consist of the same commits of the same branches
+     *         (in the same order)
+     */
+    public long getVersion() {
+      return version;
+    }
+
+    /**
+     * @return the branches having the given commit in their filtered reflogs, a branch repeated once per reflog entry
+     */
+    @SuppressWarnings({"index:array.access.unsafe.high", "index:array.access.unsafe.low"})
+    public Seq<IBranchReference> getBranchesContaining(IGitCoreCommitHash commitHash) {
+      int mask = slotKeys.length - 1;
+      long key = toKey(commitHash);
+      int slot = toSlot(key, mask);
+      while (slotFirstPostings[slot] != 0) {
+        if (slotKeys[slot] == key) {
+          List<IBranchReference> result = List.empty();
+          for (int posting = slotFirstPostings[slot]; posting != 0; posting = nextPostings[posting]) {
+            // Different commits might share the first 64 bits of the hash.
+            if (commitHash.equals(postingCommitHashes[posting])) {
+              result = result.prepend(postingBranches[posting]);
+            }
+          }
+          return result.reverse();
+        }
+        slot = (slot + 1) & mask;
+      }
+      return List.empty();
+    }
+  }
+}
@@ -1,6 +1,9 @@
 package com.virtuslab.gitmachete.backend.impl;
 
+import java.util.concurrent.CompletableFuture;
+
 import io.vavr.collection.List;
+import io.vavr.control.Option;
 import lombok.CustomLog;
 import lombok.ToString;
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -22,7 +25,7 @@ public final class RootManagedBranchSnapshot extends BaseManagedBranchSnapshot i
       @Nullable IRemoteTrackingBranchReference remoteTrackingBranch,
       RelationToRemote relationToRemote,
       @Nullable String customAnnotation,
-      @Nullable String statusHookOutput) {
+      CompletableFuture<Option<String>> statusHookOutput) {
     super(name, fullName, children, pointedCommit, remoteTrackingBranch, relationToRemote, customAnnotation, statusHookOutput);
 
     LOG.debug("Creating ${this}");
@@ -0,0 +1,94 @@
+package com.virtuslab.gitmachete.backend.impl;
+
+import java.util.concurrent.ForkJoinPool;
+
+import lombok.CustomLog;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * The fork-join pool that the snapshots of a single repository are created in.
+ * <p>
+ * The pool outlives the snapshots, so that its worker threads (which terminate on their own once idle)
+ * don't need to be started anew for each snapshot; it's only replaced once the configured parallelism changes.
+ * Each snapshot creation leases the pool for its entire duration, and a replaced pool is only shut down
+ * once its last lease is released, so that none of the tasks of a snapshot still in progress gets rejected.
+ */
+@CustomLog
+final class SharedForkJoinPool {
+
+  @RequiredArgsConstructor
+  final class Lease implements AutoCloseable {
+    // Null if the snapshot is to be created sequentially
+    @Getter
+    private final @Nullable ForkJoinPool pool;
+
+    @Override
+    public void close() {
+      release(pool);
+    }
+  }
+
+  private @Nullable ForkJoinPool currentPool = null;
+
+  private final java.util.Map<ForkJoinPool, Integer> leaseCountByPool = new java.util.IdentityHashMap<>();
+
+  private boolean isShutDown = false;
+
+  /**
+   * @param parallelism the number of threads to create the snapshot in (1 means sequential)
+   */
+  @SuppressWarnings("regexp") // to allow for `synchronized`
+  synchronized Lease lease(int parallelism) {
+    if (isShutDown || parallelism <= 1) {
+      retireCurrentPool();
+      return new Lease(/* pool */ null);
+    }
+    ForkJoinPool pool = currentPool;
+    if (pool == null || pool.getParallelism() != parallelism) {
+      retireCurrentPool();
+      LOG.debug(() -> "Creating a fork-join pool with parallelism = ${parallelism}");
+      pool = new ForkJoinPool(parallelism);
+      currentPool = pool;
+    }
+    leaseCountByPool.put(pool, leaseCountByPool.getOrDefault(pool, 0) + 1);
+    return new Lease(pool);
+  }
+
+  @SuppressWarnings("regexp") // to allow for `synchronized`
+  private synchronized void release(@Nullable ForkJoinPool pool) {
+    if (pool == null) {
+      return;
+    }
+    int leaseCount = leaseCountByPool.getOrDefault(pool, 0) - 1;
+    if (leaseCount > 0) {
+      leaseCountByPool.put(pool, leaseCount);
+      return;
+    }
+    leaseCountByPool.remove(pool);
+    if (pool != currentPool) {
+      LOG.debug("Shutting down a replaced fork-join pool once its last lease is released");
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * Shuts down the pool right away if it's not leased, or once it's released otherwise.
+   * Any later lease is sequential.
+   */
+  @SuppressWarnings("regexp") // to allow for `synchronized`
+  synchronized void shutdown() {
+    isShutDown = true;
+    retireCurrentPool();
+  }
+
+  private void retireCurrentPool() {
+    val pool = currentPool;
+    currentPool = null;
+    if (pool != null && !leaseCountByPool.containsKey(pool)) {
+      pool.shutdown();
+    }
+  }
+}
@@ -0,0 +1,21 @@
+package com.virtuslab.gitmachete.backend.impl.hooks;
+
+import lombok.Data;
+
+/**
+ * Point-in-time view of the latencies and outcomes of the executions of a hook, since the executor has been created.
+ * Outputs served from the (in-memory or persistent) cache don't count as executions.
+ */
+@Data(staticConstructor = "of")
+public class HookExecutionStatistics {
+  private final long executionCount;
+  private final long timeoutCount;
+  private final long failureCount;
+  private final long persistentCacheHitCount;
+  private final long totalExecutionMillis;
+  private final long maxExecutionMillis;
+
+  public long getAverageExecutionMillis() {
+    return executionCount > 0 ? totalExecutionMillis / executionCount : 0;
+  }
+}
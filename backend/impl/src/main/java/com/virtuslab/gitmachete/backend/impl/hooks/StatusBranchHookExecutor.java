@@ -3,18 +3,26 @@ package com.virtuslab.gitmachete.backend.impl.hooks;
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.jcabi.aspects.Loggable;
 import io.vavr.Tuple;
 import io.vavr.Tuple2;
+import io.vavr.collection.Seq;
 import io.vavr.control.Option;
 import io.vavr.control.Try;
 import lombok.CustomLog;
+import lombok.RequiredArgsConstructor;
 import lombok.val;
 import org.apache.commons.io.IOUtils;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import com.virtuslab.gitcore.api.IGitCoreRepository;
 import com.virtuslab.gitmachete.backend.api.GitMacheteException;
@@ -24,28 +32,123 @@ import com.virtuslab.gitmachete.backend.impl.CommitOfManagedBranch;
 public final class StatusBranchHookExecutor extends BaseHookExecutor {
   private static final int EXECUTION_TIMEOUT_SECONDS = 1;
 
+  private static final int IDLE_THREAD_KEEP_ALIVE_SECONDS = 30;
+
+  private static final int INITIAL_RETRY_DELAY_SECONDS = 15;
+
+  private static final int MAX_RETRY_DELAY_SECONDS = 15 * 60;
+
   // We're cheating a bit here: we're assuming that the hook's output is fixed for a given (branch-name, commit-hash) pair.
   // machete-status-branch hook spec doesn't impose any requirements like that, but:
   // 1. it's pretty unlikely that any practically useful hook won't conform to this assumption,
   // 2. this kind of caching is pretty useful wrt. performance.
-  private final java.util.Map<Tuple2<String, String>, Option<String>> hookOutputByBranchNameAndCommitHash = new ConcurrentHashMap<>();
+  // The same assumption lets the outputs outlive the IDE session in the persistent cache (while the hook is unchanged).
+  private final java.util.Map<Tuple2<String, String>, CompletableFuture<Option<String>>> hookOutputByBranchNameAndCommitHash =
+      new ConcurrentHashMap<>();
+
+  // The executions that have timed out or failed, so that they're not retried on each and every refresh
+  // (each retry would likely take the entire timeout again, while holding up a thread of the pool).
+  private final java.util.Map<Tuple2<String, String>, RetryBackoff> retryBackoffByBranchNameAndCommitHash =
+      new ConcurrentHashMap<>();
+
+  private final StatusBranchHookOutputCache persistentOutputCache;
+
+  // The hook executions spend virtually all the time waiting for the hook processes,
+  // so they're run in a pool of their own rather than in the pool that the branches are created in.
+  private final ThreadPoolExecutor executorService;
+
+  private final AtomicLong executionCount = new AtomicLong();
+  private final AtomicLong timeoutCount = new AtomicLong();
+  private final AtomicLong failureCount = new AtomicLong();
+  private final AtomicLong persistentCacheHitCount = new AtomicLong();
+  private final AtomicLong totalExecutionMillis = new AtomicLong();
+  private final AtomicLong maxExecutionMillis = new AtomicLong();
+
+  /**
+   * When the hook that has timed out or failed (for a given branch and commit) is to be executed again:
+   * the delay starts at {@value #INITIAL_RETRY_DELAY_SECONDS} seconds and doubles after each subsequent timeout or failure,
+   * up to {@value #MAX_RETRY_DELAY_SECONDS} seconds.
+   */
+  @RequiredArgsConstructor
+  private static final class RetryBackoff {
+    private final int failedAttemptCount;
+    private final long retryNotBeforeNanos;
+
+    static RetryBackoff after(@Nullable RetryBackoff previousBackoff) {
+      int failedAttemptCount = previousBackoff != null ? previousBackoff.failedAttemptCount + 1 : 1;
+      long delaySeconds = Math.min((long) INITIAL_RETRY_DELAY_SECONDS << Math.min(failedAttemptCount - 1, 16),
+          MAX_RETRY_DELAY_SECONDS);
+      return new RetryBackoff(failedAttemptCount, System.nanoTime() + TimeUnit.SECONDS.toNanos(delaySeconds));
+    }
+
+    boolean isElapsed() {
+      return System.nanoTime() - retryNotBeforeNanos >= 0;
+    }
+  }
 
-  private StatusBranchHookExecutor(File rootDirectory, File hookFile) {
+  private StatusBranchHookExecutor(File rootDirectory, File hookFile, Path outputCacheFilePath, int parallelism) {
     super(rootDirectory, hookFile);
+    this.persistentOutputCache = new StatusBranchHookOutputCache(outputCacheFilePath);
+    this.executorService = new ThreadPoolExecutor(parallelism, parallelism,
+        IDLE_THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+        runnable -> {
+          val thread = new Thread(runnable, "machete-status-branch hook executor");
+          thread.setDaemon(true);
+          return thread;
+        });
+    // So that no threads are kept alive in between the refreshes. The executor is never shut down explicitly,
+    // as it lives as long as its (softly referenced) repository: once idle, it holds no threads (and the threads
+    // are daemons anyway), so it gets garbage-collected together with the repository.
+    this.executorService.allowCoreThreadTimeOut(true);
   }
 
-  public static StatusBranchHookExecutor of(IGitCoreRepository gitCoreRepository) {
+  /**
+   * @param parallelism maximum number of the hook processes running at the same time
+   */
+  public static StatusBranchHookExecutor of(IGitCoreRepository gitCoreRepository, int parallelism) {
     val hooksDir = gitCoreRepository.deriveConfigValue("core", "hooksPath");
     val hooksDirPath = hooksDir.map(Paths::get).getOrElse(gitCoreRepository.getMainGitDirectoryPath().resolve("hooks"));
 
     val rootDirectory = gitCoreRepository.getRootDirectoryPath().toFile();
     val hookFile = hooksDirPath.resolve("machete-status-branch").toFile();
+    val outputCacheFilePath = gitCoreRepository.getMainGitDirectoryPath().resolve("machete-cache")
+        .resolve("status-branch-hook-outputs");
+
+    return new StatusBranchHookExecutor(rootDirectory, hookFile, outputCacheFilePath, parallelism);
+  }
+
+  /**
+   * Takes effect for the executions that are yet to start, without waiting for the ones in progress.
+   *
+   * @param parallelism maximum number of the hook processes running at the same time
+   */
+  public void setParallelism(int parallelism) {
+    if (parallelism == executorService.getMaximumPoolSize()) {
+      return;
+    }
+    // The core pool size must never exceed the maximum pool size, hence the order.
+    if (parallelism > executorService.getMaximumPoolSize()) {
+      executorService.setMaximumPoolSize(parallelism);
+      executorService.setCorePoolSize(parallelism);
+    } else {
+      executorService.setCorePoolSize(parallelism);
+      executorService.setMaximumPoolSize(parallelism);
+    }
+  }
 
-    return new StatusBranchHookExecutor(rootDirectory, hookFile);
+  public HookExecutionStatistics getStatistics() {
+    return HookExecutionStatistics.of(executionCount.get(), timeoutCount.get(), failureCount.get(),
+        persistentCacheHitCount.get(), totalExecutionMillis.get(), maxExecutionMillis.get());
   }
 
+  /**
+   * @return {@link Option.Some} with the output when the hook has been successfully executed,
+   *         {@link Option.None} when the hook has not been executed (because it's absent or non-executable),
+   *         or {@code null} when the hook did not complete within the timeout (and has been killed)
+   * @throws GitMacheteException when the hook returned with non-zero exit code or could not be executed
+   */
   @Loggable(value = Loggable.DEBUG)
-  private Option<String> executeHookFor(String branchName) throws GitMacheteException {
+  private @Nullable Option<String> executeHookFor(String branchName) throws GitMacheteException {
     val hookFilePath = hookFile.getAbsolutePath();
     if (!hookFile.isFile()) {
       LOG.debug(() -> "Skipping machete-status-branch hook execution for ${branchName}: " +
@@ -72,7 +175,7 @@ public final class StatusBranchHookExecutor extends BaseHookExecutor {
     // We obviously assume a non-bare repository here, and machete-status-branch isn't related to push.
     pb.directory(rootDirectory);
 
-    Process process;
+    Process process = null;
     String strippedStdout = null;
     String strippedStderr = null;
     try {
@@ -81,13 +184,8 @@ public final class StatusBranchHookExecutor extends BaseHookExecutor {
 
       if (!completed) {
         LOG.warn("machete-status-branch hook (${hookFilePath}) for ${branchName} " +
-            "did not complete within ${EXECUTION_TIMEOUT_SECONDS} seconds; ignoring the output");
-        return Option.none();
-      }
-      if (process.exitValue() != 0) {
-        LOG.warn("machete-status-branch hook (${hookFilePath}) for ${branchName} " +
-            "returned with non-zero (${process.exitValue()}) exit code; ignoring the output");
-        return Option.none();
+            "did not complete within ${EXECUTION_TIMEOUT_SECONDS} seconds; killing the hook and ignoring the output");
+        return null;
       }
 
       // It's quite likely that the hook's output will be terminated with a newline,
@@ -95,6 +193,13 @@ public final class StatusBranchHookExecutor extends BaseHookExecutor {
       strippedStdout = IOUtils.toString(process.getInputStream(), StandardCharsets.UTF_8).trim();
       strippedStderr = IOUtils.toString(process.getErrorStream(), StandardCharsets.UTF_8).trim();
 
+      if (process.exitValue() != 0) {
+        val message = "machete-status-branch hook (${hookFilePath}) for ${branchName} " +
+            "returned with non-zero (${process.exitValue()}) exit code; ignoring the output";
+        LOG.warn(message);
+        throw new GitMacheteException(message + formatOutputs(strippedStdout, strippedStderr));
+      }
+
       LOG.debug("Output of machete-status-branch hook (${hookFilePath}) " +
           "for ${branchName} is '${strippedStdout}'");
       return Option.some(strippedStdout);
@@ -102,15 +207,128 @@ public final class StatusBranchHookExecutor extends BaseHookExecutor {
       val message = "An error occurred while running machete-status-branch hook (${hookFilePath})" +
           "for ${branchName}; ignoring the hook";
       LOG.error(message, e);
-      throw new GitMacheteException(message
-          + (strippedStdout != null && !strippedStdout.trim().isEmpty() ? NL + "stdout:" + NL + strippedStdout : "")
-          + (strippedStderr != null && !strippedStderr.trim().isEmpty() ? NL + "stderr:" + NL + strippedStderr : ""), e);
+      throw new GitMacheteException(message + formatOutputs(strippedStdout, strippedStderr), e);
+    } finally {
+      // Not to leave behind a hook that's timed out (or that's been interrupted), as it might well never complete.
+      if (process != null && process.isAlive()) {
+        process.destroyForcibly();
+      }
+    }
+  }
+
+  private static String formatOutputs(@Nullable String strippedStdout, @Nullable String strippedStderr) {
+    return (strippedStdout != null && !strippedStdout.isEmpty() ? NL + "stdout:" + NL + strippedStdout : "")
+        + (strippedStderr != null && !strippedStderr.isEmpty() ? NL + "stderr:" + NL + strippedStderr : "");
+  }
+
+  private String deriveHookFingerprint() {
+    return "${hookFile.getAbsolutePath()}:${hookFile.length()}:${hookFile.lastModified()}:${hookFile.canExecute()}";
+  }
+
+  /**
+   * Starts the hook executions for all the given branches whose outputs aren't known yet,
+   * with at most {@code parallelism} hook processes running at the same time, and returns without waiting for them.
+   * The outputs are then picked up by {@link #deriveHookOutputAsyncFor}.
+   * Once all the executions complete, the outputs are saved to the persistent cache.
+   *
+   * @param branchNameAndCommitHashes names of the branches and the hashes of the commits they point to
+   */
+  public void prefetchHookOutputsFor(Seq<Tuple2<String, String>> branchNameAndCommitHashes) {
+    if (!hookFile.isFile()) {
+      return;
+    }
+    if (persistentOutputCache.resetIfHookChanged(deriveHookFingerprint())) {
+      hookOutputByBranchNameAndCommitHash.clear();
+      // The changed hook might well complete in time (or succeed) right away.
+      retryBackoffByBranchNameAndCommitHash.clear();
+    }
+    val futures = branchNameAndCommitHashes
+        .map(branchNameAndCommitHash -> submitHookExecutionFor(branchNameAndCommitHash._1, branchNameAndCommitHash._2));
+    CompletableFuture.allOf(futures.toJavaList().toArray(new CompletableFuture<?>[0]))
+        .thenRunAsync(this::persistOutputCache, executorService);
+  }
+
+  /**
+   * @return a future completed with the hook output once the hook completes (already completed if the output is cached);
+   *         never completed exceptionally
+   */
+  public CompletableFuture<Option<String>> deriveHookOutputAsyncFor(String branchName, CommitOfManagedBranch pointedCommit) {
+    if (!hookFile.isFile()) {
+      // No need to get through the pool (and to fill up the caches) when there's no hook at all, which is the most common case.
+      return CompletableFuture.completedFuture(Option.none());
+    }
+    return submitHookExecutionFor(branchName, pointedCommit.getHash());
+  }
+
+  private CompletableFuture<Option<String>> submitHookExecutionFor(String branchName, String commitHash) {
+    val retryBackoff = retryBackoffByBranchNameAndCommitHash.get(Tuple.of(branchName, commitHash));
+    if (retryBackoff != null && !retryBackoff.isElapsed()) {
+      return CompletableFuture.completedFuture(Option.none());
+    }
+    return hookOutputByBranchNameAndCommitHash.computeIfAbsent(Tuple.of(branchName, commitHash), key -> {
+      val persistedOutput = persistentOutputCache.get(branchName, commitHash);
+      if (persistedOutput != null) {
+        persistentCacheHitCount.incrementAndGet();
+        return CompletableFuture.completedFuture(persistedOutput);
+      }
+      CompletableFuture<Option<String>> future = new CompletableFuture<>();
+      executorService.execute(() -> {
+        val output = Try.of(() -> executeAndMeasureHookFor(branchName, commitHash))
+            .onFailure(e -> LOG.error("Unexpected error while running machete-status-branch hook for ${branchName}", e))
+            .getOrNull();
+        if (output == null) {
+          // Unlike a hook that succeeded, a hook that timed out or failed is to be executed again
+          // for the subsequent snapshots (although only once the backoff elapses). Note that the removal
+          // (if it happens to overlap with the insertion) waits until the future is inserted, as both are on the same key.
+          retryBackoffByBranchNameAndCommitHash.compute(key, (k, previousBackoff) -> RetryBackoff.after(previousBackoff));
+          hookOutputByBranchNameAndCommitHash.remove(key, future);
+          future.complete(Option.none());
+        } else {
+          retryBackoffByBranchNameAndCommitHash.remove(key);
+          future.complete(output);
+        }
+      });
+      return future;
+    });
+  }
+
+  /**
+   * @return the output as specified in {@link #executeHookFor},
+   *         or {@code null} when the hook did not complete within the timeout, returned with non-zero exit code
+   *         or failed to be executed; only the outputs of the hooks that succeeded are persisted
+   */
+  private @Nullable Option<String> executeAndMeasureHookFor(String branchName, String commitHash) {
+    // Taken before the execution, so that the output of a hook replaced in the meantime doesn't get persisted
+    // as if it was derived with the new hook.
+    String hookFingerprint = deriveHookFingerprint();
+    long startNanos = System.nanoTime();
+    Option<String> output;
+    try {
+      output = executeHookFor(branchName);
+    } catch (GitMacheteException e) {
+      failureCount.incrementAndGet();
+      return null;
+    } finally {
+      long executionMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+      executionCount.incrementAndGet();
+      totalExecutionMillis.addAndGet(executionMillis);
+      maxExecutionMillis.accumulateAndGet(executionMillis, Math::max);
+    }
+    if (output == null) {
+      // Neither persisted nor cached, as the hook might well complete in time on a later attempt.
+      timeoutCount.incrementAndGet();
+      return null;
     }
+    persistentOutputCache.put(branchName, commitHash, hookFingerprint, output);
+    return output;
   }
 
-  public Option<String> deriveHookOutputFor(String branchName, CommitOfManagedBranch pointedCommit) {
-    val key = Tuple.of(branchName, pointedCommit.getHash());
-    return hookOutputByBranchNameAndCommitHash.computeIfAbsent(key,
-        k -> Try.of(() -> executeHookFor(k._1)).getOrElse(Option.none()));
+  /**
+   * Saves the outputs to the persistent cache (if there have been any new ones since the last save).
+   * Any failure is logged and otherwise ignored, as the outputs can always be re-derived by executing the hook.
+   */
+  private void persistOutputCache() {
+    persistentOutputCache.save();
+    LOG.debug(() -> "machete-status-branch hook statistics: ${getStatistics()}");
   }
 }
@@ -0,0 +1,204 @@
+package com.virtuslab.gitmachete.backend.impl.hooks;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+
+import io.vavr.Tuple;
+import io.vavr.Tuple2;
+import io.vavr.collection.List;
+import io.vavr.control.Option;
+import lombok.CustomLog;
+import lombok.val;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Size-bounded, thread-safe cache of machete-status-branch hook outputs keyed by (branch name, commit hash),
+ * persisted to (and restored from) a file under the main {@code .git} directory, so that the hook doesn't need
+ * to be re-executed for each branch after an IDE restart.
+ * <p>
+ * All the entries are tied to the fingerprint (path, size, modification time and executability) of the hook file
+ * they've been derived with, and are dropped once the hook file changes.
+ * Persisting the outputs is only valid for deterministic hooks, i.e. the hooks whose output depends solely on the branch
+ * and the commit it points to (and on the hook file itself). The output of a hook that depends on anything else
+ * (like the current time, the remote state or the environment) is going to be stale after an IDE restart,
+ * with nothing to invalidate it but a change to the hook file.
+ * <p>
+ * All the state is guarded by the monitor of the cache, so that the eviction always sees the entries in the order of insertion
+ * and no output derived with a replaced hook gets in once the entries have been dropped.
+ */
+@CustomLog
+final class StatusBranchHookOutputCache {
+
+  private static final int FORMAT_VERSION = 1;
+
+  private static final int MAX_ENTRY_COUNT = 4096;
+
+  // `DataOutputStream#writeUTF` can't handle strings longer than 64K bytes; any practically useful hook output is way shorter.
+  private static final int MAX_PERSISTED_OUTPUT_LENGTH = 4096;
+
+  private final Path filePath;
+
+  // Insertion-ordered, so that the oldest entry is the one evicted once the cache is full.
+  private final java.util.Map<Tuple2<String, String>, Option<String>> outputByBranchNameAndCommitHash =
+      new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(java.util.Map.Entry<Tuple2<String, String>, Option<String>> eldest) {
+          return size() > MAX_ENTRY_COUNT;
+        }
+      };
+
+  // The saves are serialized on a lock of their own, so that the file writes don't hold up the hook executions.
+  private final Object saveLock = new Object();
+
+  private boolean isDirty = false;
+
+  private String hookFingerprint = "";
+
+  StatusBranchHookOutputCache(Path filePath) {
+    this.filePath = filePath;
+    load();
+  }
+
+  @SuppressWarnings("regexp") // to allow for `synchronized`
+  synchronized int getSize() {
+    return outputByBranchNameAndCommitHash.size();
+  }
+
+  /**
+   * Drops all the entries if the given fingerprint of the hook file differs from the one the entries have been derived with.
+   *
+   * @return true if the entries have been dropped
+   */
+  @SuppressWarnings("regexp") // to allow for `synchronized`
+  synchronized boolean resetIfHookChanged(String currentHookFingerprint) {
+    if (hookFingerprint.equals(currentHookFingerprint)) {
+      return false;
+    }
+    String previousHookFingerprint = hookFingerprint;
+    int droppedCount = outputByBranchNameAndCommitHash.size();
+    LOG.debug(() -> "Hook fingerprint changed from '${previousHookFingerprint}' to '${currentHookFingerprint}', " +
+        "dropping ${droppedCount} cached output(s)");
+    hookFingerprint = currentHookFingerprint;
+    outputByBranchNameAndCommitHash.clear();
+    isDirty = true;
+    return true;
+  }
+
+  /**
+   * @return {@code null} if the output for the given branch and commit is not known yet
+   */
+  @SuppressWarnings("regexp") // to allow for `synchronized`
+  synchronized @Nullable Option<String> get(String branchName, String commitHash) {
+    return outputByBranchNameAndCommitHash.get(Tuple.of(branchName, commitHash));
+  }
+
+  /**
+   * @param hookFingerprintAtExecution the fingerprint of the hook file taken right before the hook was executed;
+   *                                   the output is ignored if the entries have been reset for a different hook since
+   */
+  @SuppressWarnings("regexp") // to allow for `synchronized`
+  synchronized void put(String branchName, String commitHash, String hookFingerprintAtExecution, Option<String> output) {
+    if (output.exists(o -> o.length() > MAX_PERSISTED_OUTPUT_LENGTH)) {
+      return;
+    }
+    if (!hookFingerprint.equals(hookFingerprintAtExecution)) {
+      LOG.debug(() -> "Hook changed while being executed for ${branchName}, not caching its output");
+      return;
+    }
+    if (outputByBranchNameAndCommitHash.putIfAbsent(Tuple.of(branchName, commitHash), output) == null) {
+      isDirty = true;
+    }
+  }
+
+  // Only called from the constructor, hence not synchronized.
+  private void load() {
+    if (!Files.isRegularFile(filePath)) {
+      return;
+    }
+    try (val input = new DataInputStream(new BufferedInputStream(Files.newInputStream(filePath)))) {
+      int formatVersion = input.readInt();
+      if (formatVersion != FORMAT_VERSION) {
+        LOG.warn("Status hook output cache file ${filePath} has unsupported format version ${formatVersion}, ignoring");
+        return;
+      }
+      hookFingerprint = input.readUTF();
+      int entryCount = input.readInt();
+      for (int i = 0; i < entryCount; i++) {
+        val branchName = input.readUTF();
+        val commitHash = input.readUTF();
+        val output = input.readBoolean() ? Option.some(input.readUTF()) : Option.<String>none();
+        outputByBranchNameAndCommitHash.putIfAbsent(Tuple.of(branchName, commitHash), output);
+      }
+      LOG.debug(() -> "Loaded ${outputByBranchNameAndCommitHash.size()} status hook output(s) from ${filePath}");
+    } catch (IOException e) {
+      LOG.warn("Could not load status hook output cache from ${filePath}", e);
+      hookFingerprint = "";
+      outputByBranchNameAndCommitHash.clear();
+    }
+  }
+
+  /**
+   * @return the hook fingerprint and the entries (in the order of insertion) to be saved,
+   *         or {@code null} if there have been no changes since the last save
+   */
+  @SuppressWarnings("regexp") // to allow for `synchronized`
+  private synchronized @Nullable Tuple2<String, List<Tuple2<Tuple2<String, String>, Option<String>>>> takeChangesToSave() {
+    if (!isDirty) {
+      return null;
+    }
+    isDirty = false;
+    return Tuple.of(hookFingerprint,
+        List.ofAll(outputByBranchNameAndCommitHash.entrySet()).map(e -> Tuple.of(e.getKey(), e.getValue())));
+  }
+
+  /**
+   * Writes the cache to the file if there have been any changes since the last save.
+   * The entries are copied under the monitor of the cache, but written outside of it.
+   * The file is first written under a temporary name and then atomically moved into place,
+   * so that a concurrent reader never sees a partially written file.
+   * The saves themselves are serialized, as the saves triggered by the completion of subsequent batches
+   * of hook executions might overlap.
+   */
+  @SuppressWarnings("regexp") // to allow for `synchronized`
+  void save() {
+    synchronized (saveLock) {
+      val changes = takeChangesToSave();
+      if (changes == null) {
+        return;
+      }
+      val savedHookFingerprint = changes._1;
+      val entries = changes._2;
+      try {
+        val parentDirectoryPath = filePath.getParent();
+        if (parentDirectoryPath != null) {
+          Files.createDirectories(parentDirectoryPath);
+        }
+        val tempFilePath = filePath.resolveSibling(filePath.getFileName() + ".tmp");
+        try (val output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFilePath)))) {
+          output.writeInt(FORMAT_VERSION);
+          output.writeUTF(savedHookFingerprint);
+          output.writeInt(entries.size());
+          for (val entry : entries) {
+            output.writeUTF(entry._1._1);
+            output.writeUTF(entry._1._2);
+            output.writeBoolean(entry._2.isDefined());
+            if (entry._2.isDefined()) {
+              output.writeUTF(entry._2.get());
+            }
+          }
+        }
+        Files.move(tempFilePath, filePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        LOG.debug(() -> "Saved ${entries.size()} status hook output(s) to ${filePath}");
+      } catch (IOException e) {
+        LOG.warn("Could not save status hook output cache to ${filePath}", e);
+      }
+    }
+  }
+}
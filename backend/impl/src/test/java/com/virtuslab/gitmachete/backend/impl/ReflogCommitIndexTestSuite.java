@@ -0,0 +1,255 @@
+package com.virtuslab.gitmachete.backend.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.vavr.Function1;
+import io.vavr.Tuple;
+import io.vavr.collection.HashSet;
+import io.vavr.collection.LinkedHashMap;
+import io.vavr.collection.List;
+import io.vavr.collection.Map;
+import io.vavr.collection.Set;
+import io.vavr.collection.Stream;
+import io.vavr.control.Option;
+import lombok.val;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.junit.Test;
+import org.powermock.api.mockito.PowerMockito;
+
+import com.virtuslab.gitcore.api.IGitCoreBranchSnapshot;
+import com.virtuslab.gitcore.api.IGitCoreCommit;
+import com.virtuslab.gitcore.api.IGitCoreCommitHash;
+import com.virtuslab.gitcore.api.IGitCoreLocalBranchSnapshot;
+import com.virtuslab.gitcore.api.IGitCoreObjectHash;
+import com.virtuslab.gitcore.api.IGitCoreReflogEntry;
+import com.virtuslab.gitmachete.backend.api.IBranchReference;
+
+public class ReflogCommitIndexTestSuite {
+
+  private static final IGitCoreCommitHash HASH_1 = new TestGitCoreCommitHash("1111111111111111111111111111111111111111");
+  private static final IGitCoreCommitHash HASH_2 = new TestGitCoreCommitHash("2222222222222222222222222222222222222222");
+  private static final IGitCoreCommitHash HASH_3 = new TestGitCoreCommitHash("3333333333333333333333333333333333333333");
+  private static final IGitCoreCommitHash TIP_HASH = new TestGitCoreCommitHash("ffffffffffffffffffffffffffffffffffffffff");
+
+  private final ReflogCommitIndex reflogCommitIndex = new ReflogCommitIndex();
+
+  // Stand for the entries that the actual filtering drops (like the branch creations).
+  private Set<IGitCoreReflogEntry> ignoredReflogEntries = HashSet.empty();
+
+  private final AtomicInteger filteringCount = new AtomicInteger();
+
+  private final Function1<IGitCoreBranchSnapshot, List<IGitCoreReflogEntry>> filteredReflogOf = coreBranch -> {
+    filteringCount.incrementAndGet();
+    return coreBranch.getReflogFromMostRecent().filter(e -> !ignoredReflogEntries.contains(e)).toList();
+  };
+
+  private static final class TestGitCoreCommitHash implements IGitCoreCommitHash {
+    private final String hashString;
+
+    TestGitCoreCommitHash(String hashString) {
+      this.hashString = hashString;
+    }
+
+    @Override
+    public String getHashString() {
+      return hashString;
+    }
+
+    @Override
+    public boolean equals(@Nullable Object other) {
+      return IGitCoreObjectHash.defaultEquals(this, other);
+    }
+
+    @Override
+    public int hashCode() {
+      return IGitCoreObjectHash.defaultHashCode(this);
+    }
+  }
+
+  private static IGitCoreReflogEntry createReflogEntry(IGitCoreCommitHash newCommitHash) {
+    IGitCoreReflogEntry mock = PowerMockito.mock(IGitCoreReflogEntry.class);
+    PowerMockito.doReturn(newCommitHash).when(mock).getNewCommitHash();
+    return mock;
+  }
+
+  /**
+   * @param reflogEntries from the most recent
+   */
+  private static IGitCoreLocalBranchSnapshot createCoreBranch(String name, IGitCoreReflogEntry... reflogEntries) {
+    IGitCoreCommit pointedCommit = PowerMockito.mock(IGitCoreCommit.class);
+    PowerMockito.doReturn(TIP_HASH).when(pointedCommit).getHash();
+    IGitCoreLocalBranchSnapshot mock = PowerMockito.mock(IGitCoreLocalBranchSnapshot.class);
+    PowerMockito.doReturn(name).when(mock).getName();
+    PowerMockito.doReturn("refs/heads/" + name).when(mock).getFullName();
+    PowerMockito.doReturn(pointedCommit).when(mock).getPointedCommit();
+    PowerMockito.doReturn(Stream.of(reflogEntries)).when(mock).getReflogFromMostRecent();
+    PowerMockito.doReturn(Stream.of(reflogEntries).lastOption()).when(mock).getOldestReflogEntry();
+    PowerMockito.doReturn(Option.none()).when(mock).getReflogModificationTime();
+    return mock;
+  }
+
+  private static Map<IBranchReference, IGitCoreBranchSnapshot> toCoreBranchByBranch(
+      IGitCoreLocalBranchSnapshot... coreBranches) {
+    return LinkedHashMap.ofEntries(List.of(coreBranches)
+        .map(coreBranch -> Tuple.<IBranchReference, IGitCoreBranchSnapshot>of(
+            LocalBranchReference.toLocalBranchReference(coreBranch), coreBranch)));
+  }
+
+  private static List<String> getBranchNamesContaining(ReflogCommitIndex.Postings postings, IGitCoreCommitHash commitHash) {
+    return postings.getBranchesContaining(commitHash).map(IBranchReference::getName).toList();
+  }
+
+  @Test
+  public void getBranchesContaining_givenCommitsSharingFirst64Bits_returnsOnlyBranchesOfGivenCommit() {
+    // given
+    val prefix = "0123456789abcdef";
+    val hashA = new TestGitCoreCommitHash(prefix + "aaaaaaaaaaaaaaaaaaaaaaaa");
+    val hashB = new TestGitCoreCommitHash(prefix + "bbbbbbbbbbbbbbbbbbbbbbbb");
+    val hashC = new TestGitCoreCommitHash(prefix + "cccccccccccccccccccccccc");
+    val develop = createCoreBranch("develop", createReflogEntry(hashA), createReflogEntry(hashB));
+    val master = createCoreBranch("master", createReflogEntry(hashB));
+    val feature = createCoreBranch("feature", createReflogEntry(hashA), createReflogEntry(HASH_1));
+
+    // when
+    val postings = reflogCommitIndex.update(toCoreBranchByBranch(develop, master, feature), filteredReflogOf);
+
+    // then
+    assertEquals(List.of("develop", "feature"), getBranchNamesContaining(postings, hashA));
+    assertEquals(List.of("develop", "master"), getBranchNamesContaining(postings, hashB));
+    assertEquals(List.empty(), getBranchNamesContaining(postings, hashC));
+    assertEquals(List.of("feature"), getBranchNamesContaining(postings, HASH_1));
+  }
+
+  @Test
+  public void getBranchesContaining_givenCommitInReflogTwice_returnsBranchTwice() {
+    // given
+    val develop = createCoreBranch("develop", createReflogEntry(HASH_1), createReflogEntry(HASH_2),
+        createReflogEntry(HASH_1));
+
+    // when
+    val postings = reflogCommitIndex.update(toCoreBranchByBranch(develop), filteredReflogOf);
+
+    // then
+    assertEquals(List.of("develop", "develop"), getBranchNamesContaining(postings, HASH_1));
+  }
+
+  @Test
+  public void update_givenNoBranchChanged_returnsSamePostingsWithoutFiltering() {
+    // given
+    val develop = createCoreBranch("develop", createReflogEntry(HASH_1));
+    val master = createCoreBranch("master", createReflogEntry(HASH_2));
+    val postings = reflogCommitIndex.update(toCoreBranchByBranch(develop, master), filteredReflogOf);
+    assertEquals(2, filteringCount.get());
+
+    // when
+    val newPostings = reflogCommitIndex.update(toCoreBranchByBranch(develop, master), filteredReflogOf);
+
+    // then
+    assertSame(postings, newPostings);
+    assertEquals(2, filteringCount.get());
+  }
+
+  @Test
+  public void update_givenBranchReFilteredToSameEntries_keepsVersion() {
+    // given
+    val reflogEntry = createReflogEntry(HASH_1);
+    val master = createCoreBranch("master", createReflogEntry(HASH_2));
+    val postings = reflogCommitIndex.update(toCoreBranchByBranch(createCoreBranch("develop", reflogEntry), master),
+        filteredReflogOf);
+
+    // when
+    val ignoredReflogEntry = createReflogEntry(HASH_3);
+    ignoredReflogEntries = ignoredReflogEntries.add(ignoredReflogEntry);
+    val develop = createCoreBranch("develop", ignoredReflogEntry, reflogEntry);
+    val newPostings = reflogCommitIndex.update(toCoreBranchByBranch(develop, master), filteredReflogOf);
+
+    // then
+    // Only the changed branch has been re-filtered...
+    assertEquals(3, filteringCount.get());
+    // ... to the same entries as before, hence the version is the same.
+    assertEquals(postings.getVersion(), newPostings.getVersion());
+    assertEquals(List.of("develop"), getBranchNamesContaining(newPostings, HASH_1));
+    assertEquals(List.empty(), getBranchNamesContaining(newPostings, HASH_3));
+  }
+
+  @Test
+  public void update_givenBranchReFilteredToDifferentEntries_changesVersion() {
+    // given
+    val reflogEntry = createReflogEntry(HASH_1);
+    val master = createCoreBranch("master", createReflogEntry(HASH_2));
+    val postings = reflogCommitIndex.update(toCoreBranchByBranch(createCoreBranch("develop", reflogEntry), master),
+        filteredReflogOf);
+
+    // when
+    val develop = createCoreBranch("develop", createReflogEntry(HASH_3), reflogEntry);
+    val newPostings = reflogCommitIndex.update(toCoreBranchByBranch(develop, master), filteredReflogOf);
+
+    // then
+    assertNotEquals(postings.getVersion(), newPostings.getVersion());
+    assertEquals(List.of("develop"), getBranchNamesContaining(newPostings, HASH_3));
+  }
+
+  @Test
+  public void update_givenBranchAdded_changesVersion() {
+    // given
+    val develop = createCoreBranch("develop", createReflogEntry(HASH_1));
+    val master = createCoreBranch("master", createReflogEntry(HASH_2));
+    val postings = reflogCommitIndex.update(toCoreBranchByBranch(develop), filteredReflogOf);
+
+    // when
+    val newPostings = reflogCommitIndex.update(toCoreBranchByBranch(develop, master), filteredReflogOf);
+
+    // then
+    assertNotEquals(postings.getVersion(), newPostings.getVersion());
+    assertEquals(List.of("master"), getBranchNamesContaining(newPostings, HASH_2));
+  }
+
+  @Test
+  public void update_givenBranchRemoved_changesVersion() {
+    // given
+    val develop = createCoreBranch("develop", createReflogEntry(HASH_1));
+    val master = createCoreBranch("master", createReflogEntry(HASH_2));
+    val postings = reflogCommitIndex.update(toCoreBranchByBranch(develop, master), filteredReflogOf);
+
+    // when
+    val newPostings = reflogCommitIndex.update(toCoreBranchByBranch(develop), filteredReflogOf);
+
+    // then
+    assertNotEquals(postings.getVersion(), newPostings.getVersion());
+    assertEquals(List.empty(), getBranchNamesContaining(newPostings, HASH_2));
+  }
+
+  @Test
+  public void update_givenBranchesReordered_changesVersion() {
+    // given
+    val develop = createCoreBranch("develop", createReflogEntry(HASH_1));
+    val master = createCoreBranch("master", createReflogEntry(HASH_1));
+    val postings = reflogCommitIndex.update(toCoreBranchByBranch(develop, master), filteredReflogOf);
+
+    // when
+    val newPostings = reflogCommitIndex.update(toCoreBranchByBranch(master, develop), filteredReflogOf);
+
+    // then
+    // No branch has been re-filtered, yet the postings follow the new order.
+    assertEquals(2, filteringCount.get());
+    assertNotEquals(postings.getVersion(), newPostings.getVersion());
+    assertEquals(List.of("master", "develop"), getBranchNamesContaining(newPostings, HASH_1));
+  }
+
+  @Test
+  public void update_givenDifferentIndices_neverShareVersion() {
+    // given
+    val develop = createCoreBranch("develop", createReflogEntry(HASH_1));
+
+    // when
+    val postings = reflogCommitIndex.update(toCoreBranchByBranch(develop), filteredReflogOf);
+    val otherPostings = new ReflogCommitIndex().update(toCoreBranchByBranch(develop), filteredReflogOf);
+
+    // then
+    assertNotEquals(postings.getVersion(), otherPostings.getVersion());
+  }
+}
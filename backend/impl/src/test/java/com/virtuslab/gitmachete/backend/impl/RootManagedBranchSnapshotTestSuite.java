@@ -0,0 +1,66 @@
+package com.virtuslab.gitmachete.backend.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import io.vavr.collection.List;
+import io.vavr.control.Option;
+import lombok.SneakyThrows;
+import lombok.val;
+import org.junit.Test;
+import org.powermock.api.mockito.PowerMockito;
+
+import com.virtuslab.gitmachete.backend.api.RelationToRemote;
+
+public class RootManagedBranchSnapshotTestSuite {
+
+  private final CompletableFuture<Option<String>> statusHookOutput = new CompletableFuture<>();
+
+  private final RootManagedBranchSnapshot branch = new RootManagedBranchSnapshot(
+      "develop",
+      "refs/heads/develop",
+      List.empty(),
+      PowerMockito.mock(CommitOfManagedBranch.class),
+      /* remoteTrackingBranch */ null,
+      RelationToRemote.noRemotes(),
+      /* customAnnotation */ null,
+      statusHookOutput);
+
+  @Test
+  public void getStatusHookOutput_givenHookNotCompletedYet_returnsNoneWithoutWaiting() {
+    // when
+    val hookOutput = branch.getStatusHookOutput();
+
+    // then
+    assertEquals(Option.none(), hookOutput);
+  }
+
+  @Test
+  @SneakyThrows
+  public void getStatusHookOutputAsync_givenHookCompleted_completesWithHookOutput() {
+    // given
+    val hookOutputAsync = branch.getStatusHookOutputAsync().toCompletableFuture();
+    assertFalse(hookOutputAsync.isDone());
+
+    // when
+    statusHookOutput.complete(Option.some("output"));
+
+    // then
+    assertEquals(Option.some("output"), hookOutputAsync.get(10, TimeUnit.SECONDS));
+    assertEquals(Option.some("output"), branch.getStatusHookOutput());
+  }
+
+  @Test
+  public void getStatusHookOutputAsync_givenCompletedByCaller_doesNotAffectHookOutput() {
+    // when
+    assertTrue(branch.getStatusHookOutputAsync().toCompletableFuture().complete(Option.some("forged")));
+
+    // then
+    assertFalse(statusHookOutput.isDone());
+    assertEquals(Option.none(), branch.getStatusHookOutput());
+  }
+}
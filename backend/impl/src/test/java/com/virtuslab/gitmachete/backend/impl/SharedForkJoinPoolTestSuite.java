@@ -0,0 +1,138 @@
+package com.virtuslab.gitmachete.backend.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import lombok.SneakyThrows;
+import lombok.val;
+import org.junit.After;
+import org.junit.Test;
+
+public class SharedForkJoinPoolTestSuite {
+
+  private final SharedForkJoinPool sharedForkJoinPool = new SharedForkJoinPool();
+
+  @After
+  public void tearDown() {
+    sharedForkJoinPool.shutdown();
+  }
+
+  @SneakyThrows
+  private static int runTask(ForkJoinPool pool) {
+    return pool.submit(() -> 42).get(10, TimeUnit.SECONDS);
+  }
+
+  @Test
+  public void lease_givenSameParallelism_returnsSamePool() {
+    // given
+    ForkJoinPool pool;
+    try (val lease = sharedForkJoinPool.lease(/* parallelism */ 2)) {
+      pool = lease.getPool();
+    }
+
+    // when
+    try (val lease = sharedForkJoinPool.lease(/* parallelism */ 2)) {
+
+      // then
+      assertNotNull(pool);
+      assertSame(pool, lease.getPool());
+      assertFalse(pool.isShutdown());
+    }
+  }
+
+  @Test
+  public void lease_givenParallelismOfOne_returnsNoPool() {
+    // when
+    try (val lease = sharedForkJoinPool.lease(/* parallelism */ 1)) {
+
+      // then
+      assertNull(lease.getPool());
+    }
+  }
+
+  @Test
+  public void lease_givenParallelismChangedWhileReplacedPoolLeased_shutsDownReplacedPoolOnceReleased() {
+    // given
+    val oldLease = sharedForkJoinPool.lease(/* parallelism */ 2);
+    val oldPool = oldLease.getPool();
+    assertNotNull(oldPool);
+
+    // when
+    try (val newLease = sharedForkJoinPool.lease(/* parallelism */ 3)) {
+
+      // then
+      assertNotSame(oldPool, newLease.getPool());
+      assertFalse(oldPool.isShutdown());
+      // The tasks of the snapshot still in progress don't get rejected.
+      assertEquals(42, runTask(oldPool));
+
+      // when
+      oldLease.close();
+
+      // then
+      assertTrue(oldPool.isShutdown());
+      val newPool = newLease.getPool();
+      assertNotNull(newPool);
+      assertFalse(newPool.isShutdown());
+    }
+  }
+
+  @Test
+  public void lease_givenParallelismChangedWhileReplacedPoolNotLeased_shutsDownReplacedPoolRightAway() {
+    // given
+    ForkJoinPool oldPool;
+    try (val lease = sharedForkJoinPool.lease(/* parallelism */ 2)) {
+      oldPool = lease.getPool();
+    }
+    assertNotNull(oldPool);
+
+    // when
+    try (val lease = sharedForkJoinPool.lease(/* parallelism */ 1)) {
+
+      // then
+      assertTrue(oldPool.isShutdown());
+    }
+  }
+
+  @Test
+  public void shutdown_givenPoolLeased_shutsDownPoolOnceReleased() {
+    // given
+    val lease = sharedForkJoinPool.lease(/* parallelism */ 2);
+    val pool = lease.getPool();
+    assertNotNull(pool);
+
+    // when
+    sharedForkJoinPool.shutdown();
+
+    // then
+    assertFalse(pool.isShutdown());
+    assertEquals(42, runTask(pool));
+
+    // when
+    lease.close();
+
+    // then
+    assertTrue(pool.isShutdown());
+  }
+
+  @Test
+  public void lease_givenShutDown_returnsNoPool() {
+    // given
+    sharedForkJoinPool.shutdown();
+
+    // when
+    try (val lease = sharedForkJoinPool.lease(/* parallelism */ 2)) {
+
+      // then
+      assertNull(lease.getPool());
+    }
+  }
+}
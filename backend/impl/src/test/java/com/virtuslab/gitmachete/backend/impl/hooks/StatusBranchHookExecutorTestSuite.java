@@ -0,0 +1,180 @@
+package com.virtuslab.gitmachete.backend.impl.hooks;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import io.vavr.Tuple;
+import io.vavr.collection.List;
+import io.vavr.control.Option;
+import lombok.SneakyThrows;
+import lombok.val;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.powermock.api.mockito.PowerMockito;
+
+import com.virtuslab.gitcore.api.IGitCoreRepository;
+import com.virtuslab.gitmachete.backend.impl.CommitOfManagedBranch;
+
+public class StatusBranchHookExecutorTestSuite {
+
+  private static final String COMMIT_HASH = "1111111111111111111111111111111111111111";
+
+  @Rule
+  public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private final IGitCoreRepository gitCoreRepository = PowerMockito.mock(IGitCoreRepository.class);
+  private final CommitOfManagedBranch pointedCommit = PowerMockito.mock(CommitOfManagedBranch.class);
+
+  private Path hookFilePath;
+
+  @Before
+  public void setUp() {
+    val rootDirectoryPath = temporaryFolder.getRoot().toPath();
+    val mainGitDirectoryPath = rootDirectoryPath.resolve(".git");
+    hookFilePath = mainGitDirectoryPath.resolve("hooks").resolve("machete-status-branch");
+
+    PowerMockito.doReturn(Option.none()).when(gitCoreRepository).deriveConfigValue("core", "hooksPath");
+    PowerMockito.doReturn(rootDirectoryPath).when(gitCoreRepository).getRootDirectoryPath();
+    PowerMockito.doReturn(mainGitDirectoryPath).when(gitCoreRepository).getMainGitDirectoryPath();
+    PowerMockito.doReturn(COMMIT_HASH).when(pointedCommit).getHash();
+  }
+
+  private void writeHook(String output) {
+    writeHookScript("echo '${output}'");
+  }
+
+  @SneakyThrows
+  private void writeHookScript(String script) {
+    Files.createDirectories(hookFilePath.getParent());
+    Files.write(hookFilePath, "#!/bin/sh\n${script}\n".getBytes(StandardCharsets.UTF_8));
+    hookFilePath.toFile().setExecutable(true);
+  }
+
+  @SneakyThrows
+  private Option<String> deriveHookOutput(StatusBranchHookExecutor executor) {
+    executor.prefetchHookOutputsFor(List.of(Tuple.of("develop", COMMIT_HASH)));
+    return executor.deriveHookOutputAsyncFor("develop", pointedCommit).get(10, TimeUnit.SECONDS);
+  }
+
+  @Test
+  @SneakyThrows
+  public void deriveHookOutputAsyncFor_givenHookChanged_executesChangedHook() {
+    // given
+    writeHook("first");
+    val executor = StatusBranchHookExecutor.of(gitCoreRepository, /* parallelism */ 1);
+    assertEquals(Option.some("first"), deriveHookOutput(executor));
+
+    // when
+    // (the output of a different length than before, so that the hook fingerprint changes regardless of mtime resolution)
+    writeHook("the second one");
+
+    // then
+    assertEquals(Option.some("the second one"), deriveHookOutput(executor));
+    assertEquals(2, executor.getStatistics().getExecutionCount());
+  }
+
+  @Test
+  @SneakyThrows
+  public void deriveHookOutputAsyncFor_givenOutputPersistedByAnotherExecutor_doesNotExecuteHook() {
+    // given
+    writeHook("persisted");
+    val firstExecutor = StatusBranchHookExecutor.of(gitCoreRepository, /* parallelism */ 1);
+    assertEquals(Option.some("persisted"), deriveHookOutput(firstExecutor));
+    val cacheFilePath = temporaryFolder.getRoot().toPath().resolve(".git").resolve("machete-cache")
+        .resolve("status-branch-hook-outputs");
+    // The cache is saved in the background once all the prefetched executions complete.
+    for (int attempt = 0; attempt < 100 && !Files.isRegularFile(cacheFilePath); attempt++) {
+      Thread.sleep(50);
+    }
+
+    // when
+    val secondExecutor = StatusBranchHookExecutor.of(gitCoreRepository, /* parallelism */ 1);
+
+    // then
+    assertEquals(Option.some("persisted"), deriveHookOutput(secondExecutor));
+    assertEquals(0, secondExecutor.getStatistics().getExecutionCount());
+    assertEquals(1, secondExecutor.getStatistics().getPersistentCacheHitCount());
+  }
+
+  @Test
+  @SneakyThrows
+  public void deriveHookOutputAsyncFor_givenHookTimedOut_doesNotExecuteHookAgainUntilBackoffElapses() {
+    // given
+    writeHookScript("sleep 3");
+    val executor = StatusBranchHookExecutor.of(gitCoreRepository, /* parallelism */ 1);
+    assertEquals(Option.none(), deriveHookOutput(executor));
+
+    // when
+    val hookOutput = deriveHookOutput(executor);
+
+    // then
+    assertEquals(Option.none(), hookOutput);
+    assertEquals(1, executor.getStatistics().getExecutionCount());
+    assertEquals(1, executor.getStatistics().getTimeoutCount());
+  }
+
+  @Test
+  @SneakyThrows
+  public void deriveHookOutputAsyncFor_givenHookChangedAfterTimeout_executesChangedHookRightAway() {
+    // given
+    writeHookScript("sleep 3");
+    val executor = StatusBranchHookExecutor.of(gitCoreRepository, /* parallelism */ 1);
+    assertEquals(Option.none(), deriveHookOutput(executor));
+
+    // when
+    writeHook("completed in time");
+
+    // then
+    assertEquals(Option.some("completed in time"), deriveHookOutput(executor));
+    assertEquals(2, executor.getStatistics().getExecutionCount());
+  }
+
+  @Test
+  @SneakyThrows
+  public void deriveHookOutputAsyncFor_givenHookTimedOut_killsHookProcess() {
+    // given
+    val pidFilePath = temporaryFolder.getRoot().toPath().resolve("hook.pid");
+    writeHookScript("echo $$ > '${pidFilePath}'\nsleep 30");
+    val executor = StatusBranchHookExecutor.of(gitCoreRepository, /* parallelism */ 1);
+
+    // when
+    assertEquals(Option.none(), deriveHookOutput(executor));
+
+    // then
+    long pid = Long.parseLong(new String(Files.readAllBytes(pidFilePath), StandardCharsets.UTF_8).trim());
+    val processHandle = ProcessHandle.of(pid);
+    if (processHandle.isPresent()) {
+      // The process is killed asynchronously, but well before the 30 seconds of the hook elapse.
+      processHandle.get().onExit().get(10, TimeUnit.SECONDS);
+      assertFalse(processHandle.get().isAlive());
+    }
+    assertEquals(1, executor.getStatistics().getTimeoutCount());
+  }
+
+  @Test
+  @SneakyThrows
+  public void deriveHookOutputAsyncFor_givenHookReturnedNonZeroExitCode_doesNotPersistOutput() {
+    // given
+    writeHookScript("echo failed\nexit 1");
+    val firstExecutor = StatusBranchHookExecutor.of(gitCoreRepository, /* parallelism */ 1);
+    assertEquals(Option.none(), deriveHookOutput(firstExecutor));
+    assertEquals(1, firstExecutor.getStatistics().getFailureCount());
+    // Give the background save (if any) a chance to complete.
+    Thread.sleep(500);
+
+    // when
+    val secondExecutor = StatusBranchHookExecutor.of(gitCoreRepository, /* parallelism */ 1);
+
+    // then
+    assertEquals(Option.none(), deriveHookOutput(secondExecutor));
+    assertEquals(1, secondExecutor.getStatistics().getExecutionCount());
+    assertEquals(0, secondExecutor.getStatistics().getPersistentCacheHitCount());
+  }
+}
@@ -0,0 +1,189 @@
+package com.virtuslab.gitmachete.backend.impl.hooks;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import io.vavr.control.Option;
+import lombok.SneakyThrows;
+import lombok.val;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class StatusBranchHookOutputCacheTestSuite {
+
+  private static final String HASH_1 = "1111111111111111111111111111111111111111";
+  private static final String HASH_2 = "2222222222222222222222222222222222222222";
+
+  @Rule
+  public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private Path filePath;
+
+  @Before
+  public void setUp() {
+    filePath = temporaryFolder.getRoot().toPath().resolve("machete-cache").resolve("status-branch-hook-outputs");
+  }
+
+  @Test
+  public void constructor_givenSavedCache_loadsOutputsAndHookFingerprint() {
+    // given
+    val savedCache = new StatusBranchHookOutputCache(filePath);
+    savedCache.resetIfHookChanged("hook:1");
+    savedCache.put("develop", HASH_1, "hook:1", Option.some("output of develop"));
+    savedCache.put("master", HASH_2, "hook:1", Option.none());
+    savedCache.save();
+
+    // when
+    val loadedCache = new StatusBranchHookOutputCache(filePath);
+
+    // then
+    assertEquals(2, loadedCache.getSize());
+    assertEquals(Option.some("output of develop"), loadedCache.get("develop", HASH_1));
+    assertEquals(Option.none(), loadedCache.get("master", HASH_2));
+    assertNull(loadedCache.get("develop", HASH_2));
+    assertFalse(loadedCache.resetIfHookChanged("hook:1"));
+    assertEquals(2, loadedCache.getSize());
+  }
+
+  @Test
+  public void resetIfHookChanged_givenDifferentFingerprint_dropsOutputsAlsoFromFile() {
+    // given
+    val cache = new StatusBranchHookOutputCache(filePath);
+    cache.resetIfHookChanged("hook:1");
+    cache.put("develop", HASH_1, "hook:1", Option.some("output of develop"));
+    cache.save();
+
+    // when
+    boolean isReset = cache.resetIfHookChanged("hook:2");
+    cache.save();
+
+    // then
+    assertTrue(isReset);
+    assertNull(cache.get("develop", HASH_1));
+    val loadedCache = new StatusBranchHookOutputCache(filePath);
+    assertEquals(0, loadedCache.getSize());
+    assertFalse(loadedCache.resetIfHookChanged("hook:2"));
+  }
+
+  @Test
+  public void put_givenTooLongOutput_doesNotCacheIt() {
+    // given
+    val cache = new StatusBranchHookOutputCache(filePath);
+    cache.resetIfHookChanged("hook:1");
+    val tooLongOutput = new String(new char[4097]).replace('\0', 'x');
+
+    // when
+    cache.put("develop", HASH_1, "hook:1", Option.some(tooLongOutput));
+
+    // then
+    assertNull(cache.get("develop", HASH_1));
+  }
+
+  @Test
+  public void put_givenOutputDerivedWithReplacedHook_doesNotCacheIt() {
+    // given
+    val cache = new StatusBranchHookOutputCache(filePath);
+    cache.resetIfHookChanged("hook:1");
+    cache.resetIfHookChanged("hook:2");
+
+    // when
+    cache.put("develop", HASH_1, "hook:1", Option.some("output of the replaced hook"));
+
+    // then
+    assertNull(cache.get("develop", HASH_1));
+  }
+
+  @Test
+  public void put_givenFullCache_evictsOldestEntry() {
+    // given
+    val cache = new StatusBranchHookOutputCache(filePath);
+    cache.resetIfHookChanged("hook:1");
+    for (int i = 0; i < 4096; i++) {
+      cache.put("branch-${i}", HASH_1, "hook:1", Option.none());
+    }
+
+    // when
+    cache.put("develop", HASH_1, "hook:1", Option.some("output of develop"));
+
+    // then
+    assertEquals(4096, cache.getSize());
+    assertNull(cache.get("branch-0", HASH_1));
+    assertEquals(Option.none(), cache.get("branch-1", HASH_1));
+    assertEquals(Option.some("output of develop"), cache.get("develop", HASH_1));
+  }
+
+  @Test
+  @SneakyThrows
+  public void put_givenConcurrentPutsAndSaves_keepsCacheBoundedAndConsistentWithFile() {
+    // given
+    val cache = new StatusBranchHookOutputCache(filePath);
+    cache.resetIfHookChanged("hook:1");
+    int threadCount = 8;
+    int putsPerThread = 1000;
+    val executorService = Executors.newFixedThreadPool(threadCount);
+
+    // when
+    val futures = new java.util.ArrayList<Future<?>>();
+    for (int t = 0; t < threadCount; t++) {
+      int thread = t;
+      futures.add(executorService.submit(() -> {
+        for (int i = 0; i < putsPerThread; i++) {
+          cache.put("branch-${thread}-${i}", HASH_1, "hook:1", Option.some("output ${i}"));
+          if (i % 100 == 0) {
+            cache.save();
+          }
+        }
+      }));
+    }
+    for (val future : futures) {
+      future.get(30, TimeUnit.SECONDS);
+    }
+    executorService.shutdown();
+    cache.put("develop", HASH_1, "hook:1", Option.some("output of develop"));
+    cache.save();
+
+    // then
+    assertEquals(4096, cache.getSize());
+    val loadedCache = new StatusBranchHookOutputCache(filePath);
+    assertEquals(4096, loadedCache.getSize());
+    assertEquals(Option.some("output of develop"), loadedCache.get("develop", HASH_1));
+  }
+
+  @Test
+  @SneakyThrows
+  public void constructor_givenCorruptedFile_startsEmpty() {
+    // given
+    Files.createDirectories(filePath.getParent());
+    Files.write(filePath, new byte[]{0, 0, 0, 1, 0});
+
+    // when
+    val cache = new StatusBranchHookOutputCache(filePath);
+
+    // then
+    assertEquals(0, cache.getSize());
+  }
+
+  @Test
+  @SneakyThrows
+  public void constructor_givenUnsupportedFormatVersion_startsEmpty() {
+    // given
+    Files.createDirectories(filePath.getParent());
+    Files.write(filePath, new byte[]{0, 0, 0, 42});
+
+    // when
+    val cache = new StatusBranchHookOutputCache(filePath);
+
+    // then
+    assertEquals(0, cache.getSize());
+  }
+}
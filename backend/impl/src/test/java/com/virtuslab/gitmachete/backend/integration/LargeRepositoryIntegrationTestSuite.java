@@ -0,0 +1,339 @@
+package com.virtuslab.gitmachete.backend.integration;
+
+import static com.virtuslab.gitmachete.testcommon.TestFileUtils.cleanUpDir;
+import static org.junit.Assert.assertThrows;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+
+import io.vavr.collection.List;
+import io.vavr.collection.Map;
+import lombok.SneakyThrows;
+import lombok.val;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.virtuslab.binding.RuntimeBinding;
+import com.virtuslab.branchlayout.api.IBranchLayout;
+import com.virtuslab.branchlayout.api.readwrite.IBranchLayoutReader;
+import com.virtuslab.gitcore.api.GitCoreCancelledException;
+import com.virtuslab.gitmachete.backend.api.GitMacheteException;
+import com.virtuslab.gitmachete.backend.api.IGitMacheteProgressMonitor;
+import com.virtuslab.gitmachete.backend.api.IGitMacheteRepository;
+import com.virtuslab.gitmachete.backend.api.IGitMacheteRepositorySnapshot;
+import com.virtuslab.gitmachete.backend.api.SyncToParentStatus;
+import com.virtuslab.gitmachete.backend.api.SyncToRemoteStatus;
+import com.virtuslab.gitmachete.backend.impl.GitMacheteRepositoryCache;
+import com.virtuslab.gitmachete.testcommon.LargeRepositoryGenerator;
+
+public class LargeRepositoryIntegrationTestSuite {
+
+  private static final int BRANCH_COUNT = 300;
+  // For the tests that modify the repository or need more than one of them, and hence can't use the shared one
+  private static final int SMALL_BRANCH_COUNT = 50;
+
+  private static final IBranchLayoutReader branchLayoutReader = RuntimeBinding
+      .instantiateSoleImplementingClass(IBranchLayoutReader.class);
+  private static final GitMacheteRepositoryCache gitMacheteRepositoryCache = new GitMacheteRepositoryCache();
+
+  // Generating the repository and deriving its snapshot takes the lion's share of the time of each test,
+  // so the read-only tests share a single repository.
+  private static LargeRepositoryGenerator sharedGenerator;
+  private static Path sharedRootDirectoryPath;
+  private static IGitMacheteRepository sharedGitMacheteRepository;
+  private static IBranchLayout sharedBranchLayout;
+  private static IGitMacheteRepositorySnapshot sharedSnapshot;
+
+  private List<Path> rootDirectoryPaths = List.empty();
+
+  @BeforeClass
+  @SneakyThrows
+  public static void setUpSharedRepository() {
+    sharedGenerator = new LargeRepositoryGenerator(BRANCH_COUNT, /* commitsPerBranch */ 5, /* reflogDepth */ 20,
+        /* remoteCount */ 3);
+    sharedRootDirectoryPath = Files.createTempDirectory("machete-large-repository-");
+    sharedGenerator.generate(sharedRootDirectoryPath);
+    Path gitDirectoryPath = sharedRootDirectoryPath.resolve(".git");
+    sharedGitMacheteRepository = gitMacheteRepositoryCache.getInstance(sharedRootDirectoryPath, gitDirectoryPath,
+        gitDirectoryPath);
+    sharedBranchLayout = branchLayoutReader.read(gitDirectoryPath.resolve("machete"));
+    sharedSnapshot = sharedGitMacheteRepository.createSnapshotForLayout(sharedBranchLayout);
+  }
+
+  @AfterClass
+  public static void cleanUpSharedRepository() {
+    if (sharedRootDirectoryPath != null) {
+      cleanUpDir(sharedRootDirectoryPath);
+    }
+  }
+
+  @Test
+  public void createSnapshotForLayout_givenGeneratedRepository_managesAllBranchesInAllStatuses() {
+    val snapshot = sharedSnapshot;
+
+    Assert.assertEquals(
+        List.ofAll(sharedGenerator.getBranchNames()).prepend(LargeRepositoryGenerator.MAIN_BRANCH_NAME).toSet(),
+        snapshot.getManagedBranches().map(b -> b.getName()).toSet());
+    Assert.assertTrue(snapshot.getSkippedBranchNames().isEmpty());
+    Assert.assertTrue(snapshot.getDuplicatedBranchNames().isEmpty());
+
+    val syncToRemoteStatuses = snapshot.getManagedBranches().map(b -> b.getRelationToRemote().getSyncToRemoteStatus())
+        .toSet();
+    Assert.assertEquals(List.of(SyncToRemoteStatus.values()).remove(SyncToRemoteStatus.NoRemotes).toSet(),
+        syncToRemoteStatuses);
+    val syncToParentStatuses = snapshot.getManagedBranches().filter(b -> b.isNonRoot())
+        .map(b -> b.asNonRoot().getSyncToParentStatus()).toSet();
+    Assert.assertTrue(syncToParentStatuses.contains(SyncToParentStatus.InSync));
+    Assert.assertTrue(syncToParentStatuses.contains(SyncToParentStatus.OutOfSync));
+  }
+
+  @Test
+  @SneakyThrows
+  public void generate_givenSameSeed_yieldsSameRepository() {
+    val firstSnapshot = generateAndCreateSnapshot(new LargeRepositoryGenerator(/* seed */ 7, SMALL_BRANCH_COUNT,
+        /* commitsPerBranch */ 3, /* reflogDepth */ 10, /* remoteCount */ 2));
+    val secondSnapshot = generateAndCreateSnapshot(new LargeRepositoryGenerator(/* seed */ 7, SMALL_BRANCH_COUNT,
+        /* commitsPerBranch */ 3, /* reflogDepth */ 10, /* remoteCount */ 2));
+
+    Assert.assertEquals(pointedCommitHashByBranchName(firstSnapshot), pointedCommitHashByBranchName(secondSnapshot));
+  }
+
+  @Test
+  @SneakyThrows
+  public void createSkeletonSnapshotForLayout_givenGeneratedRepository_managesSameBranchesWithPlaceholderStatuses() {
+    val skeletonSnapshot = sharedGitMacheteRepository.createSkeletonSnapshotForLayout(sharedBranchLayout);
+    val snapshot = sharedGitMacheteRepository.createSnapshotForLayout(sharedBranchLayout, skeletonSnapshot);
+
+    Assert.assertTrue(skeletonSnapshot.isSkeleton());
+    Assert.assertFalse(snapshot.isSkeleton());
+    Assert.assertEquals(pointedCommitHashByBranchName(snapshot), pointedCommitHashByBranchName(skeletonSnapshot));
+    Assert.assertEquals(snapshot.getCurrentBranchIfManaged().map(b -> b.getName()),
+        skeletonSnapshot.getCurrentBranchIfManaged().map(b -> b.getName()));
+    val skeletonNonRootBranches = skeletonSnapshot.getManagedBranches().filter(b -> b.isNonRoot()).map(b -> b.asNonRoot());
+    Assert.assertTrue(skeletonNonRootBranches.forAll(b -> b.getSyncToParentStatus() == SyncToParentStatus.InSync
+        && b.getCommits().isEmpty() && b.getForkPoint().isEmpty()));
+    // Nothing gets reused from the skeleton, hence the statuses are derived for real.
+    Assert.assertTrue(snapshot.getManagedBranches().exists(b -> b.getRelationToRemote()
+        .getSyncToRemoteStatus() != SyncToRemoteStatus.NoRemotes));
+  }
+
+  @Test
+  @SneakyThrows
+  public void createSnapshotForLayout_givenOnlyReflogTouched_createsEquivalentSnapshot() {
+    Path rootDirectoryPath = generate(new LargeRepositoryGenerator(SMALL_BRANCH_COUNT, /* commitsPerBranch */ 3,
+        /* reflogDepth */ 10, /* remoteCount */ 2));
+    Path gitDirectoryPath = rootDirectoryPath.resolve(".git");
+    val gitMacheteRepository = gitMacheteRepositoryCache.getInstance(rootDirectoryPath, gitDirectoryPath, gitDirectoryPath);
+    val branchLayout = branchLayoutReader.read(gitDirectoryPath.resolve("machete"));
+
+    val skeletonSnapshot = gitMacheteRepository.createSkeletonSnapshotForLayout(branchLayout);
+    val snapshot = gitMacheteRepository.createSnapshotForLayout(branchLayout);
+
+    // Touching a reflog changes the ref state, so that the previous snapshot can't be reused as a whole,
+    // but doesn't change anything that the snapshot consists of.
+    Path reflogFilePath = gitDirectoryPath.resolve("logs").resolve("refs").resolve("heads")
+        .resolve(LargeRepositoryGenerator.MAIN_BRANCH_NAME);
+    Files.setLastModifiedTime(reflogFilePath,
+        FileTime.fromMillis(Files.getLastModifiedTime(reflogFilePath).toMillis() + 1000));
+    val recreatedSnapshot = gitMacheteRepository.createSnapshotForLayout(branchLayout, snapshot);
+
+    Assert.assertNotSame(snapshot, recreatedSnapshot);
+    Assert.assertEquals(deriveBranchSummaries(snapshot), deriveBranchSummaries(recreatedSnapshot));
+
+    // The skeleton has the same tree of branches, just with none of the statuses derived.
+    Assert.assertEquals(deriveParentNames(skeletonSnapshot), deriveParentNames(snapshot));
+    Assert.assertEquals(skeletonSnapshot.getCurrentBranchIfManaged().map(b -> b.getName()),
+        snapshot.getCurrentBranchIfManaged().map(b -> b.getName()));
+  }
+
+  /**
+   * @return for each managed branch, everything that it's presented with, compared by value
+   */
+  private static Map<String, List<Object>> deriveBranchSummaries(IGitMacheteRepositorySnapshot snapshot) {
+    return snapshot.getManagedBranches().toSortedMap(b -> b.getName(), b -> List.<Object>of(
+        b.isRoot() ? "" : b.asNonRoot().getParent().getName(),
+        b.getChildren().map(c -> c.getName()),
+        b.getPointedCommit().getHash(),
+        b.getRelationToRemote(),
+        b.getCustomAnnotation(),
+        b.getStatusHookOutput(),
+        b.isRoot() ? "" : b.asNonRoot().getSyncToParentStatus(),
+        b.isRoot() ? "" : b.asNonRoot().getForkPoint().map(fp -> fp.getHash()),
+        b.isRoot() ? "" : b.asNonRoot().getCommits().map(c -> c.getHash()),
+        b.isRoot() ? "" : b.asNonRoot().hasMoreCommits()));
+  }
+
+  private static Map<String, String> deriveParentNames(IGitMacheteRepositorySnapshot snapshot) {
+    return snapshot.getManagedBranches()
+        .toSortedMap(b -> b.getName(), b -> b.isRoot() ? "" : b.asNonRoot().getParent().getName());
+  }
+
+  @Test
+  @SneakyThrows
+  public void createSnapshotForLayout_givenNoChangesSincePreviousSnapshot_reusesPreviousSnapshot() {
+    Path rootDirectoryPath = generate(new LargeRepositoryGenerator(SMALL_BRANCH_COUNT, /* commitsPerBranch */ 3,
+        /* reflogDepth */ 10, /* remoteCount */ 2));
+    Path gitDirectoryPath = rootDirectoryPath.resolve(".git");
+    Path macheteFilePath = gitDirectoryPath.resolve("machete");
+    val gitMacheteRepository = gitMacheteRepositoryCache.getInstance(rootDirectoryPath, gitDirectoryPath, gitDirectoryPath);
+    val snapshot = gitMacheteRepository.createSnapshotForLayout(branchLayoutReader.read(macheteFilePath));
+
+    val recreatedSnapshot = gitMacheteRepository.createSnapshotForLayout(branchLayoutReader.read(macheteFilePath), snapshot);
+    Assert.assertSame(snapshot, recreatedSnapshot);
+
+    // An unmanaged branch doesn't make any difference to the snapshot, but the refs have changed nonetheless
+    val mainBranchCommitHash = snapshot.getManagedBranchByName(LargeRepositoryGenerator.MAIN_BRANCH_NAME).get()
+        .getPointedCommit().getHash();
+    // The generated refs might all be packed, hence the directory of the loose ones might not exist yet
+    Path localBranchesDirectoryPath = Files.createDirectories(gitDirectoryPath.resolve("refs").resolve("heads"));
+    Files.write(localBranchesDirectoryPath.resolve("unmanaged"), List.of(mainBranchCommitHash));
+    val snapshotAfterRefChange = gitMacheteRepository.createSnapshotForLayout(branchLayoutReader.read(macheteFilePath),
+        recreatedSnapshot);
+    Assert.assertNotSame(snapshot, snapshotAfterRefChange);
+    Assert.assertEquals(deriveBranchSummaries(snapshot), deriveBranchSummaries(snapshotAfterRefChange));
+
+    val previousMacheteFileModifiedTime = Files.getLastModifiedTime(macheteFilePath);
+    Files.setLastModifiedTime(macheteFilePath, FileTime.fromMillis(previousMacheteFileModifiedTime.toMillis() + 1000));
+    val snapshotAfterMacheteFileChange = gitMacheteRepository.createSnapshotForLayout(
+        branchLayoutReader.read(macheteFilePath), snapshotAfterRefChange);
+    Assert.assertNotSame(snapshotAfterRefChange, snapshotAfterMacheteFileChange);
+  }
+
+  @Test
+  @SneakyThrows
+  public void createSnapshotForLayout_givenSingleBranchMoved_recomputesOnlyThisBranch() {
+    Path rootDirectoryPath = generate(new LargeRepositoryGenerator(SMALL_BRANCH_COUNT, /* commitsPerBranch */ 3,
+        /* reflogDepth */ 10, /* remoteCount */ 2));
+    Path gitDirectoryPath = rootDirectoryPath.resolve(".git");
+    val gitMacheteRepository = gitMacheteRepositoryCache.getInstance(rootDirectoryPath, gitDirectoryPath, gitDirectoryPath);
+    val branchLayout = branchLayoutReader.read(gitDirectoryPath.resolve("machete"));
+    val snapshot = gitMacheteRepository.createSnapshotForLayout(branchLayout);
+
+    // A leaf, so that no other branch has it as the parent
+    val movedBranch = snapshot.getManagedBranches()
+        .find(b -> b.isNonRoot() && b.getChildren().isEmpty() && b.asNonRoot().getCommits().size() >= 2).get();
+    // Written directly (with no new reflog entry), as otherwise the reflogs of all the other branches
+    // would need to be checked again for the fork points of all the non-root branches.
+    Path movedBranchRefPath = gitDirectoryPath.resolve("refs").resolve("heads").resolve(movedBranch.getName());
+    // The generated refs might all be packed, hence the directory of the loose ones might not exist yet
+    Files.createDirectories(movedBranchRefPath.getParent());
+    Files.write(movedBranchRefPath, List.of(movedBranch.asNonRoot().getCommits().get(1).getHash()));
+
+    val snapshotAfterMove = gitMacheteRepository.createSnapshotForLayout(branchLayout, snapshot);
+
+    Assert.assertEquals(movedBranch.asNonRoot().getCommits().get(1).getHash(),
+        snapshotAfterMove.getManagedBranchByName(movedBranch.getName()).get().getPointedCommit().getHash());
+    // The fork point of a branch is the very same object as long as the branch is reused rather than recomputed.
+    for (val branch : snapshot.getManagedBranches().filter(b -> b.isNonRoot() && b.asNonRoot().getForkPoint().isDefined())) {
+      val forkPoint = branch.asNonRoot().getForkPoint().get();
+      val forkPointAfterMove = snapshotAfterMove.getManagedBranchByName(branch.getName()).get().asNonRoot().getForkPoint()
+          .getOrNull();
+      if (branch.getName().equals(movedBranch.getName())) {
+        Assert.assertNotSame(forkPoint, forkPointAfterMove);
+      } else {
+        Assert.assertSame("Fork point of ${branch.getName()}", forkPoint, forkPointAfterMove);
+      }
+    }
+  }
+
+  @Test
+  @SneakyThrows
+  public void createSnapshotForLayout_givenForkPointSearchCutoffChanged_recomputesForkPoints() {
+    Path rootDirectoryPath = generate(new LargeRepositoryGenerator(SMALL_BRANCH_COUNT, /* commitsPerBranch */ 3,
+        /* reflogDepth */ 10, /* remoteCount */ 2));
+    Path gitDirectoryPath = rootDirectoryPath.resolve(".git");
+    val gitMacheteRepository = gitMacheteRepositoryCache.getInstance(rootDirectoryPath, gitDirectoryPath, gitDirectoryPath);
+    val branchLayout = branchLayoutReader.read(gitDirectoryPath.resolve("machete"));
+    val snapshot = gitMacheteRepository.createSnapshotForLayout(branchLayout);
+
+    // Neither the refs nor the reflogs change, just the config (which is read anew for each snapshot).
+    Files.write(gitDirectoryPath.resolve("config"), List.of("[machete \"forkPoint\"]", "\tmaxDepth = 1"),
+        StandardOpenOption.APPEND);
+
+    val snapshotAfterConfigChange = gitMacheteRepository.createSnapshotForLayout(branchLayout, snapshot);
+
+    val branchesWithForkPoint = snapshot.getManagedBranches()
+        .filter(b -> b.isNonRoot() && b.asNonRoot().getForkPoint().isDefined());
+    Assert.assertTrue(branchesWithForkPoint.nonEmpty());
+    for (val branch : branchesWithForkPoint) {
+      val forkPoint = branch.asNonRoot().getForkPoint().get();
+      val forkPointAfterConfigChange = snapshotAfterConfigChange.getManagedBranchByName(branch.getName()).get().asNonRoot()
+          .getForkPoint().getOrNull();
+      // Only the pointed commit itself is searched now, so whatever is found (if anything) is a different object.
+      Assert.assertNotSame("Fork point of ${branch.getName()}", forkPoint, forkPointAfterConfigChange);
+    }
+  }
+
+  @Test
+  @SneakyThrows
+  public void createSnapshotForLayout_givenProgressMonitor_reportsEveryBranchUntilCompletion() {
+    java.util.List<Double> fractions = java.util.Collections.synchronizedList(new java.util.ArrayList<>());
+    val snapshot = sharedGitMacheteRepository.createSnapshotForLayout(sharedBranchLayout, new IGitMacheteProgressMonitor() {
+      @Override
+      public boolean isCancelled() {
+        return false;
+      }
+
+      @Override
+      public void setFraction(double fraction) {
+        fractions.add(fraction);
+      }
+    });
+
+    Assert.assertEquals(snapshot.getManagedBranches().size(), fractions.size());
+    Assert.assertEquals(1.0, java.util.Collections.max(fractions), /* delta */ 1e-9);
+  }
+
+  @Test
+  public void createSnapshotForLayout_givenProgressMonitorCancelledAfterFirstBranch_stopsWithCancellation() {
+    java.util.concurrent.atomic.AtomicInteger createdBranchCount = new java.util.concurrent.atomic.AtomicInteger();
+    val progressMonitor = new IGitMacheteProgressMonitor() {
+      @Override
+      public boolean isCancelled() {
+        return createdBranchCount.get() > 0;
+      }
+
+      @Override
+      public void setFraction(double fraction) {
+        createdBranchCount.incrementAndGet();
+      }
+    };
+
+    GitMacheteException exception = assertThrows(GitMacheteException.class,
+        () -> sharedGitMacheteRepository.createSnapshotForLayout(sharedBranchLayout, progressMonitor));
+
+    Assert.assertTrue(exception.getCause() instanceof GitCoreCancelledException);
+    // Each branch is checked for cancellation before it's created, so only the ones already in progress get completed.
+    Assert.assertTrue(createdBranchCount.get() < BRANCH_COUNT);
+  }
+
+  @SneakyThrows
+  private IGitMacheteRepositorySnapshot generateAndCreateSnapshot(LargeRepositoryGenerator generator) {
+    Path rootDirectoryPath = generate(generator);
+    Path gitDirectoryPath = rootDirectoryPath.resolve(".git");
+    val gitMacheteRepository = gitMacheteRepositoryCache.getInstance(rootDirectoryPath, gitDirectoryPath, gitDirectoryPath);
+    return gitMacheteRepository.createSnapshotForLayout(branchLayoutReader.read(gitDirectoryPath.resolve("machete")));
+  }
+
+  @SneakyThrows
+  private Path generate(LargeRepositoryGenerator generator) {
+    Path rootDirectoryPath = Files.createTempDirectory("machete-large-repository-");
+    rootDirectoryPaths = rootDirectoryPaths.append(rootDirectoryPath);
+    generator.generate(rootDirectoryPath);
+    return rootDirectoryPath;
+  }
+
+  private static Map<String, String> pointedCommitHashByBranchName(IGitMacheteRepositorySnapshot snapshot) {
+    return snapshot.getManagedBranches().toMap(b -> b.getName(), b -> b.getPointedCommit().getHash());
+  }
+
+  @After
+  public void cleanUp() {
+    rootDirectoryPaths.forEach(path -> cleanUpDir(path));
+  }
+}
@@ -74,6 +74,19 @@ public class StatusAndDiscoverIntegrationTestSuite extends BaseGitRepositoryBack
     Assert.assertEquals(gitMacheteCliStatus.trim(), ourStatus.trim());
   }
 
+  @Test
+  @SneakyThrows
+  public void yieldsSameStatusAsCliWhenReusingPreviousSnapshot() {
+    String gitMacheteCliStatus = gitMacheteCliStatusOutput();
+
+    IBranchLayout branchLayout = branchLayoutReader.read(mainGitDirectoryPath.resolve("machete"));
+    val previousSnapshot = gitMacheteRepository.createSnapshotForLayout(branchLayout);
+    gitMacheteRepositorySnapshot = gitMacheteRepository.createSnapshotForLayout(branchLayout, previousSnapshot);
+    String ourStatus = ourGitMacheteRepositorySnapshotAsString();
+
+    Assert.assertEquals(gitMacheteCliStatus.trim(), ourStatus.trim());
+  }
+
   @Test
   @SneakyThrows
   public void discoversSameLayoutAsCli() {
@@ -204,7 +217,8 @@ public class StatusAndDiscoverIntegrationTestSuite extends BaseGitRepositoryBack
           Case($(DivergedFromAndOlderThanRemote), "diverged from & older than " + remoteName)));
       sb.append(")");
     }
-    val statusHookOutput = branch.getStatusHookOutput();
+    // The hook output is delivered asynchronously, while the CLI always waits for the hook.
+    val statusHookOutput = branch.getStatusHookOutputAsync().toCompletableFuture().join();
     if (statusHookOutput.isDefined()) {
       sb.append("  ");
       sb.append(statusHookOutput.get());
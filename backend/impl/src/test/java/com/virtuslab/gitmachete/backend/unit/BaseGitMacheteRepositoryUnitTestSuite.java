@@ -40,7 +40,7 @@ public class BaseGitMacheteRepositoryUnitTestSuite {
     PowerMockito.doReturn(Paths.get("void")).when(gitCoreRepository).getMainGitDirectoryPath();
 
     // cannot be mocked as it is final
-    val statusBranchHookExecutor = StatusBranchHookExecutor.of(gitCoreRepository);
+    val statusBranchHookExecutor = StatusBranchHookExecutor.of(gitCoreRepository, /* parallelism */ 1);
 
     return Whitebox
         .getConstructor(AUX_CLASS, IGitCoreRepository.class, StatusBranchHookExecutor.class, PreRebaseHookExecutor.class)
@@ -3,6 +3,8 @@ package com.virtuslab.gitmachete.backend.unit;
 import static com.virtuslab.gitmachete.backend.unit.UnitTestUtils.createGitCoreCommit;
 import static com.virtuslab.gitmachete.backend.unit.UnitTestUtils.createGitCoreLocalBranch;
 
+import java.util.concurrent.ForkJoinPool;
+
 import io.vavr.collection.List;
 import io.vavr.control.Option;
 import lombok.AllArgsConstructor;
@@ -26,8 +28,18 @@ public class GitMacheteRepository_deriveCreatedAndDuplicatedAndSkippedBranchesUn
   @SneakyThrows
   private IGitMacheteRepositorySnapshot invokeCreateSnapshot(
       IBranchLayout branchLayout, IGitCoreLocalBranchSnapshot... localBranchSnapshots) {
+    return invokeCreateSnapshot(/* parallelism */ 1, branchLayout, localBranchSnapshots);
+  }
+
+  @SneakyThrows
+  private IGitMacheteRepositorySnapshot invokeCreateSnapshot(
+      int parallelism, IBranchLayout branchLayout, IGitCoreLocalBranchSnapshot... localBranchSnapshots) {
     PowerMockito.doReturn(List.empty()).when(gitCoreRepository).deriveAllRemoteNames();
-    return Whitebox.invokeMethod(aux(localBranchSnapshots), "createSnapshot", branchLayout);
+    val aux = aux(localBranchSnapshots);
+    if (parallelism > 1) {
+      Whitebox.invokeMethod(aux, "useForkJoinPool", new ForkJoinPool(parallelism));
+    }
+    return Whitebox.invokeMethod(aux, "createSnapshot", branchLayout);
   }
 
   @Test
@@ -108,6 +120,29 @@ public class GitMacheteRepository_deriveCreatedAndDuplicatedAndSkippedBranchesUn
     Assert.assertEquals(List.of(duplicatedAndSkippedBranchName).toSet(), repositorySnapshot.getSkippedBranchNames());
   }
 
+  @Test
+  public void duplicatedRootBranchWithParallelism() {
+    // given
+    val mainBranchName = "main";
+    val mainBranchAndEntry = createBranchAndEntry(mainBranchName, List.empty());
+    val duplicatedEntry = createEntry(mainBranchName, List.empty());
+    val developBranchAndEntry = createBranchAndEntry("develop", List.empty());
+    val branchLayout = PowerMockito.mock(IBranchLayout.class);
+    PowerMockito.doReturn(List.of(mainBranchAndEntry.entry, duplicatedEntry, developBranchAndEntry.entry))
+        .when(branchLayout).getRootEntries();
+
+    // when
+    val repositorySnapshot = invokeCreateSnapshot(/* parallelism */ 4, branchLayout, mainBranchAndEntry.branch,
+        developBranchAndEntry.branch);
+
+    // then
+    Assert.assertEquals(
+        List.of(mainBranchAndEntry.entry, developBranchAndEntry.entry).map(IBranchLayoutEntry::getName),
+        repositorySnapshot.getRootBranches().map(IManagedBranchSnapshot::getName));
+    Assert.assertEquals(List.of(mainBranchName).toSet(), repositorySnapshot.getDuplicatedBranchNames());
+    Assert.assertTrue(repositorySnapshot.getSkippedBranchNames().isEmpty());
+  }
+
   private BranchAndEntry createBranchAndEntry(String name, List<IBranchLayoutEntry> childEntries) {
     val entry = createEntry(name, childEntries);
     val commit = createGitCoreCommit();
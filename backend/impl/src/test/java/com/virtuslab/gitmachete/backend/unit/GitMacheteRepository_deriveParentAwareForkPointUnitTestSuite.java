@@ -15,6 +15,7 @@ import org.powermock.reflect.Whitebox;
 import com.virtuslab.gitcore.api.IGitCoreCommit;
 import com.virtuslab.gitcore.api.IGitCoreLocalBranchSnapshot;
 import com.virtuslab.gitmachete.backend.impl.ForkPointCommitOfManagedBranch;
+import com.virtuslab.gitmachete.backend.impl.ForkPointSearchCutoff;
 
 public class GitMacheteRepository_deriveParentAwareForkPointUnitTestSuite extends BaseGitMacheteRepositoryUnitTestSuite {
 
@@ -22,11 +23,23 @@ public class GitMacheteRepository_deriveParentAwareForkPointUnitTestSuite extend
   private Option<IGitCoreCommit> invokeDeriveParentAwareForkPoint(
       IGitCoreLocalBranchSnapshot childBranch,
       IGitCoreLocalBranchSnapshot parentBranch) {
+    return getForkPointCommit(invokeDeriveParentAwareForkPoint(aux(childBranch, parentBranch), childBranch, parentBranch));
+  }
+
+  @SneakyThrows
+  private Object invokeDeriveParentAwareForkPoint(
+      Object aux,
+      IGitCoreLocalBranchSnapshot childBranch,
+      IGitCoreLocalBranchSnapshot parentBranch) {
 
     PowerMockito.doReturn(Option.none()).when(gitCoreRepository).deriveConfigValue(any(), any(), any());
 
-    ForkPointCommitOfManagedBranch forkPoint = Whitebox.invokeMethod(
-        aux(childBranch, parentBranch), "deriveParentAwareForkPoint", childBranch, parentBranch);
+    return Whitebox.invokeMethod(aux, "deriveParentAwareForkPoint", childBranch, parentBranch);
+  }
+
+  @SneakyThrows
+  private static Option<IGitCoreCommit> getForkPointCommit(Object forkPointSearchResult) {
+    ForkPointCommitOfManagedBranch forkPoint = Whitebox.invokeMethod(forkPointSearchResult, "getForkPoint");
     if (forkPoint != null) {
       return Option.some(Whitebox.invokeMethod(forkPoint, "getCoreCommit"));
     } else {
@@ -94,4 +107,28 @@ public class GitMacheteRepository_deriveParentAwareForkPointUnitTestSuite extend
     Assert.assertTrue(result.isDefined());
     Assert.assertEquals(parentCommit, result.get());
   }
+
+  @Test
+  @SneakyThrows
+  public void parentAgnosticForkPointSearchIsCutOffAndParentIsNotAncestorOfChild() {
+    // given
+    IGitCoreCommit childCommit = createGitCoreCommit();
+    IGitCoreCommit childParentCommit = createGitCoreCommit();
+    IGitCoreCommit parentCommit = createGitCoreCommit();
+    IGitCoreLocalBranchSnapshot childBranch = createGitCoreLocalBranch(childCommit);
+    IGitCoreLocalBranchSnapshot parentBranch = createGitCoreLocalBranch(parentCommit);
+
+    PowerMockito.doReturn(Stream.of(childCommit, childParentCommit)).when(gitCoreRepository)
+        .ancestorsInCommitDateOrderOf(childCommit);
+    PowerMockito.doReturn(false).when(gitCoreRepository).isAncestorOrEqual(parentCommit, childCommit);
+    Object aux = aux(childBranch, parentBranch);
+    Whitebox.invokeMethod(aux, "setForkPointSearchCutoff", ForkPointSearchCutoff.of(/* maxDepth */ 1, /* maxAge */ null));
+
+    // when
+    Object result = invokeDeriveParentAwareForkPoint(aux, childBranch, parentBranch);
+
+    // then
+    Assert.assertTrue(getForkPointCommit(result).isEmpty());
+    Assert.assertEquals(Integer.valueOf(1), Whitebox.invokeMethod(result, "getNotFoundWithinCommitCount"));
+  }
 }
@@ -2,10 +2,9 @@ package com.virtuslab.gitmachete.backend.unit;
 
 import java.time.Instant;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.stream.Stream;
 
 import io.vavr.NotImplementedError;
-import io.vavr.collection.List;
+import io.vavr.collection.Stream;
 import io.vavr.control.Option;
 import lombok.SneakyThrows;
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -33,7 +32,9 @@ class UnitTestUtils {
     IGitCoreLocalBranchSnapshot mock = PowerMockito.mock(IGitCoreLocalBranchSnapshot.class);
     PowerMockito.doReturn(String.valueOf(counter.incrementAndGet())).when(mock).getFullName();
     PowerMockito.doReturn(pointedCommit).when(mock).getPointedCommit();
-    PowerMockito.doReturn(List.ofAll(Stream.of(reflogEntries))).when(mock).getReflogFromMostRecent();
+    PowerMockito.doReturn(Stream.of(reflogEntries)).when(mock).getReflogFromMostRecent();
+    PowerMockito.doReturn(Stream.of(reflogEntries).lastOption()).when(mock).getOldestReflogEntry();
+    PowerMockito.doReturn(Option.none()).when(mock).getReflogModificationTime();
     PowerMockito.doReturn(Option.none()).when(mock).getRemoteTrackingBranch();
     return mock;
   }
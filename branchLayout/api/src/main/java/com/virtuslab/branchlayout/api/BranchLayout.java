@@ -1,29 +1,54 @@
 package com.virtuslab.branchlayout.api;
 
-import io.vavr.Tuple;
+import io.vavr.collection.HashMap;
+import io.vavr.collection.HashSet;
 import io.vavr.collection.List;
 import io.vavr.collection.Map;
+import io.vavr.collection.Set;
 import io.vavr.control.Option;
 import lombok.Getter;
 import lombok.val;
 import org.checkerframework.checker.interning.qual.UsesObjectEquals;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
+/**
+ * Alongside the entries, an index of the entries and of their parents (both by name) is maintained.
+ * A single slide-in or slide-out copies only the entries on the path from the root to the changed entry
+ * (all the other subtrees are shared with the original layout), and updates the index in place of re-deriving it.
+ * <p>
+ * Branch names are supposed to be unique within the layout; if they aren't, the mutations fall back to rebuilding
+ * the entire layout, which (in contrast to the path copying) handles each of the duplicated entries.
+ */
 @UsesObjectEquals
 public class BranchLayout implements IBranchLayout {
 
   @Getter
   private final List<IBranchLayoutEntry> rootEntries;
 
+  // If the names are duplicated, the last entry with the given name in pre-order wins.
   private final Map<String, IBranchLayoutEntry> entryByName;
 
+  // No mapping for the root entries.
+  private final Map<String, String> parentNameByName;
+
+  private final boolean hasDuplicatedNames;
+
   public BranchLayout(List<IBranchLayoutEntry> rootEntries) {
+    val index = new Index(HashMap.empty(), HashMap.empty());
+    for (val rootEntry : rootEntries) {
+      index.addRecursively(rootEntry, /* parentName */ null);
+    }
     this.rootEntries = rootEntries;
-    this.entryByName = rootEntries.flatMap(BranchLayout::collectEntriesRecursively)
-        .toMap(entry -> Tuple.of(entry.getName(), entry));
+    this.entryByName = index.entryByName;
+    this.parentNameByName = index.parentNameByName;
+    this.hasDuplicatedNames = index.hasDuplicatedNames;
   }
 
-  private static List<IBranchLayoutEntry> collectEntriesRecursively(IBranchLayoutEntry entry) {
-    return entry.getChildren().flatMap(BranchLayout::collectEntriesRecursively).prepend(entry);
+  private BranchLayout(List<IBranchLayoutEntry> rootEntries, Index index) {
+    this.rootEntries = rootEntries;
+    this.entryByName = index.entryByName;
+    this.parentNameByName = index.parentNameByName;
+    this.hasDuplicatedNames = index.hasDuplicatedNames;
   }
 
   @Override
@@ -33,12 +58,31 @@ public class BranchLayout implements IBranchLayout {
 
   @Override
   public IBranchLayout slideOut(String branchName) {
-    return new BranchLayout(rootEntries.flatMap(rootEntry -> slideOut(rootEntry, branchName)));
+    if (hasDuplicatedNames) {
+      return slideOut(HashSet.of(branchName));
+    }
+    val entry = entryByName.get(branchName).getOrNull();
+    if (entry == null) {
+      return this;
+    }
+
+    val index = new Index(entryByName, parentNameByName);
+    val parentName = parentNameByName.get(branchName).getOrNull();
+    index.remove(branchName);
+    for (val child : entry.getChildren()) {
+      index.setParentName(child.getName(), parentName);
+    }
+    return replaceEntry(entry, entry.getChildren(), index);
+  }
+
+  @Override
+  public IBranchLayout slideOut(Set<String> branchNames) {
+    return new BranchLayout(rootEntries.flatMap(rootEntry -> slideOut(rootEntry, branchNames)));
   }
 
-  private List<IBranchLayoutEntry> slideOut(IBranchLayoutEntry entry, String entryNameToSlideOut) {
-    val newChildren = entry.getChildren().flatMap(child -> slideOut(child, entryNameToSlideOut));
-    if (entry.getName().equals(entryNameToSlideOut)) {
+  private static List<IBranchLayoutEntry> slideOut(IBranchLayoutEntry entry, Set<String> entryNamesToSlideOut) {
+    val newChildren = entry.getChildren().flatMap(child -> slideOut(child, entryNamesToSlideOut));
+    if (entryNamesToSlideOut.contains(entry.getName())) {
       return newChildren;
     } else {
       return List.of(entry.withChildren(newChildren));
@@ -52,8 +96,81 @@ public class BranchLayout implements IBranchLayout {
     if (parentEntry == null) {
       throw new EntryDoesNotExistException("Parent branch entry '${parentBranchName}' does not exist");
     }
-    val entry = findEntryByName(entryToSlideIn.getName());
-    val entryAlreadyExists = entry.isDefined();
+    String nameToSlideIn = entryToSlideIn.getName();
+    val entry = findEntryByName(nameToSlideIn);
+
+    if (hasDuplicatedNames || parentBranchName.equals(nameToSlideIn)) {
+      return slideInByRebuilding(parentEntry, entryToSlideIn, entry);
+    }
+
+    if (entry.isDefined() && isAncestorOrSelf(/* presumedAncestorName */ nameToSlideIn, parentBranchName)) {
+      throw new EntryIsDescendantOfException(
+          "Entry '${parentEntry.getName()}' is a descendant of entry '${nameToSlideIn}'",
+          /* descendant */ parentEntry,
+          /* ancestor */ entryToSlideIn);
+    }
+
+    BranchLayout layout = this;
+    if (entry.isDefined()) {
+      val index = new Index(entryByName, parentNameByName);
+      index.removeRecursively(entry.get());
+      layout = replaceEntry(entry.get(), List.empty(), index);
+    }
+
+    // The parent entry might have been copied while removing the existing entry (if it was a descendant of the parent).
+    val currentParentEntry = layout.entryByName.get(parentBranchName).get();
+    val newParentEntry = currentParentEntry.withChildren(currentParentEntry.getChildren().append(entryToSlideIn));
+
+    val index = new Index(layout.entryByName, layout.parentNameByName);
+    index.addRecursively(entryToSlideIn, parentBranchName);
+    index.entryByName = index.entryByName.put(parentBranchName, newParentEntry);
+    val result = layout.replaceEntry(currentParentEntry, List.of(newParentEntry), index);
+    // Entries of the slid-in subtree might have the same names as the entries already present in the layout.
+    return index.hasDuplicatedNames ? new BranchLayout(result.rootEntries) : result;
+  }
+
+  private boolean isAncestorOrSelf(String presumedAncestorName, String branchName) {
+    String name = branchName;
+    while (name != null) {
+      if (name.equals(presumedAncestorName)) {
+        return true;
+      }
+      name = parentNameByName.get(name).getOrNull();
+    }
+    return false;
+  }
+
+  /**
+   * Replaces the given entry with the given new entries (either among the children of its parent, or among the roots)
+   * and copies all the ancestors of the entry up to the root, so that they point to the new entries.
+   *
+   * @param index already updated with regards to the given entry and the new entries (but not their ancestors)
+   */
+  private BranchLayout replaceEntry(IBranchLayoutEntry oldEntry, List<IBranchLayoutEntry> newEntries, Index index) {
+    IBranchLayoutEntry oldChild = oldEntry;
+    List<IBranchLayoutEntry> newChildren = newEntries;
+    String parentName = parentNameByName.get(oldEntry.getName()).getOrNull();
+    while (parentName != null) {
+      val oldParent = entryByName.get(parentName).get();
+      val newParent = oldParent.withChildren(replace(oldParent.getChildren(), oldChild, newChildren));
+      index.entryByName = index.entryByName.put(parentName, newParent);
+
+      oldChild = oldParent;
+      newChildren = List.of(newParent);
+      parentName = parentNameByName.get(parentName).getOrNull();
+    }
+    return new BranchLayout(replace(rootEntries, oldChild, newChildren), index);
+  }
+
+  private static List<IBranchLayoutEntry> replace(List<IBranchLayoutEntry> entries, IBranchLayoutEntry oldEntry,
+      List<IBranchLayoutEntry> newEntries) {
+    int position = entries.indexWhere(e -> e.equals(oldEntry));
+    assert position >= 0 : "Entry '${oldEntry.getName()}' not found among the children of its parent";
+    return entries.removeAt(position).insertAll(position, newEntries);
+  }
+
+  private IBranchLayout slideInByRebuilding(IBranchLayoutEntry parentEntry, IBranchLayoutEntry entryToSlideIn,
+      Option<IBranchLayoutEntry> entry) throws EntryIsDescendantOfException {
 
     if (entry.map(e -> isDescendant(/* presumedAncestor */ e, /* presumedDescendant */ parentEntry)).getOrElse(false)) {
       throw new EntryIsDescendantOfException(
@@ -62,7 +179,7 @@ public class BranchLayout implements IBranchLayout {
           /* ancestor */ entryToSlideIn);
     }
 
-    val newRootEntries = entryAlreadyExists
+    val newRootEntries = entry.isDefined()
         ? removeEntry(/* branchLayout */ this, entryToSlideIn.getName())
         : rootEntries;
     return new BranchLayout(newRootEntries.map(rootEntry -> slideIn(rootEntry, entryToSlideIn, parentEntry)));
@@ -101,4 +218,48 @@ public class BranchLayout implements IBranchLayout {
       return entry.withChildren(children.map(child -> slideIn(child, entryToSlideIn, parent)));
     }
   }
+
+  /**
+   * The (persistent) maps of a layout being derived from another one, updated entry by entry.
+   */
+  private static final class Index {
+    private Map<String, IBranchLayoutEntry> entryByName;
+    private Map<String, String> parentNameByName;
+    private boolean hasDuplicatedNames = false;
+
+    Index(Map<String, IBranchLayoutEntry> entryByName, Map<String, String> parentNameByName) {
+      this.entryByName = entryByName;
+      this.parentNameByName = parentNameByName;
+    }
+
+    void addRecursively(IBranchLayoutEntry entry, @Nullable String parentName) {
+      String name = entry.getName();
+      if (entryByName.containsKey(name)) {
+        hasDuplicatedNames = true;
+      }
+      entryByName = entryByName.put(name, entry);
+      setParentName(name, parentName);
+      for (val child : entry.getChildren()) {
+        addRecursively(child, name);
+      }
+    }
+
+    void setParentName(String name, @Nullable String parentName) {
+      parentNameByName = parentName != null
+          ? parentNameByName.put(name, parentName)
+          : parentNameByName.remove(name);
+    }
+
+    void remove(String name) {
+      entryByName = entryByName.remove(name);
+      parentNameByName = parentNameByName.remove(name);
+    }
+
+    void removeRecursively(IBranchLayoutEntry entry) {
+      remove(entry.getName());
+      for (val child : entry.getChildren()) {
+        removeRecursively(child);
+      }
+    }
+  }
 }
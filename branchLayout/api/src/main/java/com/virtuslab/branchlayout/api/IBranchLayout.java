@@ -1,6 +1,7 @@
 package com.virtuslab.branchlayout.api;
 
 import io.vavr.collection.List;
+import io.vavr.collection.Set;
 import io.vavr.control.Option;
 
 public interface IBranchLayout {
@@ -12,4 +13,10 @@ public interface IBranchLayout {
       throws EntryDoesNotExistException, EntryIsDescendantOfException;
 
   IBranchLayout slideOut(String branchName);
+
+  /**
+   * Slides out all the given branches in a single pass over the layout,
+   * rather than copying the layout once per branch as subsequent {@link #slideOut(String)} calls would do.
+   */
+  IBranchLayout slideOut(Set<String> branchNames);
 }
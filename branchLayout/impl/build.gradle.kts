@@ -2,6 +2,7 @@ import com.virtuslab.gitmachete.buildsrc.*
 
 dependencies { api(project(":branchLayout:api")) }
 
+jmh()
 junit()
 lombok()
 powerMock()
@@ -0,0 +1,27 @@
+package com.virtuslab.branchlayout.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+
+import com.virtuslab.branchlayout.api.BranchLayout;
+import com.virtuslab.branchlayout.impl.readwrite.BranchLayoutFileReader;
+
+/**
+ * Run with {@code ./gradlew :branchLayout:impl:jmh};
+ * the results end up in {@code branchLayout/impl/build/reports/jmh/results.json}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BranchLayoutFileReaderBenchmarks {
+
+  private final BranchLayoutFileReader reader = new BranchLayoutFileReader();
+
+  @Benchmark
+  public BranchLayout read(GeneratedBranchLayoutFileState state) throws Exception {
+    return reader.read(state.branchLayoutFilePath);
+  }
+}
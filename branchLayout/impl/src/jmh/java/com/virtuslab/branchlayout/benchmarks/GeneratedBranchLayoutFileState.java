@@ -0,0 +1,43 @@
+package com.virtuslab.branchlayout.benchmarks;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import io.vavr.collection.List;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * A branch layout file generated once per each combination of the parameters
+ * (and then shared by all the benchmark iterations).
+ * The file consists of blocks of a root, its three children and their two children each,
+ * so that both the nesting and the dedenting back to the root level are exercised.
+ */
+@State(Scope.Benchmark)
+@SuppressWarnings("nullness:initialization.fields.uninitialized") // JMH runs the @Setup method before any benchmark
+public class GeneratedBranchLayoutFileState {
+
+  private static final int[] LEVELS_IN_BLOCK = {0, 1, 2, 2, 1, 2, 2, 1, 2, 2};
+
+  @Param({"1000", "10000"})
+  public int lineCount;
+
+  Path branchLayoutFilePath;
+
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    branchLayoutFilePath = Files.createTempFile("machete-benchmark-", "");
+    List<String> lines = List.range(0, lineCount)
+        .map(i -> "  ".repeat(LEVELS_IN_BLOCK[i % LEVELS_IN_BLOCK.length]) + "branch-" + i);
+    Files.write(branchLayoutFilePath, lines);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    Files.deleteIfExists(branchLayoutFilePath);
+  }
+}
@@ -2,14 +2,12 @@ package com.virtuslab.branchlayout.impl.readwrite;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 
-import io.vavr.Tuple2;
-import io.vavr.collection.Array;
 import io.vavr.collection.List;
 import lombok.CustomLog;
 import lombok.experimental.ExtensionMethod;
 import lombok.val;
-import org.checkerframework.checker.index.qual.GTENegativeOne;
 import org.checkerframework.checker.index.qual.NonNegative;
 
 import com.virtuslab.branchlayout.api.BranchLayout;
@@ -34,18 +32,10 @@ public class BranchLayoutFileReader implements IBranchLayoutReader {
     LOG.debug(() -> "Entering: Reading branch layout from ${path} with indent character ASCII " +
         "code = ${(int)indentSpec.getIndentCharacter()} and indent width = ${indentSpec.getIndentWidth()}");
 
-    List<String> linesWithoutBlank = lines.reject(line -> line.trim().isEmpty());
-
     LOG.debug(() -> "${lines.length()} line(s) found");
 
-    List<IBranchLayoutEntry> roots = List.empty();
-    if (!linesWithoutBlank.isEmpty()) {
-      Array<Tuple2<Integer, Integer>> lineIndexToIndentLevelAndParentLineIndex = parseToArrayRepresentation(path, indentSpec,
-          lines);
-      LOG.debug(() -> "lineIndexToIndentLevelAndParentLineIndex = ${lineIndexToIndentLevelAndParentLineIndex}");
-
-      roots = buildEntriesStructure(linesWithoutBlank, lineIndexToIndentLevelAndParentLineIndex, /* parentLineIndex */ -1);
-    } else {
+    List<IBranchLayoutEntry> roots = parseEntries(path, indentSpec, lines);
+    if (roots.isEmpty()) {
       LOG.debug("Branch layout file is empty");
     }
 
@@ -53,112 +43,123 @@ public class BranchLayoutFileReader implements IBranchLayoutReader {
   }
 
   /**
-   * @param lines
-   *          list of lines read from branch layout file
-   * @param lineIndexToParentLineIndex
-   *          as it says ({@code lines} metadata containing structure, see {@link #parseToArrayRepresentation})
-   * @param parentLineIndex
-   *          index of the line whose children are to be built
-   *
-   * @return list of entries with recursively built lists of children
-   */
-  @SuppressWarnings("index:argument")
-  private List<IBranchLayoutEntry> buildEntriesStructure(
-      List<String> lines,
-      Array<Tuple2<Integer, Integer>> lineIndexToParentLineIndex,
-      @GTENegativeOne int parentLineIndex) {
-
-    return lineIndexToParentLineIndex
-        .zipWithIndex()
-        .filter(t -> t._1()._2() == parentLineIndex)
-        .map(t -> createEntry(lines.get(t._2()),
-            buildEntriesStructure(lines, lineIndexToParentLineIndex, t._2())))
-        .toList();
-  }
-
-  /**
-   * Parses line to {@link BranchLayoutEntry#BranchLayoutEntry} arguments and creates an
-   * entry with the specified {@code children}.
+   * An entry whose line has already been parsed, but whose children are still being collected
+   * (as they're the subsequent lines of the file).
    */
-  private IBranchLayoutEntry createEntry(String line, List<IBranchLayoutEntry> children) {
-    LOG.debug(() -> "Entering: line = '${line}', children = ${children}");
+  private static final class PendingEntry {
+    private final String line;
+    private final java.util.List<IBranchLayoutEntry> children = new ArrayList<>();
 
-    String trimmedLine = line.trim();
-    String branchName;
-    String customAnnotation;
-    int indexOfSpace = trimmedLine.indexOf(' ');
-    if (indexOfSpace > -1) {
-      branchName = trimmedLine.substring(0, indexOfSpace);
-      customAnnotation = trimmedLine.substring(indexOfSpace + 1).trim();
-    } else {
-      branchName = trimmedLine;
-      customAnnotation = null;
+    PendingEntry(String line) {
+      this.line = line;
     }
-
-    val result = new BranchLayoutEntry(branchName, customAnnotation, children);
-    LOG.debug(() -> "Created ${result}");
-    return result;
   }
 
   /**
-   * @return an array containing the indent level and parent entry describing line index which indices correspond to
-   *         provided {@code lines} indices. It may be understood as a helper metadata needed to build entries structure
+   * Builds the entries in a single pass over the lines.
+   * The stack holds the entries on the path from the root to the most recently parsed line,
+   * the entry at index {@code i} being the one at indent level {@code i}.
+   * An entry is created only once it's popped off the stack, i.e. once all of its children are known.
+   *
+   * @return list of root entries with recursively built lists of children
    */
-  private Array<Tuple2<Integer, Integer>> parseToArrayRepresentation(Path path, IndentSpec indentSpec, List<String> lines)
+  private List<IBranchLayoutEntry> parseEntries(Path path, IndentSpec indentSpec, List<String> lines)
       throws BranchLayoutException {
 
-    List<String> linesWithoutBlank = lines.reject(line -> line.trim().isEmpty());
-
-    if (linesWithoutBlank.nonEmpty() && linesWithoutBlank.head().getIndentWidth(indentSpec.getIndentCharacter()) > 0) {
-      int firstNonEmptyLineIndex = lines.indexOf(linesWithoutBlank.head());
-      assert firstNonEmptyLineIndex >= 0 : "Non-empty line not found";
-      throw new BranchLayoutException(firstNonEmptyLineIndex + 1,
-          "The initial line of branch layout file (${path.toAbsolutePath()}) must not be indented");
-    }
-
-    Array<Tuple2<Integer, Integer>> lineIndexToIndentLevelAndParentLineIndex = Array.fill(linesWithoutBlank.size(),
-        new Tuple2<>(-1, -1));
-    Array<Integer> levelToPresentParent = Array.fill(linesWithoutBlank.size(), -1);
+    java.util.List<IBranchLayoutEntry> roots = new ArrayList<>();
+    java.util.List<PendingEntry> stack = new ArrayList<>();
+    char indentCharacter = indentSpec.getIndentCharacter();
 
-    int previousLevel = 0;
-    int lineIndex = 0;
-    for (int realLineNumber = 0; realLineNumber < lines.length(); ++realLineNumber) {
-      String line = lines.get(realLineNumber);
-      if (line.trim().isEmpty()) {
+    // Converted once, so that accessing a line by its index doesn't require traversing the list.
+    String[] lineArray = lines.toJavaArray(String[]::new);
+    boolean isFirstNonBlankLine = true;
+    for (int realLineNumber = 0; realLineNumber < lineArray.length; ++realLineNumber) {
+      String line = lineArray[realLineNumber];
+      if (isBlank(line)) {
         // Can't use lambda because `realLineNumber` is not effectively final
         LOG.debug("Line no ${realLineNumber + 1} is blank. Skipping");
         continue;
       }
 
-      if (!line.hasProperIndentationCharacter(indentSpec.getIndentCharacter())) {
+      int lineIndentWidth = line.getIndentWidth(indentCharacter);
+      if (isFirstNonBlankLine) {
+        if (lineIndentWidth > 0) {
+          throw new BranchLayoutException(realLineNumber + 1,
+              "The initial line of branch layout file (${path.toAbsolutePath()}) must not be indented");
+        }
+        isFirstNonBlankLine = false;
+      }
+
+      if (!line.hasProperIndentationCharacter(indentCharacter)) {
         LOG.error("Line no ${realLineNumber + 1} has unexpected indentation character inconsistent with previous one");
         throw new BranchLayoutException(realLineNumber + 1,
             "Line no ${realLineNumber + 1} in branch layout file (${path.toAbsolutePath()}) has unexpected indentation "
                 + "character inconsistent with previous one");
       }
 
-      int lineIndentWidth = line.getIndentWidth(indentSpec.getIndentCharacter());
       int level = getIndentLevel(path, indentSpec, line, lineIndentWidth, realLineNumber);
 
-      if (level - previousLevel > 1) {
+      // The stack holds exactly one entry per level up to the previous line's level.
+      if (level > stack.size()) {
         throw new BranchLayoutException(realLineNumber + 1,
             "One of branches in branch layout file (${path.toAbsolutePath()}) has incorrect level in relation to its parent branch");
       }
 
-      @SuppressWarnings("index:argument") Integer parentLineIndex = level <= 0
-          ? -1
-          : levelToPresentParent.get(level - 1);
-      Tuple2<Integer, Integer> levelAndParentLineIndex = new Tuple2<>(level, parentLineIndex);
+      popEntriesDownToLevel(stack, level, roots);
+      stack.add(new PendingEntry(line));
+    }
+    popEntriesDownToLevel(stack, /* level */ 0, roots);
+
+    return List.ofAll(roots);
+  }
+
+  private void popEntriesDownToLevel(java.util.List<PendingEntry> stack, @NonNegative int level,
+      java.util.List<IBranchLayoutEntry> roots) {
+    while (stack.size() > level) {
+      val pendingEntry = stack.remove(stack.size() - 1);
+      val entry = createEntry(pendingEntry.line, List.ofAll(pendingEntry.children));
+      if (stack.isEmpty()) {
+        roots.add(entry);
+      } else {
+        stack.get(stack.size() - 1).children.add(entry);
+      }
+    }
+  }
+
+  /**
+   * Equivalent to {@code line.trim().isEmpty()}, but without creating the trimmed string for each line.
+   */
+  private static boolean isBlank(String line) {
+    for (int i = 0; i < line.length(); i++) {
+      if (line.charAt(i) > ' ') {
+        return false;
+      }
+    }
+    return true;
+  }
 
-      lineIndexToIndentLevelAndParentLineIndex = lineIndexToIndentLevelAndParentLineIndex.update(lineIndex,
-          levelAndParentLineIndex);
-      levelToPresentParent = levelToPresentParent.update(level, lineIndex);
+  /**
+   * Parses line to {@link BranchLayoutEntry#BranchLayoutEntry} arguments and creates an
+   * entry with the specified {@code children}.
+   */
+  private IBranchLayoutEntry createEntry(String line, List<IBranchLayoutEntry> children) {
+    LOG.debug(() -> "Entering: line = '${line}', children = ${children}");
 
-      previousLevel = level;
-      lineIndex++;
+    String trimmedLine = line.trim();
+    String branchName;
+    String customAnnotation;
+    int indexOfSpace = trimmedLine.indexOf(' ');
+    if (indexOfSpace > -1) {
+      branchName = trimmedLine.substring(0, indexOfSpace);
+      customAnnotation = trimmedLine.substring(indexOfSpace + 1).trim();
+    } else {
+      branchName = trimmedLine;
+      customAnnotation = null;
     }
 
-    return lineIndexToIndentLevelAndParentLineIndex;
+    val result = new BranchLayoutEntry(branchName, customAnnotation, children);
+    LOG.debug(() -> "Created ${result}");
+    return result;
   }
 
   private @NonNegative int getIndentLevel(Path path, IndentSpec indentSpec, String line, @NonNegative int indent,
@@ -7,7 +7,6 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 
 import io.vavr.collection.List;
-import io.vavr.collection.Stream;
 import io.vavr.control.Try;
 import lombok.CustomLog;
 import lombok.val;
@@ -30,7 +29,11 @@ public final class BranchLayoutFileUtils {
   }
 
   public static @NonNegative int getIndentWidth(String line, char indentCharacter) {
-    return Stream.ofAll(line.chars().boxed()).takeWhile(c -> c == indentCharacter).size();
+    int indentWidth = 0;
+    while (indentWidth < line.length() && line.charAt(indentWidth) == indentCharacter) {
+      indentWidth++;
+    }
+    return indentWidth;
   }
 
   public static IndentSpec deriveIndentSpec(Path path) {
@@ -77,10 +80,13 @@ public final class BranchLayoutFileUtils {
     char unexpectedIndentationCharacter = expectedIndentationCharacter == SPACE
         ? TAB
         : SPACE;
-    return Stream.ofAll(line.toCharArray())
-        .takeWhile(c -> c != expectedIndentationCharacter)
-        .headOption()
-        .map(c -> c != unexpectedIndentationCharacter)
-        .getOrElse(true);
+    // The first character that isn't the expected indentation character must not be the unexpected one
+    for (int i = 0; i < line.length(); i++) {
+      char c = line.charAt(i);
+      if (c != expectedIndentationCharacter) {
+        return c != unexpectedIndentationCharacter;
+      }
+    }
+    return true;
   }
 }
@@ -1,8 +1,12 @@
 package com.virtuslab.branchlayout.impl.readwrite;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFileAttributeView;
 
 import io.vavr.collection.List;
 import io.vavr.control.Option;
@@ -12,12 +16,21 @@ import lombok.RequiredArgsConstructor;
 import lombok.experimental.ExtensionMethod;
 import lombok.val;
 import org.checkerframework.checker.index.qual.NonNegative;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import com.virtuslab.branchlayout.api.BranchLayoutException;
 import com.virtuslab.branchlayout.api.IBranchLayout;
 import com.virtuslab.branchlayout.api.IBranchLayoutEntry;
 import com.virtuslab.branchlayout.api.readwrite.IBranchLayoutWriter;
 
+/**
+ * The file is written only if its content is to change at all, which spares the VFS event
+ * (and hence the repository refresh) that each rewrite of the file would trigger otherwise.
+ * The new content is first written under a temporary name and then atomically moved into place,
+ * so that a concurrent reader (like the repository update) never sees a partially written file.
+ * If the file is a symlink, it's the link target that gets replaced (and the link itself is preserved),
+ * and the POSIX permissions (and group) of the replaced file carry over to the new one.
+ */
 @ExtensionMethod(BranchLayoutFileUtils.class)
 @CustomLog
 @RequiredArgsConstructor
@@ -28,36 +41,106 @@ public class BranchLayoutFileWriter implements IBranchLayoutWriter {
   @SuppressWarnings("regexp") // to allow for `synchronized`
   public synchronized void write(Path path, IBranchLayout branchLayout, boolean backupOldFile) throws BranchLayoutException {
     LOG.debug(() -> "Entering: path = ${path}, branchLayout = ${branchLayout}, backupOldFile = ${backupOldFile}");
-    val indentSpec = path.deriveIndentSpec();
+    String oldContent = readFileContent(path);
+    val indentSpec = oldContent != null
+        ? List.ofAll(oldContent.lines()).deriveIndentSpec()
+        : BranchLayoutFileUtils.getDefaultSpec();
 
-    val lines = printEntriesOntoStringList(branchLayout.getRootEntries(), indentSpec, /* level */ 0);
+    val sb = new StringBuilder();
+    printEntries(sb, branchLayout.getRootEntries(), indentSpec, /* level */ 0);
+    String newContent = sb.toString();
+
+    if (newContent.equals(oldContent)) {
+      LOG.debug(() -> "Branch layout in ${path} is already up to date, skipping the write");
+      return;
+    }
 
     if (backupOldFile && Files.isRegularFile(path)) {
       Path parentDir = path.getParent();
       assert parentDir != null : "Can't get parent directory of branch layout file";
       Path backupPath = parentDir.resolve(path.getFileName() + "~");
-      Try.of(() -> Files.copy(path, backupPath, StandardCopyOption.REPLACE_EXISTING))
-          .getOrElseThrow(
-              e -> new BranchLayoutException("Unable to backup branch layout file from ${path} to ${backupPath}", e));
+      // Unless the old content couldn't be read, there's no need to copy the file.
+      @Nullable String finalOldContent = oldContent;
+      Try.run(() -> {
+        if (finalOldContent != null) {
+          writeFileAtomically(backupPath, finalOldContent);
+        } else {
+          Files.copy(path, backupPath, StandardCopyOption.REPLACE_EXISTING);
+        }
+      }).getOrElseThrow(
+          e -> new BranchLayoutException("Unable to backup branch layout file from ${path} to ${backupPath}", e));
     }
 
     LOG.debug(() -> "Writing branch layout to ${path} with indent character ASCII " +
         "code = ${indentSpec.getIndentCharacter()} and indent width = ${indentSpec.getIndentWidth()}");
-    lines.forEach(LOG::debug);
+    LOG.debug(newContent);
 
-    Try.of(() -> Files.write(path, lines))
+    Try.run(() -> writeFileAtomically(path, newContent))
         .getOrElseThrow(e -> new BranchLayoutException("Unable to write new branch layout file to ${path}", e));
   }
 
-  private List<String> printEntriesOntoStringList(
+  /**
+   * @return {@code null} if there's no such file or it can't be read
+   */
+  private static @Nullable String readFileContent(Path path) {
+    if (!Files.isRegularFile(path)) {
+      return null;
+    }
+    return Try.of(() -> Files.readString(path)).onFailure(e -> LOG.warn("Unable to read branch layout file ${path}", e))
+        .getOrNull();
+  }
+
+  private static void writeFileAtomically(Path path, String content) throws IOException {
+    Path targetPath = Files.isRegularFile(path) ? path.toRealPath() : path;
+    Path tempPath = targetPath.resolveSibling(targetPath.getFileName() + ".tmp");
+    try {
+      Files.write(tempPath, content.getBytes(StandardCharsets.UTF_8));
+      copyPosixAttributes(/* from */ targetPath, /* to */ tempPath);
+      try {
+        Files.move(tempPath, targetPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        LOG.debug(() -> "Atomic move is not supported for ${targetPath}, falling back to a regular move");
+        Files.move(tempPath, targetPath, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      // Only left behind if the write or the move failed.
+      Try.run(() -> Files.deleteIfExists(tempPath))
+          .onFailure(e -> LOG.warn("Unable to delete temporary branch layout file ${tempPath}", e));
+    }
+  }
+
+  /**
+   * Best effort: a failure to copy the attributes is logged, but doesn't stop the write.
+   */
+  private static void copyPosixAttributes(Path from, Path to) {
+    if (!Files.isRegularFile(from)) {
+      return;
+    }
+    val fromView = Files.getFileAttributeView(from, PosixFileAttributeView.class);
+    val toView = Files.getFileAttributeView(to, PosixFileAttributeView.class);
+    if (fromView == null || toView == null) {
+      // Not a POSIX file system (like on Windows).
+      return;
+    }
+    Try.run(() -> {
+      val attributes = fromView.readAttributes();
+      toView.setPermissions(attributes.permissions());
+      toView.setGroup(attributes.group());
+    }).onFailure(e -> LOG.warn("Unable to copy POSIX attributes from ${from} to ${to}", e));
+  }
+
+  /**
+   * Renders the entries (and their descendants, recursively) onto the given builder, one line per entry,
+   * each line terminated with the platform line separator (just as {@link Files#write} would do).
+   */
+  private void printEntries(
+      StringBuilder sb,
       List<IBranchLayoutEntry> entries,
       IndentSpec indentSpec,
       @NonNegative int level) {
 
-    List<String> stringList = List.empty();
+    val count = level * indentSpec.getIndentWidth();
     for (val entry : entries) {
-      val sb = new StringBuilder();
-      val count = level * indentSpec.getIndentWidth();
       for (int i = 0; i < count; i++) {
         sb.append(indentSpec.getIndentCharacter());
       }
@@ -66,10 +149,9 @@ public class BranchLayoutFileWriter implements IBranchLayoutWriter {
       if (customAnnotation.isDefined()) {
         sb.append(" ").append(customAnnotation.get());
       }
+      sb.append(System.lineSeparator());
 
-      List<String> resultForChildren = printEntriesOntoStringList(entry.getChildren(), indentSpec, level + 1);
-      stringList = stringList.append(sb.toString()).appendAll(resultForChildren);
+      printEntries(sb, entry.getChildren(), indentSpec, level + 1);
     }
-    return stringList;
   }
 }
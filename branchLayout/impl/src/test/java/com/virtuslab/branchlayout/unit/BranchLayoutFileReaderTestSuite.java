@@ -80,6 +80,30 @@ public class BranchLayoutFileReaderTestSuite {
     Assert.assertEquals(2, branchLayout.getRootEntries().size());
   }
 
+  @Test
+  @SneakyThrows
+  public void read_givenLargeFile_reads() {
+    // given
+    int[] levelsInBlock = {0, 1, 2, 2, 1, 2, 2, 1, 2, 2};
+    int lineCount = 10000;
+    List<String> linesToReturn = List.range(0, lineCount)
+        .map(i -> "  ".repeat(levelsInBlock[i % levelsInBlock.length]) + "branch-" + i);
+    BranchLayoutFileReader reader = getBranchLayoutFileReaderForLines(linesToReturn, /* indentWidth */ 2);
+
+    // when
+    BranchLayout branchLayout = reader.read(path);
+
+    // then
+    Assert.assertEquals(lineCount / levelsInBlock.length, branchLayout.getRootEntries().size());
+    val lastRoot = branchLayout.getRootEntries().last();
+    Assert.assertEquals("branch-" + (lineCount - levelsInBlock.length), lastRoot.getName());
+    Assert.assertEquals(List.of(1, 4, 7).map(i -> "branch-" + (lineCount - levelsInBlock.length + i)),
+        lastRoot.getChildren().map(e -> e.getName()));
+    Assert.assertEquals(List.of("branch-9998", "branch-9999"),
+        lastRoot.getChildren().last().getChildren().map(e -> e.getName()));
+    Assert.assertTrue(branchLayout.findEntryByName("branch-5002").isDefined());
+  }
+
   @Test
   @SneakyThrows
   public void read_givenEmptyFile_reads() {
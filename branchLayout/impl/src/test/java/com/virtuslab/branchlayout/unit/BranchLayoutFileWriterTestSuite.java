@@ -0,0 +1,147 @@
+package com.virtuslab.branchlayout.unit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeNoException;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+
+import io.vavr.collection.List;
+import lombok.SneakyThrows;
+import lombok.val;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.virtuslab.branchlayout.api.BranchLayout;
+import com.virtuslab.branchlayout.api.BranchLayoutEntry;
+import com.virtuslab.branchlayout.impl.readwrite.BranchLayoutFileWriter;
+
+public class BranchLayoutFileWriterTestSuite {
+
+  private static final String NL = System.lineSeparator();
+
+  private static final BranchLayout BRANCH_LAYOUT = new BranchLayout(List.of(
+      new BranchLayoutEntry("develop", /* customAnnotation */ null, List.of(
+          new BranchLayoutEntry("feature", /* customAnnotation */ "PR #1", List.empty())))));
+
+  @Rule
+  public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private final BranchLayoutFileWriter writer = new BranchLayoutFileWriter();
+
+  private Path path;
+  private Path backupPath;
+
+  @Before
+  public void setUp() {
+    path = temporaryFolder.getRoot().toPath().resolve("machete");
+    backupPath = temporaryFolder.getRoot().toPath().resolve("machete~");
+  }
+
+  @Test
+  @SneakyThrows
+  public void write_givenNoFile_writesIt() {
+    // when
+    writer.write(path, BRANCH_LAYOUT, /* backupOldFile */ true);
+
+    // then
+    assertEquals("develop" + NL + "  feature PR #1" + NL, Files.readString(path));
+    assertFalse(Files.exists(backupPath));
+    assertEquals(List.of(path), List.ofAll(Files.list(temporaryFolder.getRoot().toPath())));
+  }
+
+  @Test
+  @SneakyThrows
+  public void write_givenUnchangedLayout_skipsWrite() {
+    // given
+    Files.writeString(path, "develop" + NL + "  feature PR #1" + NL);
+    val lastModifiedTime = FileTime.fromMillis(1_000_000_000_000L);
+    Files.setLastModifiedTime(path, lastModifiedTime);
+
+    // when
+    writer.write(path, BRANCH_LAYOUT, /* backupOldFile */ true);
+
+    // then
+    assertEquals(lastModifiedTime, Files.getLastModifiedTime(path));
+    assertFalse(Files.exists(backupPath));
+  }
+
+  @Test
+  @SneakyThrows
+  public void write_givenChangedLayout_replacesFileKeepingItsIndentAndBacksUpOldOne() {
+    // given
+    val oldContent = "develop" + NL + "\tfeature" + NL + "\tbugfix" + NL;
+    Files.writeString(path, oldContent);
+
+    // when
+    writer.write(path, BRANCH_LAYOUT, /* backupOldFile */ true);
+
+    // then
+    assertEquals("develop" + NL + "\tfeature PR #1" + NL, Files.readString(path));
+    assertEquals(oldContent, Files.readString(backupPath));
+    // No temporary file is left behind.
+    assertEquals(List.of(backupPath, path).map(Path::toString).sorted(),
+        List.ofAll(Files.list(temporaryFolder.getRoot().toPath())).map(Path::toString).sorted());
+  }
+
+  @Test
+  @SneakyThrows
+  public void write_givenChangedLayoutAndNoBackupRequested_doesNotBackUpOldFile() {
+    // given
+    Files.writeString(path, "develop" + NL);
+
+    // when
+    writer.write(path, BRANCH_LAYOUT, /* backupOldFile */ false);
+
+    // then
+    assertEquals("develop" + NL + "  feature PR #1" + NL, Files.readString(path));
+    assertFalse(Files.exists(backupPath));
+  }
+
+  @Test
+  @SneakyThrows
+  public void write_givenSymlink_replacesLinkTargetAndPreservesLink() {
+    // given
+    val targetPath = temporaryFolder.newFolder("shared").toPath().resolve("machete");
+    Files.writeString(targetPath, "develop" + NL);
+    try {
+      Files.createSymbolicLink(path, targetPath);
+    } catch (UnsupportedOperationException | IOException e) {
+      assumeNoException("Symbolic links are not supported here", e);
+    }
+
+    // when
+    writer.write(path, BRANCH_LAYOUT, /* backupOldFile */ false);
+
+    // then
+    assertTrue(Files.isSymbolicLink(path));
+    assertEquals("develop" + NL + "  feature PR #1" + NL, Files.readString(targetPath));
+    assertEquals(List.of(targetPath), List.ofAll(Files.list(targetPath.getParent())));
+  }
+
+  @Test
+  @SneakyThrows
+  public void write_givenFileWithPosixPermissions_preservesThem() {
+    // given
+    Files.writeString(path, "develop" + NL);
+    assumeTrue("POSIX file attributes are not supported here",
+        Files.getFileAttributeView(path, PosixFileAttributeView.class) != null);
+    val permissions = PosixFilePermissions.fromString("rw-rw----");
+    Files.setPosixFilePermissions(path, permissions);
+
+    // when
+    writer.write(path, BRANCH_LAYOUT, /* backupOldFile */ false);
+
+    // then
+    assertEquals(permissions, Files.getPosixFilePermissions(path));
+  }
+}
@@ -1,14 +1,19 @@
 package com.virtuslab.branchlayout.unit;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
 
+import io.vavr.collection.HashSet;
 import io.vavr.collection.List;
+import lombok.SneakyThrows;
 import lombok.val;
 import org.junit.Assert;
 import org.junit.Test;
 
 import com.virtuslab.branchlayout.api.BranchLayout;
 import com.virtuslab.branchlayout.api.BranchLayoutEntry;
+import com.virtuslab.branchlayout.api.EntryIsDescendantOfException;
 import com.virtuslab.branchlayout.api.IBranchLayout;
 import com.virtuslab.branchlayout.api.IBranchLayoutEntry;
 
@@ -190,4 +195,84 @@ public class BranchLayoutTestSuite {
     // then no exception thrown
     Assert.assertTrue(result.getRootEntries().isEmpty());
   }
+
+  @Test
+  public void withBranchSlideOut_givenMultipleBranches_slidesOutAll() {
+    // given
+    /*-
+            root                           root
+              parent0      slide out         child0
+                child0      ----->         child1
+              parent1
+            child1
+    */
+
+    val child0 = new BranchLayoutEntry("child0", /* customAnnotation */ null, List.empty());
+    val parent0 = new BranchLayoutEntry("parent0", /* customAnnotation */ null, List.of(child0));
+    val parent1 = new BranchLayoutEntry("parent1", /* customAnnotation */ null, List.empty());
+    val root = new BranchLayoutEntry("root", /* customAnnotation */ null, List.of(parent0, parent1));
+    val child1 = new BranchLayoutEntry("child1", /* customAnnotation */ null, List.empty());
+    val branchLayout = new BranchLayout(List.of(root, child1));
+
+    // when
+    IBranchLayout result = branchLayout.slideOut(HashSet.of("parent0", "parent1"));
+
+    // then
+    assertEquals(List.of("root", "child1"), result.getRootEntries().map(e -> e.getName()));
+    assertEquals(List.of("child0"), result.getRootEntries().get(0).getChildren().map(e -> e.getName()));
+    Assert.assertTrue(result.findEntryByName("parent0").isEmpty());
+    Assert.assertTrue(result.findEntryByName("child0").isDefined());
+  }
+
+  @Test
+  @SneakyThrows
+  public void withBranchSlideIn_givenExistingBranch_movesItAndSharesUntouchedEntries() {
+    // given
+    /*-
+            root0                                root0
+              branch        slide in under         other
+                child        root1 ----->        root1
+              other                                branch
+            root1                                    child
+            root2                                root2
+    */
+
+    val child = new BranchLayoutEntry("child", /* customAnnotation */ null, List.empty());
+    val branch = new BranchLayoutEntry("branch", /* customAnnotation */ null, List.of(child));
+    val other = new BranchLayoutEntry("other", /* customAnnotation */ null, List.empty());
+    val root0 = new BranchLayoutEntry("root0", /* customAnnotation */ null, List.of(branch, other));
+    val root1 = new BranchLayoutEntry("root1", /* customAnnotation */ null, List.empty());
+    val root2 = new BranchLayoutEntry("root2", /* customAnnotation */ null, List.empty());
+    val branchLayout = new BranchLayout(List.of(root0, root1, root2));
+
+    // when
+    IBranchLayout result = branchLayout.slideIn("root1", branch);
+
+    // then
+    val rootEntries = result.getRootEntries();
+    assertEquals(List.of("root0", "root1", "root2"), rootEntries.map(e -> e.getName()));
+    assertEquals(List.of("other"), rootEntries.get(0).getChildren().map(e -> e.getName()));
+    assertEquals(List.of("branch"), rootEntries.get(1).getChildren().map(e -> e.getName()));
+    assertSame(branch, rootEntries.get(1).getChildren().get(0));
+    assertSame(other, rootEntries.get(0).getChildren().get(0));
+    assertSame(root2, rootEntries.get(2));
+    assertSame(rootEntries.get(1), result.findEntryByName("root1").get());
+    assertSame(child, result.findEntryByName("child").get());
+
+    // and the index of the result is usable for subsequent mutations
+    IBranchLayout nextResult = result.slideOut("root1");
+    assertEquals(List.of("root0", "branch", "root2"), nextResult.getRootEntries().map(e -> e.getName()));
+  }
+
+  @Test
+  public void withBranchSlideIn_givenParentBeingDescendantOfBranch_throwsException() {
+    // given
+    val child = new BranchLayoutEntry("child", /* customAnnotation */ null, List.empty());
+    val branch = new BranchLayoutEntry("branch", /* customAnnotation */ null, List.of(child));
+    val root = new BranchLayoutEntry("root", /* customAnnotation */ null, List.of(branch));
+    val branchLayout = new BranchLayout(List.of(root));
+
+    // when & then
+    assertThrows(EntryIsDescendantOfException.class, () -> branchLayout.slideIn("child", branch));
+  }
 }
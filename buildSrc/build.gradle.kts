@@ -52,6 +52,7 @@ dependencies {
   implementation(libs.pluginPackages.grgit)
   implementation(libs.pluginPackages.jetbrains.intellij)
   implementation(libs.pluginPackages.jetbrains.kotlin)
+  implementation(libs.pluginPackages.jmh)
   implementation(libs.pluginPackages.spotless)
   testImplementation(libs.junit)
 }
@@ -1,6 +1,8 @@
 package com.virtuslab.gitmachete.buildsrc
 
 import io.freefair.gradle.plugins.aspectj.AspectJPlugin
+import me.champeau.jmh.JMHPlugin
+import me.champeau.jmh.JmhParameters
 import org.checkerframework.gradle.plugin.CheckerFrameworkExtension
 import org.gradle.api.JavaVersion
 import org.gradle.api.Project
@@ -10,6 +12,7 @@ import org.gradle.api.artifacts.MinimalExternalModuleDependency
 import org.gradle.api.artifacts.VersionCatalog
 import org.gradle.api.artifacts.VersionCatalogsExtension
 import org.gradle.api.provider.Provider
+import org.gradle.api.tasks.compile.JavaCompile
 import org.gradle.kotlin.dsl.*
 import org.jetbrains.intellij.IntelliJPlugin
 import org.jetbrains.intellij.IntelliJPluginExtension
@@ -129,6 +132,44 @@ fun Project.jgit() {
   }
 }
 
+fun Project.jmh() {
+  apply<JMHPlugin>()
+
+  configure<JmhParameters> {
+    jmhVersion.set(versionCatalog().findVersion("jmh").get().requiredVersion)
+    // Kept low so that the whole suite completes within minutes; pass e.g. `-PjmhIncludes=Snapshot` to run a subset.
+    fork.set(1)
+    warmupIterations.set(3)
+    warmup.set("1s")
+    iterations.set(5)
+    timeOnIteration.set("1s")
+    if (project.properties["jmhIncludes"] != null) {
+      includes.set(listOf(project.properties["jmhIncludes"] as String))
+    }
+    // Per-operation allocation rate (`gc.alloc.rate.norm`) is reported alongside the timings.
+    profilers.set(listOf("gc"))
+    resultFormat.set("JSON")
+    resultsFile.set(project.file("build/reports/jmh/results.json"))
+  }
+
+  configure<CheckerFrameworkExtension> {
+    // The code generated by JMH annotation processor is not meant to be checked.
+    extraJavacArgs.add("-AskipDefs=\\.jmh_generated\\.")
+  }
+
+  // The generated code is compiled by a separate task, and it doesn't need to be warning-free either.
+  tasks.withType<JavaCompile>().matching { it.name == "jmhCompileGeneratedClasses" }.configureEach {
+    options.compilerArgs.remove("-Werror")
+  }
+
+  dependencies {
+    val lombok = lib("lombok")
+    "jmhCompileOnly"(lombok)
+    "jmhAnnotationProcessor"(lombok)
+    "jmhAnnotationProcessor"(lib("betterStrings"))
+  }
+}
+
 fun Project.junit() {
   dependencies {
     "testImplementation"(lib("junit"))
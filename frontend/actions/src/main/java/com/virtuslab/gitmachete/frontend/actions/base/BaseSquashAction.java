@@ -1,5 +1,6 @@
 package com.virtuslab.gitmachete.frontend.actions.base;
 
+import static com.intellij.openapi.application.ModalityState.NON_MODAL;
 import static com.virtuslab.gitmachete.backend.api.SyncToParentStatus.InSyncButForkPointOff;
 import static com.virtuslab.gitmachete.frontend.resourcebundles.GitMacheteBundle.getNonHtmlString;
 import static com.virtuslab.gitmachete.frontend.resourcebundles.GitMacheteBundle.getString;
@@ -11,6 +12,7 @@ import com.intellij.openapi.progress.ProgressIndicator;
 import com.intellij.openapi.progress.Task;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.vcs.VcsNotifier;
+import com.intellij.util.ModalityUiUtil;
 import com.intellij.vcs.log.VcsCommitMetadata;
 import git4idea.rebase.log.GitCommitEditingOperationResult;
 import git4idea.rebase.log.squash.GitSquashOperation;
@@ -25,7 +27,9 @@ import lombok.experimental.ExtensionMethod;
 import lombok.val;
 import org.checkerframework.checker.guieffect.qual.UIEffect;
 
+import com.virtuslab.gitmachete.backend.api.GitMacheteException;
 import com.virtuslab.gitmachete.backend.api.ICommitOfManagedBranch;
+import com.virtuslab.gitmachete.backend.api.INonRootManagedBranchSnapshot;
 import com.virtuslab.gitmachete.frontend.actions.common.VcsCommitMetadataAdapterForSquash;
 import com.virtuslab.gitmachete.frontend.actions.contextmenu.CheckoutSelectedAction;
 import com.virtuslab.gitmachete.frontend.actions.dialogs.GitNewCommitMessageActionDialog;
@@ -57,7 +61,7 @@ public abstract class BaseSquashAction extends BaseGitMacheteRepositoryReadyActi
     val nonRootBranchOption = branchNameOption.flatMap(bn -> getManagedBranchByName(anActionEvent, bn))
         .flatMap(b -> b.isNonRoot() ? Option.of(b.asNonRoot()) : Option.none());
     val syncToParentStatus = nonRootBranchOption.map(b -> b.getSyncToParentStatus()).getOrNull();
-    val numberOfCommits = nonRootBranchOption.map(b -> b.getCommits().length()).getOrNull();
+    val numberOfCommits = nonRootBranchOption.map(b -> b.getCommitCount()).getOrNull();
 
     val branchName = branchNameOption.getOrNull();
     if (branchName != null && nonRootBranchOption.isEmpty()) {
@@ -107,10 +111,44 @@ public abstract class BaseSquashAction extends BaseGitMacheteRepositoryReadyActi
         && syncToParentStatus != InSyncButForkPointOff) {
       val isSquashingCurrentBranch = Option.of(gitRepository.getCurrentBranch()).map(b -> b.getName())
           .flatMap(cbn -> branchNameOption.map(bn -> bn.equals(cbn))).getOrElse(false);
-      doSquash(project, gitRepository, parent, commits, branchName, isSquashingCurrentBranch);
+      val nonRootBranch = nonRootBranchOption.get();
+      if (nonRootBranch.hasMoreCommits()) {
+        // Only the first page of commits is provided by the snapshot, but all the commits of the branch need to be squashed.
+        loadAllCommitsAndSquash(project, gitRepository, parent, nonRootBranch, isSquashingCurrentBranch);
+      } else {
+        doSquash(project, gitRepository, parent, commits, branchName, isSquashingCurrentBranch);
+      }
     }
   }
 
+  @UIEffect
+  private void loadAllCommitsAndSquash(Project project,
+      GitRepository gitRepository,
+      ICommitOfManagedBranch parent,
+      INonRootManagedBranchSnapshot branch,
+      boolean isSquashingCurrentBranch) {
+    new Task.Backgroundable(project, getString("action.GitMachete.BaseSquashAction.task-title.loading-commits")) {
+      @Override
+      @UIThreadUnsafe
+      public void run(ProgressIndicator indicator) {
+        List<ICommitOfManagedBranch> allCommits;
+        try {
+          // The snapshot stays intact, so the (possibly numerous) commits are only held for the squash itself.
+          allCommits = branch.loadCommits(/* skipCount */ 0, /* maxCount */ branch.getCommitCount());
+        } catch (GitMacheteException e) {
+          LOG.warn("Unable to load all commits of branch '${branch.getName()}'", e);
+          String exceptionMessage = e.getMessage();
+          VcsNotifier.getInstance(project).notifyError(/* displayId */ null,
+              getString("action.GitMachete.BaseSquashAction.notification.title.loading-commits-failed"),
+              exceptionMessage != null ? exceptionMessage : "");
+          return;
+        }
+        ModalityUiUtil.invokeLaterIfNeeded(NON_MODAL,
+            () -> doSquash(project, gitRepository, parent, allCommits, branch.getName(), isSquashingCurrentBranch));
+      }
+    }.queue();
+  }
+
   @Data
   // So that Interning Checker doesn't complain about enum comparison (by `equals` and not by `==`) in Lombok-generated `equals`
   @SuppressWarnings("interning:not.interned")
@@ -30,7 +30,7 @@ public class SquashCurrentAction extends BaseSquashAction {
     val nonRootBranchOption = branchNameOption.flatMap(bn -> getManagedBranchByName(anActionEvent, bn))
         .flatMap(b -> b.isNonRoot() ? Option.of(b.asNonRoot()) : Option.none());
     val syncToParentStatus = nonRootBranchOption.map(b -> b.getSyncToParentStatus()).getOrNull();
-    val numberOfCommits = nonRootBranchOption.map(b -> b.getCommits().length()).getOrNull();
+    val numberOfCommits = nonRootBranchOption.map(b -> b.getCommitCount()).getOrNull();
 
     val branchName = branchNameOption.getOrNull();
     if (branchName != null && nonRootBranchOption.isEmpty()) {
@@ -46,7 +46,7 @@ public class ToggleListingCommitsAction extends BaseGitMacheteRepositoryReadyAct
 
     boolean anyCommitExists = getGitMacheteRepositorySnapshot(anActionEvent)
         .map(repo -> repo.getManagedBranches()
-            .exists(b -> b.isNonRoot() && b.asNonRoot().getCommits().nonEmpty()))
+            .exists(b -> b.isNonRoot() && b.asNonRoot().getCommitCount() > 0))
         .getOrElse(false);
 
     if (anyCommitExists) {
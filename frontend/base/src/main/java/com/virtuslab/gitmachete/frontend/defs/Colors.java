@@ -14,6 +14,8 @@ public final class Colors {
   private static final Color GREEN_COLOR = Color.decode("#008000");
   private static final Color GRAY_COLOR = Color.decode("#BBBBBB");
   private static final Color DARK_GREY_COLOR = Color.decode("#888888");
+  private static final Color LIGHT_GRAY_COLOR = Color.decode("#DDDDDD");
+  private static final Color DARKER_GRAY_COLOR = Color.decode("#555555");
   private static final Color TRANSPARENT_COLOR = new Color(0, 0, 0, /* alpha */ 0);
 
   /**
@@ -25,5 +27,6 @@ public final class Colors {
   public static final JBColor YELLOW = new JBColor(YELLOW_COLOR, YELLOW_COLOR);
   public static final JBColor GREEN = new JBColor(GREEN_COLOR, GREEN_COLOR);
   public static final JBColor GRAY = new JBColor(DARK_GREY_COLOR, GRAY_COLOR);
+  public static final JBColor LIGHT_GRAY = new JBColor(LIGHT_GRAY_COLOR, DARKER_GRAY_COLOR);
   public static final JBColor TRANSPARENT = new JBColor(TRANSPARENT_COLOR, TRANSPARENT_COLOR);
 }
@@ -1,5 +1,7 @@
 package com.virtuslab.gitmachete.frontend.graph.api.items;
 
 public enum GraphItemColor {
-  TRANSPARENT, GRAY, YELLOW, RED, GREEN
+  TRANSPARENT, GRAY, YELLOW, RED, GREEN,
+  /** For the items of a skeleton snapshot, whose statuses are still pending. */
+  LIGHT_GRAY
 }
@@ -0,0 +1,32 @@
+package com.virtuslab.gitmachete.frontend.graph.api.items;
+
+import io.vavr.NotImplementedError;
+
+import com.virtuslab.gitmachete.backend.api.INonRootManagedBranchSnapshot;
+
+/**
+ * Stands in (above the oldest listed commit of a branch) for the commits of the branch that haven't been loaded yet,
+ * see {@link INonRootManagedBranchSnapshot#hasMoreCommits}.
+ * Neither a branch item nor a commit item, hence must be checked for (with {@code instanceof}) before
+ * {@link IGraphItem#asCommitItem} is called on a non-branch item.
+ */
+public interface ILoadMoreCommitsItem extends IGraphItem {
+  // These methods need to be implemented in frontendGraphApi (as opposed to an implementation subproject)
+  // to avoid problems with Subtyping Checker.
+  @Override
+  default boolean isBranchItem() {
+    return false;
+  }
+
+  @Override
+  default IBranchItem asBranchItem() {
+    throw new NotImplementedError();
+  }
+
+  @Override
+  default ICommitItem asCommitItem() {
+    throw new NotImplementedError();
+  }
+
+  INonRootManagedBranchSnapshot getContainingBranch();
+}
@@ -1,10 +1,27 @@
 package com.virtuslab.gitmachete.frontend.graph.api.repository;
 
+import io.vavr.collection.List;
 import org.checkerframework.checker.guieffect.qual.UIEffect;
 
+import com.virtuslab.gitmachete.backend.api.ICommitOfManagedBranch;
 import com.virtuslab.gitmachete.backend.api.IGitMacheteRepositorySnapshot;
+import com.virtuslab.gitmachete.backend.api.INonRootManagedBranchSnapshot;
 
 public interface IRepositoryGraphCache {
   @UIEffect
   IRepositoryGraph getRepositoryGraph(IGitMacheteRepositorySnapshot givenRepositorySnapshot, boolean isListingCommits);
+
+  /**
+   * @return the commits of the branch listed in the graph: the ones provided by the snapshot
+   *         (see {@link INonRootManagedBranchSnapshot#getCommits}) followed by the ones added with {@link #addLoadedCommits}
+   */
+  @UIEffect
+  List<ICommitOfManagedBranch> getListedCommits(INonRootManagedBranchSnapshot branch);
+
+  /**
+   * @param skipCount the number of the listed commits of the branch that the given commits follow;
+   *                  if it doesn't match (e.g. the very same commits have already been added), the commits are ignored
+   */
+  @UIEffect
+  void addLoadedCommits(INonRootManagedBranchSnapshot branch, int skipCount, List<ICommitOfManagedBranch> commits);
 }
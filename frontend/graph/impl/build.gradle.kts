@@ -1,4 +1,5 @@
 import com.virtuslab.gitmachete.buildsrc.*
+import me.champeau.jmh.JmhParameters
 
 dependencies {
   api(project(":frontend:graph:api"))
@@ -8,8 +9,25 @@ dependencies {
 }
 
 addIntellijToCompileClasspath(withGit4Idea = false)
+jmh()
+junit()
 lombok()
+powerMock()
 slf4jLambdaApi()
 vavr()
 
 applySubtypingChecker()
+
+// The configurations of `jmh` source set only exist once `jmh()` has been applied.
+configurations["jmhImplementation"].extendsFrom(configurations["testImplementation"]) // for IntelliJ classes at runtime
+dependencies {
+  "jmhImplementation"(project(":backend:api"))
+  "jmhImplementation"(project(":frontend:base"))
+  // For the branches and commits of the demo snapshot, which the synthetic snapshots are built of.
+  "jmhImplementation"(project(":frontend:ui:impl"))
+}
+
+configure<JmhParameters> {
+  // The graph is painted onto in-memory images only, no display is needed.
+  jvmArgsAppend.add("-Djava.awt.headless=true")
+}
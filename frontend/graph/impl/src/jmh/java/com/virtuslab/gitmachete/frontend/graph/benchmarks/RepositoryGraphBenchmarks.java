@@ -0,0 +1,84 @@
+package com.virtuslab.gitmachete.frontend.graph.benchmarks;
+
+import java.awt.Graphics2D;
+import java.util.concurrent.TimeUnit;
+
+import io.vavr.collection.List;
+import org.checkerframework.checker.guieffect.qual.UIEffect;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+
+import com.virtuslab.gitmachete.frontend.graph.api.render.parts.IRenderPart;
+import com.virtuslab.gitmachete.frontend.graph.impl.render.RenderPartGenerator;
+import com.virtuslab.gitmachete.frontend.graph.impl.repository.RepositoryGraph;
+import com.virtuslab.gitmachete.frontend.graph.impl.repository.RepositoryGraphBuilder;
+
+/**
+ * Each stage of the pipeline that turns a snapshot into the graph column of the table:
+ * {@link RepositoryGraphBuilder} (once per snapshot), then {@link RenderPartGenerator}
+ * and {@link com.virtuslab.gitmachete.frontend.graph.impl.paint.GraphCellPainter} (once per row).
+ * The per-row benchmarks measure a single row per invocation, going through all the rows of the graph in turn.
+ * <p>
+ * Run with {@code ./gradlew :frontend:graph:impl:jmh}; the results end up in
+ * {@code frontend/graph/impl/build/reports/jmh/results.json}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RepositoryGraphBenchmarks {
+
+  @Benchmark
+  public RepositoryGraph buildGraph(SyntheticSnapshotState state) {
+    return new RepositoryGraphBuilder().repositorySnapshot(state.snapshot).build();
+  }
+
+  @Benchmark
+  public RepositoryGraph buildGraphWithoutCommits(SyntheticSnapshotState state) {
+    return new RepositoryGraphBuilder().repositorySnapshot(state.snapshot)
+        .branchGetCommitsStrategy(RepositoryGraphBuilder.EMPTY_GET_COMMITS).build();
+  }
+
+  @Benchmark
+  public RepositoryGraph buildGraphReusingPreviousGraph(SyntheticSnapshotState state) {
+    return new RepositoryGraphBuilder().repositorySnapshot(state.snapshot)
+        .previousRepositoryGraph(state.previousRepositoryGraph).build();
+  }
+
+  /**
+   * Bypasses the render parts cached in {@link RepositoryGraph}, to measure the cost of the first repaint of a row.
+   */
+  @Benchmark
+  public List<? extends IRenderPart> generateRenderPartsOfRow(SyntheticSnapshotState state) {
+    return new RenderPartGenerator(state.repositoryGraph).getRenderParts(state.advanceRowIndex());
+  }
+
+  /**
+   * The render parts are cached by the graph after the first pass over the rows,
+   * hence it's mostly the painting that's measured.
+   */
+  @Benchmark
+  @UIEffect
+  public void paintRow(SyntheticSnapshotState state) {
+    List<? extends IRenderPart> renderParts = state.repositoryGraph.getRenderParts(state.advanceRowIndex());
+    Graphics2D g2 = state.graphImage.createGraphics();
+    state.graphCellPainter.draw(g2, renderParts);
+    g2.dispose();
+  }
+
+  /**
+   * Everything that happens between a new snapshot coming in and all of its rows being painted for the first time.
+   */
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  @UIEffect
+  public void buildGraphAndPaintAllRows(SyntheticSnapshotState state) {
+    RepositoryGraph repositoryGraph = new RepositoryGraphBuilder().repositorySnapshot(state.snapshot)
+        .previousRepositoryGraph(state.previousRepositoryGraph).build();
+    for (int rowIndex = 0; rowIndex < repositoryGraph.getNodesCount(); rowIndex++) {
+      Graphics2D g2 = state.graphImage.createGraphics();
+      state.graphCellPainter.draw(g2, repositoryGraph.getRenderParts(rowIndex));
+      g2.dispose();
+    }
+  }
+}
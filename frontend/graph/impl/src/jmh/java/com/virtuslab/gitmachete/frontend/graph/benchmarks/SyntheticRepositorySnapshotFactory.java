@@ -0,0 +1,105 @@
+package com.virtuslab.gitmachete.frontend.graph.benchmarks;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.vavr.collection.List;
+import lombok.val;
+
+import com.virtuslab.gitmachete.backend.api.ICommitOfManagedBranch;
+import com.virtuslab.gitmachete.backend.api.IGitMacheteRepositorySnapshot;
+import com.virtuslab.gitmachete.backend.api.INonRootManagedBranchSnapshot;
+import com.virtuslab.gitmachete.backend.api.RelationToRemote;
+import com.virtuslab.gitmachete.backend.api.SyncToParentStatus;
+import com.virtuslab.gitmachete.backend.api.SyncToRemoteStatus;
+import com.virtuslab.gitmachete.frontend.ui.impl.table.DemoGitMacheteRepositorySnapshot;
+import com.virtuslab.gitmachete.frontend.ui.impl.table.DemoGitMacheteRepositorySnapshot.Commit;
+import com.virtuslab.gitmachete.frontend.ui.impl.table.DemoGitMacheteRepositorySnapshot.NonRoot;
+import com.virtuslab.gitmachete.frontend.ui.impl.table.DemoGitMacheteRepositorySnapshot.Root;
+
+/**
+ * Creates a snapshot (out of the branches and commits of {@link DemoGitMacheteRepositorySnapshot}) with a single root
+ * branch and {@code width} stacks of {@code depth} branches each (every branch of a stack being a child of the previous one),
+ * with {@code commitsPerBranch} commits per non-root branch.
+ * <p>
+ * The statuses (both to the parent and to the remote) cycle through all the possible values, and every fifth branch
+ * with any commits has more commits to load, so that all the kinds of graph items and edge colors show up in the graph.
+ */
+final class SyntheticRepositorySnapshotFactory {
+
+  private static final SyncToParentStatus[] SYNC_TO_PARENT_STATUSES = SyncToParentStatus.values();
+  private static final SyncToRemoteStatus[] SYNC_TO_REMOTE_STATUSES = SyncToRemoteStatus.values();
+
+  private SyntheticRepositorySnapshotFactory() {}
+
+  static IGitMacheteRepositorySnapshot create(int width, int depth, int commitsPerBranch) {
+    val commitNumbers = new AtomicInteger();
+    java.util.List<NonRoot> stackBottoms = new java.util.ArrayList<>();
+    NonRoot firstStackTop = null;
+    int branchIndex = 0;
+    for (int stackIndex = 0; stackIndex < width; stackIndex++) {
+      // The stack is built from its top, as each branch needs to know its children upfront.
+      NonRoot child = null;
+      for (int level = depth - 1; level >= 0; level--) {
+        branchIndex++;
+        val commits = createCommits(commitNumbers, commitsPerBranch);
+        val name = "stack-${stackIndex}/branch-${level}";
+        val branch = new NonRoot(name,
+            /* fullName */ "refs/heads/" + name,
+            /* customAnnotation */ null,
+            createCommit(commitNumbers),
+            /* forkPoint */ null,
+            relationToRemoteFor(branchIndex),
+            child != null ? List.of(child) : List.empty(),
+            commits,
+            /* commitCount */ commits.size() + (commits.nonEmpty() && branchIndex % 5 == 0 ? commitsPerBranch : 0),
+            SYNC_TO_PARENT_STATUSES[branchIndex % SYNC_TO_PARENT_STATUSES.length]);
+        if (child != null) {
+          child.setParent(branch);
+        }
+        if (firstStackTop == null) {
+          firstStackTop = branch;
+        }
+        child = branch;
+      }
+      if (child != null) {
+        stackBottoms.add(child);
+      }
+    }
+
+    val root = new Root(/* name */ "master",
+        /* fullName */ "refs/heads/master",
+        /* customAnnotation */ null,
+        createCommit(commitNumbers),
+        relationToRemoteFor(0),
+        List.<INonRootManagedBranchSnapshot>ofAll(stackBottoms));
+    for (val stackBottom : stackBottoms) {
+      stackBottom.setParent(root);
+    }
+    // The top of the first stack, so that the current branch is neither the first nor the last row of the graph.
+    return new DemoGitMacheteRepositorySnapshot(List.of(root), firstStackTop != null ? firstStackTop : root);
+  }
+
+  private static RelationToRemote relationToRemoteFor(int branchIndex) {
+    val syncToRemoteStatus = SYNC_TO_REMOTE_STATUSES[branchIndex % SYNC_TO_REMOTE_STATUSES.length];
+    return syncToRemoteStatus == SyncToRemoteStatus.NoRemotes || syncToRemoteStatus == SyncToRemoteStatus.Untracked
+        ? RelationToRemote.of(syncToRemoteStatus, /* remoteName */ null)
+        : RelationToRemote.of(syncToRemoteStatus, "origin");
+  }
+
+  /**
+   * @return the commits from the most recent one, as returned by {@link INonRootManagedBranchSnapshot#getCommits}
+   */
+  private static List<ICommitOfManagedBranch> createCommits(AtomicInteger commitNumbers, int count) {
+    List<ICommitOfManagedBranch> commits = List.empty();
+    for (int i = 0; i < count; i++) {
+      commits = commits.prepend(createCommit(commitNumbers));
+    }
+    return commits;
+  }
+
+  private static Commit createCommit(AtomicInteger commitNumbers) {
+    int number = commitNumbers.incrementAndGet();
+    String hex = Integer.toHexString(number);
+    return new Commit("Commit number ${number}", /* hash */ "0".repeat(40 - hex.length()) + hex);
+  }
+}
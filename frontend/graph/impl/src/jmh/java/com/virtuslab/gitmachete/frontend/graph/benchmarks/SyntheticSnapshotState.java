@@ -0,0 +1,74 @@
+package com.virtuslab.gitmachete.frontend.graph.benchmarks;
+
+import java.awt.image.BufferedImage;
+
+import javax.swing.JTable;
+
+import org.checkerframework.checker.guieffect.qual.UIEffect;
+import org.checkerframework.checker.index.qual.NonNegative;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.virtuslab.gitmachete.backend.api.IGitMacheteRepositorySnapshot;
+import com.virtuslab.gitmachete.frontend.graph.api.paint.PaintParameters;
+import com.virtuslab.gitmachete.frontend.graph.impl.paint.GraphCellPainter;
+import com.virtuslab.gitmachete.frontend.graph.impl.repository.RepositoryGraph;
+import com.virtuslab.gitmachete.frontend.graph.impl.repository.RepositoryGraphBuilder;
+
+/**
+ * A synthetic snapshot created once per each combination of the parameters, together with its graph
+ * and everything needed to paint the graph rows headlessly (a detached table and an image as large as the widest row).
+ */
+@State(Scope.Benchmark)
+@SuppressWarnings("nullness:initialization.fields.uninitialized") // JMH runs the @Setup method before any benchmark
+public class SyntheticSnapshotState {
+
+  @Param({"10", "100"})
+  public int width;
+
+  @Param({"1", "5"})
+  public int depth;
+
+  @Param({"0", "10"})
+  public int commitsPerBranch;
+
+  IGitMacheteRepositorySnapshot snapshot;
+  RepositoryGraph previousRepositoryGraph;
+  RepositoryGraph repositoryGraph;
+  GraphCellPainter graphCellPainter;
+  BufferedImage graphImage;
+
+  // Advanced by the per-row benchmarks, so that all the rows (with all their indent levels) get measured in turn.
+  int nextRowIndex = 0;
+
+  @Setup(Level.Trial)
+  @UIEffect
+  public void setUp() {
+    snapshot = SyntheticRepositorySnapshotFactory.create(width, depth, commitsPerBranch);
+    // An equivalent snapshot, just like the one created on a refresh of the repository with no changes in the meantime.
+    previousRepositoryGraph = new RepositoryGraphBuilder()
+        .repositorySnapshot(SyntheticRepositorySnapshotFactory.create(width, depth, commitsPerBranch)).build();
+    repositoryGraph = new RepositoryGraphBuilder().repositorySnapshot(snapshot).build();
+
+    JTable table = new JTable();
+    table.setRowHeight(PaintParameters.ROW_HEIGHT);
+    graphCellPainter = new GraphCellPainter(table);
+    // The tops of the stacks are the most indented rows, with the nodes at the position of depth - 1.
+    int maxGraphNodePositionInRow = depth - 1;
+    graphImage = new BufferedImage(
+        /* width */ PaintParameters.getNodeWidth(PaintParameters.ROW_HEIGHT) * (maxGraphNodePositionInRow + 2),
+        /* height */ PaintParameters.ROW_HEIGHT,
+        BufferedImage.TYPE_INT_ARGB);
+  }
+
+  @SuppressWarnings("lowerbound:return") // the graph is never empty, as there's always the root branch
+  @NonNegative
+  int advanceRowIndex() {
+    int rowIndex = nextRowIndex;
+    nextRowIndex = (rowIndex + 1) % repositoryGraph.getNodesCount();
+    return rowIndex;
+  }
+}
@@ -0,0 +1,47 @@
+package com.virtuslab.gitmachete.frontend.graph.impl.items;
+
+import com.intellij.ui.SimpleTextAttributes;
+import lombok.Getter;
+import org.checkerframework.checker.index.qual.NonNegative;
+import org.checkerframework.checker.index.qual.Positive;
+
+import com.virtuslab.gitmachete.backend.api.INonRootManagedBranchSnapshot;
+import com.virtuslab.gitmachete.frontend.graph.api.items.GraphItemColor;
+import com.virtuslab.gitmachete.frontend.graph.api.items.ILoadMoreCommitsItem;
+
+@Getter
+public final class LoadMoreCommitsItem extends BaseGraphItem implements ILoadMoreCommitsItem {
+
+  private final INonRootManagedBranchSnapshot containingBranch;
+
+  public LoadMoreCommitsItem(
+      INonRootManagedBranchSnapshot containingBranch,
+      GraphItemColor containingBranchGraphItemColor,
+      @NonNegative int prevSiblingItemIndex,
+      @Positive int nextSiblingItemIndex,
+      @NonNegative int indentLevel) {
+    super(containingBranchGraphItemColor, prevSiblingItemIndex, nextSiblingItemIndex, indentLevel);
+    this.containingBranch = containingBranch;
+  }
+
+  @Override
+  public SimpleTextAttributes getAttributes() {
+    return SimpleTextAttributes.LINK_PLAIN_ATTRIBUTES;
+  }
+
+  @Override
+  public String getValue() {
+    // The actual (localized) text is provided by the cell renderer.
+    return "...";
+  }
+
+  @Override
+  public boolean hasBulletPoint() {
+    return false;
+  }
+
+  @Override
+  public boolean hasChildItem() {
+    return false;
+  }
+}
@@ -15,6 +15,7 @@ import io.vavr.collection.Map;
 import lombok.RequiredArgsConstructor;
 import lombok.val;
 import org.checkerframework.checker.guieffect.qual.UIEffect;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import com.virtuslab.gitmachete.frontend.defs.Colors;
 import com.virtuslab.gitmachete.frontend.graph.api.items.GraphItemColor;
@@ -28,6 +29,9 @@ public class GraphCellPainter implements IGraphCellPainter {
 
   private final JTable table;
 
+  // Reused as long as the line thickness (derived from the row height) doesn't change, rather than allocated for each line.
+  private @Nullable BasicStroke ordinaryStroke = null;
+
   @UIEffect
   protected int getRowHeight() {
     val font = table.getFont();
@@ -42,7 +46,13 @@ public class GraphCellPainter implements IGraphCellPainter {
 
   @UIEffect
   private BasicStroke getOrdinaryStroke() {
-    return new BasicStroke(PaintParameters.getLineThickness(getRowHeight()), BasicStroke.CAP_ROUND, BasicStroke.JOIN_BEVEL);
+    float lineThickness = PaintParameters.getLineThickness(getRowHeight());
+    BasicStroke stroke = ordinaryStroke;
+    if (stroke == null || stroke.getLineWidth() != lineThickness) {
+      stroke = new BasicStroke(lineThickness, BasicStroke.CAP_ROUND, BasicStroke.JOIN_BEVEL);
+      ordinaryStroke = stroke;
+    }
+    return stroke;
   }
 
   @UIEffect
@@ -92,6 +102,7 @@ public class GraphCellPainter implements IGraphCellPainter {
 
   private static final Map<GraphItemColor, JBColor> COLORS = HashMap.of(
       GraphItemColor.GRAY, Colors.GRAY,
+      GraphItemColor.LIGHT_GRAY, Colors.LIGHT_GRAY,
       GraphItemColor.YELLOW, Colors.YELLOW,
       GraphItemColor.RED, Colors.RED,
       GraphItemColor.GREEN, Colors.GREEN);
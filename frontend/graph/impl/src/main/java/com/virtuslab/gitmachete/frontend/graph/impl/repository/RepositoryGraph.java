@@ -1,11 +1,15 @@
 package com.virtuslab.gitmachete.frontend.graph.impl.repository;
 
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
 import com.intellij.util.SmartList;
 import io.vavr.Tuple;
 import io.vavr.Tuple2;
 import io.vavr.collection.List;
 import org.checkerframework.checker.index.qual.NonNegative;
 import org.checkerframework.checker.initialization.qual.NotOnlyInitialized;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import com.virtuslab.gitmachete.frontend.graph.api.elements.GraphEdge;
 import com.virtuslab.gitmachete.frontend.graph.api.items.IGraphItem;
@@ -17,14 +21,39 @@ import com.virtuslab.gitmachete.frontend.graph.impl.render.RenderPartGenerator;
 public class RepositoryGraph implements IRepositoryGraph {
 
   private final List<IGraphItem> items;
+  // See RepositoryGraphBuilder#deriveLayoutShape.
+  private final int[] layoutShape;
   private final List<List<Integer>> positionsOfVisibleEdges;
+  private final VisibleEdgeIntervals visibleEdgeIntervals;
   @NotOnlyInitialized
   private final IRenderPartGenerator renderPartGenerator;
+  // The graph is immutable, so the render parts of each row are generated at most once, on the first repaint of the row.
+  private final AtomicReferenceArray<@Nullable List<? extends IRenderPart>> renderPartsByItemIndex;
 
-  public RepositoryGraph(List<IGraphItem> items, List<List<Integer>> positionsOfVisibleEdges) {
+  RepositoryGraph(List<IGraphItem> items, int[] layoutShape, List<List<Integer>> positionsOfVisibleEdges,
+      VisibleEdgeIntervals visibleEdgeIntervals) {
     this.items = items;
+    this.layoutShape = layoutShape;
     this.positionsOfVisibleEdges = positionsOfVisibleEdges;
+    this.visibleEdgeIntervals = visibleEdgeIntervals;
     this.renderPartGenerator = new RenderPartGenerator(/* repositoryGraph */ this);
+    this.renderPartsByItemIndex = new AtomicReferenceArray<>(items.size());
+  }
+
+  /**
+   * @return true if the given layout shape is the same as the one of this graph,
+   *         i.e. if a graph with the given shape would have the same visible edges in each row as this graph
+   */
+  boolean hasLayoutShape(int[] givenLayoutShape) {
+    return Arrays.equals(layoutShape, givenLayoutShape);
+  }
+
+  List<List<Integer>> getPositionsOfVisibleEdges() {
+    return positionsOfVisibleEdges;
+  }
+
+  VisibleEdgeIntervals getVisibleEdgeIntervals() {
+    return visibleEdgeIntervals;
   }
 
   /**
@@ -65,7 +94,12 @@ public class RepositoryGraph implements IRepositoryGraph {
   }
 
   public List<? extends IRenderPart> getRenderParts(@NonNegative int itemIndex) {
-    return renderPartGenerator.getRenderParts(itemIndex);
+    List<? extends IRenderPart> renderParts = renderPartsByItemIndex.get(itemIndex);
+    if (renderParts == null) {
+      renderParts = renderPartGenerator.getRenderParts(itemIndex);
+      renderPartsByItemIndex.set(itemIndex, renderParts);
+    }
+    return renderParts;
   }
 
   /**
@@ -80,28 +114,14 @@ public class RepositoryGraph implements IRepositoryGraph {
     assert itemIndex < positionsOfVisibleEdges.size() : "Bad itemIndex: " + itemIndex;
 
     return positionsOfVisibleEdges.get(itemIndex).map(pos -> {
-
-      int upNodeIndex = itemIndex - 1;
-      int downNodeIndex = itemIndex + 1;
-
-      while (downNodeIndex < positionsOfVisibleEdges.size() && positionsOfVisibleEdges.get(downNodeIndex).contains(pos)) {
-        downNodeIndex++;
-      }
-
-      while (upNodeIndex >= 0 && positionsOfVisibleEdges.get(upNodeIndex).contains(pos)) {
-        upNodeIndex--;
-      }
-
-      // We can assume the following since we know that the first node (a root branch)
-      // AND the last node (some branch, possible indented child) has no visible edges in their rows.
-      // (The first condition is obvious. The second can be easily proved by contradiction.
-      // Suppose that the last node, at index n has a visible edge. Any visible edge has some (branch) node
-      // that it leads to, hence there must exist some node at index k > n being a target to the visible edge.
-      // But n is the index of the last node. Contradiction. )
-      assert upNodeIndex >= 0
-          && downNodeIndex < positionsOfVisibleEdges.size() : "upNodeIndex or downNodeIndex has wrong value";
-
-      return Tuple.of(new GraphEdge(upNodeIndex, downNodeIndex), pos);
+      // The edges spanning each row are indexed up front by RepositoryGraphBuilder,
+      // so that the rows above and below (possibly thousands of them, with commits listed) don't need to be scanned.
+      // The first node (a root branch) AND the last node (some branch, possible indented child) have no visible edges
+      // in their rows, hence the edge always has both nodes within the graph.
+      @SuppressWarnings("lowerbound:argument") GraphEdge edge = visibleEdgeIntervals.findEdge(pos, itemIndex);
+      assert edge != null : "No visible edge at position ${pos} in row ${itemIndex}";
+
+      return Tuple.of(edge, pos);
     });
   }
 }
@@ -6,6 +6,7 @@ import static com.virtuslab.gitmachete.backend.api.SyncToParentStatus.MergedToPa
 import static com.virtuslab.gitmachete.backend.api.SyncToParentStatus.OutOfSync;
 import static com.virtuslab.gitmachete.frontend.graph.api.items.GraphItemColor.GRAY;
 import static com.virtuslab.gitmachete.frontend.graph.api.items.GraphItemColor.GREEN;
+import static com.virtuslab.gitmachete.frontend.graph.api.items.GraphItemColor.LIGHT_GRAY;
 import static com.virtuslab.gitmachete.frontend.graph.api.items.GraphItemColor.RED;
 import static com.virtuslab.gitmachete.frontend.graph.api.items.GraphItemColor.TRANSPARENT;
 import static com.virtuslab.gitmachete.frontend.graph.api.items.GraphItemColor.YELLOW;
@@ -14,17 +15,17 @@ import java.util.ArrayList;
 import java.util.Collections;
 
 import com.intellij.util.SmartList;
-import io.vavr.Tuple;
-import io.vavr.Tuple2;
 import io.vavr.collection.HashMap;
 import io.vavr.collection.List;
 import io.vavr.collection.Map;
 import io.vavr.control.Option;
+import lombok.CustomLog;
 import lombok.Setter;
 import lombok.experimental.Accessors;
 import lombok.val;
 import org.checkerframework.checker.index.qual.GTENegativeOne;
 import org.checkerframework.checker.index.qual.NonNegative;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import com.virtuslab.gitmachete.backend.api.ICommitOfManagedBranch;
 import com.virtuslab.gitmachete.backend.api.IGitMacheteRepositorySnapshot;
@@ -37,11 +38,12 @@ import com.virtuslab.gitmachete.backend.api.SyncToParentStatus;
 import com.virtuslab.gitmachete.frontend.graph.api.items.GraphItemColor;
 import com.virtuslab.gitmachete.frontend.graph.api.items.IGraphItem;
 import com.virtuslab.gitmachete.frontend.graph.api.repository.IBranchGetCommitsStrategy;
-import com.virtuslab.gitmachete.frontend.graph.api.repository.IRepositoryGraph;
 import com.virtuslab.gitmachete.frontend.graph.impl.items.BranchItem;
 import com.virtuslab.gitmachete.frontend.graph.impl.items.CommitItem;
+import com.virtuslab.gitmachete.frontend.graph.impl.items.LoadMoreCommitsItem;
 
 @Accessors(fluent = true)
+@CustomLog
 public class RepositoryGraphBuilder {
 
   @Setter
@@ -53,28 +55,83 @@ public class RepositoryGraphBuilder {
   public static final IBranchGetCommitsStrategy DEFAULT_GET_COMMITS = INonRootManagedBranchSnapshot::getCommits;
   public static final IBranchGetCommitsStrategy EMPTY_GET_COMMITS = __ -> List.empty();
 
-  public IRepositoryGraph build() {
-    Tuple2<List<IGraphItem>, List<List<Integer>>> graphData = deriveGraphItemsAndPositionsOfVisibleEdges();
-    return new RepositoryGraph(graphData._1(), graphData._2());
-  }
+  /**
+   * The graph of the previous snapshot (if any), whose visible edges are reused if the new graph has the same layout shape.
+   */
+  @Setter
+  private @Nullable RepositoryGraph previousRepositoryGraph = null;
 
-  private Tuple2<List<IGraphItem>, List<List<Integer>>> deriveGraphItemsAndPositionsOfVisibleEdges() {
-    List<IRootManagedBranchSnapshot> rootBranches = repositorySnapshot.getRootBranches();
+  public RepositoryGraph build() {
+    int[] layoutShape = deriveLayoutShape();
+    val previousGraph = previousRepositoryGraph;
+    if (previousGraph != null && previousGraph.hasLayoutShape(layoutShape)) {
+      // Only the items need to be re-created, as they refer to the branches of the new snapshot.
+      LOG.debug("Layout shape unchanged, reusing the visible edges of the previous graph");
+      return new RepositoryGraph(buildItems(/* positionsOfVisibleEdges */ null, /* visibleEdgeIntervalsBuilder */ null),
+          layoutShape, previousGraph.getPositionsOfVisibleEdges(), previousGraph.getVisibleEdgeIntervals());
+    }
 
-    java.util.List<IGraphItem> graphItems = new ArrayList<>();
     java.util.List<java.util.List<Integer>> positionsOfVisibleEdges = new ArrayList<>();
+    val visibleEdgeIntervalsBuilder = new VisibleEdgeIntervals.Builder();
+    val items = buildItems(positionsOfVisibleEdges, visibleEdgeIntervalsBuilder);
+    return new RepositoryGraph(
+        items,
+        layoutShape,
+        positionsOfVisibleEdges.stream().map(List::ofAll).collect(List.collector()),
+        visibleEdgeIntervalsBuilder.build());
+  }
 
-    for (val rootBranch : rootBranches) {
+  /**
+   * @param positionsOfVisibleEdges      the collection to store the positions of visible edges in each row,
+   *                                     or {@code null} if the visible edges are not to be collected
+   * @param visibleEdgeIntervalsBuilder  the builder to store the spans of visible edges,
+   *                                     or {@code null} if the visible edges are not to be collected
+   */
+  private List<IGraphItem> buildItems(
+      java.util.@Nullable List<java.util.List<Integer>> positionsOfVisibleEdges,
+      VisibleEdgeIntervals.@Nullable Builder visibleEdgeIntervalsBuilder) {
+    java.util.List<IGraphItem> graphItems = new ArrayList<>();
+
+    for (val rootBranch : repositorySnapshot.getRootBranches()) {
       int currentBranchIndex = graphItems.size();
-      positionsOfVisibleEdges.add(Collections.emptyList()); // root branches have no visible edges
+      if (positionsOfVisibleEdges != null) {
+        positionsOfVisibleEdges.add(Collections.emptyList()); // root branches have no visible edges
+      }
       addRootBranch(graphItems, rootBranch);
       List<? extends INonRootManagedBranchSnapshot> childBranches = rootBranch.getChildren();
-      recursivelyAddCommitsAndBranches(graphItems, positionsOfVisibleEdges, childBranches, currentBranchIndex,
-          /* indentLevel */ 0);
+      recursivelyAddCommitsAndBranches(graphItems, positionsOfVisibleEdges, visibleEdgeIntervalsBuilder, childBranches,
+          currentBranchIndex, /* indentLevel */ 0);
+    }
+
+    return List.ofAll(graphItems);
+  }
+
+  /**
+   * The layout shape consists of the number of root branches, followed by the number of children and the number of commit
+   * rows (including the "load more" row, if any) of each branch, in the order of rows. Two graphs of the same layout shape
+   * have the same indent levels and siblings in each row, and hence the same visible edges,
+   * regardless of the branch names, statuses etc.
+   */
+  private int[] deriveLayoutShape() {
+    java.util.List<Integer> layoutShape = new ArrayList<>();
+    val rootBranches = repositorySnapshot.getRootBranches();
+    layoutShape.add(rootBranches.size());
+    for (val rootBranch : rootBranches) {
+      layoutShape.add(rootBranch.getChildren().size());
+      layoutShape.add(0);
+      recursivelyAddLayoutShape(layoutShape, rootBranch.getChildren());
+    }
+    return layoutShape.stream().mapToInt(i -> i).toArray();
+  }
+
+  private void recursivelyAddLayoutShape(java.util.List<Integer> layoutShape,
+      List<? extends INonRootManagedBranchSnapshot> branches) {
+    for (val branch : branches) {
+      layoutShape.add(branch.getChildren().size());
+      val commits = branchGetCommitsStrategy.getCommitsOf(branch);
+      layoutShape.add(commits.size() + (hasLoadMoreCommitsItem(branch, commits) ? 1 : 0));
+      recursivelyAddLayoutShape(layoutShape, branch.getChildren());
     }
-    return Tuple.of(
-        List.ofAll(graphItems),
-        positionsOfVisibleEdges.stream().map(List::ofAll).collect(List.collector()));
   }
 
   /**
@@ -87,7 +144,8 @@ public class RepositoryGraphBuilder {
    */
   private void recursivelyAddCommitsAndBranches(
       java.util.List<IGraphItem> graphItems,
-      java.util.List<java.util.List<Integer>> positionsOfVisibleEdges,
+      java.util.@Nullable List<java.util.List<Integer>> positionsOfVisibleEdges,
+      VisibleEdgeIntervals.@Nullable Builder visibleEdgeIntervalsBuilder,
       List<? extends INonRootManagedBranchSnapshot> childBranches,
       @GTENegativeOne int parentBranchIndex,
       @NonNegative int indentLevel) {
@@ -107,17 +165,25 @@ public class RepositoryGraphBuilder {
       assert prevSiblingItemIndex >= 0 : "There is no previous sibling node but should be";
       buildCommitsAndNonRootBranch(graphItems, nonRootBranch, prevSiblingItemIndex, indentLevel);
 
-      int upBranchIndex = graphItems.size() - 1;
+      // The branch item has just been added, hence the index is non-negative.
+      @SuppressWarnings("lowerbound:assignment") @NonNegative int upBranchIndex = graphItems.size() - 1;
       List<? extends INonRootManagedBranchSnapshot> branches = nonRootBranch.getChildren();
-      recursivelyAddCommitsAndBranches(graphItems, positionsOfVisibleEdges, /* child */ branches,
-          upBranchIndex, indentLevel + 1);
+      recursivelyAddCommitsAndBranches(graphItems, positionsOfVisibleEdges, visibleEdgeIntervalsBuilder,
+          /* child */ branches, upBranchIndex, indentLevel + 1);
 
-      while (positionsOfVisibleEdges.size() < graphItems.size()) {
-        positionsOfVisibleEdges.add(new SmartList<>());
-      }
-      if (!nonRootBranch.equals(lastChildBranch)) {
-        for (int i = upBranchIndex + 1; i < graphItems.size(); ++i) {
-          positionsOfVisibleEdges.get(i).add(indentLevel);
+      if (positionsOfVisibleEdges != null && visibleEdgeIntervalsBuilder != null) {
+        while (positionsOfVisibleEdges.size() < graphItems.size()) {
+          positionsOfVisibleEdges.add(new SmartList<>());
+        }
+        if (!nonRootBranch.equals(lastChildBranch)) {
+          for (int i = upBranchIndex + 1; i < graphItems.size(); ++i) {
+            positionsOfVisibleEdges.get(i).add(indentLevel);
+          }
+          // The edge leads from this branch to the first item (commit or branch) of the next sibling branch,
+          // which is going to be added right after the subtree of this branch.
+          if (upBranchIndex + 1 < graphItems.size()) {
+            visibleEdgeIntervalsBuilder.add(/* position */ indentLevel, upBranchIndex, /* downNodeIndex */ graphItems.size());
+          }
         }
       }
 
@@ -128,7 +194,7 @@ public class RepositoryGraphBuilder {
 
   private void addRootBranch(java.util.List<IGraphItem> graphItems, IRootManagedBranchSnapshot branch) {
     BranchItem branchItem = createBranchItemFor(branch, /* prevSiblingItemIndex */ -1,
-        GraphItemColor.GREEN, /* indentLevel */ 0);
+        repositorySnapshot.isSkeleton() ? LIGHT_GRAY : GREEN, /* indentLevel */ 0);
     graphItems.add(branchItem);
   }
 
@@ -148,14 +214,23 @@ public class RepositoryGraphBuilder {
       @NonNegative int parentBranchIndex,
       @NonNegative int indentLevel) {
     List<ICommitOfManagedBranch> commits = branchGetCommitsStrategy.getCommitsOf(branch).reverse();
+    boolean hasLoadMoreCommitsItem = hasLoadMoreCommitsItem(branch, commits);
 
-    val syncToParentStatus = branch.getSyncToParentStatus();
-    GraphItemColor graphItemColor = getGraphItemColor(syncToParentStatus);
-    int branchItemIndex = graphItems.size() + commits.size();
+    // The statuses of a skeleton snapshot are mere placeholders, so they don't get a color of their own until derived.
+    GraphItemColor graphItemColor = repositorySnapshot.isSkeleton()
+        ? LIGHT_GRAY
+        : getGraphItemColor(branch.getSyncToParentStatus());
+    int branchItemIndex = graphItems.size() + commits.size() + (hasLoadMoreCommitsItem ? 1 : 0);
     // We are building some non root branch here so some root branch item has been added already.
     assert branchItemIndex > 0 : "Branch node index is not greater than 0 but should be";
 
     boolean isFirstItemInBranch = true;
+    if (hasLoadMoreCommitsItem) {
+      // The commits that haven't been loaded yet are the oldest ones, hence the row goes above the listed commits.
+      int nextSiblingItemIndex = graphItems.size() + 1;
+      graphItems.add(new LoadMoreCommitsItem(branch, graphItemColor, parentBranchIndex, nextSiblingItemIndex, indentLevel));
+      isFirstItemInBranch = false;
+    }
     for (ICommitOfManagedBranch commit : commits) {
       int lastItemIndex = graphItems.size() - 1;
       // We are building some non root branch here so some root branch item has been added already.
@@ -179,6 +254,13 @@ public class RepositoryGraphBuilder {
     graphItems.add(branchItem);
   }
 
+  /**
+   * The "load more" row is only shown when (some of) the commits are listed in the first place.
+   */
+  private static boolean hasLoadMoreCommitsItem(INonRootManagedBranchSnapshot branch, List<ICommitOfManagedBranch> commits) {
+    return commits.nonEmpty() && commits.size() < branch.getCommitCount();
+  }
+
   /**
    * @return {@link BranchItem} for given properties and provide additional attributes if the branch is the current one
    */
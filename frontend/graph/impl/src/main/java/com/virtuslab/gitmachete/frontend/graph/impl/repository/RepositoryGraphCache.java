@@ -1,17 +1,61 @@
 package com.virtuslab.gitmachete.frontend.graph.impl.repository;
 
+import io.vavr.collection.HashMap;
+import io.vavr.collection.List;
+import io.vavr.collection.Map;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import lombok.val;
 import org.checkerframework.checker.interning.qual.FindDistinct;
-import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
+import com.virtuslab.gitmachete.backend.api.ICommitOfManagedBranch;
 import com.virtuslab.gitmachete.backend.api.IGitMacheteRepositorySnapshot;
+import com.virtuslab.gitmachete.backend.api.INonRootManagedBranchSnapshot;
 import com.virtuslab.gitmachete.frontend.graph.api.repository.IRepositoryGraph;
 import com.virtuslab.gitmachete.frontend.graph.api.repository.IRepositoryGraphCache;
 
+/**
+ * Each of the graph variants (with and without commits) is built only once it's requested for the given snapshot,
+ * and then kept until a new snapshot comes in (or until further commits of some branch get loaded).
+ * The most recently built graph of each variant is also kept after that,
+ * so that its visible edges can be reused for the new snapshot if the layout of the graph hasn't changed.
+ */
 public class RepositoryGraphCache implements IRepositoryGraphCache {
 
-  private @MonotonicNonNull IRepositoryGraph repositoryGraphWithCommits = null;
-  private @MonotonicNonNull IRepositoryGraph repositoryGraphWithoutCommits = null;
-  private @MonotonicNonNull IGitMacheteRepositorySnapshot repositorySnapshot = null;
+  private @Nullable IGitMacheteRepositorySnapshot repositorySnapshot = null;
+  private @Nullable RepositoryGraph repositoryGraphWithCommits = null;
+  private @Nullable RepositoryGraph repositoryGraphWithoutCommits = null;
+  private @Nullable RepositoryGraph previousRepositoryGraphWithCommits = null;
+  private @Nullable RepositoryGraph previousRepositoryGraphWithoutCommits = null;
+
+  // The snapshots are immutable, hence the further pages of commits are kept here rather than in the branches themselves.
+  // Each snapshot comes with new branch snapshots, so the loaded commits are keyed by the commit range of the branch
+  // rather than by the branch snapshot; this way they remain listed exactly as long as the range stays the same.
+  private Map<CommitRange, List<ICommitOfManagedBranch>> listedCommitsByCommitRange = HashMap.empty();
+
+  /**
+   * The commits of a branch are determined by its pointed commit and by the commit that its range ends at,
+   * which is either the fork point or (for a branch in sync with its parent, but with the fork point off)
+   * the commit pointed by the parent; the number of the commits is compared just as a safeguard.
+   */
+  @EqualsAndHashCode
+  @RequiredArgsConstructor
+  private static final class CommitRange {
+    private final String branchName;
+    private final String pointedCommitHash;
+    private final @Nullable String forkPointHash;
+    private final String parentPointedCommitHash;
+    private final int commitCount;
+
+    static CommitRange of(INonRootManagedBranchSnapshot branch) {
+      return new CommitRange(branch.getName(),
+          branch.getPointedCommit().getHash(),
+          branch.getForkPoint().map(forkPoint -> forkPoint.getHash()).getOrNull(),
+          branch.getParent().getPointedCommit().getHash(),
+          branch.getCommitCount());
+    }
+  }
 
   @Override
   @SuppressWarnings("regexp") // to allow for `synchronized`
@@ -19,16 +63,68 @@ public class RepositoryGraphCache implements IRepositoryGraphCache {
       @FindDistinct IGitMacheteRepositorySnapshot givenRepositorySnapshot,
       boolean isListingCommits) {
 
-    if (givenRepositorySnapshot != this.repositorySnapshot || repositoryGraphWithCommits == null
-        || repositoryGraphWithoutCommits == null) {
-
+    if (givenRepositorySnapshot != this.repositorySnapshot) {
       this.repositorySnapshot = givenRepositorySnapshot;
-      RepositoryGraphBuilder repositoryGraphBuilder = new RepositoryGraphBuilder().repositorySnapshot(givenRepositorySnapshot);
-      repositoryGraphWithCommits = repositoryGraphBuilder
-          .branchGetCommitsStrategy(RepositoryGraphBuilder.DEFAULT_GET_COMMITS).build();
-      repositoryGraphWithoutCommits = repositoryGraphBuilder
-          .branchGetCommitsStrategy(RepositoryGraphBuilder.EMPTY_GET_COMMITS).build();
+      // The commits loaded for the branches whose range has changed (or which are gone) are no longer of any use.
+      val commitRanges = givenRepositorySnapshot.getManagedBranches()
+          .filter(branch -> branch.isNonRoot())
+          .map(branch -> CommitRange.of(branch.asNonRoot()))
+          .toSet();
+      listedCommitsByCommitRange = listedCommitsByCommitRange.filterKeys(commitRanges::contains);
+      invalidateRepositoryGraphWithCommits();
+      if (repositoryGraphWithoutCommits != null) {
+        previousRepositoryGraphWithoutCommits = repositoryGraphWithoutCommits;
+      }
+      repositoryGraphWithoutCommits = null;
+    }
+
+    if (isListingCommits) {
+      RepositoryGraph repositoryGraph = repositoryGraphWithCommits;
+      if (repositoryGraph == null) {
+        repositoryGraph = new RepositoryGraphBuilder().repositorySnapshot(givenRepositorySnapshot)
+            .branchGetCommitsStrategy(this::deriveListedCommits)
+            .previousRepositoryGraph(previousRepositoryGraphWithCommits).build();
+        repositoryGraphWithCommits = repositoryGraph;
+      }
+      return repositoryGraph;
+    } else {
+      RepositoryGraph repositoryGraph = repositoryGraphWithoutCommits;
+      if (repositoryGraph == null) {
+        repositoryGraph = new RepositoryGraphBuilder().repositorySnapshot(givenRepositorySnapshot)
+            .branchGetCommitsStrategy(RepositoryGraphBuilder.EMPTY_GET_COMMITS)
+            .previousRepositoryGraph(previousRepositoryGraphWithoutCommits).build();
+        repositoryGraphWithoutCommits = repositoryGraph;
+      }
+      return repositoryGraph;
+    }
+  }
+
+  @Override
+  @SuppressWarnings("regexp") // to allow for `synchronized`
+  public synchronized List<ICommitOfManagedBranch> getListedCommits(INonRootManagedBranchSnapshot branch) {
+    return deriveListedCommits(branch);
+  }
+
+  @Override
+  @SuppressWarnings("regexp") // to allow for `synchronized`
+  public synchronized void addLoadedCommits(INonRootManagedBranchSnapshot branch, int skipCount,
+      List<ICommitOfManagedBranch> commits) {
+    val listedCommits = deriveListedCommits(branch);
+    if (listedCommits.size() != skipCount || commits.isEmpty()) {
+      return;
+    }
+    listedCommitsByCommitRange = listedCommitsByCommitRange.put(CommitRange.of(branch), listedCommits.appendAll(commits));
+    invalidateRepositoryGraphWithCommits();
+  }
+
+  private List<ICommitOfManagedBranch> deriveListedCommits(INonRootManagedBranchSnapshot branch) {
+    return listedCommitsByCommitRange.get(CommitRange.of(branch)).getOrElse(branch::getCommits);
+  }
+
+  private void invalidateRepositoryGraphWithCommits() {
+    if (repositoryGraphWithCommits != null) {
+      previousRepositoryGraphWithCommits = repositoryGraphWithCommits;
     }
-    return isListingCommits ? repositoryGraphWithCommits : repositoryGraphWithoutCommits;
+    repositoryGraphWithCommits = null;
   }
 }
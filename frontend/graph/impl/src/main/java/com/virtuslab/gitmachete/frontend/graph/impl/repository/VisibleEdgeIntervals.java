@@ -0,0 +1,79 @@
+package com.virtuslab.gitmachete.frontend.graph.impl.repository;
+
+import java.util.ArrayList;
+
+import lombok.val;
+import org.checkerframework.checker.index.qual.NonNegative;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.virtuslab.gitmachete.frontend.graph.api.elements.GraphEdge;
+
+/**
+ * For each position (indent level), the edges that are visible (see {@link RepositoryGraph#getVisibleEdgesWithPositions})
+ * at this position, each one spanning the rows strictly between its up node and its down node.
+ * <p>
+ * The spans of the edges at a single position never overlap, and the edges are kept in the order of the rows,
+ * so the edge visible in the given row at the given position can be found with a binary search
+ * rather than with a scan through the rows above and below.
+ */
+final class VisibleEdgeIntervals {
+
+  private final GraphEdge[][] edgesByPosition;
+
+  private VisibleEdgeIntervals(GraphEdge[][] edgesByPosition) {
+    this.edgesByPosition = edgesByPosition;
+  }
+
+  /**
+   * @return the edge visible in the given row at the given position, or {@code null} if there is no such edge
+   */
+  @SuppressWarnings({"index:array.access.unsafe.high", "index:array.access.unsafe.low"})
+  @Nullable
+  GraphEdge findEdge(@NonNegative int position, @NonNegative int itemIndex) {
+    if (position >= edgesByPosition.length) {
+      return null;
+    }
+    GraphEdge[] edges = edgesByPosition[position];
+    // Finding the last edge whose up node is above the given row...
+    int low = 0;
+    int high = edges.length - 1;
+    GraphEdge found = null;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      if (edges[middle].getUpNodeIndex() < itemIndex) {
+        found = edges[middle];
+        low = middle + 1;
+      } else {
+        high = middle - 1;
+      }
+    }
+    // ... and checking whether its down node is below the given row.
+    return found != null && found.getDownNodeIndex() > itemIndex ? found : null;
+  }
+
+  static final class Builder {
+    private final java.util.List<java.util.List<GraphEdge>> edgesByPosition = new ArrayList<>();
+
+    /**
+     * The edges at each position must be added in the order of the rows.
+     */
+    void add(@NonNegative int position, @NonNegative int upNodeIndex, @NonNegative int downNodeIndex) {
+      while (edgesByPosition.size() <= position) {
+        edgesByPosition.add(new ArrayList<>());
+      }
+      val edges = edgesByPosition.get(position);
+      assert edges.isEmpty() || edges.get(edges.size() - 1).getDownNodeIndex() <= upNodeIndex
+          : "Visible edges at position ${position} are not added in the order of the rows";
+      edges.add(new GraphEdge(upNodeIndex, downNodeIndex));
+    }
+
+    @SuppressWarnings("index:array.access.unsafe.high")
+    VisibleEdgeIntervals build() {
+      GraphEdge[][] edgeArraysByPosition = new GraphEdge[edgesByPosition.size()][];
+      for (int position = 0; position < edgeArraysByPosition.length; position++) {
+        edgeArraysByPosition[position] = edgesByPosition.get(position).toArray(new GraphEdge[0]);
+      }
+      return new VisibleEdgeIntervals(edgeArraysByPosition);
+    }
+  }
+}
@@ -0,0 +1,153 @@
+package com.virtuslab.gitmachete.frontend.graph.impl.repository;
+
+import io.vavr.Tuple;
+import io.vavr.Tuple3;
+import io.vavr.collection.List;
+import io.vavr.control.Option;
+import lombok.val;
+import org.junit.Assert;
+import org.junit.Test;
+import org.powermock.api.mockito.PowerMockito;
+
+import com.virtuslab.gitmachete.backend.api.ICommitOfManagedBranch;
+import com.virtuslab.gitmachete.backend.api.IGitMacheteRepositorySnapshot;
+import com.virtuslab.gitmachete.backend.api.INonRootManagedBranchSnapshot;
+import com.virtuslab.gitmachete.backend.api.IRootManagedBranchSnapshot;
+import com.virtuslab.gitmachete.backend.api.RelationToRemote;
+import com.virtuslab.gitmachete.backend.api.SyncToParentStatus;
+import com.virtuslab.gitmachete.frontend.graph.api.items.GraphItemColor;
+
+public class RepositoryGraphBuilderTestSuite {
+
+  private static RepositoryGraph buildGraph(IGitMacheteRepositorySnapshot snapshot,
+      RepositoryGraph previousRepositoryGraph) {
+    return new RepositoryGraphBuilder().repositorySnapshot(snapshot).previousRepositoryGraph(previousRepositoryGraph).build();
+  }
+
+  private static RepositoryGraph buildGraph(IGitMacheteRepositorySnapshot snapshot) {
+    return new RepositoryGraphBuilder().repositorySnapshot(snapshot).build();
+  }
+
+  /**
+   * <pre>
+   *   root-1
+   *     a        (2 commits)
+   *       a-1    (1 out of 3 commits listed, hence with a "load more" row)
+   *       a-2    (no commits)
+   *     b        (1 commit)
+   *       b-1    (1 commit)
+   *     c        (no commits)
+   *   root-2
+   *     d        (1 commit)
+   * </pre>
+   *
+   * @param namePrefix so that the branches of two snapshots are different (as they'd be for two subsequent snapshots)
+   * @param status     the sync-to-parent status of all the non-root branches
+   */
+  private static IGitMacheteRepositorySnapshot createSnapshot(String namePrefix, SyncToParentStatus status) {
+    val a = mockNonRootBranch(namePrefix + "a", status, /* commitCount */ 2, /* listedCommitCount */ 2,
+        mockNonRootBranch(namePrefix + "a-1", status, /* commitCount */ 3, /* listedCommitCount */ 1),
+        mockNonRootBranch(namePrefix + "a-2", status, /* commitCount */ 0, /* listedCommitCount */ 0));
+    val b = mockNonRootBranch(namePrefix + "b", status, /* commitCount */ 1, /* listedCommitCount */ 1,
+        mockNonRootBranch(namePrefix + "b-1", status, /* commitCount */ 1, /* listedCommitCount */ 1));
+    val c = mockNonRootBranch(namePrefix + "c", status, /* commitCount */ 0, /* listedCommitCount */ 0);
+    val d = mockNonRootBranch(namePrefix + "d", status, /* commitCount */ 1, /* listedCommitCount */ 1);
+    return mockSnapshot(mockRootBranch(namePrefix + "root-1", a, b, c), mockRootBranch(namePrefix + "root-2", d));
+  }
+
+  private static IGitMacheteRepositorySnapshot mockSnapshot(IRootManagedBranchSnapshot... rootBranches) {
+    val snapshot = PowerMockito.mock(IGitMacheteRepositorySnapshot.class);
+    PowerMockito.doReturn(List.of(rootBranches)).when(snapshot).getRootBranches();
+    PowerMockito.doReturn(Option.none()).when(snapshot).getCurrentBranchIfManaged();
+    return snapshot;
+  }
+
+  private static IRootManagedBranchSnapshot mockRootBranch(String name, INonRootManagedBranchSnapshot... children) {
+    val branch = PowerMockito.mock(IRootManagedBranchSnapshot.class);
+    PowerMockito.doReturn(name).when(branch).getName();
+    PowerMockito.doReturn(List.of(children)).when(branch).getChildren();
+    PowerMockito.doReturn(RelationToRemote.noRemotes()).when(branch).getRelationToRemote();
+    return branch;
+  }
+
+  private static INonRootManagedBranchSnapshot mockNonRootBranch(String name, SyncToParentStatus status,
+      int commitCount, int listedCommitCount, INonRootManagedBranchSnapshot... children) {
+    val branch = PowerMockito.mock(INonRootManagedBranchSnapshot.class);
+    PowerMockito.doReturn(name).when(branch).getName();
+    PowerMockito.doReturn(List.of(children)).when(branch).getChildren();
+    PowerMockito.doReturn(RelationToRemote.noRemotes()).when(branch).getRelationToRemote();
+    PowerMockito.doReturn(status).when(branch).getSyncToParentStatus();
+    PowerMockito.doReturn(List.fill(listedCommitCount, () -> PowerMockito.mock(ICommitOfManagedBranch.class)))
+        .when(branch).getCommits();
+    PowerMockito.doReturn(commitCount).when(branch).getCommitCount();
+    return branch;
+  }
+
+  /**
+   * @return the up node index, the down node index and the position of each edge in the given row,
+   *         the position being -1 for the adjacent edges
+   */
+  private static List<Tuple3<Integer, Integer, Integer>> getEdgesWithPositions(RepositoryGraph graph, int itemIndex) {
+    return graph.getAdjacentEdges(itemIndex)
+        .map(edge -> Tuple.of(edge.getUpNodeIndex(), edge.getDownNodeIndex(), /* position */ -1))
+        .appendAll(graph.getVisibleEdgesWithPositions(itemIndex)
+            .map(edgeAndPosition -> Tuple.of(edgeAndPosition._1.getUpNodeIndex(), edgeAndPosition._1.getDownNodeIndex(),
+                edgeAndPosition._2)));
+  }
+
+  private static void assertSameLayout(RepositoryGraph expected, RepositoryGraph actual) {
+    Assert.assertEquals(expected.getNodesCount(), actual.getNodesCount());
+    Assert.assertEquals(expected.getPositionsOfVisibleEdges(), actual.getPositionsOfVisibleEdges());
+    for (int itemIndex = 0; itemIndex < expected.getNodesCount(); itemIndex++) {
+      val expectedItem = expected.getGraphItem(itemIndex);
+      val actualItem = actual.getGraphItem(itemIndex);
+      Assert.assertEquals("item class in row ${itemIndex}", expectedItem.getClass(), actualItem.getClass());
+      Assert.assertEquals("indent level in row ${itemIndex}", expectedItem.getIndentLevel(), actualItem.getIndentLevel());
+      Assert.assertEquals("previous sibling in row ${itemIndex}", expectedItem.getPrevSiblingItemIndex(),
+          actualItem.getPrevSiblingItemIndex());
+      Assert.assertEquals("next sibling in row ${itemIndex}", expectedItem.getNextSiblingItemIndex(),
+          actualItem.getNextSiblingItemIndex());
+      Assert.assertEquals("edges in row ${itemIndex}", getEdgesWithPositions(expected, itemIndex),
+          getEdgesWithPositions(actual, itemIndex));
+    }
+  }
+
+  @Test
+  public void build_givenPreviousGraphOfSameLayoutShape_reusesVisibleEdgesEqualToFreshlyBuiltOnes() {
+    // given
+    val previousGraph = buildGraph(createSnapshot("old-", SyncToParentStatus.InSync));
+    val snapshot = createSnapshot("new-", SyncToParentStatus.OutOfSync);
+
+    // when
+    val reusingGraph = buildGraph(snapshot, previousGraph);
+
+    // then
+    Assert.assertSame(previousGraph.getPositionsOfVisibleEdges(), reusingGraph.getPositionsOfVisibleEdges());
+    Assert.assertSame(previousGraph.getVisibleEdgeIntervals(), reusingGraph.getVisibleEdgeIntervals());
+    val freshGraph = buildGraph(snapshot);
+    assertSameLayout(freshGraph, reusingGraph);
+    // The items, unlike the visible edges, come from the new snapshot.
+    for (int itemIndex = 0; itemIndex < freshGraph.getNodesCount(); itemIndex++) {
+      Assert.assertEquals(freshGraph.getGraphItem(itemIndex).getValue(), reusingGraph.getGraphItem(itemIndex).getValue());
+      Assert.assertEquals(freshGraph.getGraphItem(itemIndex).getColor(), reusingGraph.getGraphItem(itemIndex).getColor());
+    }
+    Assert.assertEquals("new-a", reusingGraph.getGraphItem(3).getValue());
+    Assert.assertEquals(GraphItemColor.RED, reusingGraph.getGraphItem(3).getColor());
+  }
+
+  @Test
+  public void build_givenPreviousGraphOfDifferentLayoutShape_buildsVisibleEdgesAnew() {
+    // given
+    val previousGraph = buildGraph(createSnapshot("old-", SyncToParentStatus.InSync));
+    val d = mockNonRootBranch("d", SyncToParentStatus.InSync, /* commitCount */ 1, /* listedCommitCount */ 1);
+    val e = mockNonRootBranch("e", SyncToParentStatus.InSync, /* commitCount */ 1, /* listedCommitCount */ 1);
+    val snapshot = mockSnapshot(mockRootBranch("root", d, e));
+
+    // when
+    val graph = buildGraph(snapshot, previousGraph);
+
+    // then
+    Assert.assertNotSame(previousGraph.getVisibleEdgeIntervals(), graph.getVisibleEdgeIntervals());
+    assertSameLayout(buildGraph(snapshot), graph);
+  }
+}
@@ -0,0 +1,111 @@
+package com.virtuslab.gitmachete.frontend.graph.impl.repository;
+
+import io.vavr.collection.List;
+import io.vavr.control.Option;
+import lombok.val;
+import org.junit.Assert;
+import org.junit.Test;
+import org.powermock.api.mockito.PowerMockito;
+
+import com.virtuslab.gitmachete.backend.api.ICommitOfManagedBranch;
+import com.virtuslab.gitmachete.backend.api.IForkPointCommitOfManagedBranch;
+import com.virtuslab.gitmachete.backend.api.IGitMacheteRepositorySnapshot;
+import com.virtuslab.gitmachete.backend.api.IManagedBranchSnapshot;
+import com.virtuslab.gitmachete.backend.api.INonRootManagedBranchSnapshot;
+
+public class RepositoryGraphCacheTestSuite {
+
+  private final RepositoryGraphCache repositoryGraphCache = new RepositoryGraphCache();
+
+  @Test
+  public void getListedCommits_givenSameCommitRangeInNewBranchSnapshot_includesLoadedCommits() {
+    // given
+    val branch = mockBranch(/* pointedCommitHash */ "3333", /* forkPointHash */ "1111");
+    val loadedCommits = List.of(mockCommit("2222"));
+    repositoryGraphCache.addLoadedCommits(branch, /* skipCount */ 1, loadedCommits);
+    val newBranch = mockBranch(/* pointedCommitHash */ "3333", /* forkPointHash */ "1111");
+    repositoryGraphCache.getRepositoryGraph(mockSnapshot(newBranch), /* isListingCommits */ false);
+
+    // when
+    val listedCommits = repositoryGraphCache.getListedCommits(newBranch);
+
+    // then
+    Assert.assertEquals(branch.getCommits().appendAll(loadedCommits), listedCommits);
+  }
+
+  @Test
+  public void getListedCommits_givenBranchMovedInNewSnapshot_doesNotIncludeLoadedCommits() {
+    // given
+    val branch = mockBranch(/* pointedCommitHash */ "3333", /* forkPointHash */ "1111");
+    repositoryGraphCache.addLoadedCommits(branch, /* skipCount */ 1, List.of(mockCommit("2222")));
+    val movedBranch = mockBranch(/* pointedCommitHash */ "4444", /* forkPointHash */ "1111");
+    repositoryGraphCache.getRepositoryGraph(mockSnapshot(movedBranch), /* isListingCommits */ false);
+
+    // when
+    val listedCommits = repositoryGraphCache.getListedCommits(movedBranch);
+
+    // then
+    Assert.assertEquals(movedBranch.getCommits(), listedCommits);
+  }
+
+  @Test
+  public void getListedCommits_givenBranchGoneAndBackInSubsequentSnapshots_doesNotIncludeLoadedCommits() {
+    // given
+    val branch = mockBranch(/* pointedCommitHash */ "3333", /* forkPointHash */ "1111");
+    repositoryGraphCache.addLoadedCommits(branch, /* skipCount */ 1, List.of(mockCommit("2222")));
+    repositoryGraphCache.getRepositoryGraph(mockSnapshot(), /* isListingCommits */ false);
+    repositoryGraphCache.getRepositoryGraph(mockSnapshot(branch), /* isListingCommits */ false);
+
+    // when
+    val listedCommits = repositoryGraphCache.getListedCommits(branch);
+
+    // then
+    Assert.assertEquals(branch.getCommits(), listedCommits);
+  }
+
+  @Test
+  public void addLoadedCommits_givenSkipCountNotMatchingListedCommits_ignoresCommits() {
+    // given
+    val branch = mockBranch(/* pointedCommitHash */ "3333", /* forkPointHash */ "1111");
+
+    // when
+    repositoryGraphCache.addLoadedCommits(branch, /* skipCount */ 5, List.of(mockCommit("2222")));
+
+    // then
+    Assert.assertEquals(branch.getCommits(), repositoryGraphCache.getListedCommits(branch));
+  }
+
+  private static IGitMacheteRepositorySnapshot mockSnapshot(IManagedBranchSnapshot... branches) {
+    val snapshot = PowerMockito.mock(IGitMacheteRepositorySnapshot.class);
+    PowerMockito.doReturn(List.empty()).when(snapshot).getRootBranches();
+    PowerMockito.doReturn(List.of(branches)).when(snapshot).getManagedBranches();
+    PowerMockito.doReturn(Option.none()).when(snapshot).getCurrentBranchIfManaged();
+    return snapshot;
+  }
+
+  private static INonRootManagedBranchSnapshot mockBranch(String pointedCommitHash, String forkPointHash) {
+    val branch = PowerMockito.mock(INonRootManagedBranchSnapshot.class);
+    PowerMockito.doReturn("develop").when(branch).getName();
+    PowerMockito.doReturn(false).when(branch).isRoot();
+    PowerMockito.doReturn(true).when(branch).isNonRoot();
+    PowerMockito.doReturn(branch).when(branch).asNonRoot();
+    val pointedCommit = mockCommit(pointedCommitHash);
+    PowerMockito.doReturn(pointedCommit).when(branch).getPointedCommit();
+    val forkPoint = PowerMockito.mock(IForkPointCommitOfManagedBranch.class);
+    PowerMockito.doReturn(forkPointHash).when(forkPoint).getHash();
+    PowerMockito.doReturn(Option.some(forkPoint)).when(branch).getForkPoint();
+    val parent = PowerMockito.mock(IManagedBranchSnapshot.class);
+    val parentPointedCommit = mockCommit("1111");
+    PowerMockito.doReturn(parentPointedCommit).when(parent).getPointedCommit();
+    PowerMockito.doReturn(parent).when(branch).getParent();
+    PowerMockito.doReturn(List.of(pointedCommit)).when(branch).getCommits();
+    PowerMockito.doReturn(2).when(branch).getCommitCount();
+    return branch;
+  }
+
+  private static ICommitOfManagedBranch mockCommit(String hash) {
+    val commit = PowerMockito.mock(ICommitOfManagedBranch.class);
+    PowerMockito.doReturn(hash).when(commit).getHash();
+    return commit;
+  }
+}
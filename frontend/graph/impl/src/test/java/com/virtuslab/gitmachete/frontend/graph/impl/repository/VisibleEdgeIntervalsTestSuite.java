@@ -0,0 +1,126 @@
+package com.virtuslab.gitmachete.frontend.graph.impl.repository;
+
+import java.util.Random;
+
+import lombok.val;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.virtuslab.gitmachete.frontend.graph.api.elements.GraphEdge;
+
+public class VisibleEdgeIntervalsTestSuite {
+
+  @Test
+  public void findEdge_givenRowStrictlyBetweenNodes_returnsEdge() {
+    // given
+    val builder = new VisibleEdgeIntervals.Builder();
+    builder.add(/* position */ 1, /* upNodeIndex */ 2, /* downNodeIndex */ 5);
+    val intervals = builder.build();
+
+    // when
+    val edges = io.vavr.collection.List.of(3, 4).map(itemIndex -> intervals.findEdge(/* position */ 1, itemIndex));
+
+    // then
+    for (val edge : edges) {
+      Assert.assertNotNull(edge);
+      Assert.assertEquals(2, edge.getUpNodeIndex());
+      Assert.assertEquals(5, edge.getDownNodeIndex());
+    }
+  }
+
+  @Test
+  public void findEdge_givenRowOfNodeOrOutsideOfSpan_returnsNull() {
+    // given
+    val builder = new VisibleEdgeIntervals.Builder();
+    builder.add(/* position */ 1, /* upNodeIndex */ 2, /* downNodeIndex */ 5);
+    val intervals = builder.build();
+
+    // then
+    Assert.assertNull(intervals.findEdge(/* position */ 1, /* itemIndex */ 0));
+    Assert.assertNull(intervals.findEdge(/* position */ 1, /* itemIndex */ 2));
+    Assert.assertNull(intervals.findEdge(/* position */ 1, /* itemIndex */ 5));
+    Assert.assertNull(intervals.findEdge(/* position */ 1, /* itemIndex */ 6));
+  }
+
+  @Test
+  public void findEdge_givenPositionWithoutEdges_returnsNull() {
+    // given
+    val builder = new VisibleEdgeIntervals.Builder();
+    builder.add(/* position */ 2, /* upNodeIndex */ 0, /* downNodeIndex */ 3);
+    val intervals = builder.build();
+
+    // then
+    Assert.assertNull(intervals.findEdge(/* position */ 0, /* itemIndex */ 1));
+    Assert.assertNull(intervals.findEdge(/* position */ 1, /* itemIndex */ 1));
+    Assert.assertNull(intervals.findEdge(/* position */ 3, /* itemIndex */ 1));
+    Assert.assertNotNull(intervals.findEdge(/* position */ 2, /* itemIndex */ 1));
+  }
+
+  @Test
+  public void findEdge_givenAdjacentEdgesAtSamePosition_returnsEdgeSpanningGivenRow() {
+    // given
+    val builder = new VisibleEdgeIntervals.Builder();
+    builder.add(/* position */ 0, /* upNodeIndex */ 0, /* downNodeIndex */ 3);
+    builder.add(/* position */ 0, /* upNodeIndex */ 3, /* downNodeIndex */ 7);
+    builder.add(/* position */ 0, /* upNodeIndex */ 9, /* downNodeIndex */ 10);
+    val intervals = builder.build();
+
+    // then
+    assertEdge(0, 3, intervals.findEdge(/* position */ 0, /* itemIndex */ 2));
+    Assert.assertNull(intervals.findEdge(/* position */ 0, /* itemIndex */ 3));
+    assertEdge(3, 7, intervals.findEdge(/* position */ 0, /* itemIndex */ 4));
+    assertEdge(3, 7, intervals.findEdge(/* position */ 0, /* itemIndex */ 6));
+    Assert.assertNull(intervals.findEdge(/* position */ 0, /* itemIndex */ 8));
+    // An edge between two adjacent rows is not visible in any row.
+    Assert.assertNull(intervals.findEdge(/* position */ 0, /* itemIndex */ 9));
+    Assert.assertNull(intervals.findEdge(/* position */ 0, /* itemIndex */ 10));
+  }
+
+  @Test
+  public void findEdge_givenRandomEdges_returnsSameEdgesAsScanThroughAllEdges() {
+    // given
+    val random = new Random(/* seed */ 42);
+    int positionCount = 8;
+    int rowCount = 500;
+    val allEdgesByPosition = new java.util.ArrayList<java.util.List<GraphEdge>>();
+    val builder = new VisibleEdgeIntervals.Builder();
+    for (int position = 0; position < positionCount; position++) {
+      val edges = new java.util.ArrayList<GraphEdge>();
+      int upNodeIndex = random.nextInt(10);
+      while (upNodeIndex < rowCount - 1) {
+        int downNodeIndex = upNodeIndex + 1 + random.nextInt(20);
+        builder.add(position, upNodeIndex, downNodeIndex);
+        edges.add(new GraphEdge(upNodeIndex, downNodeIndex));
+        upNodeIndex = downNodeIndex + random.nextInt(5);
+      }
+      allEdgesByPosition.add(edges);
+    }
+    val intervals = builder.build();
+
+    for (int position = 0; position < positionCount; position++) {
+      for (int itemIndex = 0; itemIndex < rowCount + 20; itemIndex++) {
+        // when
+        val edge = intervals.findEdge(position, itemIndex);
+
+        // then
+        GraphEdge expectedEdge = null;
+        for (val candidate : allEdgesByPosition.get(position)) {
+          if (candidate.getUpNodeIndex() < itemIndex && itemIndex < candidate.getDownNodeIndex()) {
+            expectedEdge = candidate;
+          }
+        }
+        if (expectedEdge == null) {
+          Assert.assertNull("position ${position}, row ${itemIndex}", edge);
+        } else {
+          assertEdge(expectedEdge.getUpNodeIndex(), expectedEdge.getDownNodeIndex(), edge);
+        }
+      }
+    }
+  }
+
+  private static void assertEdge(int expectedUpNodeIndex, int expectedDownNodeIndex, GraphEdge edge) {
+    Assert.assertNotNull(edge);
+    Assert.assertEquals(expectedUpNodeIndex, edge.getUpNodeIndex());
+    Assert.assertEquals(expectedDownNodeIndex, edge.getDownNodeIndex());
+  }
+}
@@ -30,6 +30,8 @@ public abstract class BaseEnhancedGraphTable extends BaseGraphTable {
   /**
    * Queues repository update as a background task, which in turn itself queues model refresh onto the UI thread.
    * As opposed to {@link BaseEnhancedGraphTable#refreshModel}, does not need to be called from the UI thread (i.e. is not {@link UIEffect}).
+   * Requests coming in a burst are coalesced into a single update,
+   * which supersedes (and cancels) the update in progress, if any.
    *
    * @param doOnUIThreadWhenReady an action to execute on the UI thread after the model is refreshed.
    */
@@ -5,16 +5,20 @@ import lombok.Data;
 
 import com.virtuslab.gitmachete.frontend.graph.api.items.IGraphItem;
 import com.virtuslab.gitmachete.frontend.graph.api.render.parts.IRenderPart;
+import com.virtuslab.gitmachete.frontend.graph.api.repository.IRepositoryGraph;
 
 @Data
 public final class BranchOrCommitCell {
+  private final IRepositoryGraph repositoryGraph;
   private final IGraphItem graphItem;
   private final String text;
   private final List<? extends IRenderPart> renderParts;
 
   public BranchOrCommitCell(
+      IRepositoryGraph repositoryGraph,
       IGraphItem graphItem,
       List<? extends IRenderPart> renderParts) {
+    this.repositoryGraph = repositoryGraph;
     this.text = graphItem.getValue();
     this.renderParts = renderParts;
     this.graphItem = graphItem;
@@ -12,11 +12,13 @@ import org.checkerframework.checker.guieffect.qual.UIEffect;
 public class BranchOrCommitCellRenderer implements TableCellRenderer {
   private final boolean shouldDisplayActionToolTips;
 
+  private final GraphImageCache graphImageCache = new GraphImageCache();
+
   @Override
   @UIEffect
   public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected, boolean hasFocus, int row,
       int column) {
     return new BranchOrCommitCellRendererComponent(table, value, isSelected, hasFocus, row, column,
-        shouldDisplayActionToolTips);
+        shouldDisplayActionToolTips, graphImageCache);
   }
 }
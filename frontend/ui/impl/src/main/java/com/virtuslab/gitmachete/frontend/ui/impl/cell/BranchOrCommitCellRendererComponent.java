@@ -43,7 +43,6 @@ import com.intellij.ui.SimpleTextAttributes;
 import com.intellij.ui.paint.PaintUtil;
 import com.intellij.util.ui.UIUtil;
 import com.intellij.vcs.log.ui.render.LabelPainter;
-import io.vavr.collection.List;
 import io.vavr.control.Option;
 import lombok.Data;
 import lombok.experimental.ExtensionMethod;
@@ -52,7 +51,6 @@ import org.checkerframework.checker.guieffect.qual.UIEffect;
 import org.checkerframework.checker.index.qual.NonNegative;
 import org.checkerframework.checker.index.qual.Positive;
 
-import com.virtuslab.binding.RuntimeBinding;
 import com.virtuslab.gitmachete.backend.api.IForkPointCommitOfManagedBranch;
 import com.virtuslab.gitmachete.backend.api.IManagedBranchSnapshot;
 import com.virtuslab.gitmachete.backend.api.INonRootManagedBranchSnapshot;
@@ -63,9 +61,8 @@ import com.virtuslab.gitmachete.frontend.defs.Colors;
 import com.virtuslab.gitmachete.frontend.graph.api.items.IBranchItem;
 import com.virtuslab.gitmachete.frontend.graph.api.items.ICommitItem;
 import com.virtuslab.gitmachete.frontend.graph.api.items.IGraphItem;
-import com.virtuslab.gitmachete.frontend.graph.api.paint.IGraphCellPainterFactory;
+import com.virtuslab.gitmachete.frontend.graph.api.items.ILoadMoreCommitsItem;
 import com.virtuslab.gitmachete.frontend.graph.api.paint.PaintParameters;
-import com.virtuslab.gitmachete.frontend.graph.api.render.parts.IRenderPart;
 import com.virtuslab.gitmachete.frontend.resourcebundles.GitMacheteBundle;
 import com.virtuslab.gitmachete.frontend.ui.impl.table.IGitMacheteRepositorySnapshotProvider;
 
@@ -74,23 +71,21 @@ public final class BranchOrCommitCellRendererComponent extends SimpleColoredRend
   private static final String CELL_TEXT_FRAGMENTS_SPACING = "   ";
   private static final String HEAVY_WIDE_HEADED_RIGHTWARDS_ARROW = "\u2794";
 
-  private static final IGraphCellPainterFactory graphCellPainterFactoryInstance = RuntimeBinding
-      .instantiateSoleImplementingClass(IGraphCellPainterFactory.class);
-
   private final JTable graphTable;
   private final BufferedImage graphImage;
   private final MyTableCellRenderer myTableCellRenderer;
 
   @UIEffect
   @SuppressWarnings("keyfor:assignment")
-  public BranchOrCommitCellRendererComponent(
+  BranchOrCommitCellRendererComponent(
       JTable table,
       Object value,
       boolean isSelected,
       boolean hasFocus,
       int row,
       int column,
-      boolean shouldDisplayActionToolTips) {
+      boolean shouldDisplayActionToolTips,
+      GraphImageCache graphImageCache) {
 
     this.graphTable = table;
 
@@ -103,16 +98,7 @@ public final class BranchOrCommitCellRendererComponent extends SimpleColoredRend
 
     IGraphItem graphItem = cell.getGraphItem();
     int maxGraphNodePositionInRow = getMaxGraphNodePositionInRow(graphItem);
-    List<? extends IRenderPart> renderParts;
-    if (graphItem.hasBulletPoint()) {
-      renderParts = cell.getRenderParts();
-    } else {
-      renderParts = cell.getRenderParts().filter(e -> !e.isNode());
-    }
-    this.graphImage = getGraphImage(graphTable, maxGraphNodePositionInRow);
-    Graphics2D g2 = graphImage.createGraphics();
-    val graphCellPainter = graphCellPainterFactoryInstance.create(table);
-    graphCellPainter.draw(g2, renderParts);
+    this.graphImage = graphImageCache.getGraphImage(graphTable, cell, row, maxGraphNodePositionInRow);
 
     this.myTableCellRenderer = new MyTableCellRenderer();
 
@@ -161,6 +147,10 @@ public final class BranchOrCommitCellRendererComponent extends SimpleColoredRend
     }
 
     SimpleTextAttributes attributes = graphItem.getAttributes();
+    if (graphItem instanceof ILoadMoreCommitsItem) {
+      append(getString("string.GitMachete.BranchOrCommitCellRendererComponent.load-more-commits"), attributes);
+      return;
+    }
     append(cell.getText(), attributes);
 
     if (graphItem.isBranchItem()) {
@@ -168,7 +158,14 @@ public final class BranchOrCommitCellRendererComponent extends SimpleColoredRend
       IManagedBranchSnapshot branch = branchItem.getBranch();
 
       if (shouldDisplayActionToolTips) {
-        setBranchToolTipText(branch);
+        if (gitMacheteRepositorySnapshot != null && gitMacheteRepositorySnapshot.isSkeleton()) {
+          // The statuses of a skeleton snapshot are mere placeholders, not to be presented as if they were derived.
+          setToolTipText(
+              getString("string.GitMachete.BranchOrCommitCellRendererComponent.sync-to-parent-status-tooltip.pending")
+                  .format(branch.getName()));
+        } else {
+          setBranchToolTipText(branch);
+        }
       }
 
       Option<String> customAnnotation = branch.getCustomAnnotation();
@@ -239,16 +236,6 @@ public final class BranchOrCommitCellRendererComponent extends SimpleColoredRend
     return graphItem.getIndentLevel() + (isRootBranch ? 0 : 1);
   }
 
-  @UIEffect
-  @SuppressWarnings("nullness:argument") // for GraphicsConfiguration param
-  private static BufferedImage getGraphImage(JTable table, @NonNegative int maxGraphNodePositionInRow) {
-    return UIUtil.createImage(table.getGraphicsConfiguration(),
-        /* width */ PaintParameters.getNodeWidth(table.getRowHeight()) * (maxGraphNodePositionInRow + 2),
-        /* height */ table.getRowHeight(),
-        BufferedImage.TYPE_INT_ARGB,
-        PaintUtil.RoundingMode.CEIL);
-  }
-
   @UIEffect
   private static @Positive int calculateTextPadding(JTable table, @NonNegative int maxPosition) {
     int width = (maxPosition + 1) * PaintParameters.getNodeWidth(table.getRowHeight());
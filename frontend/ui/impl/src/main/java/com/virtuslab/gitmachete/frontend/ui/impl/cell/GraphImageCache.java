@@ -0,0 +1,119 @@
+package com.virtuslab.gitmachete.frontend.ui.impl.cell;
+
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import javax.swing.JTable;
+import javax.swing.LookAndFeel;
+import javax.swing.UIManager;
+
+import com.intellij.ui.JBColor;
+import com.intellij.ui.paint.PaintUtil;
+import com.intellij.ui.scale.JBUIScale;
+import com.intellij.util.ui.UIUtil;
+import io.vavr.collection.List;
+import lombok.CustomLog;
+import lombok.Data;
+import lombok.val;
+import org.checkerframework.checker.guieffect.qual.UIEffect;
+import org.checkerframework.checker.index.qual.NonNegative;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.virtuslab.binding.RuntimeBinding;
+import com.virtuslab.gitmachete.frontend.graph.api.paint.IGraphCellPainter;
+import com.virtuslab.gitmachete.frontend.graph.api.paint.IGraphCellPainterFactory;
+import com.virtuslab.gitmachete.frontend.graph.api.paint.PaintParameters;
+import com.virtuslab.gitmachete.frontend.graph.api.render.parts.IRenderPart;
+import com.virtuslab.gitmachete.frontend.graph.api.repository.IRepositoryGraph;
+
+/**
+ * LRU cache of the graph images (the edges and nodes part of the cell) of the rows of a single graph table,
+ * so that scrolling and hover/selection repaints don't need to allocate and paint a new image for each visible row.
+ * <p>
+ * An image depends only on the graph row and on the way the table is painted (row height, font, scale and look-and-feel),
+ * hence the cache is dropped entirely once any of these change, which includes a new repository snapshot being shown
+ * (as each snapshot gets a new {@link IRepositoryGraph}) and the IDE theme being switched.
+ * To be accessed on the UI thread only.
+ */
+@CustomLog
+final class GraphImageCache {
+  private static final int MAX_IMAGE_COUNT = 256;
+
+  private static final IGraphCellPainterFactory graphCellPainterFactoryInstance = RuntimeBinding
+      .instantiateSoleImplementingClass(IGraphCellPainterFactory.class);
+
+  @Data
+  private static final class RenderContext {
+    // Compared by identity, as neither of the implementations of IRepositoryGraph overrides `equals`.
+    private final IRepositoryGraph repositoryGraph;
+    private final int rowHeight;
+    private final @Nullable Font font;
+    private final float scale;
+    private final @Nullable LookAndFeel lookAndFeel;
+    private final boolean isBright;
+  }
+
+  private @Nullable RenderContext renderContext = null;
+  private @Nullable IGraphCellPainter graphCellPainter = null;
+
+  // Access-ordered, hence iterated from the least recently used image.
+  private final java.util.Map<Integer, BufferedImage> imageByRowIndex = new java.util.LinkedHashMap<>(
+      /* initialCapacity */ 16, /* loadFactor */ 0.75f, /* accessOrder */ true);
+
+  /**
+   * @return the image of the graph part of the given cell in the given row, painted only if not cached yet
+   */
+  @UIEffect
+  BufferedImage getGraphImage(JTable table, BranchOrCommitCell cell, int rowIndex, @NonNegative int maxGraphNodePositionInRow) {
+    val currentRenderContext = new RenderContext(cell.getRepositoryGraph(), table.getRowHeight(), table.getFont(),
+        JBUIScale.sysScale(table), UIManager.getLookAndFeel(), JBColor.isBright());
+    if (!currentRenderContext.equals(renderContext)) {
+      LOG.debug(() -> "Render context changed, dropping ${imageByRowIndex.size()} cached graph image(s)");
+      imageByRowIndex.clear();
+      renderContext = currentRenderContext;
+    }
+
+    BufferedImage graphImage = imageByRowIndex.get(rowIndex);
+    if (graphImage == null) {
+      List<? extends IRenderPart> renderParts;
+      if (cell.getGraphItem().hasBulletPoint()) {
+        renderParts = cell.getRenderParts();
+      } else {
+        renderParts = cell.getRenderParts().filter(e -> !e.isNode());
+      }
+      graphImage = createGraphImage(table, maxGraphNodePositionInRow);
+      Graphics2D g2 = graphImage.createGraphics();
+      getGraphCellPainter(table).draw(g2, renderParts);
+      g2.dispose();
+
+      imageByRowIndex.put(rowIndex, graphImage);
+      if (imageByRowIndex.size() > MAX_IMAGE_COUNT) {
+        java.util.Iterator<Integer> leastRecentlyUsedRowIndices = imageByRowIndex.keySet().iterator();
+        leastRecentlyUsedRowIndices.next();
+        leastRecentlyUsedRowIndices.remove();
+      }
+    }
+    return graphImage;
+  }
+
+  @UIEffect
+  private IGraphCellPainter getGraphCellPainter(JTable table) {
+    IGraphCellPainter painter = graphCellPainter;
+    if (painter == null) {
+      painter = graphCellPainterFactoryInstance.create(table);
+      graphCellPainter = painter;
+    }
+    return painter;
+  }
+
+  @UIEffect
+  @SuppressWarnings("nullness:argument") // for GraphicsConfiguration param
+  private static BufferedImage createGraphImage(JTable table, @NonNegative int maxGraphNodePositionInRow) {
+    return UIUtil.createImage(table.getGraphicsConfiguration(),
+        /* width */ PaintParameters.getNodeWidth(table.getRowHeight()) * (maxGraphNodePositionInRow + 2),
+        /* height */ table.getRowHeight(),
+        BufferedImage.TYPE_INT_ARGB,
+        PaintUtil.RoundingMode.CEIL);
+  }
+}
@@ -56,6 +56,8 @@ public final class GitMachetePanel extends SimpleToolWindowPanel {
         for (val event : events) {
           if (event instanceof VFileContentChangeEvent) {
             if (((VFileContentChangeEvent) event).getFile().getFileType().getName().equals(FileTypeIds.NAME)) {
+              // A burst of machete file writes (like the ones coming from subsequent slide-outs) gets coalesced
+              // into a single refresh by the graph table.
               graphTable.queueRepositoryUpdateAndModelRefresh();
             }
           }
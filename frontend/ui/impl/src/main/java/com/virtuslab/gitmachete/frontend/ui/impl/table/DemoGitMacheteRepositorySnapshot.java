@@ -32,9 +32,22 @@ import com.virtuslab.gitmachete.backend.api.SyncToParentStatus;
 import com.virtuslab.gitmachete.backend.api.SyncToRemoteStatus;
 import com.virtuslab.gitmachete.backend.api.hooks.IExecutionResult;
 
+/**
+ * A snapshot with no repository behind it, by default showing each kind of the edges (see {@link SimpleGraphTableProvider}).
+ * <p>
+ * Only the methods used by the graph pipeline are implemented. Its branches and commits can be used to build any other
+ * snapshot with no repository behind it (see {@link #DemoGitMacheteRepositorySnapshot(List, IManagedBranchSnapshot)}),
+ * e.g. a large one for the benchmarks of the graph.
+ */
 public class DemoGitMacheteRepositorySnapshot implements IGitMacheteRepositorySnapshot {
 
   private final List<IRootManagedBranchSnapshot> roots;
+  private final IManagedBranchSnapshot currentBranch;
+
+  public DemoGitMacheteRepositorySnapshot(List<IRootManagedBranchSnapshot> roots, IManagedBranchSnapshot currentBranch) {
+    this.roots = roots;
+    this.currentBranch = currentBranch;
+  }
 
   public DemoGitMacheteRepositorySnapshot() {
     val nullPointedCommit = new Commit("");
@@ -45,33 +58,41 @@ public class DemoGitMacheteRepositorySnapshot implements IGitMacheteRepositorySn
             /* customAnnotation */ "# Gray edge: branch is merged to its parent branch",
             nullPointedCommit,
             /* forkPoint */ null,
+            getRelationOfSTRS(SyncToRemoteStatus.InSyncToRemote),
             /* childBranches */ List.empty(),
             /* commits */ List.empty(),
+            /* commitCount */ 0,
             SyncToParentStatus.MergedToParent),
         new NonRoot(/* name */ "build-chain",
             /* fullName */ "refs/heads/build-chain",
             /* customAnnotation */ "# Green edge: branch is in sync with its parent branch",
             nullPointedCommit,
             /* forkPoint */ null,
+            getRelationOfSTRS(SyncToRemoteStatus.InSyncToRemote),
             /* childBranches */ List.empty(),
             /* commits */ List.of(new Commit("Second commit of build-chain"),
                 new Commit("First commit of build-chain")),
+            /* commitCount */ 2,
             SyncToParentStatus.InSync),
         new NonRoot(/* name */ "call-ws",
             /* fullName */ "refs/heads/call-ws",
             /* customAnnotation */ "# Yellow edge: Branch is in sync with its parent branch but the fork point is NOT equal to parent branch",
             nullPointedCommit,
             /* forkPoint */ fp,
+            getRelationOfSTRS(SyncToRemoteStatus.InSyncToRemote),
             /* childBranches */ List.empty(),
             /* commits */ List.of(fp),
+            /* commitCount */ 1,
             SyncToParentStatus.InSyncButForkPointOff),
         new NonRoot(/* name */ "remove-ff",
             /* fullName */ "refs/heads/remove-ff",
             /* customAnnotation */ "# Red edge: branch is out of sync to its parent branch",
             nullPointedCommit,
             /* forkPoint */ null,
+            getRelationOfSTRS(SyncToRemoteStatus.InSyncToRemote),
             /* childBranches */ List.empty(),
             /* commits */ List.of(new Commit("Some commit")),
+            /* commitCount */ 1,
             SyncToParentStatus.OutOfSync)
     };
 
@@ -79,6 +100,7 @@ public class DemoGitMacheteRepositorySnapshot implements IGitMacheteRepositorySn
         /* fullName */ "refs/heads/develop",
         /* customAnnotation */ "# This is a root branch, the underline indicates that it is the currently checked out branch",
         nullPointedCommit,
+        getRelationOfSTRS(SyncToRemoteStatus.InSyncToRemote),
         /* childBranches */ List.of(nonRoots));
 
     for (val nr : nonRoots) {
@@ -86,6 +108,7 @@ public class DemoGitMacheteRepositorySnapshot implements IGitMacheteRepositorySn
     }
 
     this.roots = List.of(root);
+    this.currentBranch = root;
   }
 
   static RelationToRemote getRelationOfSTRS(SyncToRemoteStatus syncToRemoteStatus) {
@@ -104,7 +127,7 @@ public class DemoGitMacheteRepositorySnapshot implements IGitMacheteRepositorySn
 
   @Override
   public Option<IManagedBranchSnapshot> getCurrentBranchIfManaged() {
-    return Option.narrow(roots.headOption());
+    return Option.some(currentBranch);
   }
 
   @Override
@@ -143,9 +166,14 @@ public class DemoGitMacheteRepositorySnapshot implements IGitMacheteRepositorySn
   }
 
   @AllArgsConstructor
-  private static class Commit implements ICommitOfManagedBranch {
+  public static class Commit implements ICommitOfManagedBranch {
 
     private final String msg;
+    private final @Nullable String hash;
+
+    public Commit(String msg) {
+      this(msg, /* hash */ null);
+    }
 
     @Override
     public String getShortMessage() {
@@ -158,13 +186,18 @@ public class DemoGitMacheteRepositorySnapshot implements IGitMacheteRepositorySn
     }
 
     @Override
+    @SuppressWarnings("value:return")
     public @ArrayLen(40) String getHash() {
-      throw new NotImplementedError();
+      if (hash == null) {
+        throw new NotImplementedError();
+      }
+      return hash;
     }
 
     @Override
+    @SuppressWarnings({"index:argument", "value:return"})
     public @ArrayLen(7) String getShortHash() {
-      throw new NotImplementedError();
+      return getHash().substring(0, 7);
     }
 
     @Override
@@ -208,16 +241,21 @@ public class DemoGitMacheteRepositorySnapshot implements IGitMacheteRepositorySn
     public boolean isOverridden() {
       return false;
     }
+
+    @Override
+    public Option<Integer> getNotFoundWithinCommitCount() {
+      return Option.none();
+    }
   }
 
   @Getter
   @RequiredArgsConstructor
-  private static final class Root implements IRootManagedBranchSnapshot {
+  public static final class Root implements IRootManagedBranchSnapshot {
     private final String name;
     private final String fullName;
-    private final String customAnnotation;
+    private final @Nullable String customAnnotation;
     private final Commit pointedCommit;
-    private final RelationToRemote relationToRemote = getRelationOfSTRS(SyncToRemoteStatus.InSyncToRemote);
+    private final RelationToRemote relationToRemote;
     private final List<INonRootManagedBranchSnapshot> children;
 
     @Override
@@ -238,16 +276,18 @@ public class DemoGitMacheteRepositorySnapshot implements IGitMacheteRepositorySn
 
   @Getter
   @RequiredArgsConstructor
-  private static final class NonRoot implements INonRootManagedBranchSnapshot {
+  public static final class NonRoot implements INonRootManagedBranchSnapshot {
     private final String name;
     private final String fullName;
-    private final String customAnnotation;
+    private final @Nullable String customAnnotation;
     private final Commit pointedCommit;
     private final @Nullable IForkPointCommitOfManagedBranch forkPoint;
-    private final RelationToRemote relationToRemote = getRelationOfSTRS(SyncToRemoteStatus.InSyncToRemote);
+    private final RelationToRemote relationToRemote;
     private final List<INonRootManagedBranchSnapshot> children;
 
+    /** The commits listed so far, from the most recent one; see {@link #getCommitCount} for all of them. */
     private final List<ICommitOfManagedBranch> commits;
+    private final int commitCount;
     @MonotonicNonNull
     private IManagedBranchSnapshot parent = null;
     private final SyncToParentStatus syncToParentStatus;
@@ -258,7 +298,7 @@ public class DemoGitMacheteRepositorySnapshot implements IGitMacheteRepositorySn
       return parent;
     }
 
-    void setParent(IManagedBranchSnapshot givenParentBranch) {
+    public void setParent(IManagedBranchSnapshot givenParentBranch) {
       assert parent == null : "parentBranch has already been set";
       parent = givenParentBranch;
     }
@@ -278,6 +318,16 @@ public class DemoGitMacheteRepositorySnapshot implements IGitMacheteRepositorySn
       return Option.of(forkPoint);
     }
 
+    @Override
+    public Option<Integer> getForkPointNotFoundWithinCommitCount() {
+      return Option.none();
+    }
+
+    @Override
+    public List<ICommitOfManagedBranch> loadCommits(int skipCount, int maxCount) {
+      return commits.drop(skipCount).take(maxCount);
+    }
+
     @Override
     public IGitRebaseParameters getParametersForRebaseOntoParent() {
       throw new NotImplementedError();
@@ -48,6 +48,7 @@ import com.intellij.util.messages.Topic;
 import com.intellij.util.ui.JBUI;
 import git4idea.repo.GitRepository;
 import git4idea.repo.GitRepositoryChangeListener;
+import io.vavr.collection.HashSet;
 import io.vavr.collection.Set;
 import io.vavr.control.Option;
 import lombok.CustomLog;
@@ -57,6 +58,7 @@ import lombok.experimental.ExtensionMethod;
 import lombok.val;
 import org.checkerframework.checker.guieffect.qual.UI;
 import org.checkerframework.checker.guieffect.qual.UIEffect;
+import org.checkerframework.checker.initialization.qual.NotOnlyInitialized;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 import com.virtuslab.binding.RuntimeBinding;
@@ -65,10 +67,12 @@ import com.virtuslab.branchlayout.api.IBranchLayout;
 import com.virtuslab.branchlayout.api.readwrite.IBranchLayoutReader;
 import com.virtuslab.branchlayout.api.readwrite.IBranchLayoutWriter;
 import com.virtuslab.gitmachete.backend.api.IGitMacheteRepositorySnapshot;
+import com.virtuslab.gitmachete.backend.api.INonRootManagedBranchSnapshot;
 import com.virtuslab.gitmachete.backend.api.NullGitMacheteRepositorySnapshot;
 import com.virtuslab.gitmachete.frontend.datakeys.DataKeys;
 import com.virtuslab.gitmachete.frontend.defs.ActionGroupIds;
 import com.virtuslab.gitmachete.frontend.graph.api.items.IGraphItem;
+import com.virtuslab.gitmachete.frontend.graph.api.items.ILoadMoreCommitsItem;
 import com.virtuslab.gitmachete.frontend.graph.api.repository.IRepositoryGraph;
 import com.virtuslab.gitmachete.frontend.graph.api.repository.IRepositoryGraphCache;
 import com.virtuslab.gitmachete.frontend.graph.api.repository.NullRepositoryGraph;
@@ -98,27 +102,49 @@ public final class EnhancedGraphTable extends BaseEnhancedGraphTable
   private final IBranchLayoutReader branchLayoutReader;
   private final IBranchLayoutWriter branchLayoutWriter;
   private final IRepositoryGraphCache repositoryGraphCache;
+  // The same model for the entire lifetime of the table, so that just the changed rows get notified about (and repainted)
+  private final GraphTableModel graphTableModel;
+  @NotOnlyInitialized
+  private final GitMacheteRepositoryUpdateScheduler repositoryUpdateScheduler;
 
   @Getter
   @Setter
   @UIEffect
   private boolean isListingCommits;
 
-  @Getter
   @UIEffect
   private @Nullable IGitMacheteRepositorySnapshot gitMacheteRepositorySnapshot;
 
+  // The repository that the above snapshot has been created for
+  @UIEffect
+  private @Nullable GitRepository snapshotGitRepository;
+
+  // Only displayed until the actual snapshot is there; never exposed to the actions nor reused by the updates
+  @UIEffect
+  private @Nullable IGitMacheteRepositorySnapshot skeletonSnapshot;
+
+  // The snapshot whose graph is currently displayed, to find out which rows have changed once another snapshot comes in
+  @UIEffect
+  private @Nullable IGitMacheteRepositorySnapshot displayedSnapshot;
+
   @UIEffect
   private @Nullable String selectedBranchName;
 
   @UIEffect
   public EnhancedGraphTable(Project project) {
-    super(new GraphTableModel(NullRepositoryGraph.getInstance()));
+    this(project, new GraphTableModel(NullRepositoryGraph.getInstance()));
+  }
+
+  @UIEffect
+  private EnhancedGraphTable(Project project, GraphTableModel graphTableModel) {
+    super(graphTableModel);
 
     this.project = project;
+    this.graphTableModel = graphTableModel;
     this.branchLayoutReader = RuntimeBinding.instantiateSoleImplementingClass(IBranchLayoutReader.class);
     this.branchLayoutWriter = RuntimeBinding.instantiateSoleImplementingClass(IBranchLayoutWriter.class);
     this.repositoryGraphCache = RuntimeBinding.instantiateSoleImplementingClass(IRepositoryGraphCache.class);
+    this.repositoryUpdateScheduler = new GitMacheteRepositoryUpdateScheduler(project, /* graphTable */ this);
     this.isListingCommits = false;
 
     // InitializationChecker allows us to invoke the below methods because the class is final
@@ -213,7 +239,10 @@ public final class EnhancedGraphTable extends BaseEnhancedGraphTable
       return;
     }
 
-    setModel(new GraphTableModel(repositoryGraph));
+    displayRepositoryGraph(gitMacheteRepositorySnapshot, repositoryGraph);
+    if (gitMacheteRepositorySnapshot != null) {
+      repaintBranchRowsOnStatusHookOutputs(gitMacheteRepositorySnapshot);
+    }
 
     Set<String> skippedBranchNames = repositorySnapshot.getSkippedBranchNames();
     if (skippedBranchNames.nonEmpty()) {
@@ -229,11 +258,50 @@ public final class EnhancedGraphTable extends BaseEnhancedGraphTable
           String.join(", ", duplicatedBranchNames));
     }
 
-    repaint();
-    revalidate();
+    // No need to repaint (let alone revalidate) the entire table, as the model has notified it about the changed rows.
     doOnUIThreadWhenReady.run();
   }
 
+  /**
+   * Replaces the displayed graph with {@code repositoryGraph} of {@code repositorySnapshot},
+   * notifying just about the rows that have changed since the previously displayed snapshot.
+   */
+  @UIEffect
+  private void displayRepositoryGraph(@Nullable IGitMacheteRepositorySnapshot repositorySnapshot,
+      IRepositoryGraph repositoryGraph) {
+    val previousSnapshot = displayedSnapshot;
+    displayedSnapshot = repositorySnapshot;
+    if (previousSnapshot == null || repositorySnapshot == null
+        || previousSnapshot.isSkeleton() != repositorySnapshot.isSkeleton()) {
+      graphTableModel.setRepositoryGraph(repositoryGraph, HashSet.empty(), /* areAllRowsChanged */ true);
+      return;
+    }
+
+    val diff = GitMacheteRepositorySnapshotDiff.between(previousSnapshot, repositorySnapshot);
+    LOG.debug(() -> "Changes since the previously displayed snapshot: ${diff}");
+    Set<String> changedBranchNames = diff.getChangedBranchNames();
+    if (diff.isCurrentBranchChanged()) {
+      // Both the previous and the current one need to be repainted, as the current branch is displayed in bold.
+      changedBranchNames = changedBranchNames
+          .addAll(previousSnapshot.getCurrentBranchIfManaged().map(branch -> branch.getName()))
+          .addAll(repositorySnapshot.getCurrentBranchIfManaged().map(branch -> branch.getName()));
+    }
+    graphTableModel.setRepositoryGraph(repositoryGraph, changedBranchNames,
+        /* areAllRowsChanged */ diff.isOngoingOperationChanged());
+  }
+
+  /**
+   * The snapshot is displayed without waiting for machete-status-branch hook outputs;
+   * each branch row gets repainted once the output for the given branch is there.
+   * Safe to be called on each refresh, as the model registers the callbacks just once per snapshot.
+   */
+  @UIEffect
+  private void repaintBranchRowsOnStatusHookOutputs(IGitMacheteRepositorySnapshot repositorySnapshot) {
+    // The snapshot might have been already replaced with a newer one in the meantime.
+    graphTableModel.fireBranchRowsUpdatedOnStatusHookOutputs(repositorySnapshot,
+        /* isSnapshotDisplayed */ () -> repositorySnapshot.equals(displayedSnapshot));
+  }
+
   private Notification getSkippedBranchesNotification(IGitMacheteRepositorySnapshot repositorySnapshot,
       GitRepository gitRepository) {
     val notification = VcsNotifier.STANDARD_NOTIFICATION.createNotification(
@@ -254,10 +322,7 @@ public final class EnhancedGraphTable extends BaseEnhancedGraphTable
   }
 
   private void slideOutSkippedBranches(IGitMacheteRepositorySnapshot repositorySnapshot, GitRepository gitRepository) {
-    IBranchLayout newBranchLayout = repositorySnapshot.getBranchLayout();
-    for (val branchName : repositorySnapshot.getSkippedBranchNames()) {
-      newBranchLayout = newBranchLayout.slideOut(branchName);
-    }
+    IBranchLayout newBranchLayout = repositorySnapshot.getBranchLayout().slideOut(repositorySnapshot.getSkippedBranchNames());
 
     try {
       Path macheteFilePath = gitRepository.getMacheteFilePath();
@@ -287,6 +352,7 @@ public final class EnhancedGraphTable extends BaseEnhancedGraphTable
   private Consumer<IGitMacheteRepositorySnapshot> getSuccessfulDiscoverRepositoryConsumer(@UI Runnable doOnUIThreadWhenReady) {
     return (IGitMacheteRepositorySnapshot repositorySnapshot) -> ModalityUiUtil.invokeLaterIfNeeded(NON_MODAL, () -> {
       gitMacheteRepositorySnapshot = repositorySnapshot;
+      snapshotGitRepository = getGitRepositorySelectionProvider().getSelectedGitRepository().getOrNull();
       queueRepositoryUpdateAndModelRefresh(doOnUIThreadWhenReady);
 
       val notifier = VcsNotifier.getInstance(project);
@@ -313,6 +379,17 @@ public final class EnhancedGraphTable extends BaseEnhancedGraphTable
             .format(macheteFilePath.toString())));
   }
 
+  @UIEffect
+  private void queueLoadingMoreCommits(INonRootManagedBranchSnapshot branch) {
+    int skipCount = repositoryGraphCache.getListedCommits(branch).size();
+    new LoadMoreCommitsBackgroundable(project, branch, skipCount, loadedCommits -> {
+      // The snapshot itself is immutable, so the loaded commits are kept in the graph cache instead
+      // (and keep being listed for as long as the branch remains unchanged in the subsequent snapshots).
+      repositoryGraphCache.addLoadedCommits(branch, skipCount, loadedCommits);
+      refreshModel();
+    }).queue();
+  }
+
   @Override
   @UIEffect
   public void refreshModel() {
@@ -340,38 +417,85 @@ public final class EnhancedGraphTable extends BaseEnhancedGraphTable
     LOG.debug("Entering");
 
     if (!project.isDisposed()) {
-      ModalityUiUtil.invokeLaterIfNeeded(NON_MODAL, () -> {
-        val gitRepositorySelectionProvider = getGitRepositorySelectionProvider();
-        val gitRepository = gitRepositorySelectionProvider.getSelectedGitRepository().getOrNull();
-        if (gitRepository == null) {
-          LOG.warn("Selected repository is null");
-          return;
-        }
+      ModalityUiUtil.invokeLaterIfNeeded(NON_MODAL, () -> repositoryUpdateScheduler.requestUpdate(doOnUIThreadWhenReady));
+    } else {
+      LOG.debug("Project is disposed");
+    }
+  }
 
-        @UI Consumer<Option<IGitMacheteRepositorySnapshot>> doRefreshModel = newGitMacheteRepositorySnapshot -> {
-          val nullableRepositorySnapshot = newGitMacheteRepositorySnapshot.getOrNull();
-          this.gitMacheteRepositorySnapshot = nullableRepositorySnapshot;
-          if (nullableRepositorySnapshot != null) {
-            refreshModel(gitRepository,
-                nullableRepositorySnapshot,
-                doOnUIThreadWhenReady);
+  /**
+   * To be called by {@link GitMacheteRepositoryUpdateScheduler} only, as it coalesces the requested updates.
+   *
+   * @return the queued update, or {@code null} if there's no repository to update
+   */
+  @UIEffect
+  @Nullable
+  GitMacheteRepositoryUpdateBackgroundable queueRepositoryUpdate(@UI Runnable doOnUIThreadWhenReady,
+      @UI Runnable doOnUIThreadWhenFinished) {
+    val gitRepositorySelectionProvider = getGitRepositorySelectionProvider();
+    val gitRepository = gitRepositorySelectionProvider.getSelectedGitRepository().getOrNull();
+    if (gitRepository == null) {
+      LOG.warn("Selected repository is null");
+      return null;
+    }
+    if (gitRepository != snapshotGitRepository) {
+      // The snapshot of the previously selected repository is neither to be reused by the update
+      // nor to keep the skeleton of the newly selected repository from being displayed.
+      gitMacheteRepositorySnapshot = null;
+      snapshotGitRepository = gitRepository;
+    }
 
-          } else {
-            refreshModel(gitRepository, NullGitMacheteRepositorySnapshot.getInstance(), doOnUIThreadWhenReady);
-          }
-        };
+    @UI Consumer<IGitMacheteRepositorySnapshot> doDisplaySkeleton = newSkeletonSnapshot -> {
+      // A skeleton is only ever displayed in place of an empty table, and never in place of an actual snapshot.
+      if (gitMacheteRepositorySnapshot == null && newSkeletonSnapshot.getRootBranches().nonEmpty()) {
+        displaySkeleton(newSkeletonSnapshot);
+      }
+    };
+
+    @UI Consumer<Option<IGitMacheteRepositorySnapshot>> doRefreshModel = newGitMacheteRepositorySnapshot -> {
+      val nullableRepositorySnapshot = newGitMacheteRepositorySnapshot.getOrNull();
+      this.gitMacheteRepositorySnapshot = nullableRepositorySnapshot;
+      this.snapshotGitRepository = gitRepository;
+      this.skeletonSnapshot = null;
+      if (nullableRepositorySnapshot != null) {
+        refreshModel(gitRepository,
+            nullableRepositorySnapshot,
+            doOnUIThreadWhenReady);
+
+      } else {
+        refreshModel(gitRepository, NullGitMacheteRepositorySnapshot.getInstance(), doOnUIThreadWhenReady);
+      }
+    };
 
-        setTextForEmptyTable(getString("string.GitMachete.EnhancedGraphTable.empty-table-text.loading"));
+    setTextForEmptyTable(getString("string.GitMachete.EnhancedGraphTable.empty-table-text.loading"));
 
-        LOG.debug("Queuing repository update onto a non-UI thread");
-        new GitMacheteRepositoryUpdateBackgroundable(project, gitRepository, branchLayoutReader, doRefreshModel).queue();
+    LOG.debug("Queuing repository update onto a non-UI thread");
+    val repositoryUpdate = new GitMacheteRepositoryUpdateBackgroundable(project, gitRepository, branchLayoutReader,
+        /* previousSnapshot */ gitMacheteRepositorySnapshot, doDisplaySkeleton, doRefreshModel, doOnUIThreadWhenFinished);
+    repositoryUpdate.queue();
 
-        gitRepository.getMacheteFile().forEach(macheteFile -> VfsUtil.markDirtyAndRefresh(/* async */ true,
-            /* recursive */ false, /* reloadChildren */ false, macheteFile));
-      });
-    } else {
-      LOG.debug("Project is disposed");
-    }
+    gitRepository.getMacheteFile().forEach(macheteFile -> VfsUtil.markDirtyAndRefresh(/* async */ true,
+        /* recursive */ false, /* reloadChildren */ false, macheteFile));
+    return repositoryUpdate;
+  }
+
+  /**
+   * Unlike {@link #refreshModel}, doesn't trigger any discover, notification etc.,
+   * as all that is going to happen anyway once the actual snapshot is there.
+   */
+  @UIEffect
+  private void displaySkeleton(IGitMacheteRepositorySnapshot newSkeletonSnapshot) {
+    LOG.debug("Displaying the skeleton snapshot until the actual snapshot is created");
+    skeletonSnapshot = newSkeletonSnapshot;
+    displayRepositoryGraph(newSkeletonSnapshot, repositoryGraphCache.getRepositoryGraph(newSkeletonSnapshot, isListingCommits));
+  }
+
+  /**
+   * @return the snapshot that's currently displayed, which might be a skeleton one (unlike the snapshot exposed to the actions)
+   */
+  @Override
+  public @Nullable IGitMacheteRepositorySnapshot getGitMacheteRepositorySnapshot() {
+    return gitMacheteRepositorySnapshot != null ? gitMacheteRepositorySnapshot : skeletonSnapshot;
   }
 
   @Override
@@ -407,6 +531,10 @@ public final class EnhancedGraphTable extends BaseEnhancedGraphTable
 
       BranchOrCommitCell cell = (BranchOrCommitCell) graphTable.getModel().getValueAt(row, col);
       IGraphItem graphItem = cell.getGraphItem();
+      if (graphItem instanceof ILoadMoreCommitsItem) {
+        graphTable.queueLoadingMoreCommits(((ILoadMoreCommitsItem) graphItem).getContainingBranch());
+        return;
+      }
       if (!graphItem.isBranchItem()) {
         return;
       }
@@ -48,10 +48,13 @@ public class GitMacheteRepositoryDiscoverer {
     new Task.Backgroundable(project, getString("string.GitMachete.EnhancedGraphTable.automatic-discover.task-title")) {
       @Override
       public void run(ProgressIndicator indicator) {
+        val progressMonitor = new ProgressIndicatorMonitor(indicator);
         val discoverRunResult = Try.of(() -> RuntimeBinding.instantiateSoleImplementingClass(IGitMacheteRepositoryCache.class)
-            .getInstance(rootDirPath, mainGitDirPath, worktreeGitDirPath).discoverLayoutAndCreateSnapshot());
+            .getInstance(rootDirPath, mainGitDirPath, worktreeGitDirPath).discoverLayoutAndCreateSnapshot(progressMonitor));
 
         if (discoverRunResult.isFailure()) {
+          // No point in notifying about the failure caused by the cancellation.
+          indicator.checkCanceled();
           val exception = discoverRunResult.getCause();
           ModalityUiUtil.invokeLaterIfNeeded(NON_MODAL, () -> VcsNotifier.getInstance(project)
               .notifyError(
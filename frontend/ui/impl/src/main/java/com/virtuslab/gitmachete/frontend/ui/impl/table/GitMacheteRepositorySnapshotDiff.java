@@ -0,0 +1,178 @@
+package com.virtuslab.gitmachete.frontend.ui.impl.table;
+
+import java.util.Objects;
+import java.util.function.Function;
+
+import io.vavr.Tuple;
+import io.vavr.Tuple2;
+import io.vavr.collection.LinkedHashMap;
+import io.vavr.collection.List;
+import io.vavr.collection.Map;
+import io.vavr.collection.Set;
+import io.vavr.collection.TreeSet;
+import io.vavr.control.Option;
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import lombok.val;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.virtuslab.gitmachete.backend.api.IGitMacheteRepositorySnapshot;
+import com.virtuslab.gitmachete.backend.api.IManagedBranchSnapshot;
+
+/**
+ * The structural difference between two snapshots, with the managed branches identified by their names.
+ * A branch present in both snapshots is reported in each of the categories of changes that apply to it.
+ * <p>
+ * Note that the same snapshot might differ from itself over time, as its status hook outputs can get completed
+ * in the meantime; only the outputs present at the moment of calling {@link #between} are taken into account.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+@ToString
+final class GitMacheteRepositorySnapshotDiff {
+
+  private final Set<String> addedBranchNames;
+
+  private final Set<String> removedBranchNames;
+
+  /** The branches with a different parent (or no longer/newly a root), or at a different position among their siblings. */
+  private final Set<String> movedBranchNames;
+
+  private final Set<String> syncToParentStatusChangedBranchNames;
+
+  /** The branches that point to a different commit, or with a different fork point or commits loaded so far. */
+  private final Set<String> commitsChangedBranchNames;
+
+  private final Set<String> relationToRemoteChangedBranchNames;
+
+  /** The branches with a different custom annotation or status hook output. */
+  private final Set<String> annotationChangedBranchNames;
+
+  private final boolean isCurrentBranchChanged;
+
+  /** Whether the ongoing repository operation or the branch being rebased has changed. */
+  private final boolean isOngoingOperationChanged;
+
+  static GitMacheteRepositorySnapshotDiff between(IGitMacheteRepositorySnapshot previousSnapshot,
+      IGitMacheteRepositorySnapshot currentSnapshot) {
+    val previousPlacements = derivePlacementByBranchName(previousSnapshot);
+    val currentPlacements = derivePlacementByBranchName(currentSnapshot);
+
+    Set<String> addedBranchNames = TreeSet.ofAll(currentPlacements.keySet()).removeAll(previousPlacements.keySet());
+    Set<String> removedBranchNames = TreeSet.ofAll(previousPlacements.keySet()).removeAll(currentPlacements.keySet());
+
+    // Only the branches present in both snapshots, paired up by name
+    val previousAndCurrentBranches = currentPlacements
+        .flatMap(current -> previousPlacements.get(current._1).map(previous -> Tuple.of(previous, current._2)))
+        .toList();
+
+    Set<String> movedBranchNames = namesOfChanged(previousAndCurrentBranches, placement -> placement);
+    Set<String> syncToParentStatusChangedBranchNames = namesOfChanged(previousAndCurrentBranches,
+        placement -> placement.branch.isNonRoot() ? placement.branch.asNonRoot().getSyncToParentStatus() : null);
+    Set<String> commitsChangedBranchNames = namesOfChanged(previousAndCurrentBranches,
+        placement -> CommitsOfBranch.of(placement.branch));
+    Set<String> relationToRemoteChangedBranchNames = namesOfChanged(previousAndCurrentBranches,
+        placement -> placement.branch.getRelationToRemote());
+    Set<String> annotationChangedBranchNames = namesOfChanged(previousAndCurrentBranches,
+        placement -> Tuple.of(placement.branch.getCustomAnnotation(), placement.branch.getStatusHookOutput()));
+
+    boolean isCurrentBranchChanged = !getCurrentBranchName(previousSnapshot).equals(getCurrentBranchName(currentSnapshot));
+    boolean isOngoingOperationChanged =
+        previousSnapshot.getOngoingRepositoryOperation() != currentSnapshot.getOngoingRepositoryOperation()
+            || !previousSnapshot.getRebasedBranchName().equals(currentSnapshot.getRebasedBranchName());
+
+    return new GitMacheteRepositorySnapshotDiff(addedBranchNames, removedBranchNames, movedBranchNames,
+        syncToParentStatusChangedBranchNames, commitsChangedBranchNames, relationToRemoteChangedBranchNames,
+        annotationChangedBranchNames, isCurrentBranchChanged, isOngoingOperationChanged);
+  }
+
+  boolean isEmpty() {
+    return addedBranchNames.isEmpty() && removedBranchNames.isEmpty() && getChangedBranchNames().isEmpty()
+        && !isCurrentBranchChanged && !isOngoingOperationChanged;
+  }
+
+  /**
+   * @return the branches present in both snapshots, but changed in any way
+   */
+  Set<String> getChangedBranchNames() {
+    return movedBranchNames
+        .union(syncToParentStatusChangedBranchNames)
+        .union(commitsChangedBranchNames)
+        .union(relationToRemoteChangedBranchNames)
+        .union(annotationChangedBranchNames);
+  }
+
+  /**
+   * Where the branch is in the tree of the managed branches; compared by value, unlike the branch itself.
+   */
+  @EqualsAndHashCode
+  @RequiredArgsConstructor
+  private static final class Placement {
+    @EqualsAndHashCode.Exclude
+    private final IManagedBranchSnapshot branch;
+    private final @Nullable String parentName;
+    private final int indexAmongSiblings;
+  }
+
+  /**
+   * The commits that the branch is presented with in the graph table; compared by the hashes.
+   */
+  @EqualsAndHashCode
+  @RequiredArgsConstructor
+  private static final class CommitsOfBranch {
+    private final String pointedCommitHash;
+    private final @Nullable String forkPointHash;
+    private final List<String> commitHashes;
+    private final boolean hasMoreCommits;
+
+    static CommitsOfBranch of(IManagedBranchSnapshot branch) {
+      String pointedCommitHash = branch.getPointedCommit().getHash();
+      if (branch.isRoot()) {
+        return new CommitsOfBranch(pointedCommitHash, /* forkPointHash */ null, List.empty(), /* hasMoreCommits */ false);
+      }
+      val nonRootBranch = branch.asNonRoot();
+      return new CommitsOfBranch(pointedCommitHash,
+          nonRootBranch.getForkPoint().map(forkPoint -> forkPoint.getHash()).getOrNull(),
+          nonRootBranch.getCommits().map(commit -> commit.getHash()),
+          nonRootBranch.hasMoreCommits());
+    }
+  }
+
+  /**
+   * Based on the tree of the managed branches rather than on {@link IGitMacheteRepositorySnapshot#getManagedBranches},
+   * so that the placements come in the order of the rows of the graph table.
+   */
+  private static Map<String, Placement> derivePlacementByBranchName(IGitMacheteRepositorySnapshot snapshot) {
+    Map<String, Placement> result = LinkedHashMap.empty();
+    java.util.Deque<Placement> stack = new java.util.ArrayDeque<>();
+    val rootBranches = snapshot.getRootBranches();
+    for (int i = rootBranches.size() - 1; i >= 0; i--) {
+      stack.push(new Placement(rootBranches.get(i), /* parentName */ null, i));
+    }
+    while (!stack.isEmpty()) {
+      val placement = stack.pop();
+      result = result.put(placement.branch.getName(), placement);
+      val children = placement.branch.getChildren();
+      for (int i = children.size() - 1; i >= 0; i--) {
+        stack.push(new Placement(children.get(i), placement.branch.getName(), i));
+      }
+    }
+    return result;
+  }
+
+  private static Set<String> namesOfChanged(List<Tuple2<Placement, Placement>> previousAndCurrentBranches,
+      Function<Placement, @Nullable Object> extractor) {
+    return previousAndCurrentBranches
+        .filter(previousAndCurrent -> !Objects.equals(extractor.apply(previousAndCurrent._1),
+            extractor.apply(previousAndCurrent._2)))
+        .map(previousAndCurrent -> previousAndCurrent._2.branch.getName())
+        .toSortedSet();
+  }
+
+  private static Option<String> getCurrentBranchName(IGitMacheteRepositorySnapshot snapshot) {
+    return snapshot.getCurrentBranchIfManaged().map(branch -> branch.getName());
+  }
+}
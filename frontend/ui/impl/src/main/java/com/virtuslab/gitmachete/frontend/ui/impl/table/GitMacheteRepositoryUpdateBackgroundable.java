@@ -17,13 +17,17 @@ import io.vavr.control.Option;
 import io.vavr.control.Try;
 import lombok.CustomLog;
 import lombok.experimental.ExtensionMethod;
+import lombok.val;
 import org.checkerframework.checker.guieffect.qual.UI;
+import org.checkerframework.checker.guieffect.qual.UIEffect;
 import org.checkerframework.checker.index.qual.Positive;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 import com.virtuslab.binding.RuntimeBinding;
 import com.virtuslab.branchlayout.api.BranchLayoutException;
 import com.virtuslab.branchlayout.api.IBranchLayout;
 import com.virtuslab.branchlayout.api.readwrite.IBranchLayoutReader;
+import com.virtuslab.gitmachete.backend.api.IGitMacheteRepository;
 import com.virtuslab.gitmachete.backend.api.IGitMacheteRepositoryCache;
 import com.virtuslab.gitmachete.backend.api.IGitMacheteRepositorySnapshot;
 import com.virtuslab.gitmachete.backend.api.MacheteFileReaderException;
@@ -35,36 +39,96 @@ public final class GitMacheteRepositoryUpdateBackgroundable extends Task.Backgro
 
   private final GitRepository gitRepository;
   private final IBranchLayoutReader branchLayoutReader;
+  private final @Nullable IGitMacheteRepositorySnapshot previousSnapshot;
+  private final @UI Consumer<IGitMacheteRepositorySnapshot> doOnUIThreadWhenSkeletonReady;
   private final @UI Consumer<Option<IGitMacheteRepositorySnapshot>> doOnUIThreadWhenDone;
+  private final @UI Runnable doOnUIThreadWhenFinished;
 
   private final IGitMacheteRepositoryCache gitMacheteRepositoryCache;
 
+  private volatile boolean isCancelled = false;
+  private volatile @Nullable ProgressIndicator progressIndicator = null;
+  private volatile Option<IGitMacheteRepositorySnapshot> gitMacheteRepositorySnapshot = Option.none();
+
+  /**
+   * @param doOnUIThreadWhenSkeletonReady  executed with the skeleton snapshot (see
+   *                                       {@link IGitMacheteRepository#createSkeletonSnapshotForLayout}) while the update
+   *                                       is still in progress, unless cancelled; only if there's no {@code previousSnapshot}
+   * @param doOnUIThreadWhenDone           executed with the new snapshot, unless the update got cancelled
+   * @param doOnUIThreadWhenFinished       executed once the update is finished in any way, also when cancelled
+   */
   public GitMacheteRepositoryUpdateBackgroundable(
       Project project,
       GitRepository gitRepository,
       IBranchLayoutReader branchLayoutReader,
-      @UI Consumer<Option<IGitMacheteRepositorySnapshot>> doOnUIThreadWhenDone) {
+      @Nullable IGitMacheteRepositorySnapshot previousSnapshot,
+      @UI Consumer<IGitMacheteRepositorySnapshot> doOnUIThreadWhenSkeletonReady,
+      @UI Consumer<Option<IGitMacheteRepositorySnapshot>> doOnUIThreadWhenDone,
+      @UI Runnable doOnUIThreadWhenFinished) {
     super(project, getString("action.GitMachete.GitMacheteRepositoryUpdateBackgroundable.task-title"));
 
     this.gitRepository = gitRepository;
     this.branchLayoutReader = branchLayoutReader;
+    this.previousSnapshot = previousSnapshot;
+    this.doOnUIThreadWhenSkeletonReady = doOnUIThreadWhenSkeletonReady;
     this.doOnUIThreadWhenDone = doOnUIThreadWhenDone;
+    this.doOnUIThreadWhenFinished = doOnUIThreadWhenFinished;
 
     this.gitMacheteRepositoryCache = RuntimeBinding.instantiateSoleImplementingClass(IGitMacheteRepositoryCache.class);
   }
 
+  /**
+   * Cancels the update, whether it's already running or not; the new snapshot (if any) is then discarded.
+   * Safe to be called from any thread.
+   */
+  public void cancel() {
+    isCancelled = true;
+    val indicator = progressIndicator;
+    if (indicator != null) {
+      indicator.cancel();
+    }
+  }
+
+  public boolean isCancelled() {
+    return isCancelled;
+  }
+
   @Override
   public void run(ProgressIndicator indicator) {
-    // We can't queue repository update (onto a non-UI thread) and `doOnUIThreadWhenDone` (onto the UI thread) separately
-    // since those two actions happen on two separate threads
-    // and `doOnUIThreadWhenDone` can only start once repository update is complete.
+    progressIndicator = indicator;
+    // The update might have been cancelled before the indicator was there to be cancelled.
+    if (isCancelled) {
+      indicator.cancel();
+    }
+    indicator.checkCanceled();
 
-    // Thus, we synchronously run repository update first...
-    Option<IGitMacheteRepositorySnapshot> gitMacheteRepositorySnapshot = updateRepositorySnapshot();
+    gitMacheteRepositorySnapshot = updateRepositorySnapshot(indicator);
 
-    // ... and only once it completes, we queue `doOnUIThreadWhenDone` onto the UI thread.
-    LOG.debug("Queuing graph table refresh onto the UI thread");
-    ModalityUiUtil.invokeLaterIfNeeded(NON_MODAL, () -> doOnUIThreadWhenDone.accept(gitMacheteRepositorySnapshot));
+    // No point in refreshing the graph table with a snapshot that's already superseded by a newer update.
+    indicator.checkCanceled();
+  }
+
+  @Override
+  @UIEffect
+  public void onSuccess() {
+    // The update might have been cancelled after `run` completed, but before this callback got executed.
+    if (isCancelled) {
+      LOG.debug("Update cancelled, skipping graph table refresh");
+      return;
+    }
+    doOnUIThreadWhenDone.accept(gitMacheteRepositorySnapshot);
+  }
+
+  @Override
+  @UIEffect
+  public void onCancel() {
+    LOG.debug("Update cancelled");
+  }
+
+  @Override
+  @UIEffect
+  public void onFinished() {
+    doOnUIThreadWhenFinished.run();
   }
 
   /**
@@ -72,8 +136,10 @@ public final class GitMacheteRepositoryUpdateBackgroundable extends Task.Backgro
    * {@link EnhancedGraphTable#refreshModel()} completes.
    *
    * This method is heavyweight and must never be invoked on the UI thread.
+   * It stops (with {@link com.intellij.openapi.progress.ProcessCanceledException}) as soon as {@code indicator}
+   * gets cancelled, checking for that before each branch and each commit walked over.
    */
-  private Option<IGitMacheteRepositorySnapshot> updateRepositorySnapshot() {
+  private Option<IGitMacheteRepositorySnapshot> updateRepositorySnapshot(ProgressIndicator indicator) {
     Path rootDirectoryPath = gitRepository.getRootDirectoryPath();
     Path mainGitDirectoryPath = gitRepository.getMainGitDirectoryPath();
     Path worktreeGitDirectoryPath = gitRepository.getWorktreeGitDirectoryPath();
@@ -85,17 +151,43 @@ public final class GitMacheteRepositoryUpdateBackgroundable extends Task.Backgro
     if (isMacheteFilePresent) {
       LOG.debug("Machete file is present. Trying to create a repository snapshot");
 
-      return Try.of(() -> {
+      val progressMonitor = new ProgressIndicatorMonitor(indicator);
+      val snapshotTry = Try.of(() -> {
         IBranchLayout branchLayout = readBranchLayout(macheteFilePath);
-        return gitMacheteRepositoryCache.getInstance(rootDirectoryPath, mainGitDirectoryPath, worktreeGitDirectoryPath)
-            .createSnapshotForLayout(branchLayout);
-      }).onFailure(this::handleUpdateRepositoryException).toOption();
+        val gitMacheteRepository = gitMacheteRepositoryCache.getInstance(rootDirectoryPath, mainGitDirectoryPath,
+            worktreeGitDirectoryPath);
+        // The previous snapshot (if any) lets the unchanged branches skip the re-derivation of fork points etc.
+        if (previousSnapshot != null) {
+          return gitMacheteRepository.createSnapshotForLayout(branchLayout, previousSnapshot, progressMonitor);
+        }
+        // With nothing displayed yet, the layout itself is shown first, while the statuses etc. are being derived.
+        deliverSkeletonSnapshot(gitMacheteRepository, branchLayout);
+        return gitMacheteRepository.createSnapshotForLayout(branchLayout, progressMonitor);
+      });
+      if (snapshotTry.isFailure()) {
+        // The failure might just be the backend giving up due to the cancellation, which is not worth a notification.
+        indicator.checkCanceled();
+        handleUpdateRepositoryException(snapshotTry.getCause());
+      }
+      return snapshotTry.toOption();
     } else {
       LOG.debug("Machete file is absent");
       return Option.none();
     }
   }
 
+  private void deliverSkeletonSnapshot(IGitMacheteRepository gitMacheteRepository, IBranchLayout branchLayout) {
+    // The skeleton is just a nice-to-have, so a failure to create it mustn't stop the actual update.
+    Try.of(() -> gitMacheteRepository.createSkeletonSnapshotForLayout(branchLayout))
+        .onFailure(e -> LOG.warn("Unable to create the skeleton snapshot", e))
+        .forEach(skeletonSnapshot -> ModalityUiUtil.invokeLaterIfNeeded(NON_MODAL, () -> {
+          // Since the invocations are executed in order, the skeleton always comes before the actual snapshot.
+          if (!isCancelled) {
+            doOnUIThreadWhenSkeletonReady.accept(skeletonSnapshot);
+          }
+        }));
+  }
+
   private IBranchLayout readBranchLayout(Path path) throws MacheteFileReaderException {
     try {
       return branchLayoutReader.read(path);
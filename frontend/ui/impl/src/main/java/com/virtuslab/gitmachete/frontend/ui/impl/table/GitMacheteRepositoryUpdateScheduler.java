@@ -0,0 +1,110 @@
+package com.virtuslab.gitmachete.frontend.ui.impl.table;
+
+import com.intellij.openapi.project.Project;
+import com.intellij.util.ui.update.MergingUpdateQueue;
+import com.intellij.util.ui.update.Update;
+import lombok.CustomLog;
+import lombok.val;
+import org.checkerframework.checker.guieffect.qual.UI;
+import org.checkerframework.checker.guieffect.qual.UIEffect;
+import org.checkerframework.checker.initialization.qual.NotOnlyInitialized;
+import org.checkerframework.checker.initialization.qual.UnderInitialization;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Coalesces the requests to update the repository snapshot (and then refresh the graph table model).
+ * The requests tend to come in bursts: a single rebase or pull changes lots of refs and files, each change notified separately,
+ * on top of the refresh requested by the action itself; while each update builds a snapshot of the entire repository.
+ * <p>
+ * The requests are debounced, and then at most one update is in progress at a time, with at most one more pending.
+ * The update in progress gets cancelled once a newer request comes in, as its snapshot would be superseded anyway.
+ * The callbacks of all the coalesced (and cancelled) requests are executed once the update that covers them is done.
+ * If no update could be started (as there's no repository selected), the callbacks are carried over to the next one.
+ * <p>
+ * All the methods (and hence all the accesses to the state) are executed on the UI thread.
+ */
+@CustomLog
+final class GitMacheteRepositoryUpdateScheduler {
+
+  private static final int DEBOUNCE_SPAN_MILLIS = 300;
+
+  private final MergingUpdateQueue debounceQueue;
+
+  @NotOnlyInitialized
+  private final EnhancedGraphTable graphTable;
+
+  // The callbacks of the requests not yet covered by any update in progress.
+  private java.util.List<@UI Runnable> pendingCallbacks = new java.util.ArrayList<>();
+
+  private @Nullable GitMacheteRepositoryUpdateBackgroundable updateInProgress = null;
+
+  @UIEffect
+  GitMacheteRepositoryUpdateScheduler(Project project, @UnderInitialization EnhancedGraphTable graphTable) {
+    this(new MergingUpdateQueue("GitMachete.repositoryUpdate", DEBOUNCE_SPAN_MILLIS,
+        /* isActive */ true, /* modalityStateComponent */ null, /* parent */ project), graphTable);
+  }
+
+  @UIEffect
+  GitMacheteRepositoryUpdateScheduler(MergingUpdateQueue debounceQueue, @UnderInitialization EnhancedGraphTable graphTable) {
+    this.debounceQueue = debounceQueue;
+    this.graphTable = graphTable;
+  }
+
+  @UIEffect
+  void requestUpdate(@UI Runnable doOnUIThreadWhenReady) {
+    pendingCallbacks.add(doOnUIThreadWhenReady);
+    // All the updates queued within the merging span share the identity, and hence get merged into one.
+    debounceQueue.queue(new Update(/* identity */ GitMacheteRepositoryUpdateScheduler.class) {
+      @Override
+      @UIEffect
+      public void run() {
+        startOrSupersedeUpdate();
+      }
+    });
+  }
+
+  @UIEffect
+  private void startOrSupersedeUpdate() {
+    val update = updateInProgress;
+    if (update != null) {
+      LOG.debug("Cancelling the update in progress, the pending update is going to start once it's finished");
+      update.cancel();
+    } else {
+      startPendingUpdate();
+    }
+  }
+
+  @UIEffect
+  private void startPendingUpdate() {
+    if (pendingCallbacks.isEmpty()) {
+      return;
+    }
+    val callbacks = pendingCallbacks;
+    pendingCallbacks = new java.util.ArrayList<>();
+
+    LOG.debug(() -> "Starting an update for ${callbacks.size()} coalesced request(s)");
+    @UI Runnable doOnUIThreadWhenReady = () -> {
+      for (val callback : callbacks) {
+        callback.run();
+      }
+    };
+    val update = graphTable.queueRepositoryUpdate(doOnUIThreadWhenReady,
+        /* doOnUIThreadWhenFinished */ () -> onUpdateFinished(callbacks));
+    if (update == null) {
+      LOG.debug("No update has been started, carrying the callbacks over to the next one");
+      pendingCallbacks.addAll(0, callbacks);
+    }
+    updateInProgress = update;
+  }
+
+  @UIEffect
+  private void onUpdateFinished(java.util.List<@UI Runnable> callbacks) {
+    val update = updateInProgress;
+    updateInProgress = null;
+    if (update != null && update.isCancelled()) {
+      // The callbacks are carried over to the update that has superseded the cancelled one.
+      pendingCallbacks.addAll(0, callbacks);
+    }
+    startPendingUpdate();
+  }
+}
@@ -1,21 +1,47 @@
 package com.virtuslab.gitmachete.frontend.ui.impl.table;
 
+import static com.intellij.openapi.application.ModalityState.NON_MODAL;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BooleanSupplier;
+
 import javax.swing.table.AbstractTableModel;
 
-import lombok.AllArgsConstructor;
+import com.intellij.util.ModalityUiUtil;
+import io.vavr.collection.Array;
+import io.vavr.collection.List;
+import io.vavr.collection.Set;
+import lombok.CustomLog;
+import lombok.Data;
+import lombok.val;
+import org.checkerframework.checker.guieffect.qual.UIEffect;
 import org.checkerframework.checker.index.qual.NonNegative;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
+import com.virtuslab.gitmachete.backend.api.IGitMacheteRepositorySnapshot;
 import com.virtuslab.gitmachete.frontend.graph.api.items.IGraphItem;
+import com.virtuslab.gitmachete.frontend.graph.api.items.ILoadMoreCommitsItem;
 import com.virtuslab.gitmachete.frontend.graph.api.repository.IRepositoryGraph;
 import com.virtuslab.gitmachete.frontend.ui.impl.cell.BranchOrCommitCell;
 
-@AllArgsConstructor
+@CustomLog
 public class GraphTableModel extends AbstractTableModel {
   private static final int BRANCH_OR_COMMIT_COLUMN = 0;
   private static final int COLUMN_COUNT = BRANCH_OR_COMMIT_COLUMN + 1;
   private static final String[] COLUMN_NAMES = {"Branch or Commit value"};
 
-  private final IRepositoryGraph repositoryGraph;
+  private IRepositoryGraph repositoryGraph;
+
+  // The snapshot whose branch rows are going to be updated once its status hook outputs are there
+  // (see fireBranchRowsUpdatedOnStatusHookOutputs), together with the callbacks that do so
+  @UIEffect
+  private @Nullable IGitMacheteRepositorySnapshot statusHookOutputsAwaitedSnapshot;
+  @UIEffect
+  private List<CompletableFuture<Void>> statusHookOutputCallbacks = List.empty();
+
+  public GraphTableModel(IRepositoryGraph repositoryGraph) {
+    this.repositoryGraph = repositoryGraph;
+  }
 
   @Override
   public @NonNegative int getRowCount() {
@@ -32,7 +58,7 @@ public class GraphTableModel extends AbstractTableModel {
     switch (columnIndex) {
       case BRANCH_OR_COMMIT_COLUMN :
         IGraphItem graphItem = repositoryGraph.getGraphItem(rowIndex);
-        return new BranchOrCommitCell(graphItem, repositoryGraph.getRenderParts(rowIndex));
+        return new BranchOrCommitCell(repositoryGraph, graphItem, repositoryGraph.getRenderParts(rowIndex));
       default :
         throw new IllegalArgumentException("columnIndex is ${columnIndex} > ${getColumnCount() - 1}");
     }
@@ -48,6 +74,180 @@ public class GraphTableModel extends AbstractTableModel {
     }
   }
 
+  /**
+   * Notifies the listeners (and hence, makes the table repaint) the rows of the branch with the given name,
+   * e.g. once the data that is derived asynchronously (like the status hook output) for this branch is there.
+   */
+  @UIEffect
+  public void fireBranchRowUpdated(String branchName) {
+    for (int row = 0; row < getRowCount(); row++) {
+      val graphItem = repositoryGraph.getGraphItem(row);
+      if (graphItem.isBranchItem() && graphItem.asBranchItem().getBranch().getName().equals(branchName)) {
+        fireTableRowsUpdated(row, row);
+      }
+    }
+  }
+
+  /**
+   * Makes each branch row of {@code repositorySnapshot} get updated (see {@link #fireBranchRowUpdated}) once the status hook
+   * output for the branch is there, unless it's there already, or {@code isSnapshotDisplayed} no longer holds by then.
+   * <p>
+   * The callbacks are registered just once per snapshot, however many times the table gets refreshed with it
+   * (e.g. when the commits get listed or unlisted). The callbacks registered for the previous snapshot get cancelled,
+   * so that the outputs still pending for that snapshot don't cause any updates.
+   */
+  @UIEffect
+  public void fireBranchRowsUpdatedOnStatusHookOutputs(IGitMacheteRepositorySnapshot repositorySnapshot,
+      BooleanSupplier isSnapshotDisplayed) {
+    if (repositorySnapshot.equals(statusHookOutputsAwaitedSnapshot)) {
+      return;
+    }
+    // A cancelled callback never runs, even though it stays attached to its output until the output is there.
+    statusHookOutputCallbacks.forEach(callback -> callback.cancel(/* mayInterruptIfRunning */ false));
+
+    List<CompletableFuture<Void>> callbacks = List.empty();
+    for (val branch : repositorySnapshot.getManagedBranches()) {
+      val statusHookOutput = branch.getStatusHookOutputAsync().toCompletableFuture();
+      if (statusHookOutput.isDone()) {
+        continue;
+      }
+      callbacks = callbacks.prepend(statusHookOutput.thenAccept(output -> ModalityUiUtil.invokeLaterIfNeeded(NON_MODAL, () -> {
+        if (isSnapshotDisplayed.getAsBoolean() && output.isDefined()) {
+          fireBranchRowUpdated(branch.getName());
+        }
+      })));
+    }
+    statusHookOutputsAwaitedSnapshot = repositorySnapshot;
+    statusHookOutputCallbacks = callbacks;
+  }
+
+  /**
+   * Replaces the graph, notifying the listeners just about the rows that have changed, so that the table keeps
+   * its selection and scroll position, and doesn't need to be laid out from scratch.
+   * <p>
+   * The rows are matched by the branch (or the commit) they present. If they all match, only the rows of
+   * {@code changedBranchNames} are updated, together with the rows that the edges leading to these branches pass through.
+   * Otherwise, the span between the matching leading and trailing rows is replaced (as few rows as possible get inserted
+   * or deleted), and all the other rows are updated as well, since the edges passing through them might have changed.
+   *
+   * @param changedBranchNames  the branches present in both graphs, but presented differently
+   * @param areAllRowsChanged   whether all the rows need to be updated regardless of the above, e.g. when the ongoing
+   *                            repository operation has changed
+   */
+  @UIEffect
+  public void setRepositoryGraph(IRepositoryGraph newRepositoryGraph, Set<String> changedBranchNames,
+      boolean areAllRowsChanged) {
+    val oldRowKeys = deriveRowKeys(repositoryGraph);
+    val newRowKeys = deriveRowKeys(newRepositoryGraph);
+    repositoryGraph = newRepositoryGraph;
+
+    int oldRowCount = oldRowKeys.size();
+    int newRowCount = newRowKeys.size();
+    int commonPrefixLength = 0;
+    while (commonPrefixLength < Math.min(oldRowCount, newRowCount)
+        && oldRowKeys.get(commonPrefixLength).equals(newRowKeys.get(commonPrefixLength))) {
+      commonPrefixLength++;
+    }
+
+    if (commonPrefixLength == oldRowCount && commonPrefixLength == newRowCount) {
+      if (areAllRowsChanged) {
+        fireAllRowsUpdated();
+      } else {
+        fireBranchRowsAndIncomingEdgesUpdated(changedBranchNames);
+      }
+      return;
+    }
+
+    int commonSuffixLength = 0;
+    while (commonSuffixLength < Math.min(oldRowCount, newRowCount) - commonPrefixLength
+        && oldRowKeys.get(oldRowCount - 1 - commonSuffixLength)
+            .equals(newRowKeys.get(newRowCount - 1 - commonSuffixLength))) {
+      commonSuffixLength++;
+    }
+    int oldSpanLength = oldRowCount - commonPrefixLength - commonSuffixLength;
+    int newSpanLength = newRowCount - commonPrefixLength - commonSuffixLength;
+    LOG.debug(() -> "Replacing ${oldSpanLength} row(s) with ${newSpanLength} row(s) starting at row ${commonPrefixLength}");
+
+    // A single insertion or deletion, so that the row count of the model is consistent with the event.
+    int replacedLength = Math.min(oldSpanLength, newSpanLength);
+    if (newSpanLength > replacedLength) {
+      fireTableRowsInserted(commonPrefixLength + replacedLength, commonPrefixLength + newSpanLength - 1);
+    } else if (oldSpanLength > replacedLength) {
+      fireTableRowsDeleted(commonPrefixLength + replacedLength, commonPrefixLength + oldSpanLength - 1);
+    }
+    // Updating the rows doesn't change their count or height, hence it's just a repaint with no relayout.
+    fireAllRowsUpdated();
+  }
+
+  @UIEffect
+  private void fireAllRowsUpdated() {
+    if (getRowCount() > 0) {
+      fireTableRowsUpdated(0, getRowCount() - 1);
+    }
+  }
+
+  /**
+   * The edge leading to a branch is drawn from its previous sibling item (its parent or previous sibling branch)
+   * down to its first item (its oldest listed commit, if any), through the rows of the subtree of the previous sibling.
+   */
+  @UIEffect
+  private void fireBranchRowsAndIncomingEdgesUpdated(Set<String> changedBranchNames) {
+    if (changedBranchNames.isEmpty()) {
+      return;
+    }
+    int firstRowOfBranch = 0;
+    for (int row = 0; row < getRowCount(); row++) {
+      val graphItem = repositoryGraph.getGraphItem(row);
+      if (!graphItem.isBranchItem()) {
+        continue;
+      }
+      if (changedBranchNames.contains(graphItem.asBranchItem().getBranch().getName())) {
+        int prevSiblingRow = repositoryGraph.getGraphItem(firstRowOfBranch).getPrevSiblingItemIndex();
+        fireTableRowsUpdated(Math.max(prevSiblingRow + 1, 0), row);
+      }
+      firstRowOfBranch = row + 1;
+    }
+  }
+
+  /**
+   * What a row presents; equal keys mean that the rows are in the same place in the tree of branches
+   * (if just the preceding rows are equal as well).
+   */
+  @Data(staticConstructor = "of")
+  private static final class RowKey {
+    private final String branchName;
+    private final int indentLevel;
+    /** {@code null} for the row of the branch itself, or of the "load more commits" item of the branch. */
+    private final @Nullable String commitHash;
+    private final boolean isLoadMoreCommitsItem;
+  }
+
+  /**
+   * @return for each row, the key of the branch or the commit presented in the row; indexed, as the keys get compared
+   *         by the row index
+   */
+  private static Array<RowKey> deriveRowKeys(IRepositoryGraph repositoryGraph) {
+    List<RowKey> rowKeys = List.empty();
+    for (int row = repositoryGraph.getNodesCount() - 1; row >= 0; row--) {
+      rowKeys = rowKeys.prepend(deriveRowKey(repositoryGraph.getGraphItem(row)));
+    }
+    return rowKeys.toArray();
+  }
+
+  private static RowKey deriveRowKey(IGraphItem graphItem) {
+    if (graphItem.isBranchItem()) {
+      return RowKey.of(graphItem.asBranchItem().getBranch().getName(), graphItem.getIndentLevel(),
+          /* commitHash */ null, /* isLoadMoreCommitsItem */ false);
+    } else if (graphItem instanceof ILoadMoreCommitsItem) {
+      return RowKey.of(((ILoadMoreCommitsItem) graphItem).getContainingBranch().getName(), graphItem.getIndentLevel(),
+          /* commitHash */ null, /* isLoadMoreCommitsItem */ true);
+    } else {
+      val commitItem = graphItem.asCommitItem();
+      return RowKey.of(commitItem.getContainingBranch().getName(), graphItem.getIndentLevel(),
+          commitItem.getCommit().getHash(), /* isLoadMoreCommitsItem */ false);
+    }
+  }
+
   @Override
   @SuppressWarnings({"index:array.access.unsafe.high", "index:array.access.unsafe.low"})
   public String getColumnName(int column) {
@@ -0,0 +1,69 @@
+package com.virtuslab.gitmachete.frontend.ui.impl.table;
+
+import static com.intellij.openapi.application.ModalityState.NON_MODAL;
+import static com.virtuslab.gitmachete.frontend.resourcebundles.GitMacheteBundle.getString;
+
+import java.util.function.Consumer;
+
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vcs.VcsNotifier;
+import com.intellij.util.ModalityUiUtil;
+import io.vavr.collection.List;
+import lombok.CustomLog;
+import lombok.experimental.ExtensionMethod;
+import org.checkerframework.checker.guieffect.qual.UI;
+
+import com.virtuslab.gitmachete.backend.api.GitMacheteException;
+import com.virtuslab.gitmachete.backend.api.ICommitOfManagedBranch;
+import com.virtuslab.gitmachete.backend.api.INonRootManagedBranchSnapshot;
+import com.virtuslab.gitmachete.frontend.resourcebundles.GitMacheteBundle;
+import com.virtuslab.qual.guieffect.UIThreadUnsafe;
+
+/**
+ * Loads the next page of the commits of a branch (see {@link INonRootManagedBranchSnapshot#loadCommits}),
+ * so that only the commits that the user asks for need to be materialized.
+ * The snapshot itself stays intact, it's up to the caller to keep the loaded commits.
+ */
+@ExtensionMethod(GitMacheteBundle.class)
+@CustomLog
+public final class LoadMoreCommitsBackgroundable extends Task.Backgroundable {
+
+  public static final int PAGE_SIZE = 100;
+
+  private final INonRootManagedBranchSnapshot branch;
+  private final int skipCount;
+  private final @UI Consumer<List<ICommitOfManagedBranch>> doOnUIThreadWhenDone;
+
+  /**
+   * @param skipCount            the number of the commits of the branch that are already loaded
+   * @param doOnUIThreadWhenDone executed with the newly loaded commits
+   */
+  public LoadMoreCommitsBackgroundable(Project project, INonRootManagedBranchSnapshot branch, int skipCount,
+      @UI Consumer<List<ICommitOfManagedBranch>> doOnUIThreadWhenDone) {
+    super(project, getString("string.GitMachete.LoadMoreCommitsBackgroundable.task-title").format(branch.getName()));
+    this.branch = branch;
+    this.skipCount = skipCount;
+    this.doOnUIThreadWhenDone = doOnUIThreadWhenDone;
+  }
+
+  @Override
+  @UIThreadUnsafe
+  public void run(ProgressIndicator indicator) {
+    List<ICommitOfManagedBranch> loadedCommits;
+    try {
+      loadedCommits = branch.loadCommits(skipCount, PAGE_SIZE);
+    } catch (GitMacheteException e) {
+      LOG.warn("Unable to load more commits of branch '${branch.getName()}'", e);
+      String exceptionMessage = e.getMessage();
+      VcsNotifier.getInstance(getProject()).notifyError(/* displayId */ null,
+          getString("string.GitMachete.LoadMoreCommitsBackgroundable.notification.title.failed"),
+          exceptionMessage != null ? exceptionMessage : "");
+      return;
+    }
+
+    LOG.debug("Queuing graph table refresh onto the UI thread");
+    ModalityUiUtil.invokeLaterIfNeeded(NON_MODAL, () -> doOnUIThreadWhenDone.accept(loadedCommits));
+  }
+}
@@ -0,0 +1,30 @@
+package com.virtuslab.gitmachete.frontend.ui.impl.table;
+
+import com.intellij.openapi.progress.ProgressIndicator;
+
+import com.virtuslab.gitmachete.backend.api.IGitMacheteProgressMonitor;
+
+/**
+ * Lets the backend report the per-branch progress to the given indicator, and stop once the indicator gets cancelled.
+ * Note that the backend signals the cancellation with a {@link com.virtuslab.gitmachete.backend.api.GitMacheteException},
+ * so the callers should {@link ProgressIndicator#checkCanceled} before treating such an exception as an error.
+ */
+final class ProgressIndicatorMonitor implements IGitMacheteProgressMonitor {
+  private final ProgressIndicator indicator;
+
+  ProgressIndicatorMonitor(ProgressIndicator indicator) {
+    this.indicator = indicator;
+    indicator.setIndeterminate(false);
+    indicator.setFraction(0.0);
+  }
+
+  @Override
+  public boolean isCancelled() {
+    return indicator.isCanceled();
+  }
+
+  @Override
+  public void setFraction(double fraction) {
+    indicator.setFraction(fraction);
+  }
+}
@@ -0,0 +1,155 @@
+package com.virtuslab.gitmachete.frontend.ui.impl.cell;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.nullable;
+
+import java.awt.Component;
+import java.awt.GraphicsConfiguration;
+import java.awt.image.BufferedImage;
+
+import javax.swing.JTable;
+import javax.swing.LookAndFeel;
+import javax.swing.UIManager;
+
+import com.intellij.ui.JBColor;
+import com.intellij.ui.paint.PaintUtil;
+import com.intellij.ui.scale.JBUIScale;
+import com.intellij.util.ui.UIUtil;
+import io.vavr.collection.List;
+import lombok.val;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import com.virtuslab.binding.RuntimeBinding;
+import com.virtuslab.gitmachete.frontend.graph.api.items.IGraphItem;
+import com.virtuslab.gitmachete.frontend.graph.api.paint.IGraphCellPainter;
+import com.virtuslab.gitmachete.frontend.graph.api.paint.IGraphCellPainterFactory;
+import com.virtuslab.gitmachete.frontend.graph.api.repository.IRepositoryGraph;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({GraphImageCache.class, JBColor.class, JBUIScale.class, RuntimeBinding.class, UIUtil.class})
+public class GraphImageCacheTestSuite {
+
+  // The painter factory is bound once per class loader (in the static initializer of GraphImageCache),
+  // hence it is shared between the tests.
+  private static final IGraphCellPainterFactory GRAPH_CELL_PAINTER_FACTORY = PowerMockito
+      .mock(IGraphCellPainterFactory.class);
+
+  private static final int MAX_IMAGE_COUNT = 256;
+
+  private final JTable table = PowerMockito.mock(JTable.class);
+  private final IRepositoryGraph repositoryGraph = PowerMockito.mock(IRepositoryGraph.class);
+  private final LookAndFeel lookAndFeel = PowerMockito.mock(LookAndFeel.class);
+
+  private GraphImageCache graphImageCache;
+
+  @Before
+  public void setUp() {
+    PowerMockito.mockStatic(RuntimeBinding.class);
+    PowerMockito.when(RuntimeBinding.instantiateSoleImplementingClass(IGraphCellPainterFactory.class))
+        .thenReturn(GRAPH_CELL_PAINTER_FACTORY);
+    PowerMockito.when(GRAPH_CELL_PAINTER_FACTORY.create(any())).thenReturn(PowerMockito.mock(IGraphCellPainter.class));
+
+    PowerMockito.mockStatic(UIUtil.class);
+    // The graphics configuration of a table that's not displayed is null.
+    PowerMockito.when(UIUtil.createImage(nullable(GraphicsConfiguration.class), anyInt(), anyInt(), anyInt(),
+        any(PaintUtil.RoundingMode.class))).thenAnswer(invocation -> new BufferedImage(/* width */ 1, /* height */ 1,
+            BufferedImage.TYPE_INT_ARGB));
+
+    PowerMockito.mockStatic(JBUIScale.class);
+    PowerMockito.when(JBUIScale.sysScale(any(Component.class))).thenReturn(1.0f);
+    PowerMockito.mockStatic(JBColor.class);
+    PowerMockito.when(JBColor.isBright()).thenReturn(true);
+    PowerMockito.mockStatic(UIManager.class);
+    PowerMockito.when(UIManager.getLookAndFeel()).thenReturn(lookAndFeel);
+
+    PowerMockito.when(table.getRowHeight()).thenReturn(20);
+
+    graphImageCache = new GraphImageCache();
+  }
+
+  @Test
+  public void getGraphImage_givenRowAlreadyPainted_returnsCachedImage() {
+    // given
+    val image = getGraphImage(/* rowIndex */ 0);
+
+    // when
+    val cachedImage = getGraphImage(/* rowIndex */ 0);
+
+    // then
+    Assert.assertSame(image, cachedImage);
+    Assert.assertNotSame(image, getGraphImage(/* rowIndex */ 1));
+  }
+
+  @Test
+  public void getGraphImage_givenMaxImageCountExceeded_evictsLeastRecentlyUsedImage() {
+    // given
+    val images = new java.util.ArrayList<BufferedImage>();
+    for (int rowIndex = 0; rowIndex < MAX_IMAGE_COUNT; rowIndex++) {
+      images.add(getGraphImage(rowIndex));
+    }
+    // Row 0 is used again, hence row 1 becomes the least recently used one.
+    Assert.assertSame(images.get(0), getGraphImage(/* rowIndex */ 0));
+
+    // when
+    getGraphImage(/* rowIndex */ MAX_IMAGE_COUNT);
+
+    // then
+    Assert.assertSame(images.get(0), getGraphImage(/* rowIndex */ 0));
+    Assert.assertSame(images.get(2), getGraphImage(/* rowIndex */ 2));
+    Assert.assertNotSame(images.get(1), getGraphImage(/* rowIndex */ 1));
+  }
+
+  @Test
+  public void getGraphImage_givenLookAndFeelChanged_paintsImageAgain() {
+    // given
+    val image = getGraphImage(/* rowIndex */ 0);
+
+    // when
+    PowerMockito.when(UIManager.getLookAndFeel()).thenReturn(PowerMockito.mock(LookAndFeel.class));
+
+    // then
+    Assert.assertNotSame(image, getGraphImage(/* rowIndex */ 0));
+  }
+
+  @Test
+  public void getGraphImage_givenScaleChanged_paintsImageAgain() {
+    // given
+    val image = getGraphImage(/* rowIndex */ 0);
+
+    // when
+    PowerMockito.when(JBUIScale.sysScale(any(Component.class))).thenReturn(2.0f);
+
+    // then
+    Assert.assertNotSame(image, getGraphImage(/* rowIndex */ 0));
+  }
+
+  @Test
+  public void getGraphImage_givenRepositoryGraphChanged_paintsImageAgain() {
+    // given
+    val image = getGraphImage(/* rowIndex */ 0);
+
+    // when
+    val otherRepositoryGraph = PowerMockito.mock(IRepositoryGraph.class);
+
+    // then
+    Assert.assertNotSame(image, getGraphImage(otherRepositoryGraph, /* rowIndex */ 0));
+  }
+
+  private BufferedImage getGraphImage(int rowIndex) {
+    return getGraphImage(repositoryGraph, rowIndex);
+  }
+
+  private BufferedImage getGraphImage(IRepositoryGraph graph, int rowIndex) {
+    val graphItem = PowerMockito.mock(IGraphItem.class);
+    PowerMockito.when(graphItem.getValue()).thenReturn("branch-${rowIndex}");
+    val cell = new BranchOrCommitCell(graph, graphItem, List.empty());
+    return graphImageCache.getGraphImage(table, cell, rowIndex, /* maxGraphNodePositionInRow */ 0);
+  }
+}
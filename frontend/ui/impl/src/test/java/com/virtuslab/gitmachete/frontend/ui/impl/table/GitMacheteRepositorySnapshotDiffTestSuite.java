@@ -0,0 +1,131 @@
+package com.virtuslab.gitmachete.frontend.ui.impl.table;
+
+import io.vavr.collection.List;
+import io.vavr.collection.TreeSet;
+import io.vavr.control.Option;
+import lombok.val;
+import org.junit.Assert;
+import org.junit.Test;
+import org.powermock.api.mockito.PowerMockito;
+
+import com.virtuslab.gitmachete.backend.api.ICommitOfManagedBranch;
+import com.virtuslab.gitmachete.backend.api.IForkPointCommitOfManagedBranch;
+import com.virtuslab.gitmachete.backend.api.IGitMacheteRepositorySnapshot;
+import com.virtuslab.gitmachete.backend.api.IManagedBranchSnapshot;
+import com.virtuslab.gitmachete.backend.api.INonRootManagedBranchSnapshot;
+import com.virtuslab.gitmachete.backend.api.IRootManagedBranchSnapshot;
+import com.virtuslab.gitmachete.backend.api.OngoingRepositoryOperation;
+import com.virtuslab.gitmachete.backend.api.RelationToRemote;
+import com.virtuslab.gitmachete.backend.api.SyncToParentStatus;
+
+public class GitMacheteRepositorySnapshotDiffTestSuite {
+
+  @Test
+  public void between_givenBranchesEqualByValue_isEmpty() {
+    // given
+    val previousSnapshot = mockSnapshot(mockRoot("master", "1111", mockChild("develop", "2222", "1111")));
+    val currentSnapshot = mockSnapshot(mockRoot("master", "1111", mockChild("develop", "2222", "1111")));
+
+    // when
+    val diff = GitMacheteRepositorySnapshotDiff.between(previousSnapshot, currentSnapshot);
+
+    // then
+    Assert.assertTrue(diff.isEmpty());
+  }
+
+  @Test
+  public void between_givenForkPointChanged_reportsCommitsChangedBranch() {
+    // given
+    val previousSnapshot = mockSnapshot(mockRoot("master", "1111", mockChild("develop", "2222", "1111")));
+    val currentSnapshot = mockSnapshot(mockRoot("master", "1111", mockChild("develop", "2222", "0000")));
+
+    // when
+    val diff = GitMacheteRepositorySnapshotDiff.between(previousSnapshot, currentSnapshot);
+
+    // then
+    Assert.assertEquals(TreeSet.of("develop"), diff.getCommitsChangedBranchNames());
+    Assert.assertEquals(TreeSet.of("develop"), diff.getChangedBranchNames());
+    Assert.assertTrue(diff.getMovedBranchNames().isEmpty());
+  }
+
+  @Test
+  public void between_givenSiblingsReordered_reportsMovedBranches() {
+    // given
+    val previousSnapshot = mockSnapshot(mockRoot("master", "1111",
+        mockChild("develop", "2222", "1111"), mockChild("hotfix", "3333", "1111")));
+    val currentSnapshot = mockSnapshot(mockRoot("master", "1111",
+        mockChild("hotfix", "3333", "1111"), mockChild("develop", "2222", "1111")));
+
+    // when
+    val diff = GitMacheteRepositorySnapshotDiff.between(previousSnapshot, currentSnapshot);
+
+    // then
+    Assert.assertEquals(TreeSet.of("develop", "hotfix"), diff.getMovedBranchNames());
+    Assert.assertTrue(diff.getAddedBranchNames().isEmpty());
+    Assert.assertTrue(diff.getRemovedBranchNames().isEmpty());
+  }
+
+  @Test
+  public void between_givenBranchReplaced_reportsAddedAndRemovedBranches() {
+    // given
+    val previousSnapshot = mockSnapshot(mockRoot("master", "1111", mockChild("develop", "2222", "1111")));
+    val currentSnapshot = mockSnapshot(mockRoot("master", "1111", mockChild("hotfix", "3333", "1111")));
+
+    // when
+    val diff = GitMacheteRepositorySnapshotDiff.between(previousSnapshot, currentSnapshot);
+
+    // then
+    Assert.assertEquals(TreeSet.of("hotfix"), diff.getAddedBranchNames());
+    Assert.assertEquals(TreeSet.of("develop"), diff.getRemovedBranchNames());
+    Assert.assertTrue(diff.getChangedBranchNames().isEmpty());
+  }
+
+  private static IGitMacheteRepositorySnapshot mockSnapshot(IRootManagedBranchSnapshot... rootBranches) {
+    val snapshot = PowerMockito.mock(IGitMacheteRepositorySnapshot.class);
+    PowerMockito.doReturn(List.of(rootBranches)).when(snapshot).getRootBranches();
+    PowerMockito.doReturn(Option.none()).when(snapshot).getCurrentBranchIfManaged();
+    PowerMockito.doReturn(OngoingRepositoryOperation.NO_OPERATION).when(snapshot).getOngoingRepositoryOperation();
+    PowerMockito.doReturn(Option.none()).when(snapshot).getRebasedBranchName();
+    return snapshot;
+  }
+
+  private static IRootManagedBranchSnapshot mockRoot(String name, String pointedCommitHash,
+      INonRootManagedBranchSnapshot... children) {
+    val branch = PowerMockito.mock(IRootManagedBranchSnapshot.class);
+    mockBranch(branch, name, pointedCommitHash);
+    PowerMockito.doReturn(true).when(branch).isRoot();
+    PowerMockito.doReturn(List.of(children)).when(branch).getChildren();
+    return branch;
+  }
+
+  private static INonRootManagedBranchSnapshot mockChild(String name, String pointedCommitHash, String forkPointHash) {
+    val branch = PowerMockito.mock(INonRootManagedBranchSnapshot.class);
+    mockBranch(branch, name, pointedCommitHash);
+    PowerMockito.doReturn(false).when(branch).isRoot();
+    PowerMockito.doReturn(true).when(branch).isNonRoot();
+    PowerMockito.doReturn(branch).when(branch).asNonRoot();
+    PowerMockito.doReturn(List.empty()).when(branch).getChildren();
+    PowerMockito.doReturn(SyncToParentStatus.InSync).when(branch).getSyncToParentStatus();
+    val forkPoint = PowerMockito.mock(IForkPointCommitOfManagedBranch.class);
+    PowerMockito.doReturn(forkPointHash).when(forkPoint).getHash();
+    PowerMockito.doReturn(Option.some(forkPoint)).when(branch).getForkPoint();
+    PowerMockito.doReturn(List.of(mockCommit(pointedCommitHash))).when(branch).getCommits();
+    PowerMockito.doReturn(false).when(branch).hasMoreCommits();
+    return branch;
+  }
+
+  private static void mockBranch(IManagedBranchSnapshot branch, String name, String pointedCommitHash) {
+    PowerMockito.doReturn(name).when(branch).getName();
+    val pointedCommit = mockCommit(pointedCommitHash);
+    PowerMockito.doReturn(pointedCommit).when(branch).getPointedCommit();
+    PowerMockito.doReturn(RelationToRemote.noRemotes()).when(branch).getRelationToRemote();
+    PowerMockito.doReturn(Option.none()).when(branch).getCustomAnnotation();
+    PowerMockito.doReturn(Option.none()).when(branch).getStatusHookOutput();
+  }
+
+  private static ICommitOfManagedBranch mockCommit(String hash) {
+    val commit = PowerMockito.mock(ICommitOfManagedBranch.class);
+    PowerMockito.doReturn(hash).when(commit).getHash();
+    return commit;
+  }
+}
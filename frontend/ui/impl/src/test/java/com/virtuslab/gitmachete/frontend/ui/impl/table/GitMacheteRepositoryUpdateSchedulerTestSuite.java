@@ -0,0 +1,142 @@
+package com.virtuslab.gitmachete.frontend.ui.impl.table;
+
+import static org.mockito.ArgumentMatchers.any;
+
+import com.intellij.util.ui.update.MergingUpdateQueue;
+import com.intellij.util.ui.update.Update;
+import lombok.val;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest({EnhancedGraphTable.class, GitMacheteRepositoryUpdateBackgroundable.class})
+public class GitMacheteRepositoryUpdateSchedulerTestSuite {
+
+  private final MergingUpdateQueue debounceQueue = PowerMockito.mock(MergingUpdateQueue.class);
+  private final EnhancedGraphTable graphTable = PowerMockito.mock(EnhancedGraphTable.class);
+  private final java.util.List<String> executedCallbacks = new java.util.ArrayList<>();
+
+  private GitMacheteRepositoryUpdateScheduler scheduler;
+
+  @Before
+  public void setUp() {
+    scheduler = new GitMacheteRepositoryUpdateScheduler(debounceQueue, graphTable);
+  }
+
+  @Test
+  public void requestUpdate_givenRequestsWithinDebounceSpan_startsSingleUpdateForAllOfThem() {
+    // given
+    val update = mockUpdate();
+    PowerMockito.when(graphTable.queueRepositoryUpdate(any(), any())).thenReturn(update);
+
+    // when
+    scheduler.requestUpdate(() -> executedCallbacks.add("first"));
+    scheduler.requestUpdate(() -> executedCallbacks.add("second"));
+    scheduler.requestUpdate(() -> executedCallbacks.add("third"));
+    runDebouncedUpdate();
+
+    // then
+    val doOnUIThreadWhenReady = captureQueuedRepositoryUpdates(/* times */ 1).getValue();
+    doOnUIThreadWhenReady.run();
+    Assert.assertEquals(java.util.List.of("first", "second", "third"), executedCallbacks);
+  }
+
+  @Test
+  public void requestUpdate_givenUpdateInProgress_cancelsItAndCarriesItsCallbacksOverToTheNextUpdate() {
+    // given
+    val firstUpdate = mockUpdate();
+    val secondUpdate = mockUpdate();
+    PowerMockito.when(graphTable.queueRepositoryUpdate(any(), any())).thenReturn(firstUpdate, secondUpdate);
+    scheduler.requestUpdate(() -> executedCallbacks.add("first"));
+    runDebouncedUpdate();
+
+    // when
+    scheduler.requestUpdate(() -> executedCallbacks.add("second"));
+    runDebouncedUpdate();
+
+    // then
+    Mockito.verify(firstUpdate).cancel();
+    // No other update is started until the cancelled one is finished.
+    captureQueuedRepositoryUpdates(/* times */ 1);
+
+    // when
+    PowerMockito.when(firstUpdate.isCancelled()).thenReturn(true);
+    captureDoOnUIThreadWhenFinished(/* times */ 1).getValue().run();
+
+    // then
+    val doOnUIThreadWhenReadyCaptor = captureQueuedRepositoryUpdates(/* times */ 2);
+    doOnUIThreadWhenReadyCaptor.getValue().run();
+    Assert.assertEquals(java.util.List.of("first", "second"), executedCallbacks);
+  }
+
+  @Test
+  public void requestUpdate_givenUpdateFinished_startsNextUpdateWithoutCancelling() {
+    // given
+    val firstUpdate = mockUpdate();
+    val secondUpdate = mockUpdate();
+    PowerMockito.when(graphTable.queueRepositoryUpdate(any(), any())).thenReturn(firstUpdate, secondUpdate);
+    scheduler.requestUpdate(() -> executedCallbacks.add("first"));
+    runDebouncedUpdate();
+    captureQueuedRepositoryUpdates(/* times */ 1).getValue().run();
+    captureDoOnUIThreadWhenFinished(/* times */ 1).getValue().run();
+
+    // when
+    scheduler.requestUpdate(() -> executedCallbacks.add("second"));
+    runDebouncedUpdate();
+
+    // then
+    Mockito.verify(firstUpdate, Mockito.never()).cancel();
+    captureQueuedRepositoryUpdates(/* times */ 2).getValue().run();
+    Assert.assertEquals(java.util.List.of("first", "second"), executedCallbacks);
+  }
+
+  @Test
+  public void requestUpdate_givenNoUpdateStarted_carriesCallbacksOverToTheNextUpdate() {
+    // given
+    val update = mockUpdate();
+    PowerMockito.when(graphTable.queueRepositoryUpdate(any(), any())).thenReturn(null, update);
+    scheduler.requestUpdate(() -> executedCallbacks.add("first"));
+    runDebouncedUpdate();
+
+    // when
+    scheduler.requestUpdate(() -> executedCallbacks.add("second"));
+    runDebouncedUpdate();
+
+    // then
+    captureQueuedRepositoryUpdates(/* times */ 2).getValue().run();
+    Assert.assertEquals(java.util.List.of("first", "second"), executedCallbacks);
+  }
+
+  private static GitMacheteRepositoryUpdateBackgroundable mockUpdate() {
+    return PowerMockito.mock(GitMacheteRepositoryUpdateBackgroundable.class);
+  }
+
+  /**
+   * Runs the most recently queued update, as the debounce queue would once the requests stop coming in.
+   */
+  private void runDebouncedUpdate() {
+    val updateCaptor = ArgumentCaptor.forClass(Update.class);
+    Mockito.verify(debounceQueue, Mockito.atLeastOnce()).queue(updateCaptor.capture());
+    updateCaptor.getValue().run();
+  }
+
+  private ArgumentCaptor<Runnable> captureQueuedRepositoryUpdates(int times) {
+    val doOnUIThreadWhenReadyCaptor = ArgumentCaptor.forClass(Runnable.class);
+    Mockito.verify(graphTable, Mockito.times(times)).queueRepositoryUpdate(doOnUIThreadWhenReadyCaptor.capture(), any());
+    return doOnUIThreadWhenReadyCaptor;
+  }
+
+  private ArgumentCaptor<Runnable> captureDoOnUIThreadWhenFinished(int times) {
+    val doOnUIThreadWhenFinishedCaptor = ArgumentCaptor.forClass(Runnable.class);
+    Mockito.verify(graphTable, Mockito.times(times)).queueRepositoryUpdate(any(),
+        doOnUIThreadWhenFinishedCaptor.capture());
+    return doOnUIThreadWhenFinishedCaptor;
+  }
+}
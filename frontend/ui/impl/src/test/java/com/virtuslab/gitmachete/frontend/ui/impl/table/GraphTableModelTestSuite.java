@@ -0,0 +1,151 @@
+package com.virtuslab.gitmachete.frontend.ui.impl.table;
+
+import static org.mockito.ArgumentMatchers.any;
+
+import java.util.concurrent.CompletableFuture;
+
+import javax.swing.event.TableModelEvent;
+
+import com.intellij.openapi.application.ModalityState;
+import com.intellij.util.ModalityUiUtil;
+import io.vavr.collection.List;
+import io.vavr.control.Option;
+import lombok.val;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import com.virtuslab.gitmachete.backend.api.IGitMacheteRepositorySnapshot;
+import com.virtuslab.gitmachete.backend.api.IManagedBranchSnapshot;
+import com.virtuslab.gitmachete.frontend.graph.api.items.IBranchItem;
+import com.virtuslab.gitmachete.frontend.graph.api.items.IGraphItem;
+import com.virtuslab.gitmachete.frontend.graph.api.repository.IRepositoryGraph;
+
+@RunWith(PowerMockRunner.class)
+@PrepareForTest(ModalityUiUtil.class)
+public class GraphTableModelTestSuite {
+
+  private final IRepositoryGraph repositoryGraph = PowerMockito.mock(IRepositoryGraph.class);
+  private final IGitMacheteRepositorySnapshot repositorySnapshot = PowerMockito.mock(IGitMacheteRepositorySnapshot.class);
+  private final java.util.List<TableModelEvent> tableModelEvents = new java.util.ArrayList<>();
+
+  private GraphTableModel graphTableModel;
+
+  @Before
+  public void setUp() {
+    // Runs the given runnable right away, as if on the UI thread.
+    PowerMockito.mockStatic(ModalityUiUtil.class);
+    PowerMockito.doAnswer(invocation -> {
+      invocation.<Runnable>getArgument(1).run();
+      return null;
+    }).when(ModalityUiUtil.class);
+    ModalityUiUtil.invokeLaterIfNeeded(any(ModalityState.class), any(Runnable.class));
+
+    graphTableModel = new GraphTableModel(repositoryGraph);
+    graphTableModel.addTableModelListener(tableModelEvents::add);
+  }
+
+  @Test
+  public void fireBranchRowsUpdatedOnStatusHookOutputs_givenHookOutputForDisplayedSnapshot_updatesBranchRow() {
+    // given
+    val statusHookOutput = new CompletableFuture<Option<String>>();
+    mockBranchRows(mockBranch("master", CompletableFuture.completedFuture(Option.none())),
+        mockBranch("develop", statusHookOutput));
+    graphTableModel.fireBranchRowsUpdatedOnStatusHookOutputs(repositorySnapshot, /* isSnapshotDisplayed */ () -> true);
+    Assert.assertTrue(tableModelEvents.isEmpty());
+
+    // when
+    statusHookOutput.complete(Option.some("output"));
+
+    // then
+    Assert.assertEquals(1, tableModelEvents.size());
+    val event = tableModelEvents.get(0);
+    Assert.assertEquals(TableModelEvent.UPDATE, event.getType());
+    Assert.assertEquals(1, event.getFirstRow());
+    Assert.assertEquals(1, event.getLastRow());
+  }
+
+  @Test
+  public void fireBranchRowsUpdatedOnStatusHookOutputs_givenNoHookOutput_doesNotUpdateAnyRow() {
+    // given
+    val statusHookOutput = new CompletableFuture<Option<String>>();
+    mockBranchRows(mockBranch("develop", statusHookOutput));
+    graphTableModel.fireBranchRowsUpdatedOnStatusHookOutputs(repositorySnapshot, /* isSnapshotDisplayed */ () -> true);
+
+    // when
+    statusHookOutput.complete(Option.none());
+
+    // then
+    Assert.assertTrue(tableModelEvents.isEmpty());
+  }
+
+  @Test
+  public void fireBranchRowsUpdatedOnStatusHookOutputs_givenSnapshotNoLongerDisplayed_doesNotUpdateAnyRow() {
+    // given
+    val statusHookOutput = new CompletableFuture<Option<String>>();
+    mockBranchRows(mockBranch("develop", statusHookOutput));
+    graphTableModel.fireBranchRowsUpdatedOnStatusHookOutputs(repositorySnapshot, /* isSnapshotDisplayed */ () -> false);
+
+    // when
+    statusHookOutput.complete(Option.some("output"));
+
+    // then
+    Assert.assertTrue(tableModelEvents.isEmpty());
+  }
+
+  @Test
+  public void fireBranchRowsUpdatedOnStatusHookOutputs_givenSameSnapshotRefreshedAgain_updatesBranchRowOnce() {
+    // given
+    val statusHookOutput = new CompletableFuture<Option<String>>();
+    mockBranchRows(mockBranch("develop", statusHookOutput));
+    graphTableModel.fireBranchRowsUpdatedOnStatusHookOutputs(repositorySnapshot, /* isSnapshotDisplayed */ () -> true);
+    graphTableModel.fireBranchRowsUpdatedOnStatusHookOutputs(repositorySnapshot, /* isSnapshotDisplayed */ () -> true);
+
+    // when
+    statusHookOutput.complete(Option.some("output"));
+
+    // then
+    Assert.assertEquals(1, tableModelEvents.size());
+  }
+
+  @Test
+  public void fireBranchRowsUpdatedOnStatusHookOutputs_givenNewerSnapshot_cancelsCallbacksOfPreviousSnapshot() {
+    // given
+    val statusHookOutput = new CompletableFuture<Option<String>>();
+    mockBranchRows(mockBranch("develop", statusHookOutput));
+    graphTableModel.fireBranchRowsUpdatedOnStatusHookOutputs(repositorySnapshot, /* isSnapshotDisplayed */ () -> true);
+    val newerRepositorySnapshot = PowerMockito.mock(IGitMacheteRepositorySnapshot.class);
+    PowerMockito.doReturn(List.empty()).when(newerRepositorySnapshot).getManagedBranches();
+
+    // when
+    graphTableModel.fireBranchRowsUpdatedOnStatusHookOutputs(newerRepositorySnapshot, /* isSnapshotDisplayed */ () -> true);
+    statusHookOutput.complete(Option.some("output"));
+
+    // then
+    Assert.assertTrue(tableModelEvents.isEmpty());
+  }
+
+  private static IManagedBranchSnapshot mockBranch(String name, CompletableFuture<Option<String>> statusHookOutput) {
+    val branch = PowerMockito.mock(IManagedBranchSnapshot.class);
+    PowerMockito.doReturn(name).when(branch).getName();
+    PowerMockito.doReturn(statusHookOutput).when(branch).getStatusHookOutputAsync();
+    return branch;
+  }
+
+  private void mockBranchRows(IManagedBranchSnapshot... branches) {
+    PowerMockito.doReturn(List.of(branches)).when(repositorySnapshot).getManagedBranches();
+    PowerMockito.doReturn(branches.length).when(repositoryGraph).getNodesCount();
+    for (int row = 0; row < branches.length; row++) {
+      val branchItem = PowerMockito.mock(IBranchItem.class);
+      PowerMockito.doReturn(branches[row]).when(branchItem).getBranch();
+      val graphItem = PowerMockito.mock(IGraphItem.class);
+      PowerMockito.doReturn(true).when(graphItem).isBranchItem();
+      PowerMockito.doReturn(branchItem).when(graphItem).asBranchItem();
+      PowerMockito.doReturn(graphItem).when(repositoryGraph).getGraphItem(row);
+    }
+  }
+}
@@ -0,0 +1,22 @@
+package com.virtuslab.gitcore.api;
+
+/**
+ * Thrown once the {@link IGitCoreCancellationToken} of the current batch session turns out to be cancelled.
+ */
+public class GitCoreCancelledException extends GitCoreException {
+  public GitCoreCancelledException() {
+    super();
+  }
+
+  public GitCoreCancelledException(String message) {
+    super(message);
+  }
+
+  public GitCoreCancelledException(String message, Throwable cause) {
+    super(message, cause);
+  }
+
+  public GitCoreCancelledException(Throwable cause) {
+    super(cause);
+  }
+}
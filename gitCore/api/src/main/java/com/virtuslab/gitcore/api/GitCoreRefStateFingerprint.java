@@ -0,0 +1,15 @@
+package com.virtuslab.gitcore.api;
+
+import lombok.Data;
+import lombok.ToString;
+
+/**
+ * A digest of the state of the repository that isn't immutable (unlike the objects):
+ * the refs, the reflogs, the config, the ongoing operation and the machete file.
+ * Two equal fingerprints mean that nothing a snapshot of the repository is derived from has changed in the meantime.
+ */
+@Data(staticConstructor = "of")
+@ToString
+public class GitCoreRefStateFingerprint {
+  private final String digest;
+}
@@ -0,0 +1,15 @@
+package com.virtuslab.gitcore.api;
+
+/**
+ * A scope within which all calls to the {@link IGitCoreRepository} that opened it, when made from the opening thread,
+ * share a single object reader, rev walk and cache of already converted commits.
+ * Meant to be opened once per a batch of related operations (like creating a whole repository snapshot),
+ * so that each commit is parsed at most once within the batch.
+ * Nested sessions (opened on the same thread while another one is still open) are merged into the outermost one.
+ * A session can also carry a cancellation token (see {@link IGitCoreRepository#openBatchSession(IGitCoreCancellationToken)}),
+ * so that the entire batch can be stopped early.
+ */
+public interface IGitCoreBatchSession extends AutoCloseable {
+  @Override
+  void close();
+}
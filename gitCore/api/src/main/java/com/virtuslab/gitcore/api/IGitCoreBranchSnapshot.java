@@ -1,6 +1,9 @@
 package com.virtuslab.gitcore.api;
 
-import io.vavr.collection.List;
+import java.time.Instant;
+
+import io.vavr.collection.Stream;
+import io.vavr.control.Option;
 import io.vavr.control.Try;
 import lombok.val;
 import org.checkerframework.checker.interning.qual.FindDistinct;
@@ -29,7 +32,22 @@ public interface IGitCoreBranchSnapshot {
 
   IGitCoreCommit getPointedCommit();
 
-  List<IGitCoreReflogEntry> getReflogFromMostRecent();
+  /**
+   * @return a lazy stream of reflog entries, ordered from the latest to the oldest;
+   *         the entries are read only as far as the stream is traversed
+   */
+  Stream<IGitCoreReflogEntry> getReflogFromMostRecent();
+
+  /**
+   * @return the oldest reflog entry (i.e. the last entry of {@link #getReflogFromMostRecent}),
+   *         without traversing the entire reflog
+   */
+  Option<IGitCoreReflogEntry> getOldestReflogEntry();
+
+  /**
+   * @return the time the reflog has been last modified at, if known (i.e. if the reflog is stored as a file)
+   */
+  Option<Instant> getReflogModificationTime();
 
   @EnsuresNonNullIf(expression = "#2", result = true)
   static boolean defaultEquals(@FindDistinct IGitCoreBranchSnapshot self, @Nullable Object other) {
@@ -0,0 +1,23 @@
+package com.virtuslab.gitcore.api;
+
+/**
+ * Lets the long-running operations (like rev walks) of {@link IGitCoreRepository} stop early,
+ * once their result is no longer needed.
+ * Passed to {@link IGitCoreRepository#openBatchSession(IGitCoreCancellationToken)},
+ * and then checked by all the calls made within the session.
+ */
+@FunctionalInterface
+public interface IGitCoreCancellationToken {
+  IGitCoreCancellationToken NONE = () -> false;
+
+  /**
+   * Must be safe to be called from any thread.
+   */
+  boolean isCancelled();
+
+  default void checkCancelled() throws GitCoreCancelledException {
+    if (isCancelled()) {
+      throw new GitCoreCancelledException("Operation cancelled");
+    }
+  }
+}
@@ -1,6 +1,6 @@
 package com.virtuslab.gitcore.api;
 
-import io.vavr.collection.List;
+import io.vavr.collection.Stream;
 import io.vavr.control.Option;
 
 /**
@@ -13,5 +13,8 @@ public interface IGitCoreHeadSnapshot {
    */
   Option<IGitCoreLocalBranchSnapshot> getTargetBranch();
 
-  List<IGitCoreReflogEntry> getReflogFromMostRecent();
+  /**
+   * @return a lazy stream of reflog entries, ordered from the latest to the oldest
+   */
+  Stream<IGitCoreReflogEntry> getReflogFromMostRecent();
 }
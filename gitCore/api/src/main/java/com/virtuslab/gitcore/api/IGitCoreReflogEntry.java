@@ -18,6 +18,20 @@ public interface IGitCoreReflogEntry {
   @Pure
   IGitCoreCommitHash getNewCommitHash();
 
+  /**
+   * Equivalent to {@code getComment().startsWith(prefix)}, but implementations might avoid decoding the comment.
+   */
+  default boolean isCommentStartingWith(String prefix) {
+    return getComment().startsWith(prefix);
+  }
+
+  /**
+   * Equivalent to {@code getComment().equals(text)}, but implementations might avoid decoding the comment.
+   */
+  default boolean isCommentEqualTo(String text) {
+    return getComment().equals(text);
+  }
+
   /**
    * @return an {@link Option.Some} with a {@link IGitCoreCheckoutEntry} if this reflog entry corresponds to a checkout;
    *         otherwise, an {@link Option.None}
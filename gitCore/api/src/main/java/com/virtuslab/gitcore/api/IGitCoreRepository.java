@@ -48,9 +48,54 @@ public interface IGitCoreRepository {
   @UIThreadUnsafe
   Stream<IGitCoreCommit> ancestorsOf(IGitCoreCommit commitInclusive) throws GitCoreException;
 
+  /**
+   * Unlike {@link #ancestorsOf}, which yields the ancestors in topological order (and hence has to load
+   * the entire reachable history before yielding the first one), yields them in commit date order (newest first),
+   * loading the history only as far as the returned stream is traversed.
+   */
+  @UIThreadUnsafe
+  Stream<IGitCoreCommit> ancestorsInCommitDateOrderOf(IGitCoreCommit commitInclusive) throws GitCoreException;
+
   @UIThreadUnsafe
   List<IGitCoreCommit> deriveCommitRange(IGitCoreCommit fromInclusive, IGitCoreCommit untilExclusive) throws GitCoreException;
 
+  /**
+   * Like {@link #deriveCommitRange}, but only yields the hashes of the commits (in the same order),
+   * so that a long range can be walked just once and then materialized page by page with {@link #deriveCommits}.
+   */
+  @UIThreadUnsafe
+  List<IGitCoreCommitHash> deriveCommitHashRange(IGitCoreCommit fromInclusive, IGitCoreCommit untilExclusive)
+      throws GitCoreException;
+
+  @UIThreadUnsafe
+  List<IGitCoreCommit> deriveCommits(List<IGitCoreCommitHash> commitHashes) throws GitCoreException;
+
   @UIThreadUnsafe
   GitCoreRepositoryState deriveRepositoryState();
+
+  /**
+   * Much cheaper than deriving the branches themselves, as only the refs (loose and packed), the sizes and modification times
+   * of the reflog files, of the machete file and of the machete-status-branch hook (as found under {@code core.hooksPath},
+   * if set), the config and the state of the ongoing operation are taken into account.
+   *
+   * @return the fingerprint of the current state of the repository (see {@link GitCoreRefStateFingerprint})
+   * @throws GitCoreException when reading git repository data fails
+   */
+  @UIThreadUnsafe
+  GitCoreRefStateFingerprint deriveRefStateFingerprint() throws GitCoreException;
+
+  /**
+   * @return a session which must be closed (preferably via try-with-resources) by the same thread that opened it
+   */
+  @UIThreadUnsafe
+  IGitCoreBatchSession openBatchSession();
+
+  /**
+   * Like {@link #openBatchSession()}, but the calls made within the session (including the traversal of the lazy streams
+   * of ancestors) throw {@link GitCoreCancelledException} once {@code cancellationToken} gets cancelled.
+   * Rev walks are checked for cancellation before each commit they yield.
+   * Note that a nested session keeps the cancellation token of the outermost one.
+   */
+  @UIThreadUnsafe
+  IGitCoreBatchSession openBatchSession(IGitCoreCancellationToken cancellationToken);
 }
@@ -3,6 +3,7 @@ import com.virtuslab.gitmachete.buildsrc.*
 dependencies { api(project(":gitCore:api")) }
 
 jgit()
+junit()
 lombok()
 slf4jLambdaApi()
 vavr()
@@ -1,6 +1,9 @@
 package com.virtuslab.gitcore.impl.jgit;
 
-import io.vavr.collection.List;
+import java.time.Instant;
+
+import io.vavr.collection.Stream;
+import io.vavr.control.Option;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -19,8 +22,22 @@ public abstract class BaseGitCoreBranchSnapshot implements IGitCoreBranchSnapsho
   @Getter
   private final GitCoreCommit pointedCommit;
 
-  @Getter
-  private final List<IGitCoreReflogEntry> reflogFromMostRecent;
+  private final GitCoreReflog reflog;
+
+  @Override
+  public Stream<IGitCoreReflogEntry> getReflogFromMostRecent() {
+    return reflog.getEntriesFromMostRecent();
+  }
+
+  @Override
+  public Option<IGitCoreReflogEntry> getOldestReflogEntry() {
+    return reflog.getOldestEntry();
+  }
+
+  @Override
+  public Option<Instant> getReflogModificationTime() {
+    return Option.of(reflog.getModificationTime());
+  }
 
   public abstract String getBranchTypeString(boolean capitalized);
 
@@ -0,0 +1,128 @@
+package com.virtuslab.gitcore.impl.jgit;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+import io.vavr.CheckedFunction1;
+import io.vavr.collection.Iterator;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import lombok.val;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.eclipse.jgit.lib.ObjectId;
+
+import com.virtuslab.gitcore.impl.jgit.GitCoreCommitNodeCache.CommitNode;
+
+/**
+ * Iterators over the ancestors of a commit (inclusive), in the very same orders as JGit's {@code RevWalk} sorted with
+ * {@code RevSort.COMMIT_TIME_DESC} and {@code RevSort.TOPO} respectively, but over the nodes of
+ * {@link GitCoreCommitNodeCache} rather than over the commits of a dedicated {@code RevWalk}.
+ * Hence, the commits already parsed by any other walk are not parsed again, and there is no walk
+ * (nor object reader) to be closed once the iteration is abandoned.
+ */
+final class GitCoreAncestorIterators {
+
+  private GitCoreAncestorIterators() {}
+
+  @RequiredArgsConstructor
+  private static final class QueuedNode {
+    private final CommitNode node;
+    // The order of adding to the queue, which decides between the commits with the same commit time
+    private final long sequenceNumber;
+  }
+
+  private static final Comparator<QueuedNode> MOST_RECENT_FIRST = Comparator
+      .comparing((QueuedNode queuedNode) -> queuedNode.node.getCommitTime(), Comparator.reverseOrder())
+      .thenComparingLong(queuedNode -> queuedNode.sequenceNumber);
+
+  /**
+   * Equivalent to JGit's {@code PendingGenerator} over a {@code DateRevQueue}: the most recent commit of the queue
+   * (the earliest queued one among the equally recent) comes next, and its parents not seen so far are queued.
+   *
+   * @param getNode resolves the node of the given commit; called lazily, on the thread that iterates
+   */
+  static Iterator<CommitNode> inCommitTimeOrder(CommitNode startNode, CheckedFunction1<ObjectId, CommitNode> getNode) {
+    val queue = new PriorityQueue<QueuedNode>(MOST_RECENT_FIRST);
+    val seenIds = new java.util.HashSet<ObjectId>();
+    queue.add(new QueuedNode(startNode, /* sequenceNumber */ 0));
+    seenIds.add(startNode.getId());
+
+    return new io.vavr.collection.AbstractIterator<CommitNode>() {
+      private long nextSequenceNumber = 1;
+
+      @Override
+      public boolean hasNext() {
+        return !queue.isEmpty();
+      }
+
+      @Override
+      protected CommitNode getNext() {
+        val node = queue.remove().node;
+        for (val parentId : node.getParentIds()) {
+          if (seenIds.add(parentId)) {
+            queue.add(new QueuedNode(getNodeUnchecked(getNode, parentId), nextSequenceNumber++));
+          }
+        }
+        return node;
+      }
+    };
+  }
+
+  /**
+   * Equivalent to JGit's {@code TopoSortGenerator}: all the ancestors are first collected in the commit time order
+   * (which is why the entire history needs to be walked before the first commit is returned, just like with JGit),
+   * and then each commit is returned only once all its children have been returned.
+   */
+  static Iterator<CommitNode> inTopologicalOrder(CommitNode startNode, CheckedFunction1<ObjectId, CommitNode> getNode) {
+    val pending = new ArrayDeque<CommitNode>();
+    val childCountById = new java.util.HashMap<ObjectId, Integer>();
+    for (val node : inCommitTimeOrder(startNode, getNode)) {
+      for (val parentId : node.getParentIds()) {
+        childCountById.merge(parentId, 1, Integer::sum);
+      }
+      pending.add(node);
+    }
+
+    return new io.vavr.collection.AbstractIterator<CommitNode>() {
+      // The commits that came up while some of their children were still pending
+      private final java.util.Map<ObjectId, CommitNode> delayedNodeById = new java.util.HashMap<>();
+      private @Nullable CommitNode nextNode = null;
+
+      @Override
+      public boolean hasNext() {
+        while (nextNode == null && !pending.isEmpty()) {
+          val node = pending.removeFirst();
+          if (childCountById.getOrDefault(node.getId(), 0) > 0) {
+            delayedNodeById.put(node.getId(), node);
+            continue;
+          }
+          for (val parentId : node.getParentIds()) {
+            if (childCountById.merge(parentId, -1, Integer::sum) == 0) {
+              // This parent came up before, but its last child is just being returned, so it goes right after the child.
+              val delayedParent = delayedNodeById.remove(parentId);
+              if (delayedParent != null) {
+                pending.addFirst(delayedParent);
+              }
+            }
+          }
+          nextNode = node;
+        }
+        return nextNode != null;
+      }
+
+      @Override
+      protected CommitNode getNext() {
+        val node = nextNode;
+        assert node != null : "getNext() called without hasNext() returning true";
+        nextNode = null;
+        return node;
+      }
+    };
+  }
+
+  @SneakyThrows
+  private static CommitNode getNodeUnchecked(CheckedFunction1<ObjectId, CommitNode> getNode, ObjectId id) {
+    return getNode.apply(id);
+  }
+}
@@ -0,0 +1,217 @@
+package com.virtuslab.gitcore.impl.jgit;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.vavr.Tuple;
+import io.vavr.Tuple2;
+import io.vavr.control.Option;
+import lombok.CustomLog;
+import lombok.val;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.revwalk.RevWalk;
+
+import com.virtuslab.gitcore.api.GitCoreCancelledException;
+import com.virtuslab.gitcore.api.IGitCoreCancellationToken;
+
+/**
+ * Answers is-ancestor questions using generation numbers (a.k.a. topological levels:
+ * 1 for root commits, 1 + the maximum over the parents for all the other commits).
+ * If commit A is a proper ancestor of commit D, then {@code generation(A) < generation(D)};
+ * hence a walk from D looking for A never needs to descend below the generation of A,
+ * and no walk is needed at all when {@code generation(A) >= generation(D)}.
+ * <p>
+ * Generation numbers (and parents) are taken from git's commit-graph file whenever it covers the given commit.
+ * For the commits not covered by the file (typically just the ones created since the file has last been written),
+ * generation numbers are computed on demand (with the parents taken from {@link GitCoreCommitNodeCache})
+ * and memoized in memory.
+ * If there is no (supported) commit-graph file at all, e.g. when git maintains a split commit-graph chain instead,
+ * all the generation numbers are computed this way. The first check then walks the entire history down to the roots,
+ * which is more expensive than a single merge-base check, but each subsequent check only walks the new commits.
+ * <p>
+ * Since generation number is an intrinsic property of a commit, memoized values never need to be invalidated,
+ * but the memo is bounded; once it's full, {@link #isAncestorOrEqual} gives up on the uncovered commits,
+ * as computing them would mean walking further than the memo can hold on each and every check.
+ * The memo is cleared (and the checks resumed) whenever the commit-graph file is written or removed,
+ * as the file is then likely to cover the commits that were memoized (or the memo to be needed anew).
+ * Whenever the answer can't be determined, the caller is expected to fall back to a merge-base-based check.
+ */
+@CustomLog
+final class GitCoreAncestryIndex {
+
+  private static final int MAX_IN_MEMORY_GENERATION_COUNT = 200_000;
+
+  private static final int UNKNOWN_GENERATION = 0;
+
+  private final Path commitGraphFilePath;
+
+  private final GitCoreCommitNodeCache commitNodeCache;
+
+  private volatile Tuple2<@Nullable FileTime, Option<GitCoreCommitGraphFile>> commitGraphFileByModificationTime =
+      Tuple.of(null, Option.none());
+
+  private final ConcurrentHashMap<ObjectId, Integer> inMemoryGenerationByCommitId = new ConcurrentHashMap<>();
+
+  // Once the memo gets full, don't even try computing the missing generation numbers (which is a walk down to the roots).
+  private volatile boolean isInMemoryGenerationMemoFull = false;
+
+  GitCoreAncestryIndex(Path commitGraphFilePath, GitCoreCommitNodeCache commitNodeCache) {
+    this.commitGraphFilePath = commitGraphFilePath;
+    this.commitNodeCache = commitNodeCache;
+  }
+
+  /**
+   * The commit-graph file is re-read whenever it gets rewritten (e.g. by {@code git gc} or {@code git commit-graph write}),
+   * which also resets the in-memory memo.
+   */
+  private Option<GitCoreCommitGraphFile> getCommitGraphFile() {
+    @Nullable FileTime modificationTime;
+    try {
+      modificationTime = Files.isRegularFile(commitGraphFilePath) ? Files.getLastModifiedTime(commitGraphFilePath) : null;
+    } catch (IOException e) {
+      modificationTime = null;
+    }
+    val current = commitGraphFileByModificationTime;
+    if (Objects.equals(current._1, modificationTime)) {
+      return current._2;
+    }
+    val commitGraphFile = modificationTime != null
+        ? GitCoreCommitGraphFile.load(commitGraphFilePath)
+        : Option.<GitCoreCommitGraphFile>none();
+    commitGraphFileByModificationTime = Tuple.of(modificationTime, commitGraphFile);
+    if (!inMemoryGenerationByCommitId.isEmpty() || isInMemoryGenerationMemoFull) {
+      LOG.debug(() -> "Commit-graph file has changed, clearing in-memory generation number memo " +
+          "(${inMemoryGenerationByCommitId.size()} generation(s))");
+      inMemoryGenerationByCommitId.clear();
+      isInMemoryGenerationMemoFull = false;
+    }
+    return commitGraphFile;
+  }
+
+  /**
+   * @return {@code Option.some(...)} with the answer,
+   *         or {@code Option.none()} if the answer couldn't be determined with the generation numbers at hand
+   *         (i.e. if the in-memory memo is full)
+   */
+  Option<Boolean> isAncestorOrEqual(RevWalk walk, IGitCoreCancellationToken cancellationToken, ObjectId presumedAncestor,
+      ObjectId presumedDescendant) throws IOException, GitCoreCancelledException {
+    if (presumedAncestor.equals(presumedDescendant)) {
+      return Option.some(true);
+    }
+    val commitGraphFile = getCommitGraphFile().getOrNull();
+
+    int ancestorGeneration = deriveGeneration(walk, cancellationToken, commitGraphFile, presumedAncestor);
+    int descendantGeneration = deriveGeneration(walk, cancellationToken, commitGraphFile, presumedDescendant);
+    if (ancestorGeneration == UNKNOWN_GENERATION || descendantGeneration == UNKNOWN_GENERATION) {
+      return Option.none();
+    }
+    if (ancestorGeneration >= descendantGeneration) {
+      LOG.debug(() -> "Generation of ${presumedAncestor.getName()} (${ancestorGeneration}) is not lower than " +
+          "generation of ${presumedDescendant.getName()} (${descendantGeneration}) => not an ancestor");
+      return Option.some(false);
+    }
+
+    // Visit the commits with the highest generation first, so that the walk follows the paths
+    // that can still lead to the presumed ancestor and never revisits a commit.
+    val queue = new java.util.PriorityQueue<Tuple2<Integer, ObjectId>>((a, b) -> Integer.compare(b._1, a._1));
+    val visited = new java.util.HashSet<ObjectId>();
+    queue.add(Tuple.of(descendantGeneration, presumedDescendant));
+    visited.add(presumedDescendant);
+    while (!queue.isEmpty()) {
+      cancellationToken.checkCancelled();
+      val current = queue.remove();
+      for (val parent : deriveParents(walk, commitGraphFile, current._2)) {
+        if (parent.equals(presumedAncestor)) {
+          LOG.debug(() -> "${presumedAncestor.getName()} is an ancestor of ${presumedDescendant.getName()} " +
+              "(${visited.size()} commit(s) visited)");
+          return Option.some(true);
+        }
+        int parentGeneration = deriveGeneration(walk, cancellationToken, commitGraphFile, parent);
+        if (parentGeneration == UNKNOWN_GENERATION) {
+          return Option.none();
+        }
+        // A commit with generation not higher than the presumed ancestor's can't have it among its ancestors.
+        if (parentGeneration > ancestorGeneration && visited.add(parent)) {
+          queue.add(Tuple.of(parentGeneration, parent));
+        }
+      }
+    }
+    LOG.debug(() -> "${presumedAncestor.getName()} is not an ancestor of ${presumedDescendant.getName()} " +
+        "(${visited.size()} commit(s) visited)");
+    return Option.some(false);
+  }
+
+  private int lookUpGeneration(@Nullable GitCoreCommitGraphFile commitGraphFile, ObjectId commitId) {
+    if (commitGraphFile != null) {
+      int position = commitGraphFile.findPosition(commitId);
+      if (position >= 0) {
+        return commitGraphFile.getGeneration(position);
+      }
+    }
+    return inMemoryGenerationByCommitId.getOrDefault(commitId, UNKNOWN_GENERATION);
+  }
+
+  private ObjectId[] deriveParents(RevWalk walk, @Nullable GitCoreCommitGraphFile commitGraphFile, ObjectId commitId)
+      throws IOException {
+    if (commitGraphFile != null) {
+      int position = commitGraphFile.findPosition(commitId);
+      if (position >= 0) {
+        return commitGraphFile.getParentPositions(position)
+            .map(commitGraphFile::getObjectId)
+            .toJavaArray(ObjectId[]::new);
+      }
+    }
+    return commitNodeCache.get(walk, commitId).getParentIds();
+  }
+
+  /**
+   * Computes the generation of the given commit (and of all its ancestors not covered by the commit-graph file)
+   * without recursion, as the histories can be arbitrarily deep.
+   *
+   * @return the generation number, or {@link #UNKNOWN_GENERATION} if the in-memory memo got full in the process
+   */
+  private int deriveGeneration(RevWalk walk, IGitCoreCancellationToken cancellationToken,
+      @Nullable GitCoreCommitGraphFile commitGraphFile, ObjectId commitId) throws IOException, GitCoreCancelledException {
+    int knownGeneration = lookUpGeneration(commitGraphFile, commitId);
+    if (knownGeneration != UNKNOWN_GENERATION || isInMemoryGenerationMemoFull) {
+      return knownGeneration;
+    }
+
+    val stack = new java.util.ArrayDeque<ObjectId>();
+    stack.push(commitId.copy());
+    while (!stack.isEmpty()) {
+      cancellationToken.checkCancelled();
+      val current = stack.element();
+      if (lookUpGeneration(commitGraphFile, current) != UNKNOWN_GENERATION) {
+        stack.pop();
+        continue;
+      }
+      int maxParentGeneration = 0;
+      boolean areAllParentGenerationsKnown = true;
+      for (val parent : deriveParents(walk, commitGraphFile, current)) {
+        int parentGeneration = lookUpGeneration(commitGraphFile, parent);
+        if (parentGeneration == UNKNOWN_GENERATION) {
+          areAllParentGenerationsKnown = false;
+          stack.push(parent);
+        } else {
+          maxParentGeneration = Math.max(maxParentGeneration, parentGeneration);
+        }
+      }
+      if (areAllParentGenerationsKnown) {
+        stack.pop();
+        if (inMemoryGenerationByCommitId.size() >= MAX_IN_MEMORY_GENERATION_COUNT) {
+          isInMemoryGenerationMemoFull = true;
+          LOG.debug(() -> "In-memory generation number memo is full, giving up on ${commitId.getName()}");
+          return UNKNOWN_GENERATION;
+        }
+        inMemoryGenerationByCommitId.put(current, maxParentGeneration + 1);
+      }
+    }
+    return lookUpGeneration(commitGraphFile, commitId);
+  }
+}
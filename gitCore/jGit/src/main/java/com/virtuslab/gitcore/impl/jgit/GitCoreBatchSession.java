@@ -0,0 +1,106 @@
+package com.virtuslab.gitcore.impl.jgit;
+
+import io.vavr.CheckedFunction1;
+import lombok.CustomLog;
+import lombok.Getter;
+import lombok.val;
+import org.checkerframework.common.aliasing.qual.NonLeaked;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevSort;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.revwalk.filter.RevFilter;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
+
+import com.virtuslab.gitcore.api.IGitCoreBatchSession;
+import com.virtuslab.gitcore.api.IGitCoreCancellationToken;
+
+/**
+ * A session (along with its object reader and rev walk, neither of which is thread-safe) is confined to the thread
+ * that has opened it, see {@link GitCoreRepository#openBatchSession}; the tasks run in parallel on other threads
+ * open their own sessions. The lazy streams returned within a session never hold on to its rev walk:
+ * they resolve the commits with the session of the thread that traverses them (see {@link GitCoreCommitNodeCache}).
+ */
+@CustomLog
+public final class GitCoreBatchSession implements IGitCoreBatchSession {
+
+  private final ObjectReader objectReader;
+  private final RevWalk sharedRevWalk;
+  private final Runnable doOnClose;
+  @Getter
+  private final IGitCoreCancellationToken cancellationToken;
+
+  // Concurrent just as a cheap safeguard, since the session is confined to a single thread anyway.
+  private final java.util.Map<ObjectId, GitCoreCommit> commitById = new java.util.concurrent.ConcurrentHashMap<>();
+
+  private boolean isSharedRevWalkInUse = false;
+  private int openCount = 1;
+  private int revWalkReuseCount = 0;
+
+  GitCoreBatchSession(ObjectReader objectReader, Runnable doOnClose, IGitCoreCancellationToken cancellationToken) {
+    this.objectReader = objectReader;
+    this.sharedRevWalk = new RevWalk(objectReader);
+    this.doOnClose = doOnClose;
+    this.cancellationToken = cancellationToken;
+  }
+
+  boolean isOpen() {
+    return openCount > 0;
+  }
+
+  void reopen() {
+    openCount++;
+  }
+
+  /**
+   * Runs {@code fun} on the shared rev walk, reset to its initial state (but retaining the already parsed commits).
+   * In the rare case of nested calls (when the shared rev walk is already in use),
+   * a new rev walk is created, but the object reader is still shared.
+   */
+  <T> T withRevWalk(CheckedFunction1<RevWalk, T> fun) throws Throwable {
+    if (isSharedRevWalkInUse) {
+      try (RevWalk walk = new RevWalk(objectReader)) {
+        return fun.apply(walk);
+      }
+    }
+
+    isSharedRevWalkInUse = true;
+    try {
+      // `reset` clears the flags (and the pending start/uninteresting commits) of all objects known to the walk,
+      // but keeps the objects themselves parsed, so that the subsequent walks don't need to re-parse them.
+      sharedRevWalk.reset();
+      sharedRevWalk.setRevFilter(RevFilter.ALL);
+      sharedRevWalk.setTreeFilter(TreeFilter.ALL);
+      sharedRevWalk.sort(RevSort.NONE);
+      revWalkReuseCount++;
+      return fun.apply(sharedRevWalk);
+    } finally {
+      isSharedRevWalkInUse = false;
+    }
+  }
+
+  GitCoreCommit toGitCoreCommit(@NonLeaked RevCommit revCommit) {
+    val cachedCommit = commitById.get(revCommit);
+    if (cachedCommit != null) {
+      return cachedCommit;
+    }
+    val commit = new GitCoreCommit(revCommit);
+    val previousCommit = commitById.putIfAbsent(revCommit.copy(), commit);
+    return previousCommit != null ? previousCommit : commit;
+  }
+
+  @Override
+  public void close() {
+    openCount--;
+    if (openCount > 0) {
+      return;
+    }
+    LOG.debug(() -> "Closing batch session: shared rev walk has been used ${revWalkReuseCount} time(s), " +
+        "${commitById.size()} commit(s) have been converted");
+    sharedRevWalk.close();
+    objectReader.close();
+    commitById.clear();
+    doOnClose.run();
+  }
+}
@@ -1,19 +1,33 @@
 package com.virtuslab.gitcore.impl.jgit;
 
+import io.vavr.control.Option;
 import lombok.AccessLevel;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
-import org.eclipse.jgit.lib.CheckoutEntry;
 
 import com.virtuslab.gitcore.api.IGitCoreCheckoutEntry;
 
 @Data
 @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
 public class GitCoreCheckoutEntry implements IGitCoreCheckoutEntry {
+  static final String CHECKOUT_MOVING_FROM = "checkout: moving from ";
+  private static final String TO = " to ";
+
   private final String fromBranchName;
   private final String toBranchName;
 
-  static GitCoreCheckoutEntry of(CheckoutEntry checkoutEntry) {
-    return new GitCoreCheckoutEntry(checkoutEntry.getFromBranch(), checkoutEntry.getToBranch());
+  /**
+   * Mirrors JGit's {@code CheckoutEntryImpl}, but without the need for a JGit {@code ReflogEntry}.
+   */
+  static Option<IGitCoreCheckoutEntry> parse(String reflogComment) {
+    if (!reflogComment.startsWith(CHECKOUT_MOVING_FROM)) {
+      return Option.none();
+    }
+    int toIndex = reflogComment.indexOf(TO, CHECKOUT_MOVING_FROM.length());
+    if (toIndex < 0) {
+      return Option.none();
+    }
+    return Option.some(new GitCoreCheckoutEntry(reflogComment.substring(CHECKOUT_MOVING_FROM.length(), toIndex),
+        reflogComment.substring(toIndex + TO.length())));
   }
 }
@@ -0,0 +1,219 @@
+package com.virtuslab.gitcore.impl.jgit;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import io.vavr.collection.List;
+import io.vavr.control.Option;
+import lombok.CustomLog;
+import lombok.val;
+import org.eclipse.jgit.lib.AnyObjectId;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+
+/**
+ * Read-only view of git's commit-graph file ({@code objects/info/commit-graph}),
+ * see https://git-scm.com/docs/gitformat-commit-graph.
+ * Only a single (non-split) SHA-1 commit-graph with generation numbers (v1, a.k.a. topological levels)
+ * is supported; {@link #load} returns {@link Option.None} for anything else.
+ * The file is memory-mapped, except for Windows (see {@link #IS_MAPPING_ALLOWED}), where it's read into the heap instead.
+ */
+@CustomLog
+final class GitCoreCommitGraphFile {
+
+  private static final int SIGNATURE = 0x43475048; // "CGPH"
+  private static final int CHUNK_ID_OID_FANOUT = 0x4f494446; // "OIDF"
+  private static final int CHUNK_ID_OID_LOOKUP = 0x4f49444c; // "OIDL"
+  private static final int CHUNK_ID_COMMIT_DATA = 0x43444154; // "CDAT"
+  private static final int CHUNK_ID_EXTRA_EDGE_LIST = 0x45444745; // "EDGE"
+
+  private static final int HEADER_LENGTH = 8;
+  private static final int CHUNK_LOOKUP_ENTRY_LENGTH = 12;
+  private static final int FANOUT_LENGTH = 256 * 4;
+  private static final int COMMIT_DATA_ENTRY_LENGTH = Constants.OBJECT_ID_LENGTH + 16;
+
+  private static final int PARENT_NONE = 0x70000000;
+  private static final int PARENT_EXTRA_EDGES = 0x80000000;
+  private static final int LAST_EDGE = 0x80000000;
+
+  // On Windows, a mapped file can't be deleted or replaced until the mapping is garbage-collected,
+  // which would break `git gc`, `git commit-graph write` etc.
+  private static final boolean IS_MAPPING_ALLOWED = !System.getProperty("os.name", "").startsWith("Windows");
+
+  private final ByteBuffer buffer;
+  private final int fanoutOffset;
+  private final int oidLookupOffset;
+  private final int commitDataOffset;
+  private final int extraEdgeListOffset;
+
+  private GitCoreCommitGraphFile(ByteBuffer buffer, int fanoutOffset, int oidLookupOffset,
+      int commitDataOffset, int extraEdgeListOffset) {
+    this.buffer = buffer;
+    this.fanoutOffset = fanoutOffset;
+    this.oidLookupOffset = oidLookupOffset;
+    this.commitDataOffset = commitDataOffset;
+    this.extraEdgeListOffset = extraEdgeListOffset;
+  }
+
+  static Option<GitCoreCommitGraphFile> load(Path path) {
+    if (!Files.isRegularFile(path)) {
+      return Option.none();
+    }
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      long length = channel.size();
+      if (length > Integer.MAX_VALUE) {
+        LOG.debug(() -> "Commit-graph file ${path} is too large (${length} bytes)");
+        return Option.none();
+      }
+      return parse(path, read(channel, (int) length));
+    } catch (IOException e) {
+      LOG.warn("Could not read commit-graph file ${path}", e);
+      return Option.none();
+    }
+  }
+
+  private static ByteBuffer read(FileChannel channel, int length) throws IOException {
+    if (IS_MAPPING_ALLOWED) {
+      return channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+    }
+    val buffer = ByteBuffer.allocate(length);
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, buffer.position()) < 0) {
+        break;
+      }
+    }
+    buffer.flip();
+    return buffer;
+  }
+
+  private static Option<GitCoreCommitGraphFile> parse(Path path, ByteBuffer buffer) {
+    if (buffer.limit() < HEADER_LENGTH || buffer.getInt(0) != SIGNATURE) {
+      LOG.debug(() -> "${path} is not a commit-graph file");
+      return Option.none();
+    }
+    int version = buffer.get(4);
+    int hashVersion = buffer.get(5);
+    int chunkCount = buffer.get(6) & 0xff;
+    int baseGraphCount = buffer.get(7) & 0xff;
+    if (version != 1 || hashVersion != 1 || baseGraphCount != 0) {
+      LOG.debug(() -> "Unsupported commit-graph file ${path}: version = ${version}, hash version = ${hashVersion}, " +
+          "base graph count = ${baseGraphCount}");
+      return Option.none();
+    }
+
+    int fanoutOffset = -1;
+    int oidLookupOffset = -1;
+    int commitDataOffset = -1;
+    int extraEdgeListOffset = -1;
+    for (int i = 0; i < chunkCount; i++) {
+      int entryOffset = HEADER_LENGTH + i * CHUNK_LOOKUP_ENTRY_LENGTH;
+      int chunkId = buffer.getInt(entryOffset);
+      int chunkOffset = (int) buffer.getLong(entryOffset + 4);
+      if (chunkId == CHUNK_ID_OID_FANOUT) {
+        fanoutOffset = chunkOffset;
+      } else if (chunkId == CHUNK_ID_OID_LOOKUP) {
+        oidLookupOffset = chunkOffset;
+      } else if (chunkId == CHUNK_ID_COMMIT_DATA) {
+        commitDataOffset = chunkOffset;
+      } else if (chunkId == CHUNK_ID_EXTRA_EDGE_LIST) {
+        extraEdgeListOffset = chunkOffset;
+      }
+    }
+    if (fanoutOffset < 0 || oidLookupOffset < 0 || commitDataOffset < 0) {
+      LOG.debug(() -> "Commit-graph file ${path} lacks a required chunk");
+      return Option.none();
+    }
+
+    int commitCount = buffer.getInt(fanoutOffset + FANOUT_LENGTH - 4);
+    val commitGraphFile = new GitCoreCommitGraphFile(buffer, fanoutOffset, oidLookupOffset,
+        commitDataOffset, extraEdgeListOffset);
+    // Generation number zero means that the file has been written by a git version that didn't compute them.
+    if (commitCount > 0 && commitGraphFile.getGeneration(0) == 0) {
+      LOG.debug(() -> "Commit-graph file ${path} does not contain generation numbers");
+      return Option.none();
+    }
+    LOG.debug(() -> "Loaded commit-graph file ${path} with ${commitCount} commit(s)");
+    return Option.some(commitGraphFile);
+  }
+
+  /**
+   * @return the position of the given commit in the file, or -1 if the commit is not present in the file
+   */
+  int findPosition(AnyObjectId commitId) {
+    val raw = new byte[Constants.OBJECT_ID_LENGTH];
+    commitId.copyRawTo(raw, 0);
+    val target = ByteBuffer.wrap(raw);
+
+    int firstByte = commitId.getFirstByte();
+    int low = firstByte == 0 ? 0 : buffer.getInt(fanoutOffset + (firstByte - 1) * 4);
+    int high = buffer.getInt(fanoutOffset + firstByte * 4) - 1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      int comparison = compareObjectIdAt(middle, target);
+      if (comparison == 0) {
+        return middle;
+      } else if (comparison < 0) {
+        low = middle + 1;
+      } else {
+        high = middle - 1;
+      }
+    }
+    return -1;
+  }
+
+  private int compareObjectIdAt(int position, ByteBuffer target) {
+    int offset = oidLookupOffset + position * Constants.OBJECT_ID_LENGTH;
+    for (int i = 0; i < Constants.OBJECT_ID_LENGTH; i += 4) {
+      int comparison = Integer.compareUnsigned(buffer.getInt(offset + i), target.getInt(i));
+      if (comparison != 0) {
+        return comparison;
+      }
+    }
+    return 0;
+  }
+
+  ObjectId getObjectId(int position) {
+    val raw = new byte[Constants.OBJECT_ID_LENGTH];
+    int offset = oidLookupOffset + position * Constants.OBJECT_ID_LENGTH;
+    for (int i = 0; i < raw.length; i++) {
+      raw[i] = buffer.get(offset + i);
+    }
+    return ObjectId.fromRaw(raw);
+  }
+
+  int getGeneration(int position) {
+    int offset = commitDataOffset + position * COMMIT_DATA_ENTRY_LENGTH + Constants.OBJECT_ID_LENGTH + 8;
+    return buffer.getInt(offset) >>> 2;
+  }
+
+  List<Integer> getParentPositions(int position) {
+    int offset = commitDataOffset + position * COMMIT_DATA_ENTRY_LENGTH + Constants.OBJECT_ID_LENGTH;
+    int firstParent = buffer.getInt(offset);
+    int secondParent = buffer.getInt(offset + 4);
+    if (firstParent == PARENT_NONE) {
+      return List.empty();
+    } else if (secondParent == PARENT_NONE) {
+      return List.of(firstParent);
+    } else if ((secondParent & PARENT_EXTRA_EDGES) == 0) {
+      return List.of(firstParent, secondParent);
+    }
+
+    // Octopus merge: the remaining parents are stored in the extra edge list, the last one marked with the top bit.
+    if (extraEdgeListOffset < 0) {
+      return List.of(firstParent);
+    }
+    List<Integer> parents = List.of(firstParent);
+    int edgeIndex = secondParent & ~PARENT_EXTRA_EDGES;
+    int edge;
+    do {
+      edge = buffer.getInt(extraEdgeListOffset + edgeIndex * 4);
+      parents = parents.append(edge & ~LAST_EDGE);
+      edgeIndex++;
+    } while ((edge & LAST_EDGE) == 0);
+    return parents;
+  }
+}
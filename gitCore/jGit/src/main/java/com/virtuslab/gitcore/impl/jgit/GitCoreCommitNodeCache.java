@@ -0,0 +1,58 @@
+package com.virtuslab.gitcore.impl.jgit;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import lombok.CustomLog;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.revwalk.RevWalk;
+
+/**
+ * The parents and the commit time of the commits of a single repository, i.e. just what's needed to walk the history.
+ * Shared by all the walks over the repository (on any thread), so that each commit is parsed at most once
+ * rather than once per walk; since commits are immutable, the cached nodes never need to be invalidated.
+ * <p>
+ * The cache is bounded; once it's full, it's cleared and starts over, so that a walk through a history
+ * larger than the cache keeps working (just without the benefit of the cache for the older commits).
+ */
+@CustomLog
+final class GitCoreCommitNodeCache {
+
+  private static final int MAX_NODE_COUNT = 200_000;
+
+  @Getter
+  @RequiredArgsConstructor
+  static final class CommitNode {
+    private final ObjectId id;
+    private final ObjectId[] parentIds;
+    // In seconds since epoch, as in the commit itself (see RevCommit#getCommitTime)
+    private final int commitTime;
+  }
+
+  private final ConcurrentHashMap<ObjectId, CommitNode> nodeById = new ConcurrentHashMap<>();
+
+  /**
+   * @param walk the walk to parse the commit with if it's not cached yet; must be confined to the calling thread
+   */
+  CommitNode get(RevWalk walk, ObjectId commitId) throws IOException {
+    val cachedNode = nodeById.get(commitId);
+    if (cachedNode != null) {
+      return cachedNode;
+    }
+    val commit = walk.parseCommit(commitId);
+    val parentIds = new ObjectId[commit.getParentCount()];
+    for (int i = 0; i < parentIds.length; i++) {
+      parentIds[i] = commit.getParent(i).copy();
+    }
+    val node = new CommitNode(commit.copy(), parentIds, commit.getCommitTime());
+    if (nodeById.size() >= MAX_NODE_COUNT) {
+      LOG.debug(() -> "Commit node cache is full (${MAX_NODE_COUNT} nodes), clearing it");
+      nodeById.clear();
+    }
+    nodeById.put(node.getId(), node);
+    return node;
+  }
+}
@@ -1,6 +1,6 @@
 package com.virtuslab.gitcore.impl.jgit;
 
-import io.vavr.collection.List;
+import io.vavr.collection.Stream;
 import io.vavr.control.Option;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
@@ -19,7 +19,7 @@ public class GitCoreHeadSnapshot implements IGitCoreHeadSnapshot {
   private final @Nullable IGitCoreLocalBranchSnapshot targetBranch;
 
   @Getter
-  private final List<IGitCoreReflogEntry> reflogFromMostRecent;
+  private final Stream<IGitCoreReflogEntry> reflogFromMostRecent;
 
   @Override
   public Option<IGitCoreLocalBranchSnapshot> getTargetBranch() {
@@ -2,12 +2,10 @@ package com.virtuslab.gitcore.impl.jgit;
 
 import static com.virtuslab.gitcore.impl.jgit.BranchFullNameUtils.getLocalBranchFullName;
 
-import io.vavr.collection.List;
 import io.vavr.control.Option;
 import org.eclipse.jgit.annotations.Nullable;
 
 import com.virtuslab.gitcore.api.IGitCoreLocalBranchSnapshot;
-import com.virtuslab.gitcore.api.IGitCoreReflogEntry;
 import com.virtuslab.gitcore.api.IGitCoreRemoteBranchSnapshot;
 
 public class GitCoreLocalBranchSnapshot extends BaseGitCoreBranchSnapshot implements IGitCoreLocalBranchSnapshot {
@@ -17,7 +15,7 @@ public class GitCoreLocalBranchSnapshot extends BaseGitCoreBranchSnapshot implem
   public GitCoreLocalBranchSnapshot(
       String shortBranchName,
       GitCoreCommit pointedCommit,
-      List<IGitCoreReflogEntry> reflog,
+      GitCoreReflog reflog,
       @Nullable IGitCoreRemoteBranchSnapshot remoteBranch) {
     super(shortBranchName, pointedCommit, reflog);
     this.remoteBranch = remoteBranch;
@@ -0,0 +1,210 @@
+package com.virtuslab.gitcore.impl.jgit;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.vavr.Tuple;
+import io.vavr.Tuple2;
+import io.vavr.control.Option;
+import lombok.CustomLog;
+import lombok.val;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+
+/**
+ * Size-bounded, thread-safe cache of merge bases for the commits of a single repository.
+ * Merge base for the given two commits never changes thanks to git commit graph immutability,
+ * so the entries never need to be invalidated, only evicted (least recently used first) once the cache gets full.
+ * All the entries are guarded by the monitor of the cache, as each lookup updates the order of use.
+ * <p>
+ * The cache is persisted to (and is restored from) a file under the main {@code .git} directory,
+ * so that the merge bases derived in the previous IDE session don't need to be re-derived.
+ * The file is only written once there are new entries, and in the background (a few seconds after the first new entry),
+ * so that neither the snapshot creation nor its cancellation ever waits for the disk.
+ * The file consists of fixed-size records of three raw object ids: the two commits and their merge base
+ * (or the zero id if there is no merge base), from the least to the most recently used,
+ * so that the order of use carries over to the next IDE session.
+ */
+@CustomLog
+public final class GitCoreMergeBaseCache {
+
+  private static final int MAX_ENTRY_COUNT = 4096;
+
+  private static final int RECORD_LENGTH = 3 * Constants.OBJECT_ID_LENGTH;
+
+  private static final long SAVE_DELAY_MILLIS = 5000;
+
+  private static final ScheduledExecutorService SAVE_EXECUTOR = Executors.newSingleThreadScheduledExecutor(runnable -> {
+    val thread = new Thread(runnable, "git-machete merge base cache saver");
+    // So that a pending save never keeps the JVM alive.
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  private final Path filePath;
+
+  // Access-ordered, so that the first entry is always the least recently used one.
+  private final java.util.Map<Tuple2<ObjectId, ObjectId>, ObjectId> mergeBaseByCommits =
+      new LinkedHashMap<>(/* initialCapacity */ 16, /* loadFactor */ 0.75f, /* accessOrder */ true) {
+        @Override
+        protected boolean removeEldestEntry(java.util.Map.Entry<Tuple2<ObjectId, ObjectId>, ObjectId> eldest) {
+          if (size() > MAX_ENTRY_COUNT) {
+            evictionCount.incrementAndGet();
+            return true;
+          }
+          return false;
+        }
+      };
+  private boolean isDirty = false;
+  private final long saveDelayMillis;
+
+  private final AtomicLong hitCount = new AtomicLong();
+  private final AtomicLong missCount = new AtomicLong();
+  private final AtomicLong evictionCount = new AtomicLong();
+
+  GitCoreMergeBaseCache(Path filePath) {
+    this(filePath, SAVE_DELAY_MILLIS);
+  }
+
+  GitCoreMergeBaseCache(Path filePath, long saveDelayMillis) {
+    this.filePath = filePath;
+    this.saveDelayMillis = saveDelayMillis;
+    load();
+  }
+
+  public long getHitCount() {
+    return hitCount.get();
+  }
+
+  public long getMissCount() {
+    return missCount.get();
+  }
+
+  public long getEvictionCount() {
+    return evictionCount.get();
+  }
+
+  @SuppressWarnings("regexp") // to allow for `synchronized`
+  public synchronized int getSize() {
+    return mergeBaseByCommits.size();
+  }
+
+  /**
+   * Merge base is symmetric, hence the key doesn't depend on the order of the commits.
+   */
+  private static Tuple2<ObjectId, ObjectId> toKey(ObjectId a, ObjectId b) {
+    return a.compareTo(b) <= 0 ? Tuple.of(a.copy(), b.copy()) : Tuple.of(b.copy(), a.copy());
+  }
+
+  /**
+   * @return {@code null} if the merge base for the given commits is not known yet,
+   *         {@code Option.none()} if the given commits are known not to have a merge base
+   */
+  @SuppressWarnings("regexp") // to allow for `synchronized`
+  synchronized @Nullable Option<ObjectId> get(ObjectId a, ObjectId b) {
+    ObjectId mergeBase = mergeBaseByCommits.get(toKey(a, b));
+    if (mergeBase == null) {
+      missCount.incrementAndGet();
+      return null;
+    }
+    hitCount.incrementAndGet();
+    return mergeBase.equals(ObjectId.zeroId()) ? Option.none() : Option.some(mergeBase);
+  }
+
+  @SuppressWarnings("regexp") // to allow for `synchronized`
+  synchronized void put(ObjectId a, ObjectId b, Option<ObjectId> mergeBase) {
+    val key = toKey(a, b);
+    val value = mergeBase.map(ObjectId::copy).getOrElse(ObjectId.zeroId());
+    if (mergeBaseByCommits.putIfAbsent(key, value) == null) {
+      // Only the first new entry since the last save schedules the next one, all the others just get included in it.
+      // The lookups alone don't make the cache dirty, their order of use just gets included in the next save.
+      if (!isDirty) {
+        isDirty = true;
+        SAVE_EXECUTOR.schedule(this::save, saveDelayMillis, TimeUnit.MILLISECONDS);
+      }
+    }
+  }
+
+  // Only called from the constructor, hence not synchronized.
+  private void load() {
+    if (!Files.isRegularFile(filePath)) {
+      return;
+    }
+    try {
+      val bytes = Files.readAllBytes(filePath);
+      if (bytes.length % RECORD_LENGTH != 0) {
+        LOG.warn("Merge base cache file ${filePath} is corrupted (unexpected length ${bytes.length}), ignoring");
+        return;
+      }
+      for (int offset = 0; offset < bytes.length; offset += RECORD_LENGTH) {
+        val a = ObjectId.fromRaw(bytes, offset);
+        val b = ObjectId.fromRaw(bytes, offset + Constants.OBJECT_ID_LENGTH);
+        val mergeBase = ObjectId.fromRaw(bytes, offset + 2 * Constants.OBJECT_ID_LENGTH);
+        mergeBaseByCommits.putIfAbsent(toKey(a, b), mergeBase);
+      }
+      LOG.debug(() -> "Loaded ${mergeBaseByCommits.size()} merge base(s) from ${filePath}");
+    } catch (IOException e) {
+      LOG.warn("Could not load merge base cache from ${filePath}", e);
+    }
+  }
+
+  /**
+   * @return the records of all the entries (in the order of use) to be saved,
+   *         or {@code null} if there have been no new entries since the last save
+   */
+  @SuppressWarnings("regexp") // to allow for `synchronized`
+  private synchronized byte @Nullable [] takeChangesToSave() {
+    if (!isDirty) {
+      return null;
+    }
+    isDirty = false;
+    // Iterating over the entries (unlike `get`) doesn't affect the order of use.
+    val buffer = ByteBuffer.allocate(mergeBaseByCommits.size() * RECORD_LENGTH);
+    val recordBytes = new byte[Constants.OBJECT_ID_LENGTH];
+    for (val entry : mergeBaseByCommits.entrySet()) {
+      entry.getKey()._1.copyRawTo(recordBytes, 0);
+      buffer.put(recordBytes);
+      entry.getKey()._2.copyRawTo(recordBytes, 0);
+      buffer.put(recordBytes);
+      entry.getValue().copyRawTo(recordBytes, 0);
+      buffer.put(recordBytes);
+    }
+    return buffer.array();
+  }
+
+  /**
+   * Writes the cache to the file if there have been any new entries since the last save.
+   * Normally invoked in the background, see {@link #put}.
+   * The file is first written under a temporary name and then atomically moved into place,
+   * so that a concurrent reader never sees a partially written file.
+   * The entries are copied under the monitor of the cache, but written outside of it.
+   */
+  void save() {
+    val bytes = takeChangesToSave();
+    if (bytes == null) {
+      return;
+    }
+    try {
+      val parentDirectoryPath = filePath.getParent();
+      if (parentDirectoryPath != null) {
+        Files.createDirectories(parentDirectoryPath);
+      }
+      val tempFilePath = filePath.resolveSibling(filePath.getFileName() + ".tmp");
+      Files.write(tempFilePath, bytes);
+      Files.move(tempFilePath, filePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      LOG.debug(() -> "Saved merge base cache to ${filePath}: size = ${getSize()}, hits = ${getHitCount()}, " +
+          "misses = ${getMissCount()}, evictions = ${getEvictionCount()}");
+    } catch (IOException e) {
+      LOG.warn("Could not save merge base cache to ${filePath}", e);
+    }
+  }
+}
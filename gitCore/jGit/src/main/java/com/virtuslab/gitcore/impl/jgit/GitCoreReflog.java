@@ -0,0 +1,23 @@
+package com.virtuslab.gitcore.impl.jgit;
+
+import java.time.Instant;
+
+import io.vavr.collection.Stream;
+import io.vavr.control.Option;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import com.virtuslab.gitcore.api.IGitCoreReflogEntry;
+
+@Getter
+@RequiredArgsConstructor
+final class GitCoreReflog {
+  private final Stream<IGitCoreReflogEntry> entriesFromMostRecent;
+
+  // Kept separately, so that getting the oldest entry doesn't require traversing the (lazy) stream of entries
+  private final Option<IGitCoreReflogEntry> oldestEntry;
+
+  // Only known for the reflogs read directly from the files (see GitCoreReflogCache)
+  private final @Nullable Instant modificationTime;
+}
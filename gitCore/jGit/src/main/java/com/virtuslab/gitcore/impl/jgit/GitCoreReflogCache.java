@@ -0,0 +1,94 @@
+package com.virtuslab.gitcore.impl.jgit;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.vavr.control.Option;
+import lombok.CustomLog;
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+
+/**
+ * Keeps the reflogs of a single repository, keyed by the path of the reflog file (under {@code logs/}).
+ * The entries are read lazily from the end of the file (see {@link GitCoreReflogFile}),
+ * so the callers that only need the most recent entries never read the rest.
+ * <p>
+ * Reflog files are append-only in the vast majority of cases, so when a file has grown since it was last read
+ * (and still starts with the same line), just the appended part is read and its entries are prepended to the already read
+ * ones. Hence, the entries of all the reads together never hold on to more than a single copy of the file.
+ * Any other change (e.g. {@code git reflog expire}, or a branch deleted and re-created) makes the file read anew.
+ * Since the entries of an unchanged reflog are the very same objects each time, the identity of the newest and the oldest
+ * entry can serve as a cheap fingerprint of the reflog.
+ */
+@CustomLog
+final class GitCoreReflogCache {
+
+  @RequiredArgsConstructor
+  private static final class CachedReflog {
+    private final long fileLength;
+    private final FileTime lastModifiedTime;
+    // Length of the part of the file that the entries have been read from, always ending right after a line feed (or 0).
+    private final int completeLength;
+    private final byte[] firstLine;
+    private final GitCoreReflog reflog;
+  }
+
+  private final ConcurrentHashMap<Path, CachedReflog> cachedReflogByFilePath = new ConcurrentHashMap<>();
+
+  /**
+   * @return the reflog, or {@link Option.None} if there is no reflog file under the given path
+   *         (or it can't be handled, in which case the caller is expected to fall back to JGit)
+   */
+  Option<GitCoreReflog> deriveReflog(Path reflogFilePath) throws IOException {
+    BasicFileAttributes attributes;
+    try {
+      attributes = Files.readAttributes(reflogFilePath, BasicFileAttributes.class);
+    } catch (NoSuchFileException e) {
+      cachedReflogByFilePath.remove(reflogFilePath);
+      return Option.none();
+    }
+    long length = attributes.size();
+    FileTime lastModifiedTime = attributes.lastModifiedTime();
+
+    CachedReflog cachedReflog = cachedReflogByFilePath.get(reflogFilePath);
+    if (cachedReflog != null && cachedReflog.fileLength == length
+        && cachedReflog.lastModifiedTime.equals(lastModifiedTime)) {
+      return Option.some(cachedReflog.reflog);
+    }
+    if (length > Integer.MAX_VALUE) {
+      LOG.warn("Reflog file ${reflogFilePath} is too large (${length} bytes) to be read directly");
+      return Option.none();
+    }
+
+    CachedReflog newCachedReflog;
+    try (FileChannel channel = FileChannel.open(reflogFilePath, StandardOpenOption.READ)) {
+      if (cachedReflog != null && cachedReflog.firstLine.length > 0
+          && length >= cachedReflog.completeLength
+          && GitCoreReflogFile.startsWith(channel, cachedReflog.firstLine)) {
+        LOG.debug(() -> "${reflogFilePath} has been appended to, reusing the previously read entries");
+        // Only the appended part is read, so that the new entries don't hold on to yet another copy of the whole file.
+        val appendedPart = GitCoreReflogFile.read(channel, /* offset */ cachedReflog.completeLength, (int) length);
+        val entries = appendedPart.streamFromMostRecent().appendAll(cachedReflog.reflog.getEntriesFromMostRecent());
+        newCachedReflog = new CachedReflog(length, lastModifiedTime, appendedPart.getCompleteLength(),
+            cachedReflog.firstLine,
+            new GitCoreReflog(entries, cachedReflog.reflog.getOldestEntry(), lastModifiedTime.toInstant()));
+      } else {
+        LOG.debug(() -> "Reading ${reflogFilePath} anew");
+        val reflogFile = GitCoreReflogFile.read(channel, (int) length);
+        val reflog = new GitCoreReflog(reflogFile.streamFromMostRecent(), reflogFile.deriveOldestEntry(),
+            lastModifiedTime.toInstant());
+        newCachedReflog = new CachedReflog(length, lastModifiedTime, reflogFile.getCompleteLength(),
+            reflogFile.copyFirstLine(), reflog);
+      }
+    }
+    cachedReflogByFilePath.put(reflogFilePath, newCachedReflog);
+    return Option.some(newCachedReflog.reflog);
+  }
+}
@@ -8,6 +8,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.ToString;
 import lombok.experimental.ExtensionMethod;
 import org.checkerframework.checker.interning.qual.UsesObjectEquals;
+import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.ReflogEntry;
 
 import com.virtuslab.gitcore.api.IGitCoreCheckoutEntry;
@@ -20,34 +21,42 @@ import com.virtuslab.gitcore.api.IGitCoreReflogEntry;
 @UsesObjectEquals
 public class GitCoreReflogEntry implements IGitCoreReflogEntry {
 
-  private final ReflogEntry reflogEntry;
+  private final ObjectId oldId;
+  private final ObjectId newId;
+  private final Instant timestamp;
+  private final String comment;
+
+  static GitCoreReflogEntry of(ReflogEntry reflogEntry) {
+    return new GitCoreReflogEntry(reflogEntry.getOldId(), reflogEntry.getNewId(),
+        reflogEntry.getWho().getWhen().toInstant(), reflogEntry.getComment());
+  }
 
   @Override
   @ToString.Include(name = "comment")
   public String getComment() {
-    return reflogEntry.getComment();
+    return comment;
   }
 
   @Override
   @ToString.Include(name = "timestamp")
   public Instant getTimestamp() {
-    return reflogEntry.getWho().getWhen().toInstant();
+    return timestamp;
   }
 
   @Override
   @ToString.Include(name = "oldCommitHash")
   public Option<IGitCoreCommitHash> getOldCommitHash() {
-    return reflogEntry.getOldId().toGitCoreCommitHashOption();
+    return oldId.toGitCoreCommitHashOption();
   }
 
   @Override
   @ToString.Include(name = "newCommitHash")
   public IGitCoreCommitHash getNewCommitHash() {
-    return reflogEntry.getNewId().toGitCoreCommitHash();
+    return newId.toGitCoreCommitHash();
   }
 
   @Override
   public Option<IGitCoreCheckoutEntry> parseCheckout() {
-    return Option.of(reflogEntry.parseCheckout()).map(GitCoreCheckoutEntry::of);
+    return GitCoreCheckoutEntry.parse(comment);
   }
 }
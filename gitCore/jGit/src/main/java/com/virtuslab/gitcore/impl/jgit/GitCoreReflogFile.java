@@ -0,0 +1,156 @@
+package com.virtuslab.gitcore.impl.jgit;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+import io.vavr.collection.Stream;
+import io.vavr.control.Option;
+import lombok.val;
+
+import com.virtuslab.gitcore.api.IGitCoreReflogEntry;
+
+/**
+ * Read-only view of the contents of a reflog file (as of the moment it's been read), with the lines read from the end.
+ * Large files are memory-mapped, so that only the pages holding the actually traversed (i.e. the most recent) entries
+ * are ever loaded; no per-line objects are created until the given line is reached.
+ * <p>
+ * The view might cover just the part of the file past the given offset (see {@link #read(FileChannel, int, int)}),
+ * so that the entries appended to an already read file don't hold on to a copy of the whole file.
+ */
+final class GitCoreReflogFile {
+
+  // Mapping a file is more expensive than just reading it, unless the file is large enough.
+  private static final int MIN_MAPPED_LENGTH = 64 * 1024;
+
+  // On Windows, a mapped file can't be deleted or replaced until the mapping is garbage-collected,
+  // which would break `git branch -d`, `git reflog expire` etc.
+  private static final boolean IS_MAPPING_ALLOWED = !System.getProperty("os.name", "").startsWith("Windows");
+
+  private static final byte LINE_FEED = 0x0a;
+
+  // Position in the file of the beginning of the buffer, always right after a line feed (or 0).
+  private final int offset;
+
+  private final ByteBuffer buffer;
+
+  // Length of the part of the buffer made of complete lines, i.e. the position right after the last line feed (or 0).
+  private final int completeBufferLength;
+
+  private GitCoreReflogFile(int offset, ByteBuffer buffer) {
+    this.offset = offset;
+    this.buffer = buffer;
+    int position = buffer.limit();
+    while (position > 0 && buffer.get(position - 1) != LINE_FEED) {
+      position--;
+    }
+    this.completeBufferLength = position;
+  }
+
+  static GitCoreReflogFile read(FileChannel channel, int length) throws IOException {
+    return read(channel, /* offset */ 0, length);
+  }
+
+  /**
+   * @param offset position of the beginning of a line; only the part of the file starting at this position is read
+   * @param length length of the entire file
+   */
+  static GitCoreReflogFile read(FileChannel channel, int offset, int length) throws IOException {
+    int bufferLength = length - offset;
+    if (IS_MAPPING_ALLOWED && bufferLength >= MIN_MAPPED_LENGTH) {
+      return new GitCoreReflogFile(offset, channel.map(FileChannel.MapMode.READ_ONLY, offset, bufferLength));
+    }
+    val buffer = ByteBuffer.allocate(bufferLength);
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, offset + buffer.position()) < 0) {
+        break;
+      }
+    }
+    buffer.flip();
+    return new GitCoreReflogFile(offset, buffer);
+  }
+
+  /**
+   * @return whether the file read from the given channel starts with the given bytes
+   */
+  static boolean startsWith(FileChannel channel, byte[] prefix) throws IOException {
+    val buffer = ByteBuffer.allocate(prefix.length);
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, buffer.position()) < 0) {
+        return false;
+      }
+    }
+    return Arrays.equals(buffer.array(), prefix);
+  }
+
+  /**
+   * Length of the part of the file made of complete lines, i.e. the position right after the last line feed (or 0).
+   * A trailing incomplete line might be still being written by git; it's ignored until it's complete.
+   */
+  int getCompleteLength() {
+    return offset + completeBufferLength;
+  }
+
+  /**
+   * @return the contents of the first line of the read part of the file (including its line feed),
+   *         or an empty array if there are no complete lines
+   */
+  byte[] copyFirstLine() {
+    int length = 0;
+    while (length < completeBufferLength && buffer.get(length) != LINE_FEED) {
+      length++;
+    }
+    byte[] result = new byte[length < completeBufferLength ? length + 1 : 0];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = buffer.get(i);
+    }
+    return result;
+  }
+
+  Option<IGitCoreReflogEntry> deriveOldestEntry() {
+    return streamFromOldest(0).headOption();
+  }
+
+  private Stream<IGitCoreReflogEntry> streamFromOldest(int from) {
+    int lineStart = from;
+    while (lineStart < completeBufferLength) {
+      int lineEnd = lineStart;
+      while (buffer.get(lineEnd) != LINE_FEED) {
+        lineEnd++;
+      }
+      val entry = GitCoreReflogFileEntry.of(buffer, lineStart, lineEnd);
+      if (entry != null) {
+        int nextLineStart = lineEnd + 1;
+        return Stream.cons(entry, () -> streamFromOldest(nextLineStart));
+      }
+      lineStart = lineEnd + 1;
+    }
+    return Stream.empty();
+  }
+
+  /**
+   * @return a lazy stream of the entries of the read part of the file, ordered from the latest to the oldest
+   */
+  Stream<IGitCoreReflogEntry> streamFromMostRecent() {
+    return streamFromMostRecent(/* from */ 0, completeBufferLength);
+  }
+
+  private Stream<IGitCoreReflogEntry> streamFromMostRecent(int from, int to) {
+    // `to` is always either `from` or the position right after a line feed
+    int lineEnd = to - 1;
+    while (lineEnd >= from) {
+      int lineStart = lineEnd;
+      while (lineStart > from && buffer.get(lineStart - 1) != LINE_FEED) {
+        lineStart--;
+      }
+      val entry = GitCoreReflogFileEntry.of(buffer, lineStart, lineEnd);
+      if (entry != null) {
+        int previousLineEnd = lineStart;
+        return Stream.cons(entry, () -> streamFromMostRecent(from, previousLineEnd));
+      }
+      lineEnd = lineStart - 1;
+    }
+    return Stream.empty();
+  }
+}
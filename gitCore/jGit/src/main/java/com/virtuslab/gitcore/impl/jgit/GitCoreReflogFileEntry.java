@@ -0,0 +1,182 @@
+package com.virtuslab.gitcore.impl.jgit;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+
+import io.vavr.control.Option;
+import lombok.CustomLog;
+import org.checkerframework.checker.interning.qual.UsesObjectEquals;
+import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.util.RawParseUtils;
+
+import com.virtuslab.gitcore.api.IGitCoreCheckoutEntry;
+import com.virtuslab.gitcore.api.IGitCoreCommitHash;
+import com.virtuslab.gitcore.api.IGitCoreReflogEntry;
+
+/**
+ * A single line of a reflog file, see {@link GitCoreReflogFile}.
+ * Only the line boundaries and the start of the comment are determined upfront;
+ * commit hashes, timestamp and comment are parsed from the underlying buffer on first access,
+ * and comment prefixes can be matched without decoding the comment at all.
+ * <p>
+ * The line format is
+ * {@code <old-id> SP <new-id> SP <name> SP <email> SP <timestamp> SP <timezone> TAB <comment> LF}.
+ */
+@CustomLog
+@UsesObjectEquals
+final class GitCoreReflogFileEntry implements IGitCoreReflogEntry {
+
+  private static final int OLD_ID_OFFSET = 0;
+  private static final int NEW_ID_OFFSET = Constants.OBJECT_ID_STRING_LENGTH + 1;
+  private static final int WHO_OFFSET = 2 * (Constants.OBJECT_ID_STRING_LENGTH + 1);
+  private static final byte SPACE = 0x20;
+  private static final byte TAB = 0x09;
+  private static final byte EMAIL_END = 0x3e; // '>'
+  private static final char MAX_ASCII_CHAR = 0x7f;
+
+  private final ByteBuffer buffer;
+  private final int lineStart;
+  private final int commentStart;
+  // Exclusive, i.e. the position of the terminating line feed
+  private final int lineEnd;
+
+  // Benign races: each of these is immutable and always computed to the same value.
+  private @MonotonicNonNull IGitCoreCommitHash newCommitHash;
+  private @MonotonicNonNull String comment;
+
+  private GitCoreReflogFileEntry(ByteBuffer buffer, int lineStart, int commentStart, int lineEnd) {
+    this.buffer = buffer;
+    this.lineStart = lineStart;
+    this.commentStart = commentStart;
+    this.lineEnd = lineEnd;
+  }
+
+  /**
+   * @return the entry, or null if the line is malformed
+   */
+  static @Nullable GitCoreReflogFileEntry of(ByteBuffer buffer, int lineStart, int lineEnd) {
+    if (lineEnd - lineStart < WHO_OFFSET
+        || buffer.get(lineStart + NEW_ID_OFFSET - 1) != SPACE
+        || buffer.get(lineStart + WHO_OFFSET - 1) != SPACE) {
+      LOG.warn("Skipping malformed reflog line: '${decode(buffer, lineStart, lineEnd)}'");
+      return null;
+    }
+    int commentStart = lineEnd;
+    for (int i = lineStart + WHO_OFFSET; i < lineEnd; i++) {
+      if (buffer.get(i) == TAB) {
+        commentStart = i + 1;
+        break;
+      }
+    }
+    return new GitCoreReflogFileEntry(buffer, lineStart, commentStart, lineEnd);
+  }
+
+  private static String decode(ByteBuffer buffer, int start, int end) {
+    byte[] bytes = new byte[end - start];
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[i] = buffer.get(start + i);
+    }
+    return RawParseUtils.decode(bytes);
+  }
+
+  private ObjectId parseObjectId(int offset) {
+    byte[] bytes = new byte[Constants.OBJECT_ID_STRING_LENGTH];
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[i] = buffer.get(lineStart + offset + i);
+    }
+    return ObjectId.fromString(bytes, 0);
+  }
+
+  @Override
+  public String getComment() {
+    if (comment == null) {
+      comment = decode(buffer, commentStart, lineEnd);
+    }
+    return comment;
+  }
+
+  private static boolean isAscii(String text) {
+    for (int i = 0; i < text.length(); i++) {
+      if (text.charAt(i) > MAX_ASCII_CHAR) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean isCommentRegionEqualTo(String text) {
+    for (int i = 0; i < text.length(); i++) {
+      if (buffer.get(commentStart + i) != (byte) text.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // In UTF-8, an ASCII character is always encoded as the very same single byte,
+  // and such byte never occurs as a part of a multi-byte sequence.
+  @Override
+  public boolean isCommentStartingWith(String prefix) {
+    if (!isAscii(prefix)) {
+      return getComment().startsWith(prefix);
+    }
+    return lineEnd - commentStart >= prefix.length() && isCommentRegionEqualTo(prefix);
+  }
+
+  @Override
+  public boolean isCommentEqualTo(String text) {
+    if (!isAscii(text)) {
+      return getComment().equals(text);
+    }
+    return lineEnd - commentStart == text.length() && isCommentRegionEqualTo(text);
+  }
+
+  @Override
+  public Instant getTimestamp() {
+    int position = lineStart + WHO_OFFSET;
+    while (position < commentStart && buffer.get(position) != EMAIL_END) {
+      position++;
+    }
+    // Skip '>' and the subsequent space
+    position += 2;
+    long epochSeconds = 0;
+    while (position < commentStart) {
+      int digit = buffer.get(position) - '0';
+      if (digit < 0 || digit > 9) {
+        break;
+      }
+      epochSeconds = epochSeconds * 10 + digit;
+      position++;
+    }
+    return Instant.ofEpochSecond(epochSeconds);
+  }
+
+  @Override
+  public Option<IGitCoreCommitHash> getOldCommitHash() {
+    return GitCoreCommitHash.toGitCoreCommitHashOption(parseObjectId(OLD_ID_OFFSET));
+  }
+
+  @Override
+  public IGitCoreCommitHash getNewCommitHash() {
+    if (newCommitHash == null) {
+      newCommitHash = GitCoreCommitHash.toGitCoreCommitHash(parseObjectId(NEW_ID_OFFSET));
+    }
+    return newCommitHash;
+  }
+
+  @Override
+  public Option<IGitCoreCheckoutEntry> parseCheckout() {
+    return isCommentStartingWith(GitCoreCheckoutEntry.CHECKOUT_MOVING_FROM)
+        ? GitCoreCheckoutEntry.parse(getComment())
+        : Option.none();
+  }
+
+  @Override
+  public String toString() {
+    return "GitCoreReflogFileEntry(comment=${getComment()}, timestamp=${getTimestamp()}, " +
+        "oldCommitHash=${getOldCommitHash()}, newCommitHash=${getNewCommitHash()})";
+  }
+}
@@ -1,9 +1,7 @@
 package com.virtuslab.gitcore.impl.jgit;
 
-import io.vavr.collection.List;
 import lombok.Getter;
 
-import com.virtuslab.gitcore.api.IGitCoreReflogEntry;
 import com.virtuslab.gitcore.api.IGitCoreRemoteBranchSnapshot;
 
 public class GitCoreRemoteBranchSnapshot extends BaseGitCoreBranchSnapshot implements IGitCoreRemoteBranchSnapshot {
@@ -14,7 +12,7 @@ public class GitCoreRemoteBranchSnapshot extends BaseGitCoreBranchSnapshot imple
   public GitCoreRemoteBranchSnapshot(
       String shortName,
       GitCoreCommit pointedCommit,
-      List<IGitCoreReflogEntry> reflog,
+      GitCoreReflog reflog,
       String remoteName) {
     super(shortName, pointedCommit, reflog);
     this.remoteName = remoteName;
@@ -11,12 +11,15 @@ import static org.eclipse.jgit.lib.ConfigConstants.CONFIG_KEY_MERGE;
 import static org.eclipse.jgit.lib.ConfigConstants.CONFIG_KEY_REMOTE;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.stream.Collectors;
 
 import io.vavr.CheckedFunction1;
-import io.vavr.Tuple;
-import io.vavr.Tuple2;
 import io.vavr.collection.Iterator;
 import io.vavr.collection.List;
 import io.vavr.collection.Stream;
@@ -28,6 +31,8 @@ import lombok.SneakyThrows;
 import lombok.ToString;
 import lombok.experimental.ExtensionMethod;
 import lombok.val;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.common.aliasing.qual.NonLeaked;
 import org.checkerframework.common.aliasing.qual.Unique;
 import org.eclipse.jgit.lib.Constants;
 import org.eclipse.jgit.lib.ObjectId;
@@ -45,12 +50,15 @@ import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
 import com.virtuslab.gitcore.api.GitCoreCannotAccessGitDirectoryException;
 import com.virtuslab.gitcore.api.GitCoreException;
 import com.virtuslab.gitcore.api.GitCoreNoSuchRevisionException;
+import com.virtuslab.gitcore.api.GitCoreRefStateFingerprint;
 import com.virtuslab.gitcore.api.GitCoreRelativeCommitCount;
 import com.virtuslab.gitcore.api.GitCoreRepositoryState;
+import com.virtuslab.gitcore.api.IGitCoreBatchSession;
+import com.virtuslab.gitcore.api.IGitCoreCancellationToken;
 import com.virtuslab.gitcore.api.IGitCoreCommit;
+import com.virtuslab.gitcore.api.IGitCoreCommitHash;
 import com.virtuslab.gitcore.api.IGitCoreHeadSnapshot;
 import com.virtuslab.gitcore.api.IGitCoreLocalBranchSnapshot;
-import com.virtuslab.gitcore.api.IGitCoreReflogEntry;
 import com.virtuslab.gitcore.api.IGitCoreRepository;
 
 @ExtensionMethod(GitCoreCommitHash.class)
@@ -77,6 +85,17 @@ public final class GitCoreRepository implements IGitCoreRepository {
   // used for HEAD and checking repository state (rebasing/merging etc.):
   private final Repository jgitRepoForWorktreeGitDir;
 
+  @Getter
+  private final GitCoreMergeBaseCache mergeBaseCache;
+
+  private final GitCoreAncestryIndex ancestryIndex;
+
+  private final GitCoreReflogCache reflogCache = new GitCoreReflogCache();
+
+  private final GitCoreCommitNodeCache commitNodeCache = new GitCoreCommitNodeCache();
+
+  private final ThreadLocal<@Nullable GitCoreBatchSession> batchSessionForCurrentThread = new ThreadLocal<>();
+
   private static final String ORIGIN = "origin";
 
   public GitCoreRepository(Path rootDirectoryPath, Path mainGitDirectoryPath, Path worktreeGitDirectoryPath)
@@ -99,6 +118,10 @@ public final class GitCoreRepository implements IGitCoreRepository {
         e -> new GitCoreCannotAccessGitDirectoryException("Cannot create a repository object for " +
             "rootDirectoryPath=${rootDirectoryPath}, worktreeGitDirectoryPath=${worktreeGitDirectoryPath}", e));
 
+    this.mergeBaseCache = new GitCoreMergeBaseCache(mainGitDirectoryPath.resolve("machete-cache").resolve("merge-bases"));
+    this.ancestryIndex = new GitCoreAncestryIndex(
+        mainGitDirectoryPath.resolve("objects").resolve("info").resolve("commit-graph"), commitNodeCache);
+
     LOG.debug(() -> "Created ${this})");
   }
 
@@ -117,37 +140,84 @@ public final class GitCoreRepository implements IGitCoreRepository {
     return Option.narrow(convertRevisionToGitCoreCommit(revision));
   }
 
+  @Override
+  public IGitCoreBatchSession openBatchSession() {
+    return openBatchSession(IGitCoreCancellationToken.NONE);
+  }
+
+  @Override
+  public IGitCoreBatchSession openBatchSession(IGitCoreCancellationToken cancellationToken) {
+    val existingBatchSession = getOpenBatchSession();
+    if (existingBatchSession != null) {
+      existingBatchSession.reopen();
+      return existingBatchSession;
+    }
+    val batchSession = new GitCoreBatchSession(jgitRepoForMainGitDir.newObjectReader(),
+        /* doOnClose */ batchSessionForCurrentThread::remove, cancellationToken);
+    batchSessionForCurrentThread.set(batchSession);
+    return batchSession;
+  }
+
+  private @Nullable GitCoreBatchSession getOpenBatchSession() {
+    val batchSession = batchSessionForCurrentThread.get();
+    return batchSession != null && batchSession.isOpen() ? batchSession : null;
+  }
+
+  private IGitCoreCancellationToken getCancellationToken() {
+    val batchSession = getOpenBatchSession();
+    return batchSession != null ? batchSession.getCancellationToken() : IGitCoreCancellationToken.NONE;
+  }
+
+  /**
+   * To be called from within the lambdas (of lazy streams and iterators) that can't throw checked exceptions.
+   */
+  @SneakyThrows
+  private static void checkCancelledWithinWalk(IGitCoreCancellationToken cancellationToken) {
+    cancellationToken.checkCancelled();
+  }
+
   @SuppressWarnings("IllegalCatch")
   private <T> T withRevWalk(CheckedFunction1<RevWalk, T> fun) throws GitCoreException {
-    try (RevWalk walk = new RevWalk(jgitRepoForMainGitDir)) {
-      return fun.apply(walk);
+    getCancellationToken().checkCancelled();
+    try {
+      return withRevWalkUnchecked(fun);
     } catch (Throwable e) {
-      throw new GitCoreException(e);
+      // Let's not wrap the exceptions (like cancellation) that are already thrown by the walk itself.
+      throw GitCoreException.getOrWrap(e);
     }
   }
 
   @SneakyThrows
   private <T> T withRevWalkUnchecked(CheckedFunction1<RevWalk, T> fun) {
+    val batchSession = getOpenBatchSession();
+    if (batchSession != null) {
+      return batchSession.withRevWalk(fun);
+    }
     try (RevWalk walk = new RevWalk(jgitRepoForMainGitDir)) {
       return fun.apply(walk);
     }
   }
 
+  private GitCoreCommit toGitCoreCommit(@NonLeaked RevCommit revCommit) {
+    val batchSession = getOpenBatchSession();
+    return batchSession != null ? batchSession.toGitCoreCommit(revCommit) : new GitCoreCommit(revCommit);
+  }
+
   private boolean isBranchPresent(String branchFullName) {
     return Try.of(() -> jgitRepoForMainGitDir.resolve(branchFullName)).getOrNull() != null;
   }
 
   private GitCoreCommit convertExistingRevisionToGitCoreCommit(String revision) throws GitCoreException {
-    return withRevWalk(walk -> new GitCoreCommit(walk.parseCommit(convertExistingRevisionToObjectId(revision))));
+    return withRevWalk(walk -> toGitCoreCommit(walk.parseCommit(convertExistingRevisionToObjectId(revision))));
   }
 
   private GitCoreCommit convertObjectIdToGitCoreCommit(ObjectId objectId) throws GitCoreException {
-    return withRevWalk(walk -> new GitCoreCommit(walk.parseCommit(objectId)));
+    return withRevWalk(walk -> toGitCoreCommit(walk.parseCommit(objectId)));
   }
 
   private Option<GitCoreCommit> convertRevisionToGitCoreCommit(String revision) throws GitCoreException {
     return convertRevisionToObjectId(revision)
-        .map(objectId -> withRevWalkUnchecked(walk -> new GitCoreCommit(walk.parseCommit(objectId))));
+        .map(objectId -> withRevWalkUnchecked(walk -> toGitCoreCommit(walk.parseCommit(objectId))));
   }
 
   private ObjectId convertExistingRevisionToObjectId(String revision) throws GitCoreException {
@@ -203,21 +273,29 @@ public final class GitCoreRepository implements IGitCoreRepository {
     } else {
       targetBranch = null;
     }
-    return new GitCoreHeadSnapshot(targetBranch, reflog);
+    return new GitCoreHeadSnapshot(targetBranch, reflog.getEntriesFromMostRecent());
   }
 
-  private List<IGitCoreReflogEntry> deriveReflogByRefFullName(String refFullName, Repository repository)
+  private GitCoreReflog deriveReflogByRefFullName(String refFullName, Repository repository)
       throws GitCoreException {
     try {
       ReflogReader reflogReader = repository.getReflogReader(refFullName);
       if (reflogReader == null) {
         throw new GitCoreNoSuchRevisionException("Ref '${refFullName}' does not exist in this repository");
       }
-      return reflogReader
+      // Read the reflog file lazily from the end, and only what's been appended to it since the last time;
+      // fall back to JGit for the reflogs not stored as files under logs/ (e.g. in reftable).
+      val reflogFilePath = repository.getDirectory().toPath().resolve(Constants.LOGS).resolve(refFullName);
+      val cachedReflog = reflogCache.deriveReflog(reflogFilePath).getOrNull();
+      if (cachedReflog != null) {
+        return cachedReflog;
+      }
+      val entries = reflogReader
           .getReverseEntries()
           .stream()
-          .map(GitCoreReflogEntry::new)
-          .collect(List.collector());
+          .map(GitCoreReflogEntry::of)
+          .collect(Stream.collector());
+      return new GitCoreReflog(Stream.narrow(entries), Option.narrow(entries.lastOption()), /* modificationTime */ null);
     } catch (IOException e) {
       throw new GitCoreException(e);
     }
@@ -366,13 +444,13 @@ public final class GitCoreRepository implements IGitCoreRepository {
     return Option.none();
   }
 
-  private Option<GitCoreCommitHash> deriveMergeBase(IGitCoreCommit c1, IGitCoreCommit c2) throws GitCoreException {
+  private Option<ObjectId> deriveMergeBase(ObjectId c1, ObjectId c2) throws GitCoreException {
     LOG.debug(() -> "Entering: this = ${this}");
 
     return withRevWalk(walk -> {
       walk.setRevFilter(RevFilter.MERGE_BASE);
-      walk.markStart(walk.parseCommit(convertGitCoreCommitToObjectId(c1)));
-      walk.markStart(walk.parseCommit(convertGitCoreCommitToObjectId(c2)));
+      walk.markStart(walk.parseCommit(c1));
+      walk.markStart(walk.parseCommit(c2));
 
       // Note that we're asking for only one merge-base here
       // even if there is more than one (in the rare case of criss-cross histories).
@@ -385,34 +463,29 @@ public final class GitCoreRepository implements IGitCoreRepository {
       // i.e. the number of commits ahead of/behind remote, but in case of criss-cross histories
       // it's basically impossible to get these numbers correctly in a unambiguous manner.
       @Unique RevCommit mergeBase = walk.next();
-      LOG.debug(() -> "Detected merge base for ${c1.getHash().getHashString()} " +
-          "and ${c2.getHash().getHashString()} is " + (mergeBase != null ? mergeBase.getId().getName() : "<none>"));
+      LOG.debug(() -> "Detected merge base for ${c1.getName()} " +
+          "and ${c2.getName()} is " + (mergeBase != null ? mergeBase.getId().getName() : "<none>"));
       if (mergeBase != null) {
-        return Option.some(mergeBase.getId().toGitCoreCommitHash());
+        return Option.some(mergeBase.getId().copy());
       } else {
         return Option.none();
       }
     });
   }
 
-  // Note that this cache can be static since merge-base for the given two commits
-  // will never change thanks to git commit graph immutability.
-  private static final java.util.Map<Tuple2<IGitCoreCommit, IGitCoreCommit>, Option<GitCoreCommitHash>> mergeBaseCache = new java.util.HashMap<>();
-
   private Option<GitCoreCommitHash> deriveMergeBaseIfNeeded(IGitCoreCommit a, IGitCoreCommit b) throws GitCoreException {
     LOG.debug(() -> "Entering: commit1 = ${a.getHash().getHashString()}, commit2 = ${b.getHash().getHashString()}");
-    val abKey = Tuple.of(a, b);
-    val baKey = Tuple.of(b, a);
-    if (mergeBaseCache.containsKey(abKey)) {
+    val aObjectId = ObjectId.fromString(a.getHash().getHashString());
+    val bObjectId = ObjectId.fromString(b.getHash().getHashString());
+
+    val cachedMergeBase = mergeBaseCache.get(aObjectId, bObjectId);
+    if (cachedMergeBase != null) {
       LOG.debug(() -> "Merge base for ${a.getHash().getHashString()} and ${b.getHash().getHashString()} found in cache");
-      return mergeBaseCache.get(abKey);
-    } else if (mergeBaseCache.containsKey(baKey)) {
-      LOG.debug(() -> "Merge base for ${b.getHash().getHashString()} and ${a.getHash().getHashString()} found in cache");
-      return mergeBaseCache.get(baKey);
+      return cachedMergeBase.map(GitCoreCommitHash::toGitCoreCommitHash);
     } else {
-      val result = deriveMergeBase(a, b);
-      mergeBaseCache.put(abKey, result);
-      return result;
+      val result = deriveMergeBase(aObjectId, bObjectId);
+      mergeBaseCache.put(aObjectId, bObjectId, result);
+      return result.map(GitCoreCommitHash::toGitCoreCommitHash);
     }
   }
 
@@ -425,6 +498,16 @@ public final class GitCoreRepository implements IGitCoreRepository {
       LOG.debug("presumedAncestor is equal to presumedDescendant");
       return true;
     }
+
+    val cancellationToken = getCancellationToken();
+    val isAncestorAccordingToGenerations = withRevWalk(walk -> ancestryIndex.isAncestorOrEqual(walk, cancellationToken,
+        ObjectId.fromString(presumedAncestor.getHash().getHashString()),
+        ObjectId.fromString(presumedDescendant.getHash().getHashString())));
+    if (isAncestorAccordingToGenerations.isDefined()) {
+      return isAncestorAccordingToGenerations.get();
+    }
+
+    LOG.debug("Generation numbers not available => falling back to merge base");
     val mergeBaseHash = deriveMergeBaseIfNeeded(presumedAncestor, presumedDescendant);
     if (mergeBaseHash.isEmpty()) {
       LOG.debug("Merge base of presumedAncestor and presumedDescendant not found " +
@@ -442,21 +525,53 @@ public final class GitCoreRepository implements IGitCoreRepository {
       throws GitCoreException {
     LOG.debug(() -> "Entering: fromInclusive = '${fromInclusive}', untilExclusive = '${untilExclusive}'");
 
-    return withRevWalk(walk -> {
-      walk.sort(RevSort.TOPO);
-      walk.sort(RevSort.BOUNDARY);
-
-      walk.markStart(walk.parseCommit(convertGitCoreCommitToObjectId(fromInclusive)));
-      walk.markUninteresting(walk.parseCommit(convertGitCoreCommitToObjectId(untilExclusive)));
-
-      LOG.debug("Starting revwalk");
-      return Iterator.ofAll(walk.iterator())
-          .takeWhile(revCommit -> !revCommit.getId().getName().equals(untilExclusive.getHash().getHashString()))
-          .toJavaStream()
-          .peek(revCommit -> LOG.debug(() -> "* " + revCommit.getId().getName()))
-          .map(GitCoreCommit::new)
-          .collect(List.collector());
-    });
+    return withRevWalk(walk -> walkCommitRange(walk, fromInclusive, untilExclusive)
+        .map(this::toGitCoreCommit)
+        .collect(List.collector()));
+  }
+
+  @Override
+  public List<IGitCoreCommitHash> deriveCommitHashRange(IGitCoreCommit fromInclusive, IGitCoreCommit untilExclusive)
+      throws GitCoreException {
+    LOG.debug(() -> "Entering: fromInclusive = '${fromInclusive}', untilExclusive = '${untilExclusive}'");
+
+    return withRevWalk(walk -> walkCommitRange(walk, fromInclusive, untilExclusive)
+        .map(revCommit -> (IGitCoreCommitHash) revCommit.getId().toGitCoreCommitHash())
+        .collect(List.collector()));
+  }
+
+  private java.util.stream.Stream<RevCommit> walkCommitRange(RevWalk walk, IGitCoreCommit fromInclusive,
+      IGitCoreCommit untilExclusive) throws GitCoreException, IOException {
+    val cancellationToken = getCancellationToken();
+    walk.sort(RevSort.TOPO);
+    // Note that a plain `sort(BOUNDARY)` would replace rather than complement the topological sorting.
+    walk.sort(RevSort.BOUNDARY, /* use */ true);
+
+    walk.markStart(walk.parseCommit(convertGitCoreCommitToObjectId(fromInclusive)));
+    walk.markUninteresting(walk.parseCommit(convertGitCoreCommitToObjectId(untilExclusive)));
+
+    LOG.debug("Starting revwalk");
+    return Iterator.ofAll(walk.iterator())
+        .peek(revCommit -> checkCancelledWithinWalk(cancellationToken))
+        .takeWhile(revCommit -> !revCommit.getId().getName().equals(untilExclusive.getHash().getHashString()))
+        .toJavaStream()
+        .peek(revCommit -> LOG.debug(() -> "* " + revCommit.getId().getName()));
+  }
+
+  @Override
+  public List<IGitCoreCommit> deriveCommits(List<IGitCoreCommitHash> commitHashes) throws GitCoreException {
+    LOG.debug(() -> "Entering: commitHashes = ${commitHashes.size()} hash(es)");
+
+    val cancellationToken = getCancellationToken();
+    return withRevWalk(walk -> commitHashes.map(commitHash -> {
+      checkCancelledWithinWalk(cancellationToken);
+      return (IGitCoreCommit) toGitCoreCommit(parseCommitUnchecked(walk, commitHash));
+    }));
+  }
+
+  @SneakyThrows
+  private static RevCommit parseCommitUnchecked(RevWalk walk, IGitCoreCommitHash commitHash) {
+    return walk.parseCommit(ObjectId.fromString(commitHash.getHashString()));
   }
 
   @Override
@@ -479,15 +594,112 @@ public final class GitCoreRepository implements IGitCoreRepository {
     // @formatter:on
   }
 
+  @Override
+  public GitCoreRefStateFingerprint deriveRefStateFingerprint() throws GitCoreException {
+    val fingerprint = new StringBuilder();
+    try {
+      // Loose refs and packed-refs alike; JGit only re-reads the ones whose files have changed since it last looked
+      for (Ref ref : jgitRepoForMainGitDir.getRefDatabase().getRefs()) {
+        appendRefState(fingerprint, ref.getName(), ref);
+      }
+      // The refs above only include the HEAD of the main worktree
+      appendRefState(fingerprint, "worktree " + Constants.HEAD, jgitRepoForWorktreeGitDir.exactRef(Constants.HEAD));
+
+      // Reflogs are (almost always) only appended to, so their sizes are enough to tell if they've changed
+      appendFileStates(fingerprint, mainGitDirectoryPath.resolve(Constants.LOGS).resolve("refs"));
+      appendFileState(fingerprint, worktreeGitDirectoryPath.resolve(Constants.LOGS).resolve(Constants.HEAD));
+
+      fingerprint.append(jgitRepoForMainGitDir.getConfig().toText());
+      fingerprint.append(jgitRepoForWorktreeGitDir.getRepositoryState()).append(' ')
+          .append(deriveRebasedBranch().getOrElse("<none>")).append('\n');
+      appendFileState(fingerprint, mainGitDirectoryPath.resolve("machete"));
+      // The outputs of the hook are part of the snapshot, and the hook can change without any of the refs changing
+      appendFileState(fingerprint, deriveHooksDirectoryPath().resolve("machete-status-branch"));
+    } catch (IOException | java.io.UncheckedIOException e) {
+      throw new GitCoreException("Cannot derive the fingerprint of the ref state", e);
+    }
+
+    val digest = Constants.newMessageDigest().digest(fingerprint.toString().getBytes(StandardCharsets.UTF_8));
+    return GitCoreRefStateFingerprint.of(ObjectId.fromRaw(digest).getName());
+  }
+
+  /**
+   * The same way as the hook executors in the backend resolve it.
+   */
+  private Path deriveHooksDirectoryPath() {
+    return deriveConfigValue("core", "hooksPath").map(Paths::get).getOrElse(mainGitDirectoryPath.resolve("hooks"));
+  }
+
+  private static void appendRefState(StringBuilder fingerprint, String name, @Nullable Ref ref) {
+    fingerprint.append(name).append(' ');
+    if (ref == null) {
+      fingerprint.append("<none>");
+    } else if (ref.isSymbolic()) {
+      fingerprint.append("-> ").append(ref.getTarget().getName());
+    } else {
+      fingerprint.append(ObjectId.toString(ref.getObjectId()));
+    }
+    fingerprint.append('\n');
+  }
+
+  private static void appendFileStates(StringBuilder fingerprint, Path directoryPath) throws IOException {
+    if (!Files.isDirectory(directoryPath)) {
+      return;
+    }
+    java.util.List<Path> filePaths;
+    try (java.util.stream.Stream<Path> paths = Files.walk(directoryPath)) {
+      filePaths = paths.filter(path -> Files.isRegularFile(path)).sorted().collect(Collectors.toList());
+    }
+    for (val filePath : filePaths) {
+      appendFileState(fingerprint, filePath);
+    }
+  }
+
+  private static void appendFileState(StringBuilder fingerprint, Path filePath) throws IOException {
+    fingerprint.append(filePath).append(' ');
+    try {
+      val attributes = Files.readAttributes(filePath, BasicFileAttributes.class);
+      fingerprint.append(attributes.size()).append(' ').append(attributes.lastModifiedTime());
+    } catch (NoSuchFileException e) {
+      fingerprint.append("<none>");
+    }
+    fingerprint.append('\n');
+  }
+
   @Override
   public Stream<IGitCoreCommit> ancestorsOf(IGitCoreCommit commitInclusive) throws GitCoreException {
-    RevWalk walk = new RevWalk(jgitRepoForMainGitDir);
-    walk.sort(RevSort.TOPO);
+    ObjectId startCommitId = convertGitCoreCommitToObjectId(commitInclusive);
+    val cancellationToken = getCancellationToken();
+    // Topological order needs the entire history anyway, so let's walk it within a single use of the rev walk.
+    val nodes = withRevWalk(walk -> GitCoreAncestorIterators.inTopologicalOrder(
+        commitNodeCache.get(walk, startCommitId),
+        commitId -> {
+          cancellationToken.checkCancelled();
+          return commitNodeCache.get(walk, commitId);
+        }));
+    return toGitCoreCommits(nodes, cancellationToken);
+  }
 
-    ObjectId objectId = convertGitCoreCommitToObjectId(commitInclusive);
-    Try.run(() -> walk.markStart(walk.parseCommit(objectId)))
-        .getOrElseThrow(e -> new GitCoreException(e));
+  @Override
+  public Stream<IGitCoreCommit> ancestorsInCommitDateOrderOf(IGitCoreCommit commitInclusive) throws GitCoreException {
+    ObjectId startCommitId = convertGitCoreCommitToObjectId(commitInclusive);
+    val startNode = withRevWalk(walk -> commitNodeCache.get(walk, startCommitId));
+    // Captured upfront, as the stream might be traversed after the batch session (if any) is closed.
+    val cancellationToken = getCancellationToken();
+    // The returned stream is lazy, so each further commit is resolved with the rev walk of the thread that traverses it
+    // (i.e. the shared walk of its own batch session, if any), never with a walk or object reader of another thread.
+    val nodes = GitCoreAncestorIterators.inCommitTimeOrder(startNode, commitId -> {
+      cancellationToken.checkCancelled();
+      return withRevWalkUnchecked(walk -> commitNodeCache.get(walk, commitId));
+    });
+    return toGitCoreCommits(nodes, cancellationToken);
+  }
 
-    return Stream.ofAll(walk).map(GitCoreCommit::new);
+  private Stream<IGitCoreCommit> toGitCoreCommits(Iterator<GitCoreCommitNodeCache.CommitNode> nodes,
+      IGitCoreCancellationToken cancellationToken) {
+    return Stream.ofAll(nodes).map(node -> {
+      checkCancelledWithinWalk(cancellationToken);
+      return withRevWalkUnchecked(walk -> (IGitCoreCommit) toGitCoreCommit(walk.parseCommit(node.getId())));
+    });
   }
 }
@@ -0,0 +1,79 @@
+package com.virtuslab.gitcore.impl.jgit;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import io.vavr.collection.List;
+import lombok.Getter;
+import lombok.SneakyThrows;
+import lombok.val;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A repository set up with the actual git executable, for the tests of the code that reads the files written by git itself
+ * (rather than by JGit), like the commit-graph file.
+ */
+final class CommandLineGitRepository {
+
+  @Getter
+  private final Path rootDirectoryPath;
+
+  private final String emptyTreeHash;
+
+  private int commitCount = 0;
+
+  private CommandLineGitRepository(Path rootDirectoryPath) {
+    this.rootDirectoryPath = rootDirectoryPath;
+    run(/* date */ null, "init", "--quiet");
+    this.emptyTreeHash = run(/* date */ null, "mktree");
+  }
+
+  static CommandLineGitRepository init(Path rootDirectoryPath) {
+    return new CommandLineGitRepository(rootDirectoryPath);
+  }
+
+  Path getCommitGraphFilePath() {
+    return rootDirectoryPath.resolve(".git").resolve("objects").resolve("info").resolve("commit-graph");
+  }
+
+  Path getCommitGraphChainDirectoryPath() {
+    return rootDirectoryPath.resolve(".git").resolve("objects").resolve("info").resolve("commit-graphs");
+  }
+
+  /**
+   * @return the stdout of the command, trimmed
+   */
+  String git(String... args) {
+    return run(/* date */ null, args);
+  }
+
+  /**
+   * @return the hash of a new (empty) commit with the given parents; each commit is one second younger than the previous one
+   */
+  String commit(String... parentHashes) {
+    commitCount++;
+    val args = List.of("commit-tree", emptyTreeHash, "-m", "Commit ${commitCount}")
+        .appendAll(List.of(parentHashes).flatMap(parentHash -> List.of("-p", parentHash)));
+    return run("${1600000000L + commitCount} +0000", args.toJavaArray(String[]::new));
+  }
+
+  @SneakyThrows
+  private String run(@Nullable String date, String... args) {
+    val command = List.of("git", "-c", "user.name=John Doe", "-c", "user.email=john@doe.com").appendAll(List.of(args));
+    val processBuilder = new ProcessBuilder(command.toJavaList())
+        .directory(rootDirectoryPath.toFile())
+        .redirectErrorStream(true);
+    if (date != null) {
+      processBuilder.environment().put("GIT_AUTHOR_DATE", date);
+      processBuilder.environment().put("GIT_COMMITTER_DATE", date);
+    }
+    val process = processBuilder.start();
+    process.getOutputStream().close();
+    val output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8).trim();
+    if (process.waitFor() != 0) {
+      val commandLine = command.mkString(" ");
+      throw new IllegalStateException("`${commandLine}` failed: ${output}");
+    }
+    return output;
+  }
+}
@@ -0,0 +1,180 @@
+package com.virtuslab.gitcore.impl.jgit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Date;
+import java.util.Random;
+import java.util.TimeZone;
+
+import io.vavr.collection.List;
+import lombok.SneakyThrows;
+import lombok.val;
+import org.eclipse.jgit.lib.CommitBuilder;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.lib.TreeFormatter;
+import org.eclipse.jgit.revwalk.RevSort;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class GitCoreAncestorIteratorsTestSuite {
+
+  @Rule
+  public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private Repository repository;
+
+  @Before
+  @SneakyThrows
+  public void setUp() {
+    repository = FileRepositoryBuilder.create(temporaryFolder.getRoot().toPath().resolve("repo.git").toFile());
+    repository.create(/* bare */ true);
+  }
+
+  @After
+  public void tearDown() {
+    repository.close();
+  }
+
+  /**
+   * Creates a random history with merges, in which many commits share their commit times,
+   * so that the order between the equally recent commits matters as well.
+   *
+   * @return the ids of the commits, in the order of creation
+   */
+  @SneakyThrows
+  private java.util.List<ObjectId> createHistory(long seed, int commitCount) {
+    val random = new Random(seed);
+    val commitIds = new java.util.ArrayList<ObjectId>();
+    try (val inserter = repository.newObjectInserter()) {
+      ObjectId treeId = inserter.insert(new TreeFormatter());
+      for (int i = 0; i < commitCount; i++) {
+        val commitBuilder = new CommitBuilder();
+        commitBuilder.setTreeId(treeId);
+        if (i > 0) {
+          ObjectId firstParentId = commitIds.get(i - 1 - random.nextInt(Math.min(i, 5)));
+          ObjectId secondParentId = commitIds.get(random.nextInt(i));
+          if (random.nextInt(4) == 0 && !secondParentId.equals(firstParentId)) {
+            commitBuilder.setParentIds(firstParentId, secondParentId);
+          } else {
+            commitBuilder.setParentId(firstParentId);
+          }
+        }
+        // Commit times don't always grow along the history, just like with rebased or cherry-picked commits.
+        long commitTimeMillis = (1600000000L + i / 3 + random.nextInt(3)) * 1000L;
+        val person = new PersonIdent("John Doe", "john@doe.com", new Date(commitTimeMillis), TimeZone.getTimeZone("UTC"));
+        commitBuilder.setAuthor(person);
+        commitBuilder.setCommitter(person);
+        commitBuilder.setMessage("Commit ${i}");
+        commitIds.add(inserter.insert(commitBuilder));
+      }
+      inserter.flush();
+    }
+    return commitIds;
+  }
+
+  @SneakyThrows
+  private List<ObjectId> walkWithJGit(ObjectId startCommitId, RevSort sort) {
+    try (val walk = new RevWalk(repository)) {
+      walk.sort(sort);
+      walk.markStart(walk.parseCommit(startCommitId));
+      return List.ofAll(walk).map(commit -> commit.copy());
+    }
+  }
+
+  @SneakyThrows
+  private List<ObjectId> walkWithTopologicalIterator(ObjectId startCommitId) {
+    val cache = new GitCoreCommitNodeCache();
+    try (val walk = new RevWalk(repository)) {
+      return GitCoreAncestorIterators
+          .inTopologicalOrder(cache.get(walk, startCommitId), commitId -> cache.get(walk, commitId))
+          .map(node -> node.getId())
+          .toList();
+    }
+  }
+
+  @SneakyThrows
+  private List<ObjectId> walkWithCommitTimeIterator(ObjectId startCommitId) {
+    val cache = new GitCoreCommitNodeCache();
+    try (val walk = new RevWalk(repository)) {
+      return GitCoreAncestorIterators
+          .inCommitTimeOrder(cache.get(walk, startCommitId), commitId -> cache.get(walk, commitId))
+          .map(node -> node.getId())
+          .toList();
+    }
+  }
+
+  @Test
+  public void inCommitTimeOrder_givenRandomHistories_yieldsSameOrderAsJGit() {
+    for (long seed = 0; seed < 20; seed++) {
+      // given
+      val commitIds = createHistory(seed, /* commitCount */ 300);
+      val startCommitId = commitIds.get(commitIds.size() - 1);
+
+      // when
+      val commits = walkWithCommitTimeIterator(startCommitId);
+
+      // then
+      assertEquals("seed ${seed}", walkWithJGit(startCommitId, RevSort.COMMIT_TIME_DESC), commits);
+    }
+  }
+
+  @Test
+  public void inTopologicalOrder_givenRandomHistories_yieldsSameOrderAsJGit() {
+    for (long seed = 0; seed < 20; seed++) {
+      // given
+      val commitIds = createHistory(seed, /* commitCount */ 300);
+      val startCommitId = commitIds.get(commitIds.size() - 1);
+
+      // when
+      val commits = walkWithTopologicalIterator(startCommitId);
+
+      // then
+      assertEquals("seed ${seed}", walkWithJGit(startCommitId, RevSort.TOPO), commits);
+    }
+  }
+
+  @Test
+  public void inTopologicalOrder_givenCommitInTheMiddleOfHistory_yieldsOnlyItsAncestors() {
+    // given
+    val commitIds = createHistory(/* seed */ 42, /* commitCount */ 100);
+    val startCommitId = commitIds.get(50);
+
+    // when
+    val commits = walkWithTopologicalIterator(startCommitId);
+
+    // then
+    assertEquals(walkWithJGit(startCommitId, RevSort.TOPO), commits);
+    assertEquals(startCommitId, commits.head());
+  }
+
+  @Test
+  public void inCommitTimeOrder_givenAbandonedIteration_resolvesOnlyTheCommitsReached() {
+    // given
+    val commitIds = createHistory(/* seed */ 42, /* commitCount */ 100);
+    val startCommitId = commitIds.get(commitIds.size() - 1);
+    val resolvedCommitIds = new java.util.HashSet<ObjectId>();
+    val cache = new GitCoreCommitNodeCache();
+
+    // when
+    List<ObjectId> commits;
+    try (val walk = new RevWalk(repository)) {
+      commits = GitCoreAncestorIterators.inCommitTimeOrder(cache.get(walk, startCommitId), commitId -> {
+        resolvedCommitIds.add(commitId);
+        return cache.get(walk, commitId);
+      }).take(3).map(node -> node.getId()).toList();
+    }
+
+    // then
+    assertEquals(walkWithJGit(startCommitId, RevSort.COMMIT_TIME_DESC).take(3), commits);
+    // Just the parents of the commits returned so far.
+    assertTrue(resolvedCommitIds.size() <= 3 * 2);
+  }
+}
@@ -0,0 +1,120 @@
+package com.virtuslab.gitcore.impl.jgit;
+
+import static org.junit.Assert.assertEquals;
+
+import io.vavr.collection.HashSet;
+import io.vavr.collection.List;
+import io.vavr.control.Option;
+import lombok.SneakyThrows;
+import lombok.val;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.virtuslab.gitcore.api.IGitCoreCancellationToken;
+
+public class GitCoreAncestryIndexTestSuite {
+
+  @Rule
+  public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private CommandLineGitRepository repository;
+
+  private Repository jgitRepository;
+
+  private GitCoreAncestryIndex ancestryIndex;
+
+  @Before
+  @SneakyThrows
+  public void setUp() {
+    repository = CommandLineGitRepository.init(temporaryFolder.getRoot().toPath());
+    jgitRepository = new FileRepositoryBuilder().setWorkTree(temporaryFolder.getRoot()).build();
+    ancestryIndex = new GitCoreAncestryIndex(repository.getCommitGraphFilePath(), new GitCoreCommitNodeCache());
+  }
+
+  @After
+  public void tearDown() {
+    jgitRepository.close();
+  }
+
+  /**
+   * @return the hashes of the commits of two diverged lines of history, merged at some point, and then diverged again
+   */
+  private List<String> createHistory(String... parentHashes) {
+    List<String> commitHashes = List.empty();
+    String first = parentHashes.length > 0 ? repository.commit(parentHashes) : repository.commit();
+    String a = first;
+    String b = first;
+    commitHashes = commitHashes.append(first);
+    for (int i = 0; i < 5; i++) {
+      a = repository.commit(a);
+      b = repository.commit(b);
+      commitHashes = commitHashes.append(a).append(b);
+    }
+    val merge = repository.commit(a, b);
+    commitHashes = commitHashes.append(merge);
+    a = repository.commit(merge);
+    b = repository.commit(merge);
+    return commitHashes.append(a).append(b);
+  }
+
+  @SneakyThrows
+  private Option<Boolean> isAncestorOrEqual(String presumedAncestor, String presumedDescendant) {
+    try (val walk = new RevWalk(jgitRepository)) {
+      return ancestryIndex.isAncestorOrEqual(walk, IGitCoreCancellationToken.NONE,
+          ObjectId.fromString(presumedAncestor), ObjectId.fromString(presumedDescendant));
+    }
+  }
+
+  private void assertAgreesWithGitForAllPairs(List<String> commitHashes) {
+    for (val presumedDescendant : commitHashes) {
+      val ancestors = HashSet.of(repository.git("rev-list", presumedDescendant).split("\n"));
+      for (val presumedAncestor : commitHashes) {
+        assertEquals("is ${presumedAncestor} an ancestor of ${presumedDescendant}",
+            Option.some(ancestors.contains(presumedAncestor)), isAncestorOrEqual(presumedAncestor, presumedDescendant));
+      }
+    }
+  }
+
+  @Test
+  public void isAncestorOrEqual_givenNoCommitGraphFile_answersWithInMemoryGenerations() {
+    // given
+    val commitHashes = createHistory();
+
+    // then
+    assertAgreesWithGitForAllPairs(commitHashes);
+  }
+
+  @Test
+  public void isAncestorOrEqual_givenCommitGraphFileCoveringOlderCommits_answersForAllCommits() {
+    // given
+    val olderCommitHashes = createHistory();
+    repository.git("update-ref", "refs/heads/master", olderCommitHashes.last());
+    repository.git("commit-graph", "write", "--reachable");
+    val newerCommitHashes = createHistory(olderCommitHashes.last(), olderCommitHashes.get(olderCommitHashes.size() - 2));
+
+    // then
+    assertAgreesWithGitForAllPairs(olderCommitHashes.appendAll(newerCommitHashes));
+  }
+
+  @Test
+  public void isAncestorOrEqual_givenCommitGraphFileWrittenInTheMeantime_answersForAllCommits() {
+    // given
+    val olderCommitHashes = createHistory();
+    assertAgreesWithGitForAllPairs(olderCommitHashes);
+
+    // when
+    val newerCommitHashes = createHistory(olderCommitHashes.last());
+    repository.git("update-ref", "refs/heads/master", newerCommitHashes.last());
+    repository.git("commit-graph", "write", "--reachable");
+
+    // then
+    assertAgreesWithGitForAllPairs(olderCommitHashes.appendAll(newerCommitHashes));
+  }
+}
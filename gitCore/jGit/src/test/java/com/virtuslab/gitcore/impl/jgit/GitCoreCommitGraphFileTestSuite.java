@@ -0,0 +1,142 @@
+package com.virtuslab.gitcore.impl.jgit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Files;
+
+import io.vavr.collection.List;
+import lombok.SneakyThrows;
+import lombok.val;
+import org.eclipse.jgit.lib.ObjectId;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class GitCoreCommitGraphFileTestSuite {
+
+  @Rule
+  public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private CommandLineGitRepository repository;
+
+  @Before
+  public void setUp() {
+    repository = CommandLineGitRepository.init(temporaryFolder.getRoot().toPath());
+  }
+
+  /**
+   * <pre>
+   *   root - a1 - a2 ------------ merge - octopus
+   *      \                      /          / /
+   *       b1 ---------------- b2          / /
+   *         \                            / /
+   *          c1 ------------------------- /
+   *           \                          /
+   *            d1 -----------------------
+   * </pre>
+   *
+   * @return the hashes of the commits, with the tip (the octopus merge) last
+   */
+  private List<String> createHistoryWithMerges() {
+    val root = repository.commit();
+    val a1 = repository.commit(root);
+    val a2 = repository.commit(a1);
+    val b1 = repository.commit(root);
+    val b2 = repository.commit(b1);
+    val c1 = repository.commit(b1);
+    val d1 = repository.commit(c1);
+    val merge = repository.commit(a2, b2);
+    val octopus = repository.commit(merge, c1, d1);
+    repository.git("update-ref", "refs/heads/master", octopus);
+    return List.of(root, a1, a2, b1, b2, c1, d1, merge, octopus);
+  }
+
+  private List<String> deriveParentHashes(String commitHash) {
+    return List.of(repository.git("rev-list", "--parents", "-n", "1", commitHash).split(" ")).tail();
+  }
+
+  /** Generation number as defined by git, a.k.a. topological level: 1 for root commits, 1 + the maximum over the parents. */
+  private int deriveExpectedGeneration(String commitHash) {
+    return deriveParentHashes(commitHash).map(this::deriveExpectedGeneration).max().getOrElse(0) + 1;
+  }
+
+  private static List<String> deriveParentHashes(GitCoreCommitGraphFile commitGraphFile, int position) {
+    return commitGraphFile.getParentPositions(position).map(parentPosition -> commitGraphFile.getObjectId(parentPosition))
+        .map(ObjectId::getName);
+  }
+
+  @Test
+  public void load_givenFileWrittenByGit_providesParentsAndGenerationsOfAllCommits() {
+    // given
+    val commitHashes = createHistoryWithMerges();
+    repository.git("commit-graph", "write", "--reachable");
+
+    // when
+    val commitGraphFile = GitCoreCommitGraphFile.load(repository.getCommitGraphFilePath());
+
+    // then
+    assertTrue(commitGraphFile.isDefined());
+    for (val commitHash : commitHashes) {
+      int position = commitGraphFile.get().findPosition(ObjectId.fromString(commitHash));
+      assertTrue("position of ${commitHash}", position >= 0);
+      assertEquals(commitHash, commitGraphFile.get().getObjectId(position).getName());
+      assertEquals("parents of ${commitHash}", deriveParentHashes(commitHash),
+          deriveParentHashes(commitGraphFile.get(), position));
+      assertEquals("generation of ${commitHash}", deriveExpectedGeneration(commitHash),
+          commitGraphFile.get().getGeneration(position));
+    }
+  }
+
+  @Test
+  public void findPosition_givenCommitCreatedAfterFileWritten_returnsMinusOne() {
+    // given
+    val tip = createHistoryWithMerges().last();
+    repository.git("commit-graph", "write", "--reachable");
+    val newCommit = repository.commit(tip);
+
+    // when
+    val commitGraphFile = GitCoreCommitGraphFile.load(repository.getCommitGraphFilePath()).get();
+
+    // then
+    assertEquals(-1, commitGraphFile.findPosition(ObjectId.fromString(newCommit)));
+    // Also the commits preceding and following the new one in the lookup order must not be confused with it.
+    assertTrue(commitGraphFile.findPosition(ObjectId.fromString(tip)) >= 0);
+  }
+
+  @Test
+  @SneakyThrows
+  public void load_givenSplitCommitGraphLayerWithBaseGraph_returnsNone() {
+    // given
+    val tip = createHistoryWithMerges().last();
+    repository.git("commit-graph", "write", "--reachable", "--split=no-merge");
+    repository.git("update-ref", "refs/heads/master", repository.commit(tip));
+    repository.git("commit-graph", "write", "--reachable", "--split=no-merge");
+
+    // then
+    // git doesn't keep the single-file commit-graph once it maintains a chain of split commit-graph layers...
+    assertFalse(Files.exists(repository.getCommitGraphFilePath()));
+    val chain = List.ofAll(Files.readAllLines(repository.getCommitGraphChainDirectoryPath().resolve("commit-graph-chain")));
+    assertEquals(2, chain.size());
+    val baseLayerPath = repository.getCommitGraphChainDirectoryPath().resolve("graph-${chain.get(0)}.graph");
+    val topLayerPath = repository.getCommitGraphChainDirectoryPath().resolve("graph-${chain.get(1)}.graph");
+
+    // ... and any layer that depends on a base layer is explicitly rejected (as its parent positions span the layers).
+    assertTrue(GitCoreCommitGraphFile.load(baseLayerPath).isDefined());
+    assertTrue(GitCoreCommitGraphFile.load(topLayerPath).isEmpty());
+  }
+
+  @Test
+  @SneakyThrows
+  public void load_givenNotACommitGraphFile_returnsNone() {
+    // given
+    val path = temporaryFolder.getRoot().toPath().resolve("not-a-commit-graph");
+    Files.write(path, new byte[]{'C', 'G', 'P', 'X', 1, 1, 0, 0});
+
+    // then
+    assertTrue(GitCoreCommitGraphFile.load(path).isEmpty());
+    assertTrue(GitCoreCommitGraphFile.load(temporaryFolder.getRoot().toPath().resolve("missing")).isEmpty());
+  }
+}
@@ -0,0 +1,192 @@
+package com.virtuslab.gitcore.impl.jgit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import io.vavr.control.Option;
+import lombok.SneakyThrows;
+import lombok.val;
+import org.eclipse.jgit.lib.ObjectId;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class GitCoreMergeBaseCacheTestSuite {
+
+  // Large enough for the background save never to kick in on its own during a test.
+  private static final long NEVER = Long.MAX_VALUE / 2;
+
+  @Rule
+  public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private Path filePath;
+
+  @Before
+  public void setUp() {
+    filePath = temporaryFolder.getRoot().toPath().resolve("machete-cache").resolve("merge-bases");
+  }
+
+  private static ObjectId objectId(int number) {
+    return ObjectId.fromRaw(new int[]{0, 0, 0, 0, number});
+  }
+
+  @Test
+  public void get_givenMergeBasePut_returnsItRegardlessOfCommitOrder() {
+    // given
+    val cache = new GitCoreMergeBaseCache(filePath, NEVER);
+
+    // when
+    cache.put(objectId(1), objectId(2), Option.some(objectId(3)));
+    cache.put(objectId(4), objectId(5), Option.none());
+
+    // then
+    assertEquals(Option.some(objectId(3)), cache.get(objectId(2), objectId(1)));
+    assertEquals(Option.none(), cache.get(objectId(5), objectId(4)));
+    assertNull(cache.get(objectId(1), objectId(5)));
+    assertEquals(2, cache.getHitCount());
+    assertEquals(1, cache.getMissCount());
+  }
+
+  @Test
+  public void constructor_givenSavedCache_loadsIt() {
+    // given
+    val savedCache = new GitCoreMergeBaseCache(filePath, NEVER);
+    savedCache.put(objectId(1), objectId(2), Option.some(objectId(3)));
+    savedCache.put(objectId(4), objectId(5), Option.none());
+    savedCache.save();
+
+    // when
+    val loadedCache = new GitCoreMergeBaseCache(filePath, NEVER);
+
+    // then
+    assertEquals(2, loadedCache.getSize());
+    assertEquals(Option.some(objectId(3)), loadedCache.get(objectId(1), objectId(2)));
+    assertEquals(Option.none(), loadedCache.get(objectId(4), objectId(5)));
+  }
+
+  @Test
+  @SneakyThrows
+  public void save_givenNoNewEntriesSinceLastSave_doesNotWriteFile() {
+    // given
+    val cache = new GitCoreMergeBaseCache(filePath, NEVER);
+    cache.put(objectId(1), objectId(2), Option.some(objectId(3)));
+    cache.save();
+    Files.delete(filePath);
+
+    // when
+    cache.save();
+    // an already known entry doesn't make the cache dirty
+    cache.put(objectId(2), objectId(1), Option.some(objectId(3)));
+    cache.save();
+
+    // then
+    assertFalse(Files.isRegularFile(filePath));
+  }
+
+  @Test
+  @SneakyThrows
+  public void put_givenNewEntry_savesCacheInBackground() {
+    // given
+    val cache = new GitCoreMergeBaseCache(filePath, /* saveDelayMillis */ 0);
+
+    // when
+    cache.put(objectId(1), objectId(2), Option.some(objectId(3)));
+
+    // then
+    for (int attempt = 0; attempt < 100 && !Files.isRegularFile(filePath); attempt++) {
+      Thread.sleep(50);
+    }
+    assertTrue(Files.isRegularFile(filePath));
+    assertEquals(Option.some(objectId(3)), new GitCoreMergeBaseCache(filePath, NEVER).get(objectId(1), objectId(2)));
+  }
+
+  @Test
+  public void put_givenFullCache_evictsOldestEntry() {
+    // given
+    val cache = new GitCoreMergeBaseCache(filePath, NEVER);
+    int maxEntryCount = 4096;
+    for (int i = 1; i <= maxEntryCount; i++) {
+      cache.put(objectId(0), objectId(i), Option.some(objectId(0)));
+    }
+
+    // when
+    cache.put(objectId(0), objectId(maxEntryCount + 1), Option.some(objectId(0)));
+
+    // then
+    assertEquals(maxEntryCount, cache.getSize());
+    assertEquals(1, cache.getEvictionCount());
+    assertNull(cache.get(objectId(0), objectId(1)));
+    assertEquals(Option.some(objectId(0)), cache.get(objectId(0), objectId(2)));
+  }
+
+  @Test
+  public void put_givenFullCache_evictsLeastRecentlyUsedEntry() {
+    // given
+    val cache = new GitCoreMergeBaseCache(filePath, NEVER);
+    int maxEntryCount = 4096;
+    for (int i = 1; i <= maxEntryCount; i++) {
+      cache.put(objectId(0), objectId(i), Option.some(objectId(0)));
+    }
+    // The oldest entry is looked up again, hence the second oldest becomes the least recently used one.
+    assertEquals(Option.some(objectId(0)), cache.get(objectId(0), objectId(1)));
+
+    // when
+    cache.put(objectId(0), objectId(maxEntryCount + 1), Option.some(objectId(0)));
+
+    // then
+    assertEquals(maxEntryCount, cache.getSize());
+    assertEquals(1, cache.getEvictionCount());
+    assertNull(cache.get(objectId(0), objectId(2)));
+    assertEquals(Option.some(objectId(0)), cache.get(objectId(0), objectId(1)));
+  }
+
+  @Test
+  public void constructor_givenSavedCache_restoresOrderOfUse() {
+    // given
+    val savedCache = new GitCoreMergeBaseCache(filePath, NEVER);
+    int maxEntryCount = 4096;
+    for (int i = 1; i <= maxEntryCount; i++) {
+      savedCache.put(objectId(0), objectId(i), Option.some(objectId(0)));
+    }
+    savedCache.get(objectId(0), objectId(1));
+    savedCache.save();
+    val loadedCache = new GitCoreMergeBaseCache(filePath, NEVER);
+
+    // when
+    loadedCache.put(objectId(0), objectId(maxEntryCount + 1), Option.some(objectId(0)));
+
+    // then
+    assertEquals(Option.some(objectId(0)), loadedCache.get(objectId(0), objectId(1)));
+    assertNull(loadedCache.get(objectId(0), objectId(2)));
+  }
+
+  @Test
+  @SneakyThrows
+  public void constructor_givenCorruptedFile_startsEmptyAndOverwritesFileOnSave() {
+    // given
+    Files.createDirectories(filePath.getParent());
+    val corruptedContent = new byte[]{1, 2, 3};
+    Files.write(filePath, corruptedContent);
+
+    // when
+    val cache = new GitCoreMergeBaseCache(filePath, NEVER);
+
+    // then
+    assertEquals(0, cache.getSize());
+    assertArrayEquals(corruptedContent, Files.readAllBytes(filePath));
+
+    // when
+    cache.put(objectId(1), objectId(2), Option.some(objectId(3)));
+    cache.save();
+
+    // then
+    assertEquals(Option.some(objectId(3)), new GitCoreMergeBaseCache(filePath, NEVER).get(objectId(1), objectId(2)));
+  }
+}
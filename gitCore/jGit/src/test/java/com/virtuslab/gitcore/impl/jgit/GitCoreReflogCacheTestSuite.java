@@ -0,0 +1,230 @@
+package com.virtuslab.gitcore.impl.jgit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+
+import io.vavr.collection.List;
+import lombok.SneakyThrows;
+import lombok.val;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.virtuslab.gitcore.api.IGitCoreReflogEntry;
+
+public class GitCoreReflogCacheTestSuite {
+
+  // Large enough for the file to be memory-mapped rather than read (see GitCoreReflogFile).
+  private static final int MAPPED_LINE_COUNT = 1000;
+
+  @Rule
+  public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private final GitCoreReflogCache cache = new GitCoreReflogCache();
+
+  private Path reflogFilePath;
+
+  private long modificationCount = 0;
+
+  @Before
+  public void setUp() {
+    reflogFilePath = temporaryFolder.getRoot().toPath().resolve("logs").resolve("refs").resolve("heads").resolve("develop");
+  }
+
+  private static String line(int number) {
+    String oldHash = number == 1 ? "0".repeat(40) : String.format("%040x", number - 1);
+    String newHash = String.format("%040x", number);
+    long timestamp = 1600000000L + number;
+    return "${oldHash} ${newHash} John Doe <john@doe.com> ${timestamp} +0000\tcommit: change ${number}\n";
+  }
+
+  private static String lines(int fromNumber, int toNumber) {
+    val result = new StringBuilder();
+    for (int number = fromNumber; number <= toNumber; number++) {
+      result.append(line(number));
+    }
+    return result.toString();
+  }
+
+  @SneakyThrows
+  private void write(String contents, StandardOpenOption... options) {
+    Files.createDirectories(reflogFilePath.getParent());
+    Files.write(reflogFilePath, contents.getBytes(StandardCharsets.UTF_8), options);
+    // So that the modification is detected regardless of the resolution of the file system timestamps.
+    modificationCount++;
+    Files.setLastModifiedTime(reflogFilePath, FileTime.fromMillis(1600000000000L + modificationCount * 1000));
+  }
+
+  private void append(String contents) {
+    write(contents, StandardOpenOption.APPEND);
+  }
+
+  @SneakyThrows
+  private List<IGitCoreReflogEntry> deriveEntries() {
+    return cache.deriveReflog(reflogFilePath).get().getEntriesFromMostRecent().toList();
+  }
+
+  private static List<String> deriveComments(List<IGitCoreReflogEntry> entries) {
+    return entries.map(entry -> entry.getComment());
+  }
+
+  private static List<String> comments(int fromNumber, int toNumber) {
+    return List.rangeClosed(fromNumber, toNumber).reverse().map(number -> "commit: change ${number}");
+  }
+
+  @Test
+  @SneakyThrows
+  public void deriveReflog_givenFileUnchanged_returnsSameEntries() {
+    // given
+    write(lines(1, 3));
+    val entries = deriveEntries();
+
+    // when
+    val reflog = cache.deriveReflog(reflogFilePath).get();
+
+    // then
+    assertEquals(comments(1, 3), deriveComments(entries));
+    assertSame(entries.head(), reflog.getEntriesFromMostRecent().head());
+    assertEquals("commit: change 1", reflog.getOldestEntry().get().getComment());
+    assertEquals(String.format("%040x", 3), entries.head().getNewCommitHash().getHashString());
+  }
+
+  @Test
+  public void deriveReflog_givenFileAppendedTo_prependsNewEntriesToPreviouslyReadOnes() {
+    // given
+    write(lines(1, 3));
+    val entries = deriveEntries();
+
+    // when
+    append(lines(4, 5));
+    val newEntries = deriveEntries();
+
+    // then
+    assertEquals(comments(1, 5), deriveComments(newEntries));
+    assertSame(entries.head(), newEntries.get(2));
+    assertSame(entries.last(), newEntries.last());
+  }
+
+  @Test
+  public void deriveReflog_givenFileAppendedToRepeatedly_prependsNewEntriesEachTime() {
+    // given
+    write(lines(1, 1));
+    deriveEntries();
+
+    // when
+    for (int number = 2; number <= 10; number++) {
+      append(line(number));
+      deriveEntries();
+    }
+
+    // then
+    assertEquals(comments(1, 10), deriveComments(deriveEntries()));
+  }
+
+  @Test
+  public void deriveReflog_givenLargeFileAppendedTo_prependsNewEntriesToPreviouslyReadOnes() {
+    // given
+    write(lines(1, MAPPED_LINE_COUNT));
+    val entries = deriveEntries();
+
+    // when
+    append(lines(MAPPED_LINE_COUNT + 1, 2 * MAPPED_LINE_COUNT));
+    val newEntries = deriveEntries();
+
+    // then
+    assertEquals(comments(1, 2 * MAPPED_LINE_COUNT), deriveComments(newEntries));
+    assertSame(entries.head(), newEntries.get(MAPPED_LINE_COUNT));
+  }
+
+  @Test
+  public void deriveReflog_givenFileRewritten_readsItAnew() {
+    // given
+    write(lines(1, 5));
+    val entries = deriveEntries();
+
+    // when
+    // As if after `git reflog expire`: the oldest entries are gone, even though the file is not any shorter.
+    write(lines(3, 7));
+    val newEntries = deriveEntries();
+
+    // then
+    assertEquals(comments(3, 7), deriveComments(newEntries));
+    assertNotSame(entries.head(), newEntries.get(2));
+    assertEquals("commit: change 3", cache.deriveReflog(reflogFilePath).get().getOldestEntry().get().getComment());
+  }
+
+  @Test
+  public void deriveReflog_givenFileTruncated_readsItAnew() {
+    // given
+    write(lines(1, 5));
+    deriveEntries();
+
+    // when
+    write(lines(1, 2));
+
+    // then
+    assertEquals(comments(1, 2), deriveComments(deriveEntries()));
+  }
+
+  @Test
+  public void deriveReflog_givenFileNotEndingWithLineFeed_ignoresIncompleteLineUntilCompleted() {
+    // given
+    String incompleteLine = line(3).substring(0, 50);
+    write(lines(1, 2) + incompleteLine);
+
+    // when
+    val entries = deriveEntries();
+
+    // then
+    assertEquals(comments(1, 2), deriveComments(entries));
+
+    // when
+    append(line(3).substring(50) + line(4));
+    val newEntries = deriveEntries();
+
+    // then
+    assertEquals(comments(1, 4), deriveComments(newEntries));
+    assertSame(entries.head(), newEntries.get(2));
+  }
+
+  @Test
+  public void deriveReflog_givenFileWithoutCompleteLines_returnsNoEntries() {
+    // given
+    write(line(1).substring(0, 50));
+
+    // when
+    val entries = deriveEntries();
+
+    // then
+    assertTrue(entries.isEmpty());
+
+    // when
+    append(line(1).substring(50));
+
+    // then
+    assertEquals(comments(1, 1), deriveComments(deriveEntries()));
+  }
+
+  @Test
+  @SneakyThrows
+  public void deriveReflog_givenFileDeleted_returnsNone() {
+    // given
+    write(lines(1, 2));
+    deriveEntries();
+
+    // when
+    Files.delete(reflogFilePath);
+
+    // then
+    assertTrue(cache.deriveReflog(reflogFilePath).isEmpty());
+  }
+}
@@ -11,4 +11,5 @@ dependencies {
   testFixturesCompileOnly(rootProject.libs.lombok)
   testFixturesImplementation(rootProject.libs.junit)
   testFixturesImplementation(rootProject.libs.commonsIO)
+  testFixturesImplementation(rootProject.libs.jgit)
 }
@@ -0,0 +1,390 @@
+package com.virtuslab.gitmachete.testcommon;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.zip.Deflater;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import org.eclipse.jgit.internal.storage.file.ObjectDirectory;
+import org.eclipse.jgit.internal.storage.file.PackInserter;
+import org.eclipse.jgit.lib.BatchRefUpdate;
+import org.eclipse.jgit.lib.CommitBuilder;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.FileMode;
+import org.eclipse.jgit.lib.NullProgressMonitor;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectInserter;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.lib.StoredConfig;
+import org.eclipse.jgit.lib.TreeFormatter;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+import org.eclipse.jgit.transport.ReceiveCommand;
+
+/**
+ * Generates a repository of the given size (along with the matching machete file) by writing the objects, refs and reflogs
+ * directly through JGit, rather than running git once per commit like the setup scripts do,
+ * so that even repositories with thousands of branches are created within seconds.
+ * <p>
+ * The generated repository depends only on the parameters (including the seed), down to the commit hashes:
+ * <ul>
+ *   <li>the branches form stacks (like the ones of stacked pull requests) of up to {@value #MAX_STACK_SIZE} branches,
+ *       each stack forked off a different commit of {@code master}, and some of the stacks fanning out into subtrees,</li>
+ *   <li>each branch has {@code commitsPerBranch} commits on average, and its tip is then amended a few times,
+ *       so that the reflog of the branch is up to {@code reflogDepth} entries long;
+ *       some of the branches are forked off the pre-amend tip of their parent (and hence are out of sync to the parent),</li>
+ *   <li>some of the branches right under {@code master} are squash-merged into {@code master}
+ *       (that is, {@code master} gets a single commit with the same tree as the tip of the branch),</li>
+ *   <li>with respect to the first remote ({@code origin}), the branches are in sync, ahead, behind, diverged
+ *       (both newer and older than the remote branch) or untracked,</li>
+ *   <li>each further remote only has some of the branches (in sync),
+ *       and the branches that are missing in {@code origin} track the first of these remotes that has them.</li>
+ * </ul>
+ * The working tree is left empty.
+ */
+@RequiredArgsConstructor
+public final class LargeRepositoryGenerator {
+
+  public static final String MAIN_BRANCH_NAME = "master";
+
+  public static final long DEFAULT_SEED = 42L;
+
+  private static final int MAX_STACK_SIZE = 6;
+
+  // All the below are percentages.
+  private static final int SUBTREE_PROBABILITY = 20;
+  private static final int OUT_OF_SYNC_TO_PARENT_PROBABILITY = 20;
+  private static final int SQUASH_MERGE_PROBABILITY = 10;
+  private static final int ANNOTATION_PROBABILITY = 30;
+
+  private static final long INITIAL_COMMIT_TIME_MILLIS = 1_600_000_000_000L;
+  private static final long COMMIT_TIME_STEP_MILLIS = 60_000L;
+
+  private static final byte LINE_FEED = 0x0a;
+
+  private final long seed;
+  private final int branchCount;
+  private final int commitsPerBranch;
+  private final int reflogDepth;
+  private final int remoteCount;
+
+  /**
+   * @return the names of all the generated branches except {@link #MAIN_BRANCH_NAME}, in the order of the machete file
+   */
+  @Getter
+  private final java.util.List<String> branchNames = new ArrayList<>();
+
+  private final java.util.List<GeneratedBranch> branches = new ArrayList<>();
+  private long commitTimeMillis = INITIAL_COMMIT_TIME_MILLIS;
+
+  public LargeRepositoryGenerator(int branchCount, int commitsPerBranch, int reflogDepth, int remoteCount) {
+    this(DEFAULT_SEED, branchCount, commitsPerBranch, reflogDepth, remoteCount);
+  }
+
+  private static final class GeneratedBranch {
+    final String name;
+    final GeneratedBranch parent;
+    final java.util.List<GeneratedBranch> children = new ArrayList<>();
+    final java.util.List<ReflogEntry> reflog = new ArrayList<>();
+
+    ObjectId tip;
+    // The commit that the last commit of the branch (and each of its amended versions) is on top of.
+    ObjectId tipParent;
+    ObjectId tipBeforeAmends;
+    String tipContent = "";
+    String annotation = "";
+
+    GeneratedBranch(String name, GeneratedBranch parent, ObjectId forkPoint) {
+      this.name = name;
+      this.parent = parent;
+      this.tip = forkPoint;
+      this.tipParent = forkPoint;
+      this.tipBeforeAmends = forkPoint;
+    }
+  }
+
+  private static final class ReflogEntry {
+    final ObjectId oldId;
+    final ObjectId newId;
+    final PersonIdent personIdent;
+    final String message;
+
+    ReflogEntry(ObjectId oldId, ObjectId newId, PersonIdent personIdent, String message) {
+      this.oldId = oldId;
+      this.newId = newId;
+      this.personIdent = personIdent;
+      this.message = message;
+    }
+  }
+
+  /**
+   * Creates a non-bare repository with its {@code .git} directory (including the machete file)
+   * directly under {@code rootDirectoryPath}.
+   */
+  @SneakyThrows
+  public void generate(Path rootDirectoryPath) {
+    Random random = new Random(seed);
+    Path gitDirectoryPath = rootDirectoryPath.resolve(".git");
+    try (Repository repository = FileRepositoryBuilder.create(gitDirectoryPath.toFile())) {
+      repository.create(/* bare */ false);
+      repository.updateRef(Constants.HEAD).link(Constants.R_HEADS + MAIN_BRANCH_NAME);
+
+      GeneratedBranch mainBranch = new GeneratedBranch(MAIN_BRANCH_NAME, /* parent */ null, ObjectId.zeroId());
+      BatchRefUpdate refUpdate = repository.getRefDatabase().newBatchUpdate();
+      refUpdate.setAllowNonFastForwards(true);
+      refUpdate.disableRefLog();
+      StoredConfig config = repository.getConfig();
+
+      // Writing hundreds of thousands of loose objects would take much longer than writing a single pack.
+      try (PackInserter inserter = ((ObjectDirectory) repository.getObjectDatabase()).newPackInserter()) {
+        inserter.checkExisting(false);
+        inserter.setCompressionLevel(Deflater.BEST_SPEED);
+
+        generateMainBranch(inserter, mainBranch);
+        generateStacks(inserter, random, mainBranch);
+        generateSquashMerges(inserter, random, mainBranch);
+        generateRemotes(inserter, random, refUpdate, gitDirectoryPath, config, mainBranch);
+        inserter.flush();
+      }
+
+      addRef(refUpdate, gitDirectoryPath, Constants.R_HEADS + MAIN_BRANCH_NAME, mainBranch.tip, mainBranch.reflog);
+      for (GeneratedBranch branch : branches) {
+        addRef(refUpdate, gitDirectoryPath, Constants.R_HEADS + branch.name, branch.tip, branch.reflog);
+      }
+      try (RevWalk revWalk = new RevWalk(repository)) {
+        refUpdate.execute(revWalk, NullProgressMonitor.INSTANCE);
+      }
+      for (ReceiveCommand command : refUpdate.getCommands()) {
+        if (command.getResult() != ReceiveCommand.Result.OK) {
+          throw new IOException("Could not update ${command.getRefName()}: ${command.getResult()}");
+        }
+      }
+      config.save();
+
+      StringBuilder macheteFileContent = new StringBuilder(MAIN_BRANCH_NAME).append(System.lineSeparator());
+      for (GeneratedBranch branch : mainBranch.children) {
+        appendEntries(macheteFileContent, branch, /* level */ 1);
+      }
+      Files.write(gitDirectoryPath.resolve("machete"), macheteFileContent.toString().getBytes(StandardCharsets.UTF_8));
+    }
+  }
+
+  private void generateMainBranch(ObjectInserter inserter, GeneratedBranch mainBranch) throws IOException {
+    // Long enough for the stacks to be forked off many different commits.
+    int commitCount = Math.max(commitsPerBranch, 1) * 2 + branchCount / MAX_STACK_SIZE;
+    for (int i = 0; i < commitCount; i++) {
+      commitOnTip(inserter, mainBranch, "${MAIN_BRANCH_NAME} commit ${i}");
+    }
+  }
+
+  private void generateStacks(ObjectInserter inserter, Random random, GeneratedBranch mainBranch) throws IOException {
+    java.util.List<ObjectId> mainBranchCommits = new ArrayList<>();
+    for (ReflogEntry entry : mainBranch.reflog) {
+      mainBranchCommits.add(entry.newId);
+    }
+
+    for (int stackIndex = 0; branches.size() < branchCount; stackIndex++) {
+      int stackSize = Math.min(branchCount - branches.size(), 1 + random.nextInt(MAX_STACK_SIZE));
+      java.util.List<GeneratedBranch> stack = new ArrayList<>();
+      for (int indexInStack = 0; indexInStack < stackSize; indexInStack++) {
+        GeneratedBranch parent;
+        ObjectId forkPoint;
+        if (indexInStack == 0) {
+          parent = mainBranch;
+          forkPoint = mainBranchCommits.get(random.nextInt(mainBranchCommits.size()));
+        } else {
+          parent = indexInStack > 1 && percentChance(random, SUBTREE_PROBABILITY)
+              ? stack.get(random.nextInt(indexInStack - 1))
+              : stack.get(indexInStack - 1);
+          forkPoint = percentChance(random, OUT_OF_SYNC_TO_PARENT_PROBABILITY) ? parent.tipBeforeAmends : parent.tip;
+        }
+        String branchName = "stack-${stackIndex}-part-${indexInStack}";
+        GeneratedBranch branch = generateBranch(inserter, random, branchName, parent, forkPoint);
+        stack.add(branch);
+        branches.add(branch);
+      }
+    }
+  }
+
+  private GeneratedBranch generateBranch(ObjectInserter inserter, Random random, String branchName,
+      GeneratedBranch parent, ObjectId forkPoint) throws IOException {
+    GeneratedBranch branch = new GeneratedBranch(branchName, parent, forkPoint);
+    parent.children.add(branch);
+    branch.reflog.add(new ReflogEntry(ObjectId.zeroId(), forkPoint, nextPersonIdent(), "branch: Created from HEAD"));
+    if (percentChance(random, ANNOTATION_PROBABILITY)) {
+      branch.annotation = "PR #${random.nextInt(100_000)}";
+    }
+
+    // On average, `commitsPerBranch` commits.
+    int commitCount = commitsPerBranch > 0 ? 1 + random.nextInt(2 * commitsPerBranch) : 0;
+    for (int i = 0; i < commitCount; i++) {
+      commitOnTip(inserter, branch, "${branchName} commit ${i}");
+    }
+    branch.tipBeforeAmends = branch.tip;
+
+    // Between half of `reflogDepth` and `reflogDepth` entries.
+    int branchReflogDepth = reflogDepth / 2 + random.nextInt(reflogDepth / 2 + 1);
+    for (int i = 0; commitCount > 0 && branch.reflog.size() < branchReflogDepth; i++) {
+      String content = "${branchName} commit ${commitCount - 1} (amended ${i + 1} time(s))";
+      ObjectId amendedTip = createCommit(inserter, branch.tipParent, content, content, nextPersonIdent());
+      branch.reflog.add(new ReflogEntry(branch.tip, amendedTip, nextPersonIdent(), "commit (amend): ${content}"));
+      branch.tip = amendedTip;
+      branch.tipContent = content;
+    }
+    return branch;
+  }
+
+  private void generateSquashMerges(ObjectInserter inserter, Random random, GeneratedBranch mainBranch)
+      throws IOException {
+    for (GeneratedBranch branch : mainBranch.children) {
+      if (!branch.tip.equals(branch.tipParent) && percentChance(random, SQUASH_MERGE_PROBABILITY)) {
+        String message = "${branch.name} (squashed)";
+        ObjectId squashCommit = createCommit(inserter, mainBranch.tip, message, branch.tipContent, nextPersonIdent());
+        mainBranch.reflog.add(new ReflogEntry(mainBranch.tip, squashCommit, nextPersonIdent(), "pull: Fast-forward"));
+        mainBranch.tip = squashCommit;
+      }
+    }
+  }
+
+  private void generateRemotes(ObjectInserter inserter, Random random, BatchRefUpdate refUpdate, Path gitDirectoryPath,
+      StoredConfig config, GeneratedBranch mainBranch) throws IOException {
+    java.util.Set<String> trackedBranchNames = new java.util.HashSet<>();
+    for (int remoteIndex = 0; remoteIndex < remoteCount; remoteIndex++) {
+      String remoteName = remoteIndex == 0 ? "origin" : "remote-${remoteIndex}";
+      config.setString("remote", remoteName, "url", "https://example.com/${remoteName}.git");
+      config.setString("remote", remoteName, "fetch", "+refs/heads/*:${Constants.R_REMOTES}${remoteName}/*");
+
+      java.util.List<GeneratedBranch> allBranches = new ArrayList<>();
+      allBranches.add(mainBranch);
+      allBranches.addAll(branches);
+      for (GeneratedBranch branch : allBranches) {
+        ObjectId remoteTip;
+        if (branch.parent == null) {
+          remoteTip = branch.tip;
+        } else if (remoteIndex == 0) {
+          remoteTip = deriveOriginTip(inserter, random, branch);
+        } else {
+          remoteTip = random.nextInt(remoteIndex + 1) == 0 ? branch.tip : null;
+        }
+        if (remoteTip == null) {
+          continue;
+        }
+
+        String refName = Constants.R_REMOTES + remoteName + "/" + branch.name;
+        java.util.List<ReflogEntry> reflog = new ArrayList<>();
+        reflog.add(new ReflogEntry(ObjectId.zeroId(), remoteTip, nextPersonIdent(), "fetch: storing head"));
+        addRef(refUpdate, gitDirectoryPath, refName, remoteTip, reflog);
+        if (trackedBranchNames.add(branch.name)) {
+          config.setString("branch", branch.name, "remote", remoteName);
+          config.setString("branch", branch.name, "merge", Constants.R_HEADS + branch.name);
+        }
+      }
+    }
+  }
+
+  /**
+   * @return the commit that the {@code origin}'s counterpart of the given branch points to,
+   *         or null if the branch isn't supposed to have a counterpart
+   */
+  private ObjectId deriveOriginTip(ObjectInserter inserter, Random random, GeneratedBranch branch) throws IOException {
+    int percentile = random.nextInt(100);
+    boolean hasCommits = !branch.tip.equals(branch.tipParent);
+    if (percentile < 50 || !hasCommits && percentile < 85) {
+      return branch.tip;
+    } else if (percentile < 65) {
+      // Ahead of the remote branch.
+      return branch.tipParent;
+    } else if (percentile < 75) {
+      // Behind the remote branch.
+      String content = "${branch.name} remote commit";
+      return createCommit(inserter, branch.tip, content, content, nextPersonIdent());
+    } else if (percentile < 85) {
+      // Diverged from the remote branch, with the remote commit either older or newer than the local one.
+      String content = "${branch.name} remote version";
+      PersonIdent personIdent = percentile < 80
+          ? new PersonIdent(nextPersonIdent(), INITIAL_COMMIT_TIME_MILLIS, /* timezoneOffsetMinutes */ 0)
+          : nextPersonIdent();
+      return createCommit(inserter, branch.tipParent, content, content, personIdent);
+    } else {
+      return null;
+    }
+  }
+
+  private void appendEntries(StringBuilder macheteFileContent, GeneratedBranch branch, int level) {
+    branchNames.add(branch.name);
+    macheteFileContent.append("  ".repeat(level)).append(branch.name);
+    if (!branch.annotation.isEmpty()) {
+      macheteFileContent.append(' ').append(branch.annotation);
+    }
+    macheteFileContent.append(System.lineSeparator());
+    for (GeneratedBranch child : branch.children) {
+      appendEntries(macheteFileContent, child, level + 1);
+    }
+  }
+
+  private void commitOnTip(ObjectInserter inserter, GeneratedBranch branch, String content) throws IOException {
+    ObjectId parent = branch.tip.equals(ObjectId.zeroId()) ? null : branch.tip;
+    ObjectId commit = createCommit(inserter, parent, content, content, nextPersonIdent());
+    branch.reflog.add(new ReflogEntry(branch.tip, commit, nextPersonIdent(), "commit: ${content}"));
+    branch.tipParent = branch.tip;
+    branch.tip = commit;
+    branch.tipContent = content;
+  }
+
+  private static ObjectId createCommit(ObjectInserter inserter, ObjectId parent, String message, String content,
+      PersonIdent personIdent) throws IOException {
+    ObjectId blobId = inserter.insert(Constants.OBJ_BLOB, content.getBytes(StandardCharsets.UTF_8));
+    TreeFormatter treeFormatter = new TreeFormatter();
+    treeFormatter.append("file.txt", FileMode.REGULAR_FILE, blobId);
+
+    CommitBuilder commitBuilder = new CommitBuilder();
+    commitBuilder.setTreeId(inserter.insert(treeFormatter));
+    if (parent != null) {
+      commitBuilder.setParentId(parent);
+    }
+    commitBuilder.setAuthor(personIdent);
+    commitBuilder.setCommitter(personIdent);
+    commitBuilder.setMessage(message);
+    return inserter.insert(commitBuilder);
+  }
+
+  private PersonIdent nextPersonIdent() {
+    commitTimeMillis += COMMIT_TIME_STEP_MILLIS;
+    return new PersonIdent("Generator", "generator@example.com", commitTimeMillis, /* timezoneOffsetMinutes */ 0);
+  }
+
+  private static boolean percentChance(Random random, int percent) {
+    return random.nextInt(100) < percent;
+  }
+
+  private static void addRef(BatchRefUpdate refUpdate, Path gitDirectoryPath, String refName, ObjectId target,
+      java.util.List<ReflogEntry> reflog) throws IOException {
+    refUpdate.addCommand(new ReceiveCommand(ObjectId.zeroId(), target, refName));
+    writeReflog(gitDirectoryPath, refName, reflog);
+  }
+
+  /**
+   * Writes the reflog file directly, in the same format as git does, as JGit only exposes writing reflog entries
+   * one at a time, each along with a ref update.
+   */
+  private static void writeReflog(Path gitDirectoryPath, String refName, java.util.List<ReflogEntry> reflog)
+      throws IOException {
+    ByteArrayOutputStream reflogContent = new ByteArrayOutputStream();
+    for (ReflogEntry entry : reflog) {
+      String line = "${entry.oldId.name()} ${entry.newId.name()} ${entry.personIdent.toExternalString()}\t${entry.message}";
+      reflogContent.write(line.getBytes(StandardCharsets.UTF_8));
+      reflogContent.write(LINE_FEED);
+    }
+    Path reflogPath = gitDirectoryPath.resolve(Constants.LOGS).resolve(refName);
+    Files.createDirectories(reflogPath.getParent());
+    Files.write(reflogPath, reflogContent.toByteArray());
+  }
+}